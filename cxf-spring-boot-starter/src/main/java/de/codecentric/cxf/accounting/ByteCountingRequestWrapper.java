@@ -0,0 +1,79 @@
+package de.codecentric.cxf.accounting;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.IOException;
+
+/**
+ * Counts the bytes of the request body, that are actually read by the CXFServlet.
+ */
+class ByteCountingRequestWrapper extends HttpServletRequestWrapper {
+
+    private long bytesRead = 0;
+    private ServletInputStream countingInputStream;
+
+    ByteCountingRequestWrapper(HttpServletRequest request) {
+        super(request);
+    }
+
+    long bytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (countingInputStream == null) {
+            countingInputStream = new CountingInputStream(super.getInputStream());
+        }
+        return countingInputStream;
+    }
+
+    private class CountingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+
+        private CountingInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = delegate.read();
+            if (read != -1) {
+                bytesRead++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = delegate.read(buffer, offset, length);
+            if (read > 0) {
+                bytesRead += read;
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
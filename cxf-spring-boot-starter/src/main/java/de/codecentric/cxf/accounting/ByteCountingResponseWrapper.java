@@ -0,0 +1,73 @@
+package de.codecentric.cxf.accounting;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+/**
+ * Counts the bytes of the response body, that are written by the CXFServlet.
+ */
+class ByteCountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private long bytesWritten = 0;
+    private ServletOutputStream countingOutputStream;
+
+    ByteCountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (countingOutputStream == null) {
+            countingOutputStream = new CountingOutputStream(super.getOutputStream());
+        }
+        return countingOutputStream;
+    }
+
+    private class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            delegate.write(buffer, offset, length);
+            bytesWritten += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
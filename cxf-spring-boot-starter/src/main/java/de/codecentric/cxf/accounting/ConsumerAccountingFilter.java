@@ -0,0 +1,50 @@
+package de.codecentric.cxf.accounting;
+
+import de.codecentric.cxf.common.ExchangeCompletion;
+import de.codecentric.cxf.common.FaultType;
+import de.codecentric.cxf.xmlvalidation.FaultTypeExposingInterceptor;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Wraps the CXFServlet to account every SOAP exchange to its consumer in the {@link ConsumerUsageAccounting}. An
+ * exchange, that goes async (a suspended invocation), is accounted once it´s complete - CXF writes the response of the
+ * resumed invocation to the response wrapped here.
+ */
+public class ConsumerAccountingFilter extends GenericFilterBean {
+
+    private final ConsumerUsageAccounting consumerUsageAccounting;
+    private final ConsumerIdentification consumerIdentification;
+    private final String consumerHeader;
+
+    public ConsumerAccountingFilter(ConsumerUsageAccounting consumerUsageAccounting, ConsumerIdentification consumerIdentification, String consumerHeader) {
+        this.consumerUsageAccounting = consumerUsageAccounting;
+        this.consumerIdentification = consumerIdentification;
+        this.consumerHeader = consumerHeader;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        ByteCountingRequestWrapper countingRequest = new ByteCountingRequestWrapper(request);
+        ByteCountingResponseWrapper countingResponse = new ByteCountingResponseWrapper((HttpServletResponse) servletResponse);
+        long startNanos = System.nanoTime();
+        try {
+            filterChain.doFilter(countingRequest, countingResponse);
+        } finally {
+            ExchangeCompletion.afterExchange(request, () -> {
+                FaultType faultType = FaultTypeExposingInterceptor.faultTypeOf(request);
+                consumerUsageAccounting.record(consumerIdentification.identify(request, consumerHeader),
+                        countingRequest.bytesRead(), countingResponse.bytesWritten(), System.nanoTime() - startNanos,
+                        faultType, countingResponse.getStatus() >= HttpServletResponse.SC_BAD_REQUEST);
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package de.codecentric.cxf.accounting;
+
+import javax.servlet.http.HttpServletRequest;
+import java.security.Principal;
+
+/**
+ * The ways a consumer of the SOAP endpoint could be identified, configured via soap.consumer.accounting.identification.
+ */
+public enum ConsumerIdentification {
+
+    /**
+     * The value of the HTTP header configured via soap.consumer.accounting.header (default X-Consumer-Id)
+     */
+    HEADER {
+        @Override
+        String identify(HttpServletRequest request, String headerName) {
+            return request.getHeader(headerName);
+        }
+    },
+    /**
+     * The client IP - if your nodes are behind a proxy, configure server.forward-headers-strategy accordingly
+     */
+    IP {
+        @Override
+        String identify(HttpServletRequest request, String headerName) {
+            return request.getRemoteAddr();
+        }
+    },
+    /**
+     * The name of the authenticated principal
+     */
+    PRINCIPAL {
+        @Override
+        String identify(HttpServletRequest request, String headerName) {
+            Principal principal = request.getUserPrincipal();
+            return principal == null ? null : principal.getName();
+        }
+    };
+
+    abstract String identify(HttpServletRequest request, String headerName);
+}
@@ -0,0 +1,129 @@
+package de.codecentric.cxf.accounting;
+
+import de.codecentric.cxf.common.FaultType;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage of the SOAP endpoint by one consumer. All counters are striped {@link LongAdder}s, so concurrent requests
+ * of the same consumer don´t contend on a single memory location.
+ * <p>
+ * The usage of an unknown consumer may be evicted concurrently to its recording - the recordings in progress are waited
+ * for, later ones are refused, so the evicted usage is complete, when it´s folded into another one.
+ */
+public final class ConsumerUsage {
+
+    static final String UNCLASSIFIED_ERROR = "UNCLASSIFIED";
+    // Coarse enough to only write the last seen time once in a while for a busy consumer
+    private static final long LAST_SEEN_RESOLUTION_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder unclassifiedErrors = new LongAdder();
+    private final Map<FaultType, LongAdder> errors = new EnumMap<>(FaultType.class);
+    private final LongAdder recordings = new LongAdder();
+    private volatile boolean evicted;
+    private volatile long lastSeenNanos = System.nanoTime();
+
+    ConsumerUsage() {
+        for (FaultType faultType : FaultType.values()) {
+            errors.put(faultType, new LongAdder());
+        }
+    }
+
+    /**
+     * @return false, if the usage was evicted - and nothing was recorded
+     */
+    boolean record(long requestBytes, long responseBytes, long latency, FaultType faultType, boolean error) {
+        recordings.increment();
+        try {
+            if (evicted) {
+                return false;
+            }
+            add(requestBytes, responseBytes, latency, faultType, error);
+        } finally {
+            recordings.decrement();
+        }
+        long nowNanos = System.nanoTime();
+        if (nowNanos - lastSeenNanos >= LAST_SEEN_RESOLUTION_NANOS) {
+            lastSeenNanos = nowNanos;
+        }
+        return true;
+    }
+
+    /**
+     * Refuses all further recordings and waits for the ones in progress.
+     */
+    void evict() {
+        evicted = true;
+        while (recordings.sum() != 0) {
+            Thread.yield();
+        }
+    }
+
+    void addAll(ConsumerUsage other) {
+        requests.add(other.requests.sum());
+        bytesIn.add(other.bytesIn.sum());
+        bytesOut.add(other.bytesOut.sum());
+        latencyNanos.add(other.latencyNanos.sum());
+        unclassifiedErrors.add(other.unclassifiedErrors.sum());
+        other.errors.forEach((faultType, count) -> errors.get(faultType).add(count.sum()));
+    }
+
+    long lastSeenNanos() {
+        return lastSeenNanos;
+    }
+
+    private void add(long requestBytes, long responseBytes, long latency, FaultType faultType, boolean error) {
+        requests.increment();
+        bytesIn.add(requestBytes);
+        bytesOut.add(responseBytes);
+        latencyNanos.add(latency);
+        if (faultType != null) {
+            errors.get(faultType).increment();
+        } else if (error) {
+            unclassifiedErrors.increment();
+        }
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public long getLatencySumMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(latencyNanos.sum());
+    }
+
+    double latencySum(TimeUnit timeUnit) {
+        return latencyNanos.sum() / (double) TimeUnit.NANOSECONDS.convert(1, timeUnit);
+    }
+
+    /**
+     * @return the number of errors by {@link FaultType} - errors, that weren´t classified (e.g. HTTP errors outside of
+     * CXF´s SOAP-Processing) are listed as UNCLASSIFIED
+     */
+    public Map<String, Long> getErrors() {
+        Map<String, Long> errorsByFaultType = new LinkedHashMap<>();
+        errors.forEach((faultType, count) -> errorsByFaultType.put(faultType.name(), count.sum()));
+        errorsByFaultType.put(UNCLASSIFIED_ERROR, unclassifiedErrors.sum());
+        return errorsByFaultType;
+    }
+
+    long errors(FaultType faultType) {
+        return faultType == null ? unclassifiedErrors.sum() : errors.get(faultType).sum();
+    }
+}
@@ -0,0 +1,158 @@
+package de.codecentric.cxf.accounting;
+
+import de.codecentric.cxf.common.FaultType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accounts the usage of the SOAP endpoint per consumer: requests, bytes in &amp; out, errors by {@link FaultType} and the
+ * sum of latencies. This is the input for capacity planning and throttling decisions.
+ * <p>
+ * Known consumers (configured via soap.consumer.accounting.known) are always accounted separately. The number of
+ * unknown consumers is bounded - if the bound is reached, the least recently seen unknown consumer is evicted, its
+ * usage is folded into the {@value #OTHER_CONSUMERS} consumer and its Micrometer meters are removed. Recording the usage
+ * of an accounted consumer is lock-free, only registering a new unknown consumer (and the eviction) is serialized.
+ * Requests without any identification are accounted as {@value #UNIDENTIFIED_CONSUMER}.
+ * <p>
+ * As a {@link MeterBinder}, all usage is also exported to Micrometer with a consumer tag.
+ */
+public class ConsumerUsageAccounting implements MeterBinder {
+
+    public static final String OTHER_CONSUMERS = "other";
+    public static final String UNIDENTIFIED_CONSUMER = "unidentified";
+
+    private final ConcurrentMap<String, ConsumerUsage> consumers = new ConcurrentHashMap<>();
+    private final Map<String, ConsumerUsage> unknownConsumers = new HashMap<>();
+    private final Map<String, List<Meter>> metersPerConsumer = new HashMap<>();
+    private final int maxUnknownConsumers;
+    private MeterRegistry meterRegistry;
+
+    public ConsumerUsageAccounting(Collection<String> knownConsumers, int maxUnknownConsumers) {
+        this.maxUnknownConsumers = maxUnknownConsumers;
+        knownConsumers.forEach(consumer -> consumers.put(consumer, new ConsumerUsage()));
+        consumers.put(OTHER_CONSUMERS, new ConsumerUsage());
+        consumers.put(UNIDENTIFIED_CONSUMER, new ConsumerUsage());
+    }
+
+    public void record(String consumer, long bytesIn, long bytesOut, long latencyNanos, FaultType faultType, boolean error) {
+        String accountedConsumer = consumer == null || consumer.isEmpty() ? UNIDENTIFIED_CONSUMER : consumer;
+        // Refused, if the consumer was evicted concurrently - then it´s registered again
+        while (!usageOf(accountedConsumer).record(bytesIn, bytesOut, latencyNanos, faultType, error)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * @return the usage of all currently accounted consumers, sorted by consumer
+     */
+    public Map<String, ConsumerUsage> usage() {
+        return Collections.unmodifiableMap(new TreeMap<>(consumers));
+    }
+
+    /**
+     * @param consumer the consumer
+     * @return the usage of the consumer or null, if it isn´t (or isn´t anymore) accounted separately
+     */
+    public ConsumerUsage usage(String consumer) {
+        return consumers.get(consumer);
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        consumers.forEach(this::registerMeters);
+    }
+
+    private ConsumerUsage usageOf(String consumer) {
+        ConsumerUsage usage = consumers.get(consumer);
+        if (usage != null) {
+            return usage;
+        }
+        return registerUnknownConsumer(consumer);
+    }
+
+    private synchronized ConsumerUsage registerUnknownConsumer(String consumer) {
+        ConsumerUsage usage = consumers.get(consumer);
+        if (usage != null) {
+            return usage;
+        }
+        if (maxUnknownConsumers < 1) {
+            return consumers.get(OTHER_CONSUMERS);
+        }
+        if (unknownConsumers.size() >= maxUnknownConsumers) {
+            evictLeastRecentlySeenUnknownConsumer();
+        }
+        usage = new ConsumerUsage();
+        unknownConsumers.put(consumer, usage);
+        consumers.put(consumer, usage);
+        registerMeters(consumer, usage);
+        return usage;
+    }
+
+    private void evictLeastRecentlySeenUnknownConsumer() {
+        String leastRecentlySeen = null;
+        long leastRecentlySeenNanos = 0;
+        for (Map.Entry<String, ConsumerUsage> consumer : unknownConsumers.entrySet()) {
+            long lastSeenNanos = consumer.getValue().lastSeenNanos();
+            if (leastRecentlySeen == null || lastSeenNanos - leastRecentlySeenNanos < 0) {
+                leastRecentlySeen = consumer.getKey();
+                leastRecentlySeenNanos = lastSeenNanos;
+            }
+        }
+        ConsumerUsage evicted = unknownConsumers.remove(leastRecentlySeen);
+        consumers.remove(leastRecentlySeen);
+        removeMeters(leastRecentlySeen);
+        evicted.evict();
+        consumers.get(OTHER_CONSUMERS).addAll(evicted);
+    }
+
+    private void registerMeters(String consumer, ConsumerUsage usage) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Tags tags = Tags.of("consumer", consumer);
+        List<Meter> meters = new ArrayList<>();
+        meters.add(FunctionCounter.builder("soap.consumer.requests", usage, ConsumerUsage::getRequests)
+                .description("SOAP requests per consumer").tags(tags).register(meterRegistry));
+        meters.add(FunctionCounter.builder("soap.consumer.bytes.in", usage, ConsumerUsage::getBytesIn)
+                .description("Bytes received from the consumer").baseUnit("bytes").tags(tags).register(meterRegistry));
+        meters.add(FunctionCounter.builder("soap.consumer.bytes.out", usage, ConsumerUsage::getBytesOut)
+                .description("Bytes sent to the consumer").baseUnit("bytes").tags(tags).register(meterRegistry));
+        meters.add(FunctionTimer.builder("soap.consumer.latency", usage, ConsumerUsage::getRequests,
+                consumerUsage -> consumerUsage.latencySum(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .description("Latency of the SOAP requests per consumer").tags(tags).register(meterRegistry));
+        for (FaultType faultType : FaultType.values()) {
+            meters.add(errorCounter(tags, faultType.name(), usage, faultType));
+        }
+        meters.add(errorCounter(tags, ConsumerUsage.UNCLASSIFIED_ERROR, usage, null));
+        metersPerConsumer.put(consumer, meters);
+    }
+
+    private Meter errorCounter(Tags tags, String faultTypeTag, ConsumerUsage usage, FaultType faultType) {
+        return FunctionCounter.builder("soap.consumer.errors", usage, consumerUsage -> consumerUsage.errors(faultType))
+                .description("Errors per consumer by FaultType").tags(tags).tag("faultType", faultTypeTag)
+                .register(meterRegistry);
+    }
+
+    private void removeMeters(String consumer) {
+        List<Meter> meters = metersPerConsumer.remove(consumer);
+        if (meters != null) {
+            meters.forEach(meterRegistry::remove);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package de.codecentric.cxf.accounting;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the {@link ConsumerUsageAccounting} as /actuator/soapconsumers and
+ * /actuator/soapconsumers/{consumer}.
+ */
+@Endpoint(id = "soapconsumers")
+public class ConsumerUsageEndpoint {
+
+    private final ConsumerUsageAccounting consumerUsageAccounting;
+
+    public ConsumerUsageEndpoint(ConsumerUsageAccounting consumerUsageAccounting) {
+        this.consumerUsageAccounting = consumerUsageAccounting;
+    }
+
+    @ReadOperation
+    public Map<String, ConsumerUsage> consumers() {
+        return consumerUsageAccounting.usage();
+    }
+
+    @ReadOperation
+    public ConsumerUsage consumer(@Selector String consumer) {
+        return consumerUsageAccounting.usage(consumer);
+    }
+}
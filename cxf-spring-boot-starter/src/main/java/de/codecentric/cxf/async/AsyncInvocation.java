@@ -0,0 +1,113 @@
+package de.codecentric.cxf.async;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A suspended invocation, kept in the Exchange until it´s resumed. Whatever comes first - the completion or the
+ * timeout - decides the outcome, the other one is ignored.
+ */
+final class AsyncInvocation {
+
+    private static final Outcome TIMED_OUT = new Outcome(null, null);
+
+    private final boolean completionStage;
+    private final AtomicReference<Outcome> outcome = new AtomicReference<>();
+    private volatile Future<?> pending;
+    private volatile ScheduledFuture<?> timeout;
+    private volatile Object instance;
+    private final AtomicBoolean instanceReleased = new AtomicBoolean();
+
+    /**
+     * @param completionStage true, if the SEI implementation returned a CompletionStage - false for the JAX-WS async
+     *                        pattern, where CXF´s own AsyncHandler keeps the result
+     */
+    AsyncInvocation(boolean completionStage) {
+        this.completionStage = completionStage;
+    }
+
+    boolean isCompletionStage() {
+        return completionStage;
+    }
+
+    /**
+     * @param pending the Future of the SEI implementation, cancelled if the invocation times out
+     */
+    void pending(Future<?> pending) {
+        this.pending = pending;
+    }
+
+    /**
+     * @param instance the instance of the SEI implementation, that´s busy until the invocation completed
+     */
+    void hold(Object instance) {
+        this.instance = instance;
+    }
+
+    Object heldInstance() {
+        return instance;
+    }
+
+    /**
+     * @return true, if the held instance wasn´t released before - then it has to be released now
+     */
+    boolean releaseInstance() {
+        return instance != null && instanceReleased.compareAndSet(false, true);
+    }
+
+    void timeoutAfter(ScheduledFuture<?> timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return true, if the invocation wasn´t completed or timed out before - then it has to be resumed
+     */
+    boolean complete(Object result, Throwable failure) {
+        if (!outcome.compareAndSet(null, new Outcome(result, failure))) {
+            return false;
+        }
+        ScheduledFuture<?> scheduledTimeout = timeout;
+        if (scheduledTimeout != null) {
+            scheduledTimeout.cancel(false);
+        }
+        return true;
+    }
+
+    /**
+     * @return true, if the invocation wasn´t completed before - then it has to be resumed
+     */
+    boolean timeOut() {
+        if (!outcome.compareAndSet(null, TIMED_OUT)) {
+            return false;
+        }
+        Future<?> pendingFuture = pending;
+        if (pendingFuture != null) {
+            pendingFuture.cancel(true);
+        }
+        return true;
+    }
+
+    boolean isTimedOut() {
+        return outcome.get() == TIMED_OUT;
+    }
+
+    Object result() {
+        return outcome.get().result;
+    }
+
+    Throwable failure() {
+        return outcome.get().failure;
+    }
+
+    private static class Outcome {
+        private final Object result;
+        private final Throwable failure;
+
+        private Outcome(Object result, Throwable failure) {
+            this.result = result;
+            this.failure = failure;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package de.codecentric.cxf.async;
+
+import de.codecentric.cxf.dispatch.MethodHandleInvoker;
+import de.codecentric.cxf.logging.BaseLogger;
+import org.apache.cxf.annotations.UseAsyncMethod;
+import org.apache.cxf.continuations.Continuation;
+import org.apache.cxf.continuations.ContinuationProvider;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.jaxws.ServerAsyncResponse;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.FaultMode;
+import org.apache.cxf.message.MessageContentsList;
+import org.apache.cxf.service.invoker.Factory;
+
+import javax.xml.ws.AsyncHandler;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Invokes the SEI implementation asynchronously, if its method is annotated with CXF´s {@link UseAsyncMethod} and there´s
+ * a method with the same name plus Async, that either
+ * <ul>
+ *     <li>takes the same parameters and returns a {@link CompletionStage} of the result or</li>
+ *     <li>takes an additional {@link AsyncHandler} of the response wrapper (the JAX-WS async pattern, handled by CXF itself).</li>
+ * </ul>
+ * The request is suspended through a CXF Continuation (backed by Servlet 3 async) and the servlet thread is free for
+ * other requests - until the result is there and the request is resumed to write the response. If the result isn´t there
+ * within the timeout, a SOAP fault is sent instead. Without a Continuation (e.g. on CXF´s local transport) the
+ * synchronous method is invoked, as CXF does for the JAX-WS async pattern. The synchronous methods are dispatched through
+ * MethodHandles like by the {@link MethodHandleInvoker}.
+ * <p>
+ * The instance of the SEI implementation (e.g. borrowed from a pool) is held until the asynchronous invocation completed
+ * - not only until the servlet thread is released - and the resumed request doesn´t take another one.
+ */
+public class AsyncInvoker extends MethodHandleInvoker {
+
+    private static final BaseLogger LOG = BaseLogger.getLogger(AsyncInvoker.class);
+
+    static final String ASYNC_METHOD_SUFFIX = "Async";
+
+    private final AsyncTimeouts timeouts;
+    private final Map<Method, Optional<Method>> completionStageMethods = new ConcurrentHashMap<>();
+
+    public AsyncInvoker(Object implementor, AsyncTimeouts timeouts) {
+        super(implementor);
+        this.timeouts = timeouts;
+    }
+
+    public AsyncInvoker(Factory factory, Class<?> implementorClass, AsyncTimeouts timeouts) {
+        super(factory, implementorClass);
+        this.timeouts = timeouts;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Method adjustMethodAndParams(Method method, Exchange exchange, List<Object> params, Class<?> serviceObjectClass) {
+        Method adjustedMethod = super.adjustMethodAndParams(method, exchange, params, serviceObjectClass);
+        if (adjustedMethod == method || exchange.get(AsyncInvocation.class) != null) {
+            return adjustedMethod;
+        }
+        // JAX-WS async pattern: CXF added its AsyncHandler, that resumes the request - we put the timeout in between
+        AsyncHandler<Object> cxfHandler = (AsyncHandler<Object>) params.get(params.size() - 1);
+        AsyncInvocation invocation = new AsyncInvocation(false);
+        exchange.put(AsyncInvocation.class, invocation);
+        params.set(params.size() - 1, (AsyncHandler<Object>) response -> {
+            boolean resume = invocation.complete(response, null);
+            releaseHeldInstance(exchange, invocation);
+            if (resume) {
+                cxfHandler.handleResponse(response);
+            }
+        });
+        invocation.timeoutAfter(timeouts.schedule(() -> {
+            if (invocation.timeOut()) {
+                ServerAsyncResponse<Object> timedOut = new ServerAsyncResponse<>();
+                timedOut.exception(new TimeoutException());
+                cxfHandler.handleResponse(timedOut);
+            }
+        }));
+        return adjustedMethod;
+    }
+
+    @Override
+    protected Object invoke(Exchange exchange, Object serviceObject, Method method, List<Object> params) {
+        AsyncInvocation invocation = exchange.get(AsyncInvocation.class);
+        if (invocation == null) {
+            Method completionStageMethod = completionStageMethodOf(method);
+            Continuation continuation = completionStageMethod != null ? continuationOf(exchange) : null;
+            if (continuation != null) {
+                return invokeSuspended(exchange, serviceObject, completionStageMethod, params, continuation);
+            }
+        } else if (invocation.isTimedOut()) {
+            throw timeoutFault(exchange, method);
+        } else if (invocation.isCompletionStage()) {
+            return resultOf(invocation, exchange, method, params);
+        }
+        if (invocation != null && invocation.heldInstance() == null) {
+            // Busy until the AsyncHandler got the response
+            invocation.hold(serviceObject);
+        }
+        try {
+            Object result = super.invoke(exchange, serviceObject, method, params);
+            if (invocation != null && result instanceof MessageContentsList && ((MessageContentsList) result).get(0) instanceof Future) {
+                invocation.pending((Future<?>) ((MessageContentsList) result).get(0));
+            }
+            return result;
+        } catch (Fault fault) {
+            // Without a Continuation, CXF waits for the AsyncHandler right inside the invocation
+            if (invocation != null && invocation.isTimedOut()) {
+                throw timeoutFault(exchange, method);
+            }
+            if (invocation != null) {
+                // The Async method failed itself - the AsyncHandler won´t get a response anymore
+                releaseHeldInstance(exchange, invocation);
+            }
+            throw fault;
+        }
+    }
+
+    private Object invokeSuspended(Exchange exchange, Object serviceObject, Method completionStageMethod, List<Object> params,
+                                   Continuation continuation) {
+        MessageContentsList invoked = (MessageContentsList) super.invoke(exchange, serviceObject, completionStageMethod, params);
+        CompletionStage<?> stage = (CompletionStage<?>) invoked.get(0);
+        if (stage == null) {
+            exchange.getInMessage().put(FaultMode.class, FaultMode.UNCHECKED_APPLICATION_FAULT);
+            throw new Fault(new IllegalStateException(completionStageMethod + " returned null instead of a CompletionStage"));
+        }
+        AsyncInvocation invocation = new AsyncInvocation(true);
+        invocation.hold(serviceObject);
+        exchange.put(AsyncInvocation.class, invocation);
+        if (stage instanceof Future) {
+            invocation.pending((Future<?>) stage);
+        }
+        // Suspended before the stage can complete - resuming before the suspension would be lost
+        continuation.suspend(0);
+        invocation.timeoutAfter(timeouts.schedule(() -> {
+            if (invocation.timeOut()) {
+                continuation.resume();
+            }
+        }));
+        stage.whenComplete((result, failure) -> {
+            boolean resume = invocation.complete(result, failure);
+            // Even after the timeout, the instance is busy until the stage completed
+            releaseHeldInstance(exchange, invocation);
+            if (resume) {
+                continuation.resume();
+            }
+        });
+        return null;
+    }
+
+    @Override
+    public Object getServiceObject(Exchange context) {
+        AsyncInvocation invocation = context.get(AsyncInvocation.class);
+        // The resumed request only hands the outcome to CXF - without another instance
+        if (invocation != null && invocation.heldInstance() != null) {
+            return invocation.heldInstance();
+        }
+        return super.getServiceObject(context);
+    }
+
+    @Override
+    public void releaseServiceObject(Exchange context, Object obj) {
+        AsyncInvocation invocation = context.get(AsyncInvocation.class);
+        // The held instance is released once the asynchronous invocation completed
+        if (invocation == null || invocation.heldInstance() != obj) {
+            super.releaseServiceObject(context, obj);
+        }
+    }
+
+    private void releaseHeldInstance(Exchange exchange, AsyncInvocation invocation) {
+        if (invocation.releaseInstance()) {
+            super.releaseServiceObject(exchange, invocation.heldInstance());
+        }
+    }
+
+    private Object resultOf(AsyncInvocation invocation, Exchange exchange, Method method, List<Object> params) {
+        Throwable failure = invocation.failure();
+        if (failure == null) {
+            return new MessageContentsList(invocation.result());
+        }
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        boolean checked = failure instanceof Fault;
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            checked |= exceptionType.isInstance(failure);
+        }
+        exchange.getInMessage().put(FaultMode.class, checked ? FaultMode.CHECKED_APPLICATION_FAULT : FaultMode.UNCHECKED_APPLICATION_FAULT);
+        if (failure instanceof Fault) {
+            throw (Fault) failure;
+        }
+        throw createFault(failure, method, params, checked);
+    }
+
+    private Fault timeoutFault(Exchange exchange, Method method) {
+        // The method may be the Async one of the JAX-WS async pattern - the operation is the same
+        String operation = exchange.getBindingOperationInfo() != null
+                ? exchange.getBindingOperationInfo().getName().getLocalPart() : method.getName();
+        LOG.asyncInvocationTimedOut(operation, timeouts.timeoutMillis());
+        exchange.getInMessage().put(FaultMode.class, FaultMode.UNCHECKED_APPLICATION_FAULT);
+        return new Fault(new TimeoutException("Invocation of operation " + operation + " timed out after "
+                + timeouts.timeoutMillis() + "ms"));
+    }
+
+    Method completionStageMethodOf(Method method) {
+        return completionStageMethods.computeIfAbsent(method, synchronousMethod -> {
+            if (synchronousMethod.getAnnotation(UseAsyncMethod.class) == null) {
+                return Optional.empty();
+            }
+            try {
+                Method asyncMethod = synchronousMethod.getDeclaringClass().getMethod(synchronousMethod.getName() + ASYNC_METHOD_SUFFIX,
+                        synchronousMethod.getParameterTypes());
+                return CompletionStage.class.isAssignableFrom(asyncMethod.getReturnType()) ? Optional.of(asyncMethod) : Optional.empty();
+            } catch (NoSuchMethodException exception) {
+                return Optional.empty();
+            }
+        }).orElse(null);
+    }
+
+    private static Continuation continuationOf(Exchange exchange) {
+        ContinuationProvider continuationProvider = exchange.getInMessage().get(ContinuationProvider.class);
+        return continuationProvider != null ? continuationProvider.getContinuation() : null;
+    }
+}
@@ -0,0 +1,64 @@
+package de.codecentric.cxf.async;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times out the suspended invocations of the {@link AsyncInvoker}s - on a single daemon thread, started with the first
+ * suspended invocation.
+ */
+public class AsyncTimeouts {
+
+    private final long timeoutMillis;
+    private volatile ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * @param timeoutMillis the timeout of every suspended invocation, &lt;= 0 for none
+     */
+    public AsyncTimeouts(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @param onTimeout called after the timeout
+     * @return the scheduled timeout to cancel or null, if there´s no timeout
+     */
+    ScheduledFuture<?> schedule(Runnable onTimeout) {
+        if (timeoutMillis <= 0) {
+            return null;
+        }
+        return scheduler().schedule(onTimeout, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private ScheduledThreadPoolExecutor scheduler() {
+        ScheduledThreadPoolExecutor existingScheduler = scheduler;
+        if (existingScheduler != null) {
+            return existingScheduler;
+        }
+        synchronized (this) {
+            if (scheduler == null) {
+                ScheduledThreadPoolExecutor newScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                    Thread thread = new Thread(runnable, "soap-async-timeouts");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                // Nearly every invocation completes in time - so don´t keep the cancelled timeouts until they´re due
+                newScheduler.setRemoveOnCancelPolicy(true);
+                scheduler = newScheduler;
+            }
+            return scheduler;
+        }
+    }
+
+    public void shutdown() {
+        ScheduledThreadPoolExecutor existingScheduler = scheduler;
+        if (existingScheduler != null) {
+            existingScheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.codecentric.cxf.autodetection;
+
+import javax.xml.ws.Service;
+
+/**
+ * A Service Endpoint Interface (SEI) found by the {@link WebServiceAutoDetector}, together with its instantiated
+ * implementation and WebServiceClient - all that´s needed to publish it.
+ */
+public class DetectedWebService {
+
+    private final Class serviceEndpointInterface;
+    private final Object seiImplementation;
+    private final Service webServiceClient;
+
+    public DetectedWebService(Class serviceEndpointInterface, Object seiImplementation, Service webServiceClient) {
+        this.serviceEndpointInterface = serviceEndpointInterface;
+        this.seiImplementation = seiImplementation;
+        this.webServiceClient = webServiceClient;
+    }
+
+    public Class getServiceEndpointInterface() {
+        return serviceEndpointInterface;
+    }
+
+    public Object getSeiImplementation() {
+        return seiImplementation;
+    }
+
+    public Service getWebServiceClient() {
+        return webServiceClient;
+    }
+}
@@ -0,0 +1,32 @@
+package de.codecentric.cxf.autodetection;
+
+/**
+ * The RestartClassLoader of devtools is replaced on every restart, while its parent - the base ClassLoader - survives.
+ * Results cached per ClassLoader are therefore kept for the surviving ClassLoader, so the restarts can reuse them.
+ */
+public final class DevToolsClassLoaders {
+
+    private static final String RESTART_CLASS_LOADER = "org.springframework.boot.devtools.restart.classloader.RestartClassLoader";
+
+    private DevToolsClassLoaders() {
+    }
+
+    /**
+     * @param classLoader the ClassLoader of the application
+     * @return the parent of devtools´ RestartClassLoader or the ClassLoader itself, if devtools aren´t used
+     */
+    static ClassLoader survivingRestarts(ClassLoader classLoader) {
+        if (isRestartClassLoader(classLoader) && classLoader.getParent() != null) {
+            return classLoader.getParent();
+        }
+        return classLoader;
+    }
+
+    /**
+     * @param classLoader the ClassLoader of the application
+     * @return true, if it´s devtools´ RestartClassLoader - so the application is restarted instead of stopped
+     */
+    public static boolean isRestartClassLoader(ClassLoader classLoader) {
+        return classLoader != null && RESTART_CLASS_LOADER.equals(classLoader.getClass().getName());
+    }
+}
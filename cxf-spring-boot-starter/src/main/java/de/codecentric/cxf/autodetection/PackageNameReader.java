@@ -1,13 +1,20 @@
 package de.codecentric.cxf.autodetection;
 
 import de.codecentric.cxf.autodetection.diagnostics.CxfSpringBootMavenPropertiesNotFoundException;
+import de.codecentric.cxf.startup.SoapStartupStep;
+import de.codecentric.cxf.startup.StartupInstrumentation;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 
@@ -15,6 +22,16 @@ import java.util.Properties;
 public class PackageNameReader {
 
     protected static final String CXF_SPRING_BOOT_MAVEN_PROPERTIES_FILE_NOT_FOUND = "Could not read packageNames from cxf-spring-boot-maven.properties.";
+    private static final String CXF_SPRING_BOOT_MAVEN_PROPERTIES = "cxf-spring-boot-maven.properties";
+
+    // Weakly referenced per ClassLoader, so restarted ClassLoaders (e.g. of devtools) don´t leak
+    private static final Map<ClassLoader, Properties> CXF_SPRING_BOOT_MAVEN_PROPERTIES_CACHE =
+            new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+    // Survives restarts of devtools (kept for the base ClassLoader), as long as the file isn´t changed - weakly
+    // referenced as well, so other applications or test contexts in the same JVM never see the properties of another one
+    private static final Map<ClassLoader, ReadProperties> LAST_READ_PROPERTIES =
+            new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
 
     public static PackageNameReader build() {
         return new PackageNameReader();
@@ -33,20 +50,72 @@ public class PackageNameReader {
 
     private String readPackageNameFromCxfSpringBootMavenProperties(String seiImplementationPackageNameKey) throws CxfSpringBootMavenPropertiesNotFoundException {
         try {
-            Properties cxfSpringBootMavenProperties = new Properties();
-            cxfSpringBootMavenProperties.load(cxfSpringBootMavenPropertiesAsInputStream());
-            return cxfSpringBootMavenProperties.getProperty(seiImplementationPackageNameKey);
+            return cxfSpringBootMavenProperties().getProperty(seiImplementationPackageNameKey);
         } catch (IOException ioExc) {
             throw new CxfSpringBootMavenPropertiesNotFoundException(CXF_SPRING_BOOT_MAVEN_PROPERTIES_FILE_NOT_FOUND, ioExc);
         }
     }
 
-    private InputStream cxfSpringBootMavenPropertiesAsInputStream() throws IOException {
-        return findInClasspath("classpath*:**/" + "cxf-spring-boot-maven.properties").getInputStream();
+    private Properties cxfSpringBootMavenProperties() throws IOException {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        Properties cachedProperties = CXF_SPRING_BOOT_MAVEN_PROPERTIES_CACHE.get(classLoader);
+        if (cachedProperties != null) {
+            return cachedProperties;
+        }
+        try (SoapStartupStep step = StartupInstrumentation.start("soap.autodetection.package-names")) {
+            Properties cxfSpringBootMavenProperties = read(cxfSpringBootMavenPropertiesResource(classLoader), classLoader);
+            CXF_SPRING_BOOT_MAVEN_PROPERTIES_CACHE.put(classLoader, cxfSpringBootMavenProperties);
+            return cxfSpringBootMavenProperties;
+        }
+    }
+
+    private Resource cxfSpringBootMavenPropertiesResource(ClassLoader classLoader) throws IOException {
+        // The cxf-spring-boot-starter-maven-plugin writes it into the root of the classpath
+        URL rootProperties = classLoader.getResource(CXF_SPRING_BOOT_MAVEN_PROPERTIES);
+        if (rootProperties != null) {
+            return new UrlResource(rootProperties);
+        }
+        // The whole classpath is only searched again, if the file found before is gone
+        ReadProperties lastRead = lastReadProperties(classLoader);
+        if (lastRead != null && lastRead.resource.exists()) {
+            return lastRead.resource;
+        }
+        return findInClasspath("classpath*:**/" + CXF_SPRING_BOOT_MAVEN_PROPERTIES, classLoader);
+    }
+
+    private static ReadProperties lastReadProperties(ClassLoader classLoader) {
+        return classLoader == null ? null : LAST_READ_PROPERTIES.get(DevToolsClassLoaders.survivingRestarts(classLoader));
+    }
+
+    private static Properties read(Resource resource, ClassLoader classLoader) throws IOException {
+        String location = resource.getURL().toString();
+        long lastModified = lastModified(resource);
+        ReadProperties lastRead = lastReadProperties(classLoader);
+        if (lastRead != null && lastRead.location.equals(location) && lastModified != -1 && lastRead.lastModified == lastModified) {
+            return lastRead.properties;
+        }
+        Properties cxfSpringBootMavenProperties = new Properties();
+        try (InputStream inputStream = resource.getInputStream()) {
+            cxfSpringBootMavenProperties.load(inputStream);
+        }
+        if (classLoader != null) {
+            LAST_READ_PROPERTIES.put(DevToolsClassLoaders.survivingRestarts(classLoader),
+                    new ReadProperties(resource, location, lastModified, cxfSpringBootMavenProperties));
+        }
+        return cxfSpringBootMavenProperties;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException exception) {
+            // e.g. inside nested jars - then it´s read every time
+            return -1;
+        }
     }
 
-    private Resource findInClasspath(String pattern) throws IOException {
-        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+    private Resource findInClasspath(String pattern, ClassLoader classLoader) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
 
         Resource[] resources = resolver.getResources(pattern);
 
@@ -58,4 +127,18 @@ public class PackageNameReader {
             throw new FileNotFoundException();
         }
     }
+
+    private static class ReadProperties {
+        private final Resource resource;
+        private final String location;
+        private final long lastModified;
+        private final Properties properties;
+
+        private ReadProperties(Resource resource, String location, long lastModified, Properties properties) {
+            this.resource = resource;
+            this.location = location;
+            this.lastModified = lastModified;
+            this.properties = properties;
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package de.codecentric.cxf.autodetection;
+
+import org.springframework.core.type.classreading.MetadataReader;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What the {@link WebServiceScanner} needs to know about a class - read from its class file´s metadata, without loading it.
+ */
+class ScannedClass {
+
+    private final String className;
+    private final boolean isInterface;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    private final Set<String> annotationTypes;
+
+    ScannedClass(MetadataReader metadataReader) {
+        this.className = metadataReader.getClassMetadata().getClassName();
+        this.isInterface = metadataReader.getClassMetadata().isInterface();
+        this.superClassName = metadataReader.getClassMetadata().getSuperClassName();
+        this.interfaceNames = Arrays.asList(metadataReader.getClassMetadata().getInterfaceNames());
+        this.annotationTypes = metadataReader.getAnnotationMetadata().getAnnotationTypes();
+    }
+
+    String className() {
+        return className;
+    }
+
+    boolean isInterface() {
+        return isInterface;
+    }
+
+    String superClassName() {
+        return superClassName;
+    }
+
+    List<String> interfaceNames() {
+        return interfaceNames;
+    }
+
+    boolean isAnnotatedWith(String annotationType) {
+        return annotationTypes.contains(annotationType);
+    }
+
+    boolean isInPackage(String packageName) {
+        return className.startsWith(packageName + ".");
+    }
+}
@@ -0,0 +1,68 @@
+package de.codecentric.cxf.autodetection;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link ScannedClass}es across restarts of the application inside the same JVM - like the ones of devtools,
+ * where the starter lives in the base ClassLoader surviving the restart. A class file is only read again, if its
+ * timestamp changed.
+ * <p>
+ * The class files are cached per ClassLoader they were scanned with - weakly referenced, so the cache of a discarded
+ * ClassLoader (e.g. of another application or test context) is dropped together with it. Devtools´ restarts share the
+ * cache of the base ClassLoader, see {@link DevToolsClassLoaders}.
+ */
+final class ScannedClassCache {
+
+    private static final Map<ClassLoader, Map<String, CachedScannedClass>> SCANNED_CLASSES_PER_CLASS_LOADER =
+            new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+    private ScannedClassCache() {
+    }
+
+    static ScannedClass scannedClass(Resource classFile, MetadataReaderFactory metadataReaderFactory, ClassLoader classLoader) throws IOException {
+        long lastModified = lastModified(classFile);
+        if (lastModified == -1 || classLoader == null) {
+            return new ScannedClass(metadataReaderFactory.getMetadataReader(classFile));
+        }
+        // The values must not reference the ClassLoader, otherwise it´s never released
+        Map<String, CachedScannedClass> scannedClassesByLocation = SCANNED_CLASSES_PER_CLASS_LOADER.computeIfAbsent(
+                DevToolsClassLoaders.survivingRestarts(classLoader), key -> new ConcurrentHashMap<>());
+        String location = classFile.getURL().toString();
+        CachedScannedClass cached = scannedClassesByLocation.get(location);
+        if (cached != null && cached.lastModified == lastModified) {
+            return cached.scannedClass;
+        }
+        ScannedClass scannedClass = new ScannedClass(metadataReaderFactory.getMetadataReader(classFile));
+        scannedClassesByLocation.put(location, new CachedScannedClass(lastModified, scannedClass));
+        return scannedClass;
+    }
+
+    private static long lastModified(Resource classFile) {
+        try {
+            return classFile.lastModified();
+        } catch (IOException exception) {
+            // e.g. inside nested jars - then it´s read every time
+            return -1;
+        }
+    }
+
+    static void clear() {
+        SCANNED_CLASSES_PER_CLASS_LOADER.clear();
+    }
+
+    private static class CachedScannedClass {
+        private final long lastModified;
+        private final ScannedClass scannedClass;
+
+        private CachedScannedClass(long lastModified, ScannedClass scannedClass) {
+            this.lastModified = lastModified;
+            this.scannedClass = scannedClass;
+        }
+    }
+}
@@ -12,7 +12,15 @@ import org.springframework.stereotype.Component;
 
 import javax.jws.WebService;
 import javax.xml.ws.Service;
+import javax.xml.ws.WebEndpoint;
 import javax.xml.ws.WebServiceClient;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 @Component
@@ -34,6 +42,7 @@ public class WebServiceAutoDetector {
         this.applicationContext = applicationContext;
         seiAndWebServiceClientPackageName = PackageNameReader.build().readSeiAndWebServiceClientPackageNameFromCxfSpringBootMavenProperties();
         seiImplementationPackageName = PackageNameReader.build().readSeiImplementationPackageNameFromCxfSpringBootMavenProperties();
+        webServiceScanner.registerPackagesToScan(seiAndWebServiceClientPackageName, seiImplementationPackageName);
     }
 
     /**
@@ -69,12 +78,106 @@ public class WebServiceAutoDetector {
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Detects every Service Endpoint Interface (SEI) together with its implementation and WebServiceClient. With only one
+     * SEI, this behaves like {@link #searchAndInstantiateSeiImplementation()} and {@link #searchAndInstantiateWebServiceClient()}.
+     * With more SEIs, the ones without implementation or WebServiceClient (e.g. contracts only consumed) are skipped.
+     *
+     * @return the detected web services, starting with the one to be published as primary endpoint
+     * @throws BootStarterCxfException if no SEI, no implementation or no WebServiceClient at all was found
+     */
+    public List<DetectedWebService> searchAndInstantiateWebServices() throws BootStarterCxfException {
+        List<Class> seis = searchServiceEndpointInterfaces();
+        if (seis.size() == 1) {
+            return Collections.singletonList(new DetectedWebService(seis.get(0),
+                    searchAndInstantiateSeiImplementation(seis.get(0)), searchAndInstantiateWebServiceClient()));
+        }
+
+        Map<Class, Class> webServiceClientsBySei = searchWebServiceClientsBySei();
+        List<DetectedWebService> detectedWebServices = new ArrayList<>();
+        for (Class sei : seis) {
+            Class webServiceClientClass = webServiceClientsBySei.get(sei);
+            if (webServiceClientClass == null) {
+                LOG.info("No WebServiceClient found for SEI '{}' - it won´t be published", sei.getName());
+                continue;
+            }
+            Class implementingClass;
+            try {
+                implementingClass = webServiceScanner.scanForClassWhichImplementsAndPickFirst(sei, seiImplementationPackageName);
+            } catch (BootStarterCxfException exception) {
+                LOG.info("No implementing class found for SEI '{}' - it won´t be published", sei.getName());
+                continue;
+            }
+            LOG.info("Found SEI '{}' implemented by '{}' with WebServiceClient '{}'", sei.getName(), implementingClass.getName(), webServiceClientClass.getName());
+            detectedWebServices.add(new DetectedWebService(sei, instantiateFromClass(implementingClass),
+                    (Service) instantiateFromClass(webServiceClientClass)));
+        }
+        if (detectedWebServices.isEmpty()) {
+            throw SeiImplClassNotFoundException.build()
+                    .setNotFoundClassName(seis.stream().map(Class::getName).collect(Collectors.joining(", ")))
+                    .setScannedBasePackage(seiImplementationPackageName);
+        }
+        return detectedWebServices;
+    }
+
+    protected List<Class> searchServiceEndpointInterfaces() throws BootStarterCxfException {
+        try{
+            List<Class> seis = webServiceScanner.scanForInterfacesWithAnnotation(SEI_ANNOTATION, seiAndWebServiceClientPackageName);
+            LOG.info("Found Service Endpoint Interfaces (SEI): {}", seis.stream().map(Class::getName).collect(Collectors.toList()));
+            return seis;
+        } catch (BootStarterCxfException exception) {
+            throw new SeiNotFoundException();
+        }
+    }
+
+    /**
+     * Maps every SEI to the WebServiceClient, that has a {@link WebEndpoint} annotated getter returning it.
+     */
+    private Map<Class, Class> searchWebServiceClientsBySei() throws BootStarterCxfException {
+        List<Class> webServiceClientClasses;
+        try {
+            webServiceClientClasses = webServiceScanner.scanForClassesWithAnnotation(WEB_SERVICE_CLIENT_ANNOTATION, seiAndWebServiceClientPackageName);
+        } catch (BootStarterCxfException exception) {
+            throw new WebServiceClientNotFoundException();
+        }
+        Map<Class, Class> webServiceClientsBySei = new HashMap<>();
+        for (Class webServiceClientClass : webServiceClientClasses) {
+            for (Method method : webServiceClientClass.getMethods()) {
+                if (method.isAnnotationPresent(WebEndpoint.class)) {
+                    webServiceClientsBySei.putIfAbsent(method.getReturnType(), webServiceClientClass);
+                }
+            }
+        }
+        return webServiceClientsBySei;
+    }
+
+    /**
+     * Detects every Service Endpoint Interface (SEI) together with its WebServiceClient class - without instantiating
+     * anything, so it´s also usable before the ApplicationContext is ready.
+     *
+     * @return the WebServiceClient classes by SEI, SEIs without WebServiceClient are left out
+     * @throws BootStarterCxfException if no SEI or no WebServiceClient at all was found
+     */
+    public Map<Class, Class> searchWebServiceClientClassesBySei() throws BootStarterCxfException {
+        List<Class> seis = searchServiceEndpointInterfaces();
+        if (seis.size() == 1) {
+            return Collections.singletonMap(seis.get(0), searchWebServiceClientClass());
+        }
+        Map<Class, Class> webServiceClientsBySei = searchWebServiceClientsBySei();
+        webServiceClientsBySei.keySet().retainAll(seis);
+        return webServiceClientsBySei;
+    }
+
     public Service searchAndInstantiateWebServiceClient() throws BootStarterCxfException {
+        return instantiateFromClass(searchWebServiceClientClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<Service> searchWebServiceClientClass() throws BootStarterCxfException {
         try{
             Class<Service> webServiceClientClass = webServiceScanner.scanForClassWithAnnotationAndPickTheFirstOneFound(WEB_SERVICE_CLIENT_ANNOTATION, seiAndWebServiceClientPackageName);
             LOG.info("Found WebServiceClient class: '{}'", webServiceClientClass.getName());
-            return instantiateFromClass(webServiceClientClass);
+            return webServiceClientClass;
         } catch (BootStarterCxfException exception) {
             throw new WebServiceClientNotFoundException();
         }
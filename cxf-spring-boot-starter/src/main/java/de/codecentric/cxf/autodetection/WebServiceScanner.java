@@ -1,31 +1,89 @@
 package de.codecentric.cxf.autodetection;
 
+import de.codecentric.cxf.autodetection.index.WebServiceIndex;
 import de.codecentric.cxf.common.BootStarterCxfException;
-import org.springframework.beans.factory.config.BeanDefinition;
-import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
-import org.springframework.core.type.filter.AnnotationTypeFilter;
-import org.springframework.core.type.filter.AssignableTypeFilter;
-import org.springframework.core.type.filter.TypeFilter;
+import de.codecentric.cxf.startup.SoapStartupStep;
+import de.codecentric.cxf.startup.StartupInstrumentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
 
+import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * Scans for the SEI, the WebServiceClient and the SEI implementing class. The {@link WebServiceIndex} generated at build
+ * time is asked first - only if it´s missing or can´t answer reliably, the classpath is scanned.
+ * <p>
+ * The scan reads the ASM based metadata of the class files in a single pass over all packages registered via
+ * {@link #registerPackagesToScan(String...)} and answers every question from it. Only the chosen classes are loaded.
+ * Like the index, the scan answers with classes sorted by name - so the first one picked doesn´t depend on the order of
+ * the classpath.
+ * Class files unchanged since a previous scan in the same JVM (e.g. before a restart of devtools) aren´t read again.
+ */
 public class WebServiceScanner {
 
+    private static final Logger LOG = LoggerFactory.getLogger(WebServiceScanner.class);
     protected static final String NO_CLASS_FOUND = "No class found";
 
+    private final WebServiceIndex webServiceIndex;
+    private final ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
+    private final MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(resourcePatternResolver);
+    private final Set<String> packagesToScan = new LinkedHashSet<>();
+    private final Set<String> scannedPackages = new HashSet<>();
+    private final Map<String, ScannedClass> scannedClasses = new LinkedHashMap<>();
+
+    public WebServiceScanner() {
+        this(WebServiceIndex.load(ClassUtils.getDefaultClassLoader()));
+    }
+
+    /**
+     * @param webServiceIndex the index generated at build time or null, to always scan the classpath
+     */
+    public WebServiceScanner(WebServiceIndex webServiceIndex) {
+        this.webServiceIndex = webServiceIndex;
+    }
+
+    /**
+     * Registers packages to be scanned together in one pass, as soon as a scan is needed at all.
+     *
+     * @param packageNames the packages to scan
+     */
+    public synchronized void registerPackagesToScan(String... packageNames) {
+        packagesToScan.addAll(Arrays.asList(packageNames));
+    }
+
     protected <T> Class scanForClassWhichImplementsAndPickFirst(Class<T> interfaceName, String packageName) throws BootStarterCxfException {
-        List<String> namesOfClassesWithInterface = new ArrayList<>();
+        Optional<List<String>> indexedClasses = candidateTypesFromIndex(packageName, interfaceName.getName());
+        if (indexedClasses.isPresent()) {
+            return justPickTheClassThatIsNotAnInterface(indexedClasses.get());
+        }
 
-        Set<BeanDefinition> beans = scanForClasses(new AssignableTypeFilter(interfaceName), packageName);
+        List<String> namesOfClassesWithInterface = classesIn(packageName).stream()
+                .filter(scannedClass -> isAssignableTo(scannedClass.className(), interfaceName.getName(), new HashSet<>()))
+                .map(ScannedClass::className)
+                .sorted()
+                .collect(Collectors.toList());
 
-        if (beans.isEmpty()) {
+        if (namesOfClassesWithInterface.isEmpty()) {
             throw new BootStarterCxfException(WebServiceAutoDetector.NO_CLASS_FOUND);
         }
-
-        beans.forEach((BeanDefinition beanDef) -> namesOfClassesWithInterface.add(beanDef.getBeanClassName()));
         return justPickTheClassThatIsNotAnInterface(namesOfClassesWithInterface);
     }
 
@@ -38,26 +96,25 @@ public class WebServiceScanner {
         throw new BootStarterCxfException(NO_CLASS_FOUND);
     }
 
-    private Set<BeanDefinition> scanForClasses(TypeFilter typeFilter, String basePackage) {
-        ClassPathScanningCandidateComponentProvider scanningProvider = new InterfaceIncludingClassPathScanningCandidateComponentProvider();
-        scanningProvider.addIncludeFilter(typeFilter);
-        return scanningProvider.findCandidateComponents(basePackage);
-    }
-
     protected <T extends Annotation> Class scanForClassWithAnnotationAndPickTheFirstOneFound(Class<T> annotationName, String packageName) throws BootStarterCxfException {
         return classForName(scanForClassNamesWithAnnotation(annotationName, packageName).get(0));
     }
 
     protected <T extends Annotation> List<String> scanForClassNamesWithAnnotation(Class<T> annotation, String packageName) throws BootStarterCxfException {
-        List<String> namesOfClassesWithAnnotation = new ArrayList<>();
+        Optional<List<String>> indexedClasses = candidateTypesFromIndex(packageName, annotation.getName());
+        if (indexedClasses.isPresent()) {
+            return indexedClasses.get();
+        }
 
-        Set<BeanDefinition> beans = scanForClasses(new AnnotationTypeFilter(annotation), packageName);
+        List<String> namesOfClassesWithAnnotation = classesIn(packageName).stream()
+                .filter(scannedClass -> scannedClass.isAnnotatedWith(annotation.getName()))
+                .map(ScannedClass::className)
+                .sorted()
+                .collect(Collectors.toList());
 
-        if(beans.isEmpty()) {
+        if(namesOfClassesWithAnnotation.isEmpty()) {
             throw new BootStarterCxfException(NO_CLASS_FOUND);
         }
-
-        beans.stream().forEach((BeanDefinition bean) -> namesOfClassesWithAnnotation.add(bean.getBeanClassName()));
         return namesOfClassesWithAnnotation;
     }
 
@@ -71,6 +128,27 @@ public class WebServiceScanner {
         }
     }
 
+    protected <T extends Annotation> List<Class> scanForClassesWithAnnotation(Class<T> annotation, String packageName) throws BootStarterCxfException {
+        List<Class> classesWithAnnotation = new ArrayList<>();
+        for (String className : scanForClassNamesWithAnnotation(annotation, packageName)) {
+            classesWithAnnotation.add(classForName(className));
+        }
+        return classesWithAnnotation;
+    }
+
+    protected <T extends Annotation> List<Class> scanForInterfacesWithAnnotation(Class<T> annotation, String packageName) throws BootStarterCxfException {
+        List<Class> interfacesWithAnnotation = new ArrayList<>();
+        for (String className : scanForClassNamesWithAnnotation(annotation, packageName)) {
+            if (isInterface(className)) {
+                interfacesWithAnnotation.add(classForName(className));
+            }
+        }
+        if (interfacesWithAnnotation.isEmpty()) {
+            throw new BootStarterCxfException(NO_CLASS_FOUND);
+        }
+        return interfacesWithAnnotation;
+    }
+
     protected Class justPickTheClassThatIsAnInterface(List<String> namesOfClassesWithAnnotation) throws BootStarterCxfException {
         for (String className : namesOfClassesWithAnnotation) {
             if (isInterface(className)) {
@@ -81,15 +159,109 @@ public class WebServiceScanner {
     }
 
     protected boolean isInterface(String className) throws BootStarterCxfException {
-        return classForName(className).isInterface();
+        ScannedClass scannedClass = scannedClass(className);
+        if (scannedClass == null) {
+            throw new BootStarterCxfException(NO_CLASS_FOUND);
+        }
+        return scannedClass.isInterface();
     }
 
     protected Class<?> classForName(String className) throws BootStarterCxfException {
         try {
-            return Class.forName(className);
-        } catch (ClassNotFoundException exception) {
+            // The context ClassLoader, as the starter may live in a parent ClassLoader (e.g. the base ClassLoader of devtools)
+            return ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError exception) {
             throw new BootStarterCxfException(NO_CLASS_FOUND, exception);
         }
     }
 
-}
\ No newline at end of file
+    private Optional<List<String>> candidateTypesFromIndex(String packageName, String stereotype) {
+        if (webServiceIndex == null) {
+            return Optional.empty();
+        }
+        Optional<List<String>> candidateTypes = webServiceIndex.candidateTypes(packageName, stereotype);
+        candidateTypes.ifPresent(classNames -> LOG.debug("Found {} of stereotype '{}' in {}", classNames, stereotype, WebServiceIndex.COMPONENTS_RESOURCE_LOCATION));
+        return candidateTypes;
+    }
+
+    private synchronized List<ScannedClass> classesIn(String packageName) throws BootStarterCxfException {
+        if (!isCovered(packageName, scannedPackages)) {
+            packagesToScan.add(packageName);
+            scan();
+        }
+        return scannedClasses.values().stream()
+                .filter(scannedClass -> scannedClass.isInPackage(packageName))
+                .collect(Collectors.toList());
+    }
+
+    private void scan() throws BootStarterCxfException {
+        // Sub packages of other packages to scan are skipped, so every class file is read only once
+        List<String> rootPackages = new ArrayList<>();
+        packagesToScan.stream()
+                .filter(packageName -> !isCovered(packageName, scannedPackages))
+                .sorted(Comparator.comparingInt(String::length))
+                .forEach(packageName -> {
+                    if (!isCovered(packageName, rootPackages)) {
+                        rootPackages.add(packageName);
+                    }
+                });
+        for (String rootPackage : rootPackages) {
+            String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + ClassUtils.convertClassNameToResourcePath(rootPackage) + "/**/*.class";
+            try (SoapStartupStep step = StartupInstrumentation.start("soap.autodetection.scan").tag("package", rootPackage)) {
+                for (Resource resource : resourcePatternResolver.getResources(pattern)) {
+                    ScannedClass scannedClass = ScannedClassCache.scannedClass(resource, metadataReaderFactory, resourcePatternResolver.getClassLoader());
+                    scannedClasses.putIfAbsent(scannedClass.className(), scannedClass);
+                }
+            } catch (IOException exception) {
+                throw new BootStarterCxfException("Could not scan package " + rootPackage, exception);
+            }
+            scannedPackages.add(rootPackage);
+            LOG.debug("Scanned package '{}'", rootPackage);
+        }
+    }
+
+    private static boolean isCovered(String packageName, Iterable<String> rootPackages) {
+        for (String rootPackage : rootPackages) {
+            if (packageName.equals(rootPackage) || packageName.startsWith(rootPackage + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isAssignableTo(String className, String interfaceName, Set<String> visited) {
+        if (className == null || !visited.add(className)) {
+            return false;
+        }
+        if (className.equals(interfaceName)) {
+            return true;
+        }
+        // The JDK doesn´t implement any SEI
+        if (className.startsWith("java.")) {
+            return false;
+        }
+        ScannedClass scannedClass = scannedClass(className);
+        if (scannedClass == null) {
+            return false;
+        }
+        for (String implementedInterface : scannedClass.interfaceNames()) {
+            if (isAssignableTo(implementedInterface, interfaceName, visited)) {
+                return true;
+            }
+        }
+        return isAssignableTo(scannedClass.superClassName(), interfaceName, visited);
+    }
+
+    private synchronized ScannedClass scannedClass(String className) {
+        ScannedClass scannedClass = scannedClasses.get(className);
+        if (scannedClass != null) {
+            return scannedClass;
+        }
+        try {
+            // Reads the class file only, the class itself isn´t loaded
+            return new ScannedClass(metadataReaderFactory.getMetadataReader(className));
+        } catch (IOException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package de.codecentric.cxf.autodetection.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Index of the Service Endpoint Interfaces (SEI), WebServiceClients and SEI implementing classes, generated at build time
+ * by the {@link WebServiceIndexProcessor} into {@value #COMPONENTS_RESOURCE_LOCATION}. Every entry maps a class to its
+ * stereotypes: {@value #SEI_STEREOTYPE} for SEIs, {@value #WEB_SERVICE_CLIENT_STEREOTYPE} for WebServiceClients and
+ * the names of the implemented SEIs for implementing classes. All other classes of the compilation are listed without
+ * stereotypes.
+ * <p>
+ * The index only answers a query, if it knows at least one matching class, all of them are still present and the
+ * classpath roots containing an index don´t hold any class of the package, the index doesn´t know (e.g. compiled without
+ * the processor) - otherwise the autodetection has to fall back to classpath scanning. Only the names of the class
+ * files are compared, the classes aren´t read.
+ */
+public class WebServiceIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WebServiceIndex.class);
+
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/cxf-spring-boot-starter.components";
+    public static final String SEI_STEREOTYPE = "javax.jws.WebService";
+    public static final String WEB_SERVICE_CLIENT_STEREOTYPE = "javax.xml.ws.WebServiceClient";
+
+    // Set by GraalVM while building and running a native image
+    private static final boolean IN_NATIVE_IMAGE = System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+
+    private final Map<String, Set<String>> stereotypesPerClass;
+    private final List<String> indexedRoots;
+    private final ClassLoader classLoader;
+    private final Map<String, Boolean> completePackages = new ConcurrentHashMap<>();
+
+    WebServiceIndex(Map<String, Set<String>> stereotypesPerClass, List<String> indexedRoots, ClassLoader classLoader) {
+        this.stereotypesPerClass = stereotypesPerClass;
+        this.indexedRoots = indexedRoots;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * @param classLoader the ClassLoader to load the index with
+     * @return the merged index of all {@value #COMPONENTS_RESOURCE_LOCATION} files or null, if there is none
+     */
+    public static WebServiceIndex load(ClassLoader classLoader) {
+        try {
+            Enumeration<URL> indexFiles = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
+            if (!indexFiles.hasMoreElements()) {
+                return null;
+            }
+            Map<String, Set<String>> stereotypesPerClass = new HashMap<>();
+            List<String> indexedRoots = new ArrayList<>();
+            for (URL indexFile : Collections.list(indexFiles)) {
+                String indexFileUrl = indexFile.toString();
+                indexedRoots.add(indexFileUrl.substring(0, indexFileUrl.length() - COMPONENTS_RESOURCE_LOCATION.length()));
+                Properties properties = new Properties();
+                try (InputStream inputStream = indexFile.openStream()) {
+                    properties.load(inputStream);
+                }
+                properties.stringPropertyNames().forEach(className ->
+                        stereotypesPerClass.computeIfAbsent(className, key -> new TreeSet<>()).addAll(stereotypesOf(properties, className)));
+            }
+            return new WebServiceIndex(stereotypesPerClass, indexedRoots, classLoader);
+        } catch (IOException exception) {
+            LOG.warn("Could not read {}, falling back to classpath scanning: {}", COMPONENTS_RESOURCE_LOCATION, exception.getMessage());
+            return null;
+        }
+    }
+
+    private static List<String> stereotypesOf(Properties properties, String className) {
+        return Arrays.stream(properties.getProperty(className).split(","))
+                .map(String::trim)
+                .filter(stereotype -> !stereotype.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param basePackage the package the classes have to reside in (incl. sub packages)
+     * @param stereotype the stereotype the classes need to have
+     * @return the sorted names of the matching classes or empty, if the index can´t answer the query reliably
+     */
+    public Optional<List<String>> candidateTypes(String basePackage, String stereotype) {
+        if (!completePackages.computeIfAbsent(basePackage, this::knowsAllClassesIn)) {
+            return Optional.empty();
+        }
+        List<String> candidateTypes = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : stereotypesPerClass.entrySet()) {
+            if (entry.getKey().startsWith(basePackage + ".") && entry.getValue().contains(stereotype)) {
+                if (!isPresent(entry.getKey())) {
+                    LOG.info("Index {} is stale, as class '{}' is missing - falling back to classpath scanning", COMPONENTS_RESOURCE_LOCATION, entry.getKey());
+                    return Optional.empty();
+                }
+                candidateTypes.add(entry.getKey());
+            }
+        }
+        Collections.sort(candidateTypes);
+        return candidateTypes.isEmpty() ? Optional.empty() : Optional.of(candidateTypes);
+    }
+
+    private boolean knowsAllClassesIn(String basePackage) {
+        if (IN_NATIVE_IMAGE) {
+            return true;
+        }
+        String packagePath = basePackage.replace('.', '/') + "/";
+        ResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver(classLoader);
+        try {
+            for (String indexedRoot : indexedRoots) {
+                for (Resource classFile : resourcePatternResolver.getResources(indexedRoot + packagePath + "**/*.class")) {
+                    String classFileUrl = classFile.getURL().toString();
+                    if (isTopLevelClass(classFileUrl) && !isKnown(classFileUrl, packagePath)) {
+                        LOG.info("Index {} is stale, as it doesn´t know class file '{}' - falling back to classpath scanning", COMPONENTS_RESOURCE_LOCATION, classFileUrl);
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } catch (IOException exception) {
+            LOG.info("Could not verify index {} - falling back to classpath scanning: {}", COMPONENTS_RESOURCE_LOCATION, exception.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean isTopLevelClass(String classFileUrl) {
+        String fileName = classFileUrl.substring(classFileUrl.lastIndexOf('/') + 1);
+        return fileName.indexOf('$') < 0 && !fileName.equals("package-info.class") && !fileName.equals("module-info.class");
+    }
+
+    private boolean isKnown(String classFileUrl, String packagePath) {
+        // The root part of the URL may be encoded differently, so every occurrence of the package is tried as the start
+        int packageStart = classFileUrl.indexOf("/" + packagePath);
+        while (packageStart >= 0) {
+            String classFile = classFileUrl.substring(packageStart + 1, classFileUrl.length() - ".class".length());
+            if (stereotypesPerClass.containsKey(classFile.replace('/', '.'))) {
+                return true;
+            }
+            packageStart = classFileUrl.indexOf("/" + packagePath, packageStart + 1);
+        }
+        return false;
+    }
+
+    private boolean isPresent(String className) {
+        if (IN_NATIVE_IMAGE) {
+            // There are no class files inside a native image - and the index was built together with it
+            return true;
+        }
+        // Checked via the class file, to not load the class
+        return classLoader.getResource(className.replace('.', '/') + ".class") != null;
+    }
+}
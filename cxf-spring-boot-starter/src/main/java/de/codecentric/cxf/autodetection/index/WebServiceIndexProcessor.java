@@ -0,0 +1,160 @@
+package de.codecentric.cxf.autodetection.index;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static de.codecentric.cxf.autodetection.index.WebServiceIndex.COMPONENTS_RESOURCE_LOCATION;
+import static de.codecentric.cxf.autodetection.index.WebServiceIndex.SEI_STEREOTYPE;
+import static de.codecentric.cxf.autodetection.index.WebServiceIndex.WEB_SERVICE_CLIENT_STEREOTYPE;
+
+/**
+ * Annotation processor recording the Service Endpoint Interfaces (SEI), the WebServiceClients and the SEI implementing
+ * classes of a compilation in the {@link WebServiceIndex}, so the autodetection doesn´t need to scan the classpath at startup.
+ * <p>
+ * All other top-level classes of the compilation are recorded without stereotypes - this is the fingerprint, that lets
+ * the {@link WebServiceIndex} notice classes compiled without the processor (e.g. by an IDE with annotation processing
+ * disabled). As incremental compilations only process the changed classes, the entries of an already existing index
+ * are kept. Entries of meanwhile deleted classes are sorted out by the {@link WebServiceIndex} at runtime.
+ * <p>
+ * The processor must not use anything beyond the JDK, as it runs inside javac.
+ */
+@SupportedAnnotationTypes("*")
+public class WebServiceIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, Set<String>> entries = new TreeMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                index((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // Never claim the annotations, other processors may need them as well
+        return false;
+    }
+
+    private void index(TypeElement type) {
+        String className = type.getQualifiedName().toString();
+        entries.computeIfAbsent(className, key -> new TreeSet<>());
+        if (type.getKind() == ElementKind.INTERFACE && isAnnotatedWith(type, SEI_STEREOTYPE)) {
+            add(className, SEI_STEREOTYPE);
+        }
+        if (type.getKind() == ElementKind.CLASS && isAnnotatedWith(type, WEB_SERVICE_CLIENT_STEREOTYPE)) {
+            add(className, WEB_SERVICE_CLIENT_STEREOTYPE);
+        }
+        if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)) {
+            for (String sei : implementedSeis(type, new TreeSet<>())) {
+                add(className, sei);
+            }
+        }
+    }
+
+    private void add(String className, String stereotype) {
+        entries.computeIfAbsent(className, key -> new TreeSet<>()).add(stereotype);
+    }
+
+    private Set<String> implementedSeis(TypeElement type, Set<String> seis) {
+        for (TypeMirror interfaceType : type.getInterfaces()) {
+            TypeElement interfaze = asTypeElement(interfaceType);
+            if (interfaze != null) {
+                if (isAnnotatedWith(interfaze, SEI_STEREOTYPE)) {
+                    seis.add(interfaze.getQualifiedName().toString());
+                }
+                implementedSeis(interfaze, seis);
+            }
+        }
+        TypeElement superclass = asTypeElement(type.getSuperclass());
+        if (superclass != null) {
+            implementedSeis(superclass, seis);
+        }
+        return seis;
+    }
+
+    private static TypeElement asTypeElement(TypeMirror typeMirror) {
+        if (typeMirror.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) typeMirror).asElement();
+    }
+
+    private static boolean isAnnotatedWith(TypeElement type, String annotationName) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (annotationName.equals(((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        try {
+            Map<String, Set<String>> mergedEntries = readExistingIndex();
+            entries.forEach((className, stereotypes) -> mergedEntries.computeIfAbsent(className, key -> new TreeSet<>()).addAll(stereotypes));
+            if (mergedEntries.values().stream().allMatch(Set::isEmpty)) {
+                // No Web Services in this compilation - nothing to index
+                return;
+            }
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            // Written sorted and without the timestamp of Properties.store(), to keep the build reproducible
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.ISO_8859_1)) {
+                for (Map.Entry<String, Set<String>> entry : mergedEntries.entrySet()) {
+                    writer.write(entry.getKey() + "=" + String.join(",", entry.getValue()) + "\n");
+                }
+            }
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + COMPONENTS_RESOURCE_LOCATION + ", Web Services will be detected by classpath scanning: " + exception);
+        }
+    }
+
+    private Map<String, Set<String>> readExistingIndex() {
+        Map<String, Set<String>> existingEntries = new TreeMap<>();
+        try {
+            FileObject existingIndex = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            try (InputStream inputStream = existingIndex.openInputStream()) {
+                Properties properties = new Properties();
+                properties.load(inputStream);
+                properties.stringPropertyNames().forEach(className -> existingEntries.put(className,
+                        Arrays.stream(properties.getProperty(className).split(",")).filter(stereotype -> !stereotype.isEmpty())
+                                .collect(Collectors.toCollection(TreeSet::new))));
+            }
+        } catch (IOException exception) {
+            // No index from a previous compilation
+        }
+        return existingEntries;
+    }
+}
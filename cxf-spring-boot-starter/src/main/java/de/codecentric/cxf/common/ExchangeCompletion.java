@@ -0,0 +1,53 @@
+package de.codecentric.cxf.common;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletRequest;
+
+/**
+ * Completes the measurements of the filters in front of the CXFServlet, once the SOAP exchange is complete. That´s right
+ * after the filter chain - or, if the request went into async mode (a suspended invocation or the non-blocking ingest),
+ * not before the async processing completed, which may take several async dispatches, that the filters don´t see.
+ */
+public final class ExchangeCompletion implements AsyncListener {
+
+    private final Runnable completion;
+
+    private ExchangeCompletion(Runnable completion) {
+        this.completion = completion;
+    }
+
+    /**
+     * @param request the request after the filter chain returned
+     * @param completion completes the measurement - called once, when the exchange is complete
+     */
+    public static void afterExchange(ServletRequest request, Runnable completion) {
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new ExchangeCompletion(completion));
+        } else {
+            completion.run();
+        }
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        completion.run();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Another async cycle of the same exchange (e.g. the invocation is suspended after the ingest) only notifies
+        // the listeners, that register themselves again
+        event.getAsyncContext().addListener(this);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        // The container completes the exchange afterwards
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        // The container completes the exchange afterwards
+    }
+}
@@ -0,0 +1,80 @@
+package de.codecentric.cxf.common;
+
+import org.apache.cxf.binding.soap.Soap12;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A SOAP fault rendered in advance (in SOAP 1.1 and 1.2), that In-Interceptors can write directly to the response of
+ * the CXFServlet - so requests can be refused without building and marshalling a Fault through the Out-Fault-Interceptors.
+ * Transports can send it, where the request never reached CXF.
+ */
+public class PreRenderedSoapFault {
+
+    private final byte[] soap11Fault;
+    private final byte[] soap12Fault;
+
+    /**
+     * @param faultString the faultstring resp. reason of the fault - must not need XML escaping
+     */
+    public PreRenderedSoapFault(String faultString) {
+        this.soap11Fault = render("http://schemas.xmlsoap.org/soap/envelope/",
+                "<faultcode>soap:Server</faultcode><faultstring>" + faultString + "</faultstring>");
+        this.soap12Fault = render("http://www.w3.org/2003/05/soap-envelope",
+                "<soap:Code><soap:Value>soap:Receiver</soap:Value></soap:Code>"
+                + "<soap:Reason><soap:Text xml:lang=\"en\">" + faultString + "</soap:Text></soap:Reason>");
+    }
+
+    /**
+     * Writes the fault as response to the message and aborts its Interceptor chain. If the response is already committed
+     * (e.g. the 202 of a one-way operation), the chain is just aborted.
+     *
+     * @param message the inbound message
+     * @param httpStatus the HTTP status of the response
+     * @param headers additional HTTP headers of the response
+     * @return false, if the message isn´t served by the CXFServlet - and nothing was done
+     */
+    public boolean respond(SoapMessage message, int httpStatus, Map<String, String> headers) {
+        HttpServletResponse response = (HttpServletResponse) message.get(AbstractHTTPDestination.HTTP_RESPONSE);
+        if (response == null) {
+            return false;
+        }
+        if (!response.isCommitted()) {
+            boolean soap12 = message.getVersion() == Soap12.getInstance();
+            byte[] fault = soap12 ? soap12Fault : soap11Fault;
+            try {
+                response.setStatus(httpStatus);
+                headers.forEach(response::setHeader);
+                response.setContentType(soap12 ? "application/soap+xml; charset=UTF-8" : "text/xml; charset=UTF-8");
+                response.setContentLength(fault.length);
+                response.getOutputStream().write(fault);
+                response.flushBuffer();
+            } catch (IOException exception) {
+                throw new Fault(exception);
+            }
+        }
+        // The response is written already, CXF must not write another one
+        message.getExchange().put(AbstractHTTPDestination.REQUEST_REDIRECTED, Boolean.TRUE);
+        message.getInterceptorChain().abort();
+        return true;
+    }
+
+    /**
+     * @param soap12 true for the SOAP 1.2 fault, false for the SOAP 1.1 one
+     * @return the fault - for transports without a CXF message to respond to
+     */
+    public byte[] bytes(boolean soap12) {
+        return (soap12 ? soap12Fault : soap11Fault).clone();
+    }
+
+    private static byte[] render(String envelopeNamespace, String faultContent) {
+        return ("<soap:Envelope xmlns:soap=\"" + envelopeNamespace + "\"><soap:Body><soap:Fault>" + faultContent
+                + "</soap:Fault></soap:Body></soap:Envelope>").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package de.codecentric.cxf.common;
+
+import org.apache.cxf.jaxws.EndpointImpl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * All Endpoints published by the starter on the SpringBus - the primary one, that´s also available as
+ * {@link javax.xml.ws.Endpoint} bean, first.
+ */
+public class WebServiceEndpoints implements Iterable<EndpointImpl> {
+
+    private final List<EndpointImpl> endpoints;
+
+    public WebServiceEndpoints(List<EndpointImpl> endpoints) {
+        this.endpoints = Collections.unmodifiableList(endpoints);
+    }
+
+    public List<EndpointImpl> getEndpoints() {
+        return endpoints;
+    }
+
+    @Override
+    public Iterator<EndpointImpl> iterator() {
+        return endpoints.iterator();
+    }
+}
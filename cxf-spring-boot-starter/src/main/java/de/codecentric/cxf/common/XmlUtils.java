@@ -4,6 +4,7 @@ import java.io.InputStream;
 import java.io.StringReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Map;
 import java.util.Objects;
 
 import javax.jws.WebMethod;
@@ -20,6 +21,9 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.dom.DOMSource;
 
+import de.codecentric.cxf.startup.SoapStartupStep;
+import de.codecentric.cxf.startup.StartupInstrumentation;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -32,8 +36,27 @@ import org.w3c.dom.Node;
  */
 public final class XmlUtils {
 
+	// JAXBContexts are expensive to create, but thread-safe - softly referenced, to not pin the classes of a restarted ClassLoader
+	private static final Map<Class<?>, JAXBContext> JAXB_CONTEXTS = new ConcurrentReferenceHashMap<>();
+
 	// private Constructor for Utility-Class
 	private XmlUtils() {};
+
+	/**
+	 * @param jaxbClass the JAX-B class to create the JAXBContext for
+	 * @return the JAXBContext of the class, created only once
+	 * @throws JAXBException if the JAXBContext couldn´t be created
+	 */
+	public static JAXBContext jaxbContextFor(Class<?> jaxbClass) throws JAXBException {
+		JAXBContext jaxbContext = JAXB_CONTEXTS.get(jaxbClass);
+		if (jaxbContext == null) {
+			try (SoapStartupStep step = StartupInstrumentation.start("soap.jaxb.context").tag("class", jaxbClass.getName())) {
+				jaxbContext = JAXBContext.newInstance(jaxbClass);
+			}
+			JAXB_CONTEXTS.put(jaxbClass, jaxbContext);
+		}
+		return jaxbContext;
+	}
 	
 	public static <T> T readSoapMessageFromStreamAndUnmarshallBody2Object(InputStream fileStream, Class<T> jaxbClass) throws BootStarterCxfException {
 		T unmarshalledObject = null;
@@ -67,7 +90,7 @@ public final class XmlUtils {
 		Objects.requireNonNull(node);
 		JAXBElement<T> jaxbElement = null;
 		try {
-			JAXBContext jaxbContext = JAXBContext.newInstance(jaxbClassName);
+			JAXBContext jaxbContext = jaxbContextFor(jaxbClassName);
 			Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
 			jaxbElement = unmarshaller.unmarshal(new DOMSource(node), jaxbClassName);
 		} catch (Exception exception) {
@@ -167,7 +190,7 @@ public final class XmlUtils {
 	}
 
 	private static <T> Marshaller setUpMarshaller(Class<T> jaxbElementClass) throws JAXBException {
-		JAXBContext jaxbContext = JAXBContext.newInstance(jaxbElementClass);
+		JAXBContext jaxbContext = jaxbContextFor(jaxbElementClass);
 		return jaxbContext.createMarshaller();
 	}
 	
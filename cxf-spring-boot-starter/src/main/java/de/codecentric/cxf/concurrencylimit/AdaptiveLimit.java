@@ -0,0 +1,40 @@
+package de.codecentric.cxf.concurrencylimit;
+
+/**
+ * Concurrency limit, that adapts itself to the latencies observed for the requests - always between the min and max limit.
+ * Implementations get every finished request as a sample and calculate the new limit.
+ */
+public abstract class AdaptiveLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+
+    protected AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * @return the current limit of concurrent requests
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @param latencyNanos the latency of the finished request
+     * @param inFlight the requests in flight while it finished, including itself
+     * @param dropped true, if the request failed in a way signaling overload (e.g. a timeout)
+     */
+    public synchronized void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        limit = clamp(newLimit(limit, latencyNanos, inFlight, dropped));
+    }
+
+    protected abstract double newLimit(double limit, long latencyNanos, int inFlight, boolean dropped);
+
+    private double clamp(double newLimit) {
+        return Math.min(maxLimit, Math.max(minLimit, newLimit));
+    }
+}
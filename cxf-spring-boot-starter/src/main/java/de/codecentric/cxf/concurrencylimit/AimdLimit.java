@@ -0,0 +1,31 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive increase, multiplicative decrease: the limit is reduced by the backoff ratio, if a request was dropped or took
+ * longer than the latency threshold. Otherwise it´s increased by one - but only if the limit is really used, so that a
+ * mostly idle operation doesn´t grow an arbitrarily high limit.
+ */
+public class AimdLimit extends AdaptiveLimit {
+
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    public AimdLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdMillis, double backoffRatio) {
+        super(initialLimit, minLimit, maxLimit);
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+    }
+
+    @Override
+    protected double newLimit(double limit, long latencyNanos, int inFlight, boolean dropped) {
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            return limit * backoffRatio;
+        }
+        if (inFlight * 2 >= limit) {
+            return limit + 1;
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,150 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import de.codecentric.cxf.common.PreRenderedSoapFault;
+import de.codecentric.cxf.logging.BaseLogger;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
+import org.apache.cxf.binding.soap.interceptor.SoapActionInInterceptor;
+import org.apache.cxf.binding.soap.interceptor.StartBodyInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingInfo;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.MessagePartInfo;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Apache CXF In-Interceptor, that admits the requests of every SOAP operation only up to its {@link OperationLimiter}´s
+ * limit. It´s processed right after the SOAP Body was reached and before the payload is unmarshalled - the operation is
+ * resolved from the name of the payload element.
+ * <p>
+ * Rejected requests are answered immediately with HTTP 503, a Retry-After header and a SOAP fault rendered in advance,
+ * so that overload doesn´t cost more than necessary. Admitted requests are released by the
+ * {@link ConcurrencyLimitReleasingInterceptor} after the response was written or here, if the chain is unwound by a Fault.
+ */
+public class ConcurrencyLimitInterceptor extends AbstractSoapInterceptor {
+
+    private static final BaseLogger LOG = BaseLogger.getLogger(ConcurrencyLimitInterceptor.class);
+
+    static final String REJECTION_MESSAGE = "Concurrency limit of the operation exceeded - retry later";
+
+    private static final PreRenderedSoapFault REJECTION = new PreRenderedSoapFault(REJECTION_MESSAGE);
+
+    private final ConcurrencyLimits concurrencyLimits;
+    private final Map<String, String> retryAfter;
+    private final Map<BindingInfo, Map<QName, String>> operationsByPayload = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimits concurrencyLimits) {
+        super(Phase.READ);
+        // The order of the READ phase isn´t fully constrained by CXF itself, so we name everything we rely on
+        addAfter(Arrays.asList(ReadHeadersInterceptor.class.getName(), SoapActionInInterceptor.class.getName(),
+                StartBodyInterceptor.class.getName()));
+        this.concurrencyLimits = concurrencyLimits;
+        this.retryAfter = Collections.singletonMap("Retry-After", String.valueOf(concurrencyLimits.retryAfterSeconds()));
+    }
+
+    @Override
+    public void handleMessage(SoapMessage message) throws Fault {
+        String operation = operationOf(message);
+        if (operation == null) {
+            // Unknown operations are faulted by CXF anyway
+            return;
+        }
+        OperationLimiter limiter = concurrencyLimits.limiterOf(operation);
+        if (limiter.tryAcquire()) {
+            message.getExchange().put(Permit.class, new Permit(limiter));
+        } else {
+            LOG.concurrencyLimitExceeded(operation, limiter.getLimit());
+            reject(message);
+        }
+    }
+
+    @Override
+    public void handleFault(SoapMessage message) {
+        Permit permit = message.getExchange().get(Permit.class);
+        if (permit != null) {
+            permit.release(isTimeout(message.getContent(Exception.class)));
+        }
+    }
+
+    private void reject(SoapMessage message) {
+        if (!REJECTION.respond(message, HttpServletResponse.SC_SERVICE_UNAVAILABLE, retryAfter)) {
+            // Not served by the CXFServlet - a regular fault is the best we can do
+            throw new Fault(new RejectedExecutionException(REJECTION_MESSAGE));
+        }
+    }
+
+    private String operationOf(SoapMessage message) {
+        Exchange exchange = message.getExchange();
+        BindingOperationInfo bindingOperation = exchange.getBindingOperationInfo();
+        if (bindingOperation != null) {
+            return bindingOperation.getName().getLocalPart();
+        }
+        XMLStreamReader xmlReader = message.getContent(XMLStreamReader.class);
+        if (xmlReader == null || !toPayloadElement(xmlReader) || exchange.getEndpoint() == null) {
+            return null;
+        }
+        BindingInfo binding = exchange.getEndpoint().getEndpointInfo().getBinding();
+        return operationsByPayload.computeIfAbsent(binding, ConcurrencyLimitInterceptor::operationsByPayload)
+                .get(xmlReader.getName());
+    }
+
+    /**
+     * Skips the whitespace and comments after the start of the SOAP Body - as the DocLiteralInInterceptor would do anyway.
+     */
+    private static boolean toPayloadElement(XMLStreamReader xmlReader) {
+        try {
+            while (xmlReader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+                if (!xmlReader.isWhiteSpace() && xmlReader.getEventType() != XMLStreamConstants.COMMENT) {
+                    return false;
+                }
+                xmlReader.next();
+            }
+            return true;
+        } catch (XMLStreamException exception) {
+            // The DocLiteralInInterceptor will fault with the details
+            return false;
+        }
+    }
+
+    private static Map<QName, String> operationsByPayload(BindingInfo binding) {
+        Map<QName, String> operations = new HashMap<>();
+        for (BindingOperationInfo bindingOperation : binding.getOperations()) {
+            String operation = bindingOperation.getName().getLocalPart();
+            // RPC style wraps the parameters in an element named like the operation
+            operations.put(bindingOperation.getName(), operation);
+            if (bindingOperation.getInput() == null) {
+                continue;
+            }
+            for (MessagePartInfo part : bindingOperation.getInput().getMessageParts()) {
+                if (part.isElement()) {
+                    operations.put(part.getElementQName(), operation);
+                }
+            }
+        }
+        return operations;
+    }
+
+    private static boolean isTimeout(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.OutgoingChainInterceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Apache CXF In-Interceptor, that releases the request admitted by the {@link ConcurrencyLimitInterceptor} at the very end
+ * of the chain - after the {@link OutgoingChainInterceptor} wrote the response, so the latency includes the marshalling.
+ */
+public class ConcurrencyLimitReleasingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    public ConcurrencyLimitReleasingInterceptor() {
+        super(Phase.POST_INVOKE);
+        addAfter(OutgoingChainInterceptor.class.getName());
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Permit permit = message.getExchange().get(Permit.class);
+        if (permit != null) {
+            permit.release(false);
+        }
+    }
+}
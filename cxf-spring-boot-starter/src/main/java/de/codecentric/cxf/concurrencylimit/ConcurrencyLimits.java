@@ -0,0 +1,86 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * The {@link OperationLimiter}s of all SOAP operations, each with its own {@link AdaptiveLimit} - created on the first
+ * request of the operation. The operations are the ones of the published WSDLs, so their number is bounded.
+ * <p>
+ * As a {@link MeterBinder}, the current limits, the requests in flight and the rejected requests are exported to
+ * Micrometer with an operation tag.
+ */
+public class ConcurrencyLimits implements MeterBinder {
+
+    private final ConcurrentMap<String, OperationLimiter> limiters = new ConcurrentHashMap<>();
+    private final Supplier<AdaptiveLimit> limitFactory;
+    private final long retryAfterSeconds;
+    private MeterRegistry meterRegistry;
+
+    public ConcurrencyLimits(Supplier<AdaptiveLimit> limitFactory, long retryAfterSeconds) {
+        this.limitFactory = limitFactory;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public OperationLimiter limiterOf(String operation) {
+        OperationLimiter limiter = limiters.get(operation);
+        if (limiter != null) {
+            return limiter;
+        }
+        return registerLimiter(operation);
+    }
+
+    /**
+     * @return the limiters of all operations requested so far, sorted by operation
+     */
+    public Map<String, OperationLimiter> limiters() {
+        return Collections.unmodifiableMap(new TreeMap<>(limiters));
+    }
+
+    /**
+     * @return the seconds rejected consumers are asked to wait before retrying
+     */
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        limiters.forEach(this::registerMeters);
+    }
+
+    private synchronized OperationLimiter registerLimiter(String operation) {
+        OperationLimiter limiter = limiters.get(operation);
+        if (limiter != null) {
+            return limiter;
+        }
+        limiter = new OperationLimiter(limitFactory.get());
+        limiters.put(operation, limiter);
+        registerMeters(operation, limiter);
+        return limiter;
+    }
+
+    private void registerMeters(String operation, OperationLimiter limiter) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Tags tags = Tags.of("operation", operation);
+        Gauge.builder("soap.concurrency.limit", limiter, OperationLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the SOAP operation").tags(tags).register(meterRegistry);
+        Gauge.builder("soap.concurrency.inflight", limiter, OperationLimiter::getInFlight)
+                .description("Admitted requests of the SOAP operation in flight").tags(tags).register(meterRegistry);
+        FunctionCounter.builder("soap.concurrency.rejected", limiter, OperationLimiter::getRejected)
+                .description("Requests of the SOAP operation rejected at the concurrency limit").tags(tags).register(meterRegistry);
+    }
+}
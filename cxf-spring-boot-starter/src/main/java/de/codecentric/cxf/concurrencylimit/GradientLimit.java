@@ -0,0 +1,47 @@
+package de.codecentric.cxf.concurrencylimit;
+
+/**
+ * Gradient of the long-term average latency to the latency of the current request: as long as the requests aren´t slower
+ * than the average (times the tolerance), the limit grows by a queue of sqrt(limit). If they get slower - because requests
+ * start to queue up somewhere - the limit shrinks proportionally, down to half of it per sample. The change is smoothed
+ * and not applied while less than half of the limit is in flight, as the latencies don´t tell anything about the limit then.
+ * <p>
+ * If the latency recovers after a long phase of overload, the long-term average is decayed faster, so the limit doesn´t
+ * stay low because of the slow requests of the past.
+ */
+public class GradientLimit extends AdaptiveLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    private final double averageFactor;
+    private double longTermLatencyNanos = 0;
+
+    /**
+     * @param averageWindow the number of requests the long-term average latency is taken over
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, int averageWindow) {
+        super(initialLimit, minLimit, maxLimit);
+        this.averageFactor = 2.0 / (Math.max(1, averageWindow) + 1);
+    }
+
+    @Override
+    protected double newLimit(double limit, long latencyNanos, int inFlight, boolean dropped) {
+        double latency = Math.max(1, latencyNanos);
+        longTermLatencyNanos = longTermLatencyNanos == 0 ? latency
+                : longTermLatencyNanos * (1 - averageFactor) + latency * averageFactor;
+        if (longTermLatencyNanos / latency > 2) {
+            longTermLatencyNanos *= RECOVERY_DECAY;
+        }
+        if (dropped) {
+            return limit / 2;
+        }
+        if (inFlight < limit / 2) {
+            return limit;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longTermLatencyNanos / latency));
+        double queue = Math.max(1, Math.sqrt(limit));
+        return limit * (1 - SMOOTHING) + (limit * gradient + queue) * SMOOTHING;
+    }
+}
@@ -0,0 +1,54 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control of one SOAP operation: a request is admitted, as long as less requests than the {@link AdaptiveLimit}
+ * are in flight - otherwise it´s rejected right away instead of queueing up.
+ */
+public class OperationLimiter {
+
+    private final AdaptiveLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public OperationLimiter(AdaptiveLimit limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * @return true, if the request is admitted - it then has to be {@link #release(long, boolean) released} in any case
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @param latencyNanos the latency of the admitted request
+     * @param dropped true, if the request failed in a way signaling overload (e.g. a timeout)
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        limit.onSample(latencyNanos, inFlight.getAndDecrement(), dropped);
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
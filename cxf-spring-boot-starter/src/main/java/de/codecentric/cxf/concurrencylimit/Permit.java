@@ -0,0 +1,24 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The admission of one request by an {@link OperationLimiter}, kept in the CXF Exchange. As a request may finish on
+ * several paths, it´s released only once.
+ */
+class Permit {
+
+    private final OperationLimiter limiter;
+    private final long startNanos = System.nanoTime();
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    Permit(OperationLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    void release(boolean dropped) {
+        if (released.compareAndSet(false, true)) {
+            limiter.release(System.nanoTime() - startNanos, dropped);
+        }
+    }
+}
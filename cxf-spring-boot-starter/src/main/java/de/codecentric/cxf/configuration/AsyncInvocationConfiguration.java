@@ -0,0 +1,28 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.async.AsyncInvoker;
+import de.codecentric.cxf.async.AsyncTimeouts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Asynchronous invocation of the SEI implementations: every method annotated with CXF´s @UseAsyncMethod, that has an
+ * Async counterpart returning a CompletionStage or taking an AsyncHandler, is invoked by the {@link AsyncInvoker} without
+ * blocking the servlet thread. Active by default, to deactivate set property soap.async.enabled=false.
+ *
+ * The suspended invocations time out after soap.async.timeout.millis with a SOAP fault.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.async.enabled", matchIfMissing = true)
+public class AsyncInvocationConfiguration {
+
+    @Value("${soap.async.timeout.millis:30000}")
+    private long timeoutMillis;
+
+    @Bean(destroyMethod = "shutdown")
+    public AsyncTimeouts asyncTimeouts() {
+        return new AsyncTimeouts(timeoutMillis);
+    }
+}
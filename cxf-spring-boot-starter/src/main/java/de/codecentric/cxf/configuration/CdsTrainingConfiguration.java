@@ -0,0 +1,60 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.common.WebServiceEndpoints;
+import de.codecentric.cxf.publication.LazyEndpointPublisher;
+import de.codecentric.cxf.training.CdsTrainingRun;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Training run for a dynamic AppCDS archive. To activate, set property soap.cds.training.enabled=true.
+ *
+ * After the ApplicationReadyEvent every operation of the Endpoints is invoked once in-process, then the application is
+ * closed and the JVM exits - writing the archive, if started with -XX:ArchiveClassesAtExit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.cds.training.enabled")
+public class CdsTrainingConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CdsTrainingConfiguration.class);
+
+    @Autowired(required = false)
+    private WebServiceEndpoints webServiceEndpoints;
+
+    @Autowired(required = false)
+    private LazyEndpointPublisher lazyEndpointPublisher;
+
+    @Bean
+    public CdsTrainingRun cdsTrainingRun() {
+        return new CdsTrainingRun();
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> cdsTrainingRunAndExit() {
+        return event -> {
+            int exitCode = 0;
+            try {
+                if (lazyEndpointPublisher != null) {
+                    lazyEndpointPublisher.publish();
+                }
+                // Without autoinitialization (endpoint.autoinit=false) only the startup itself is part of the training run
+                if (webServiceEndpoints != null) {
+                    cdsTrainingRun().train(webServiceEndpoints);
+                }
+            } catch (RuntimeException exception) {
+                LOG.error("Training run failed", exception);
+                exitCode = 1;
+            }
+            int trainingExitCode = exitCode;
+            LOG.info("Training run finished, exiting with code {}", trainingExitCode);
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> trainingExitCode));
+        };
+    }
+}
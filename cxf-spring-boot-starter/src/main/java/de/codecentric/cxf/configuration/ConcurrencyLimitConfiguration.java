@@ -0,0 +1,89 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.common.WebServiceEndpoints;
+import de.codecentric.cxf.concurrencylimit.AdaptiveLimit;
+import de.codecentric.cxf.concurrencylimit.AimdLimit;
+import de.codecentric.cxf.concurrencylimit.ConcurrencyLimitInterceptor;
+import de.codecentric.cxf.concurrencylimit.ConcurrencyLimitReleasingInterceptor;
+import de.codecentric.cxf.concurrencylimit.ConcurrencyLimits;
+import de.codecentric.cxf.concurrencylimit.GradientLimit;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Adaptive concurrency limit per SOAP operation: requests beyond the limit are rejected with HTTP 503 and Retry-After
+ * instead of queueing up. To activate, set property soap.concurrency.limit.enabled=true.
+ *
+ * The limit adapts itself to the observed latencies with soap.concurrency.limit.algorithm=gradient (default) or aimd.
+ * Like the XML validation, it´s configured for all {@link EndpointImpl}s in the {@link WebServiceEndpoints} published by
+ * the starter. The limits are exposed as Micrometer meters soap.concurrency.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.concurrency.limit.enabled")
+public class ConcurrencyLimitConfiguration {
+
+    @Value("${soap.concurrency.limit.algorithm:gradient}")
+    private String algorithm;
+
+    @Value("${soap.concurrency.limit.initial:20}")
+    private int initialLimit;
+
+    @Value("${soap.concurrency.limit.min:1}")
+    private int minLimit;
+
+    @Value("${soap.concurrency.limit.max:200}")
+    private int maxLimit;
+
+    @Value("${soap.concurrency.limit.gradient.window:600}")
+    private int gradientWindow;
+
+    @Value("${soap.concurrency.limit.aimd.threshold.millis:1000}")
+    private long aimdThresholdMillis;
+
+    @Value("${soap.concurrency.limit.aimd.backoff.ratio:0.9}")
+    private double aimdBackoffRatio;
+
+    @Value("${soap.concurrency.limit.retry.after.seconds:1}")
+    private long retryAfterSeconds;
+
+    // Without the published endpoints (endpoint.autoinit=false) there´s nothing to limit
+    @Autowired(required = false)
+    private WebServiceEndpoints webServiceEndpoints;
+
+    @Bean
+    public ConcurrencyLimits concurrencyLimits() {
+        return new ConcurrencyLimits(limitFactory(), retryAfterSeconds);
+    }
+
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+        ConcurrencyLimitInterceptor concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(concurrencyLimits());
+        ConcurrencyLimitReleasingInterceptor releasingInterceptor = new ConcurrencyLimitReleasingInterceptor();
+        if (webServiceEndpoints != null) {
+            for (EndpointImpl endpointImpl : webServiceEndpoints) {
+                endpointImpl.getInInterceptors().add(concurrencyLimitInterceptor);
+                endpointImpl.getInInterceptors().add(releasingInterceptor);
+            }
+        }
+        return concurrencyLimitInterceptor;
+    }
+
+    private Supplier<AdaptiveLimit> limitFactory() {
+        switch (algorithm.trim().toLowerCase(Locale.ROOT)) {
+            case "gradient":
+                return () -> new GradientLimit(initialLimit, minLimit, maxLimit, gradientWindow);
+            case "aimd":
+                return () -> new AimdLimit(initialLimit, minLimit, maxLimit, aimdThresholdMillis, aimdBackoffRatio);
+            default:
+                throw new IllegalArgumentException("Unknown soap.concurrency.limit.algorithm '" + algorithm
+                        + "' - use gradient or aimd");
+        }
+    }
+}
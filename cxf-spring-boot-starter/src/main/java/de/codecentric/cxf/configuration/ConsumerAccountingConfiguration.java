@@ -0,0 +1,78 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.accounting.ConsumerAccountingFilter;
+import de.codecentric.cxf.accounting.ConsumerIdentification;
+import de.codecentric.cxf.accounting.ConsumerUsageAccounting;
+import de.codecentric.cxf.accounting.ConsumerUsageEndpoint;
+import de.codecentric.cxf.xmlvalidation.FaultTypeExposingInterceptor;
+import org.apache.cxf.bus.spring.SpringBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Per-consumer usage accounting of the SOAP endpoint. To activate, set property soap.consumer.accounting.enabled=true.
+ *
+ * Consumers are identified via soap.consumer.accounting.identification=header (default), ip or principal. The usage is
+ * exposed through the actuator endpoint /actuator/soapconsumers and as Micrometer meters soap.consumer.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.consumer.accounting.enabled")
+public class ConsumerAccountingConfiguration {
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Value("${soap.consumer.accounting.identification:header}")
+    private String identification;
+
+    @Value("${soap.consumer.accounting.header:X-Consumer-Id}")
+    private String consumerHeader;
+
+    @Value("${soap.consumer.accounting.known:}")
+    private String[] knownConsumers;
+
+    @Value("${soap.consumer.accounting.max.unknown:100}")
+    private int maxUnknownConsumers;
+
+    @Autowired(required = false)
+    private SpringBus springBus;
+
+    @PostConstruct
+    public void exposeFaultTypes() {
+        // Without the SpringBus (endpoint.autoinit=false) errors are only accounted as UNCLASSIFIED
+        if (springBus != null) {
+            FaultTypeExposingInterceptor.addTo(springBus);
+        }
+    }
+
+    @Bean
+    public ConsumerUsageAccounting consumerUsageAccounting() {
+        return new ConsumerUsageAccounting(
+                Arrays.stream(knownConsumers).map(String::trim).filter(consumer -> !consumer.isEmpty()).collect(Collectors.toList()),
+                maxUnknownConsumers);
+    }
+
+    @Bean
+    public FilterRegistrationBean consumerAccountingFilterRegistrationBean() {
+        FilterRegistrationBean filterRegistrationBean = new FilterRegistrationBean();
+        filterRegistrationBean.setFilter(new ConsumerAccountingFilter(consumerUsageAccounting(),
+                ConsumerIdentification.valueOf(identification.trim().toUpperCase(Locale.ROOT)), consumerHeader));
+        filterRegistrationBean.setName("consumerAccountingFilter");
+        filterRegistrationBean.addUrlPatterns(baseUrl + "/*");
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public ConsumerUsageEndpoint consumerUsageEndpoint() {
+        return new ConsumerUsageEndpoint(consumerUsageAccounting());
+    }
+}
@@ -1,14 +1,31 @@
 package de.codecentric.cxf.configuration;
 
+import de.codecentric.cxf.async.AsyncInvoker;
+import de.codecentric.cxf.async.AsyncTimeouts;
+import de.codecentric.cxf.autodetection.DetectedWebService;
 import de.codecentric.cxf.autodetection.WebServiceAutoDetector;
 import de.codecentric.cxf.autodetection.WebServiceScanner;
 import de.codecentric.cxf.common.BootStarterCxfException;
+import de.codecentric.cxf.common.WebServiceEndpoints;
+import de.codecentric.cxf.deadline.DeadlinePropagation;
+import de.codecentric.cxf.dispatch.MethodHandleInvoker;
+import de.codecentric.cxf.initialization.ParallelEndpointInitializer;
+import de.codecentric.cxf.pooling.SeiInstancePool;
+import de.codecentric.cxf.pooling.SeiInstancePooling;
+import de.codecentric.cxf.publication.LazyEndpointPublisher;
+import de.codecentric.cxf.reactornetty.ReactorNettyTransport;
+import de.codecentric.cxf.scheduling.LaneSchedulingExecutor;
+import de.codecentric.cxf.startup.SoapStartupStep;
+import de.codecentric.cxf.startup.StartupInstrumentation;
+import de.codecentric.cxf.virtualthreads.VirtualThreadInvocation;
+import de.codecentric.cxf.wsdlcache.WsdlSnapshotCache;
 import org.apache.cxf.Bus;
 import org.apache.cxf.bus.spring.SpringBus;
 import org.apache.cxf.jaxws.EndpointImpl;
 import org.apache.cxf.transport.servlet.CXFServlet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -22,7 +39,12 @@ import org.springframework.context.annotation.PropertySource;
 import javax.annotation.PostConstruct;
 import javax.xml.ws.Endpoint;
 import javax.xml.ws.Service;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * While booting up the CXF-Framework and Servlets, we don´t override the Bean "dispatcherServlet" here - because,
@@ -38,7 +60,26 @@ import java.util.Map;
 @Import({
     XmlValidationConfiguration.class,
     SoapMessageLoggerConfiguration.class,
-    TimeLoggingConfiguration.class
+    TimeLoggingConfiguration.class,
+    FlightRecorderConfiguration.class,
+    ConsumerAccountingConfiguration.class,
+    StuckExchangeWatchdogConfiguration.class,
+    ResourceAccountingConfiguration.class,
+    SaturationConfiguration.class,
+    LazyEndpointPublicationConfiguration.class,
+    WsdlSnapshotCacheConfiguration.class,
+    EndpointWarmUpConfiguration.class,
+    ParallelInitializationConfiguration.class,
+    CdsTrainingConfiguration.class,
+    StartupInstrumentationConfiguration.class,
+    VirtualThreadConfiguration.class,
+    AsyncInvocationConfiguration.class,
+    ConcurrencyLimitConfiguration.class,
+    LaneSchedulingConfiguration.class,
+    DeadlinePropagationConfiguration.class,
+    SeiInstancePoolingConfiguration.class,
+    ReactorNettyTransportConfiguration.class,
+    NonBlockingIngestConfiguration.class
 })
 public class CxfAutoConfiguration {
 
@@ -53,8 +94,43 @@ public class CxfAutoConfiguration {
     @Value("${cxf.servicelist.title:CXF SpringBoot Starter - service list}")
     private String serviceListTitle;
 
+    @Value("${soap.service.primary.sei:}")
+    private String primarySei;
+
+    // Like @ConditionalOnProperty(name = "endpoint.autoinit", matchIfMissing = true): everything but false activates it
+    @Value("#{!'false'.equalsIgnoreCase('${endpoint.autoinit:true}')}")
+    private boolean endpointAutoinit;
+
+    @Autowired(required = false)
+    private LazyEndpointPublisher lazyEndpointPublisher;
+
+    @Autowired(required = false)
+    private WsdlSnapshotCache wsdlSnapshotCache;
+
+    @Autowired(required = false)
+    private ParallelEndpointInitializer parallelEndpointInitializer;
+
+    @Autowired(required = false)
+    private VirtualThreadInvocation virtualThreadInvocation;
+
+    @Autowired(required = false)
+    private AsyncTimeouts asyncTimeouts;
+
+    @Autowired(required = false)
+    private LaneSchedulingExecutor laneSchedulingExecutor;
+
+    @Autowired(required = false)
+    private DeadlinePropagation deadlinePropagation;
+
+    @Autowired(required = false)
+    private SeiInstancePooling seiInstancePooling;
+
+    @Autowired(required = false)
+    private ReactorNettyTransport reactorNettyTransport;
+
     private String serviceUrlEnding = null;
     private Object seiImplementation;
+    private List<DetectedWebService> detectedWebServices;
 
     @Bean
     public WebServiceAutoDetector webServiceAutoDetector(ApplicationContext applicationContext) throws BootStarterCxfException {
@@ -83,6 +159,8 @@ public class CxfAutoConfiguration {
         // Add custom Title to CXF´s ServiceList
         Map<String, String> initParameters = servletRegistrationBean.getInitParameters();
         initParameters.put("service-list-title", serviceListTitle);
+        // Needed to suspend the asynchronous invocations (see AsyncInvocationConfiguration) through CXF´s Continuations
+        servletRegistrationBean.setAsyncSupported(true);
 
         return servletRegistrationBean;
     }
@@ -99,7 +177,7 @@ public class CxfAutoConfiguration {
     @ConditionalOnProperty(name = "endpoint.autoinit", matchIfMissing = true)
     public Object seiImplementation() throws BootStarterCxfException {
         if(seiImplementation == null) {
-            seiImplementation = webServiceAutoDetector(null).searchAndInstantiateSeiImplementation();
+            seiImplementation = detectedWebServices().get(0).getSeiImplementation();
         }
         return seiImplementation;
     }
@@ -110,28 +188,130 @@ public class CxfAutoConfiguration {
 
         LOG.info("Autodetection successful. Initializing javax.xml.ws.Endpoint based on " + seiImplementation().getClass().getName());
 
-        EndpointImpl endpoint = new EndpointImpl(springBus(), seiImplementation());
+        if (publishedEndpointUrl.equals("NOT_SET")) {
+            return publishEndpoint(seiImplementation(), webServiceClient(), webServiceClient().getServiceName().getLocalPart());
+        } else {
+            return publishEndpoint(seiImplementation(), webServiceClient(), publishedEndpointUrl);
+        }
+    }
+
+    /**
+     * Publishes every further detected SEI next to the primary {@link #endpoint()} - all sharing the SpringBus and the CXFServlet.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "endpoint.autoinit", matchIfMissing = true)
+    public WebServiceEndpoints webServiceEndpoints() throws BootStarterCxfException {
+        List<EndpointImpl> endpoints = new ArrayList<>();
+        endpoints.add((EndpointImpl) endpoint());
+        Set<String> serviceUrlEndings = new HashSet<>();
+        serviceUrlEndings.add(serviceUrlEnding());
+        for (DetectedWebService detectedWebService : detectedWebServices().subList(1, detectedWebServices().size())) {
+            String serviceName = detectedWebService.getWebServiceClient().getServiceName().getLocalPart();
+            if (!serviceUrlEndings.add("/" + serviceName)) {
+                throw new BootStarterCxfException("Can´t publish SEI " + detectedWebService.getServiceEndpointInterface().getName()
+                        + ", as another one is already published under the same WSDL service name '" + serviceName + "'");
+            }
+            LOG.info("Initializing further javax.xml.ws.Endpoint based on " + detectedWebService.getSeiImplementation().getClass().getName());
+            endpoints.add(publishEndpoint(detectedWebService.getSeiImplementation(), detectedWebService.getWebServiceClient(), serviceName));
+        }
+        return new WebServiceEndpoints(endpoints);
+    }
+
+    private EndpointImpl publishEndpoint(Object seiImplementation, Service webServiceClient, String publishedEndpointUrl) {
+        EndpointImpl endpoint = new EndpointImpl(springBus(), seiImplementation);
         // CXF JAX-WS implementation relies on the correct ServiceName as QName-Object with
         // the name-Attribute´s text <wsdl:service name="Weather"> and the targetNamespace
         // "http://www.codecentric.de/namespace/weatherservice/"
         // Also the WSDLLocation must be set
-        endpoint.setServiceName(webServiceClient().getServiceName());
-        endpoint.setWsdlLocation(webServiceClient().getWSDLDocumentLocation().toString());
-        if (publishedEndpointUrl.equals("NOT_SET")) {
-            endpoint.setPublishedEndpointUrl(webServiceClient().getServiceName().getLocalPart());
+        endpoint.setServiceName(webServiceClient.getServiceName());
+        String wsdlLocation = webServiceClient.getWSDLDocumentLocation().toString();
+        endpoint.setWsdlLocation(wsdlLocation);
+        endpoint.setPublishedEndpointUrl(publishedEndpointUrl);
+        if (virtualThreadInvocation != null) {
+            virtualThreadInvocation.applyTo(endpoint);
+        }
+        // The lanes take over the invocations from the virtual threads - the requests are still served on them
+        if (laneSchedulingExecutor != null) {
+            laneSchedulingExecutor.applyTo(endpoint);
+        }
+        // Every invocation borrows its own instance of the SEI implementation from the pool
+        SeiInstancePool seiInstancePool = seiInstancePooling != null ? seiInstancePooling.poolOf(seiImplementation, springBus()) : null;
+        if (seiInstancePool != null && asyncTimeouts != null) {
+            endpoint.setInvoker(new AsyncInvoker(seiInstancePool, seiInstancePool.getImplementorClass(), asyncTimeouts));
+        } else if (seiInstancePool != null) {
+            endpoint.setInvoker(new MethodHandleInvoker(seiInstancePool, seiInstancePool.getImplementorClass()));
+        } else if (asyncTimeouts != null) {
+            endpoint.setInvoker(new AsyncInvoker(seiImplementation, asyncTimeouts));
         } else {
-            endpoint.setPublishedEndpointUrl(publishedEndpointUrl);
+            endpoint.setInvoker(new MethodHandleInvoker(seiImplementation));
+        }
+        // Wraps the invoker set before, so the deadline is exposed to the SEI implementation either way
+        if (deadlinePropagation != null) {
+            deadlinePropagation.applyTo(endpoint);
+            deadlinePropagation.addTo(springBus());
+        }
+        if (reactorNettyTransport != null) {
+            reactorNettyTransport.applyTo(endpoint);
         }
         // publish the Service under it´s name mentioned in the WSDL inside name attribute (example: <wsdl:service name="Weather">)
-        endpoint.publish(serviceUrlEnding());
+        String address = "/" + webServiceClient.getServiceName().getLocalPart();
+        Runnable publication = () -> {
+            if (wsdlSnapshotCache != null) {
+                wsdlSnapshotCache.reuse(springBus(), wsdlLocation);
+            }
+            StartupInstrumentation.instrument(springBus());
+            try (SoapStartupStep step = StartupInstrumentation.start("soap.endpoint.publish").tag("address", address)) {
+                endpoint.publish(address);
+            }
+            if (wsdlSnapshotCache != null) {
+                wsdlSnapshotCache.remember(springBus(), wsdlLocation);
+            }
+        };
+        if (lazyEndpointPublisher != null) {
+            lazyEndpointPublisher.register(address, publication);
+        } else {
+            publication.run();
+        }
         return endpoint;
     }
 
     @Bean
     public Service webServiceClient() throws BootStarterCxfException {
         // Needed for correct ServiceName & WSDLLocation to publish contract first incl. original WSDL
+        if (endpointAutoinit) {
+            return detectedWebServices().get(0).getWebServiceClient();
+        }
         return webServiceAutoDetector(null).searchAndInstantiateWebServiceClient();
     }
+
+    private List<DetectedWebService> detectedWebServices() throws BootStarterCxfException {
+        if (detectedWebServices == null) {
+            if (parallelEndpointInitializer != null) {
+                parallelEndpointInitializer.awaitAndApplyTo(springBus());
+            }
+            detectedWebServices = primaryFirst(webServiceAutoDetector(null).searchAndInstantiateWebServices());
+        }
+        return detectedWebServices;
+    }
+
+    /**
+     * The detected web services are sorted by the name of their SEI - unless the primary one is configured explicitly.
+     */
+    private List<DetectedWebService> primaryFirst(List<DetectedWebService> detectedWebServices) throws BootStarterCxfException {
+        List<DetectedWebService> sortedWebServices = new ArrayList<>(detectedWebServices);
+        sortedWebServices.sort(Comparator.comparing(detectedWebService -> detectedWebService.getServiceEndpointInterface().getName()));
+        if (primarySei.trim().isEmpty()) {
+            return sortedWebServices;
+        }
+        for (DetectedWebService detectedWebService : sortedWebServices) {
+            if (detectedWebService.getServiceEndpointInterface().getName().equals(primarySei.trim())) {
+                sortedWebServices.remove(detectedWebService);
+                sortedWebServices.add(0, detectedWebService);
+                return sortedWebServices;
+            }
+        }
+        throw new BootStarterCxfException("The configured primary SEI '" + primarySei.trim() + "' (soap.service.primary.sei) wasn´t detected");
+    }
     
     /**
      * @return the base-URL, where the WebServices are configured (eihter via property or default-value)
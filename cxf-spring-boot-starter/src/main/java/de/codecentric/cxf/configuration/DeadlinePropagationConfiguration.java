@@ -0,0 +1,40 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.deadline.DeadlinePropagation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Deadline propagation: the budget of a SOAP request in milliseconds is taken from the HTTP header
+ * soap.deadline.header (default X-Request-Timeout) or the SOAP header soap.deadline.soap.header (as {namespace}name).
+ * To activate, set property soap.deadline.enabled=true.
+ *
+ * Requests, whose deadline expired, are dropped before unmarshalling and before invocation. The remaining budget is
+ * available to the SEI implementation as Deadline.current() and limits the timeouts of its JAX-WS clients on the
+ * SpringBus. The dropped requests are exposed as Micrometer meter soap.deadline.expired.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.deadline.enabled")
+public class DeadlinePropagationConfiguration {
+
+    @Value("${soap.deadline.header:X-Request-Timeout}")
+    private String httpHeader;
+
+    @Value("${soap.deadline.soap.header:}")
+    private String soapHeader;
+
+    @Value("${soap.deadline.default.millis:0}")
+    private long defaultBudgetMillis;
+
+    @Bean
+    public DeadlinePropagation deadlinePropagation() {
+        return new DeadlinePropagation(
+                httpHeader.trim().isEmpty() ? null : httpHeader.trim(),
+                soapHeader.trim().isEmpty() ? null : QName.valueOf(soapHeader.trim()),
+                defaultBudgetMillis);
+    }
+}
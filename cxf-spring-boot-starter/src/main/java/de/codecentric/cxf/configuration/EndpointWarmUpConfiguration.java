@@ -0,0 +1,78 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.common.WebServiceEndpoints;
+import de.codecentric.cxf.warmup.EndpointWarmUp;
+import de.codecentric.cxf.warmup.SampleRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Warm-up of the Endpoints with sample requests before the readiness goes UP. To activate, set property soap.warmup.enabled=true.
+ *
+ * The sample requests are read from soap.warmup.requests (default classpath*:soap-warmup/*.xml). Duration, replayed exchanges
+ * and mean latency of the first and last round are exposed as Micrometer meters soap.warmup.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.warmup.enabled")
+public class EndpointWarmUpConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EndpointWarmUpConfiguration.class);
+
+    @Value("${soap.warmup.requests:classpath*:soap-warmup/*.xml}")
+    private String requests;
+
+    @Value("${soap.warmup.iterations:1000}")
+    private int iterations;
+
+    @Value("${soap.warmup.max.duration.millis:30000}")
+    private long maxDurationMillis;
+
+    @Autowired(required = false)
+    private WebServiceEndpoints webServiceEndpoints;
+
+    @Bean
+    public EndpointWarmUp endpointWarmUp() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(requests);
+        Arrays.sort(resources, Comparator.comparing(Resource::getDescription));
+        List<SampleRequest> sampleRequests = new ArrayList<>();
+        for (Resource resource : resources) {
+            try (InputStream content = resource.getInputStream()) {
+                sampleRequests.add(new SampleRequest(resource.getFilename(), StreamUtils.copyToByteArray(content)));
+            }
+        }
+        LOG.info("Found {} sample requests for the warm-up in {}", sampleRequests.size(), requests);
+        return new EndpointWarmUp(sampleRequests, iterations, maxDurationMillis);
+    }
+
+    // ApplicationRunners are called before the ReadinessState changes to ACCEPTING_TRAFFIC
+    @Bean
+    public ApplicationRunner endpointWarmUpRunner() {
+        return arguments -> {
+            if (webServiceEndpoints == null) {
+                // Without autoinitialization (endpoint.autoinit=false) there are no Endpoints to warm up
+                return;
+            }
+            try {
+                endpointWarmUp().warmUp(webServiceEndpoints);
+            } catch (RuntimeException exception) {
+                LOG.warn("Warm-up of the Endpoints failed, they will receive traffic cold", exception);
+            }
+        };
+    }
+}
@@ -0,0 +1,41 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.flightrecorder.FlightRecorderEndpoint;
+import de.codecentric.cxf.flightrecorder.SoapExchangeFlightRecorder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * In-memory flight recorder of the recent and the slowest SOAP exchanges. To activate, set property soap.flightrecorder.enabled=true.
+ *
+ * The exchanges are captured by the SOAP message logging interceptors (see {@link SoapMessageLoggerConfiguration})
+ * and exposed through the actuator endpoint /actuator/soapflightrecorder.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.flightrecorder.enabled")
+public class FlightRecorderConfiguration {
+
+    @Value("${soap.flightrecorder.capacity:256}")
+    private int capacity;
+
+    @Value("${soap.flightrecorder.slowest.per.operation:10}")
+    private int slowestPerOperation;
+
+    @Value("${soap.flightrecorder.max.operations:64}")
+    private int maxOperations;
+
+    @Value("${soap.flightrecorder.payload.limit:4096}")
+    private int payloadLimit;
+
+    @Bean
+    public SoapExchangeFlightRecorder soapExchangeFlightRecorder() {
+        return new SoapExchangeFlightRecorder(capacity, slowestPerOperation, maxOperations, payloadLimit);
+    }
+
+    @Bean
+    public FlightRecorderEndpoint flightRecorderEndpoint() {
+        return new FlightRecorderEndpoint(soapExchangeFlightRecorder());
+    }
+}
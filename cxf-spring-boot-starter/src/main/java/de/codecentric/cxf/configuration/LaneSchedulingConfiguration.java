@@ -0,0 +1,88 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.scheduling.DefaultLaneSelector;
+import de.codecentric.cxf.scheduling.Lane;
+import de.codecentric.cxf.scheduling.LaneSchedulingExecutor;
+import de.codecentric.cxf.scheduling.LaneSelector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the SEI invocations in separate lanes with their own concurrency and queue limits. To activate, set property
+ * soap.scheduling.enabled=true.
+ *
+ * The lanes are named by soap.scheduling.lanes - the first one is the default lane - and configured by
+ * soap.scheduling.lane.&lt;name&gt;.concurrency, .queue and .operations. Besides the operation, the lane is selected by
+ * the priority header and the size of the request - or by your own {@link LaneSelector} Bean. The lanes are exposed as
+ * Micrometer meters soap.scheduling.lane.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.scheduling.enabled")
+public class LaneSchedulingConfiguration {
+
+    private static final String LANE_PROPERTY_PREFIX = "soap.scheduling.lane.";
+
+    @Value("${soap.scheduling.lanes:default}")
+    private String[] laneNames;
+
+    @Value("${soap.scheduling.priority.header:}")
+    private String priorityHeader;
+
+    @Value("${soap.scheduling.size.lane:}")
+    private String sizeLane;
+
+    @Value("${soap.scheduling.size.threshold.bytes:1048576}")
+    private long sizeThresholdBytes;
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LaneSelector laneSelector() {
+        Map<String, String> operationLanes = new HashMap<>();
+        for (String laneName : laneNames()) {
+            for (String operation : environment.getProperty(LANE_PROPERTY_PREFIX + laneName + ".operations", String[].class, new String[0])) {
+                operationLanes.put(operation.trim(), laneName);
+            }
+        }
+        return new DefaultLaneSelector(emptyToNull(priorityHeader), emptyToNull(sizeLane), sizeThresholdBytes, operationLanes);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public LaneSchedulingExecutor laneSchedulingExecutor(LaneSelector laneSelector, ObjectProvider<CurrentTraceContext> currentTraceContext) {
+        List<Lane> lanes = new ArrayList<>();
+        for (String laneName : laneNames()) {
+            lanes.add(new Lane(laneName,
+                    environment.getProperty(LANE_PROPERTY_PREFIX + laneName + ".concurrency", Integer.class, 10),
+                    environment.getProperty(LANE_PROPERTY_PREFIX + laneName + ".queue", Integer.class, 100)));
+        }
+        return new LaneSchedulingExecutor(lanes, laneSelector, currentTraceContext.getIfAvailable());
+    }
+
+    private List<String> laneNames() {
+        List<String> names = new ArrayList<>();
+        for (String laneName : laneNames) {
+            if (!laneName.trim().isEmpty()) {
+                names.add(laneName.trim());
+            }
+        }
+        return names;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,60 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.publication.LazyEndpointPublicationFilter;
+import de.codecentric.cxf.publication.LazyEndpointPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Lazy publication of the autodetected Endpoints. To activate, set property soap.endpoint.lazy=true.
+ *
+ * The CXFServlet is registered right away, the Endpoints are published on the first request or in a background thread
+ * after the ApplicationReadyEvent - whichever comes first.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.endpoint.lazy")
+public class LazyEndpointPublicationConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyEndpointPublicationConfiguration.class);
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Bean
+    public LazyEndpointPublisher lazyEndpointPublisher() {
+        return new LazyEndpointPublisher();
+    }
+
+    @Bean
+    public FilterRegistrationBean lazyEndpointPublicationFilterRegistrationBean() {
+        FilterRegistrationBean filterRegistrationBean = new FilterRegistrationBean();
+        filterRegistrationBean.setFilter(new LazyEndpointPublicationFilter(lazyEndpointPublisher()));
+        filterRegistrationBean.setName("lazyEndpointPublicationFilter");
+        filterRegistrationBean.addUrlPatterns(baseUrl + "/*");
+        filterRegistrationBean.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> lazyEndpointPublicationInBackground() {
+        return event -> {
+            Thread publisher = new Thread(() -> {
+                try {
+                    lazyEndpointPublisher().publish();
+                } catch (RuntimeException exception) {
+                    LOG.error("Lazy publication of the Endpoints failed", exception);
+                }
+            }, "soap-endpoint-publisher");
+            publisher.setDaemon(true);
+            publisher.start();
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.ingest.NonBlockingIngest;
+import de.codecentric.cxf.ingest.NonBlockingIngestFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.servlet.DispatcherType;
+
+/**
+ * Non-blocking ingest of the SOAP requests: the envelopes are read through a Servlet 3.1 ReadListener while they arrive
+ * and the CXFServlet is only invoked with the complete envelope - slow consumers don´t hold a servlet thread anymore. To
+ * activate, set property soap.ingest.nonblocking.enabled=true and add com.fasterxml:aalto-xml to the dependencies.
+ *
+ * Envelopes larger than soap.ingest.max.bytes are rejected with HTTP 413, envelopes not complete after
+ * soap.ingest.timeout.millis with HTTP 408. The ingest is exposed as Micrometer meters soap.ingest.*.
+ */
+@Configuration
+@ConditionalOnClass(name = "com.fasterxml.aalto.AsyncXMLStreamReader")
+@ConditionalOnProperty(name = "soap.ingest.nonblocking.enabled")
+public class NonBlockingIngestConfiguration {
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Value("${soap.ingest.max.bytes:10485760}")
+    private int maxEnvelopeBytes;
+
+    @Value("${soap.ingest.timeout.millis:30000}")
+    private long timeoutMillis;
+
+    @Bean
+    public NonBlockingIngest nonBlockingIngest() {
+        return new NonBlockingIngest(maxEnvelopeBytes, timeoutMillis);
+    }
+
+    @Bean
+    public FilterRegistrationBean nonBlockingIngestFilterRegistrationBean() {
+        FilterRegistrationBean filterRegistrationBean = new FilterRegistrationBean();
+        filterRegistrationBean.setFilter(new NonBlockingIngestFilter(nonBlockingIngest()));
+        filterRegistrationBean.setName("nonBlockingIngestFilter");
+        filterRegistrationBean.addUrlPatterns(baseUrl + "/*");
+        // Also for the dispatch with the complete envelope - and right in front of the CXFServlet, behind the measuring
+        // filters (imported before with the same order), that complete once the async exchange is complete
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        filterRegistrationBean.setAsyncSupported(true);
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE);
+        return filterRegistrationBean;
+    }
+}
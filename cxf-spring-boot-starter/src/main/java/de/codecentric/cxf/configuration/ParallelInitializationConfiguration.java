@@ -0,0 +1,26 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.initialization.ParallelEndpointInitializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Parallel preparation of the autodetected Endpoints during startup. To activate, set property soap.init.parallel.enabled=true.
+ *
+ * The WSDL parsing and the creation of the JAXBContexts run on soap.init.parallel.threads (default 2) threads, overlapping
+ * the rest of Spring´s bean creation. Without the autoinitialization of the Endpoints (endpoint.autoinit=false) there´s
+ * nothing to prepare.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.init.parallel.enabled")
+public class ParallelInitializationConfiguration {
+
+    // static, as BeanFactoryPostProcessors are created before the @Value fields of any Configuration are injected
+    @Bean
+    @ConditionalOnProperty(name = "endpoint.autoinit", matchIfMissing = true)
+    public static ParallelEndpointInitializer parallelEndpointInitializer(Environment environment) {
+        return new ParallelEndpointInitializer(environment.getProperty("soap.init.parallel.threads", Integer.class, 2));
+    }
+}
@@ -0,0 +1,46 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.reactornetty.ReactorNettyTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reactor Netty transport: the Endpoints are served on Reactor Netty with event loop I/O instead of the CXFServlet, under
+ * the same soap.service.base.url. To activate, set property soap.transport=reactor-netty and add
+ * io.projectreactor.netty:reactor-netty-http to the dependencies.
+ *
+ * Netty listens on soap.transport.netty.port (default 8090), the blocking invocations run on at most
+ * soap.transport.netty.invocation.threads threads, with at most soap.transport.netty.invocation.queue requests waiting.
+ * Request bodies larger than soap.transport.netty.max.body.bytes are refused with HTTP 413.
+ */
+@Configuration
+@ConditionalOnClass(name = "reactor.netty.http.server.HttpServer")
+@ConditionalOnProperty(name = "soap.transport", havingValue = "reactor-netty")
+public class ReactorNettyTransportConfiguration {
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Value("${soap.transport.netty.host:0.0.0.0}")
+    private String host;
+
+    @Value("${soap.transport.netty.port:8090}")
+    private int port;
+
+    @Value("${soap.transport.netty.invocation.threads:#{T(java.lang.Runtime).getRuntime().availableProcessors() * 10}}")
+    private int invocationThreads;
+
+    @Value("${soap.transport.netty.invocation.queue:1000}")
+    private int invocationQueue;
+
+    @Value("${soap.transport.netty.max.body.bytes:10485760}")
+    private long maxBodyBytes;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ReactorNettyTransport reactorNettyTransport() {
+        return new ReactorNettyTransport(baseUrl, host, port, invocationThreads, invocationQueue, maxBodyBytes);
+    }
+}
@@ -0,0 +1,65 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.resourceaccounting.ResourceAccountingFilter;
+import de.codecentric.cxf.resourceaccounting.SampledResourceAccounting;
+import de.codecentric.cxf.xmlvalidation.FaultTypeExposingInterceptor;
+import org.apache.cxf.bus.spring.SpringBus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+
+/**
+ * Sampled CPU time and allocation accounting per SOAP operation and FaultType. To activate, set property
+ * soap.resource.accounting.enabled=true.
+ *
+ * The share of sampled exchanges is configured via soap.resource.accounting.sample.rate (default 0.1). The usage is
+ * exported as Micrometer meters soap.operation.cpu and soap.operation.allocated.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.resource.accounting.enabled")
+public class ResourceAccountingConfiguration {
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Value("${soap.resource.accounting.sample.rate:0.1}")
+    private double sampleRate;
+
+    @Value("${soap.resource.accounting.max.operations:64}")
+    private int maxOperations;
+
+    @Autowired(required = false)
+    private SpringBus springBus;
+
+    @PostConstruct
+    public void exposeFaultTypes() {
+        // Without the SpringBus (endpoint.autoinit=false) errors are only accounted as UNCLASSIFIED
+        if (springBus != null) {
+            FaultTypeExposingInterceptor.addTo(springBus);
+        }
+    }
+
+    @Bean
+    public SampledResourceAccounting sampledResourceAccounting() {
+        return new SampledResourceAccounting(sampleRate, maxOperations);
+    }
+
+    @Bean
+    public FilterRegistrationBean resourceAccountingFilterRegistrationBean() {
+        FilterRegistrationBean filterRegistrationBean = new FilterRegistrationBean();
+        filterRegistrationBean.setFilter(new ResourceAccountingFilter(sampledResourceAccounting()));
+        filterRegistrationBean.setName("resourceAccountingFilter");
+        // Imported after the TimeLoggingFilter with the same order, it runs inside of it - and populates the MDC before
+        // the call time is logged
+        filterRegistrationBean.addUrlPatterns(baseUrl + "/*");
+        // The resumed requests of suspended invocations are processed in an async dispatch
+        filterRegistrationBean.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return filterRegistrationBean;
+    }
+}
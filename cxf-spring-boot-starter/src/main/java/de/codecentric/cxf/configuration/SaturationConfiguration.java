@@ -0,0 +1,89 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.saturation.SaturationFilter;
+import de.codecentric.cxf.saturation.SaturationHealthIndicator;
+import de.codecentric.cxf.saturation.SaturationMonitor;
+import de.codecentric.cxf.saturation.TomcatQueueDepth;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Saturation-aware readiness: flips the readiness to REFUSING_TRAFFIC, if the in-flight SOAP exchanges, their recent
+ * p99 latency or the executor queue depth cross the thresholds. To activate, set property soap.saturation.enabled=true.
+ *
+ * The saturation is exposed as health contributor soapSaturation, as Micrometer meters soap.saturation.* and as
+ * response header X-Load-Factor.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.saturation.enabled")
+public class SaturationConfiguration {
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Value("${soap.saturation.max.inflight:200}")
+    private int maxInFlight;
+
+    @Value("${soap.saturation.max.p99.millis:5000}")
+    private long maxP99LatencyMillis;
+
+    @Value("${soap.saturation.max.queue.depth:100}")
+    private int maxQueueDepth;
+
+    @Value("${soap.saturation.recovery.ratio:0.8}")
+    private double recoveryRatio;
+
+    @Value("${soap.saturation.latency.window:1024}")
+    private int latencyWindow;
+
+    @Value("${soap.saturation.latency.max.age.millis:30000}")
+    private long latencyMaxAgeMillis;
+
+    @Value("${soap.saturation.interval.millis:1000}")
+    private long intervalMillis;
+
+    @Value("${soap.saturation.header:X-Load-Factor}")
+    private String loadFactorHeader;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public SaturationMonitor saturationMonitor(ApplicationEventPublisher eventPublisher) {
+        return new SaturationMonitor(eventPublisher, maxInFlight, maxP99LatencyMillis, maxQueueDepth, recoveryRatio,
+                latencyWindow, latencyMaxAgeMillis, intervalMillis);
+    }
+
+    @Bean
+    public FilterRegistrationBean saturationFilterRegistrationBean(SaturationMonitor saturationMonitor) {
+        FilterRegistrationBean filterRegistrationBean = new FilterRegistrationBean();
+        filterRegistrationBean.setFilter(new SaturationFilter(saturationMonitor, loadFactorHeader));
+        filterRegistrationBean.setName("saturationFilter");
+        filterRegistrationBean.addUrlPatterns(baseUrl + "/*");
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public SaturationHealthIndicator soapSaturationHealthIndicator(SaturationMonitor saturationMonitor) {
+        return new SaturationHealthIndicator(saturationMonitor);
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+    protected static class TomcatQueueDepthConfiguration {
+
+        @Bean
+        public ApplicationListener<WebServerInitializedEvent> tomcatQueueDepthMonitoring(SaturationMonitor saturationMonitor) {
+            return event -> {
+                TomcatQueueDepth queueDepth = TomcatQueueDepth.of(event.getWebServer());
+                if (queueDepth != null) {
+                    saturationMonitor.monitorQueueDepth(queueDepth);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.pooling.SeiInstancePooling;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pooled instances of the SEI implementations, for implementations that aren´t thread-safe: every SEI implementation is
+ * instantiated soap.sei.pool.size times through Spring and every invocation borrows an instance of its own. To activate,
+ * set property soap.sei.pool.enabled=true.
+ *
+ * Invocations not getting an instance within soap.sei.pool.wait.timeout.millis end with a SOAP fault. The pools are
+ * exposed as Micrometer meters soap.sei.pool.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.sei.pool.enabled")
+public class SeiInstancePoolingConfiguration {
+
+    @Value("${soap.sei.pool.size:16}")
+    private int poolSize;
+
+    @Value("${soap.sei.pool.wait.timeout.millis:30000}")
+    private long waitTimeoutMillis;
+
+    @Bean
+    public SeiInstancePooling seiInstancePooling(ApplicationContext applicationContext) {
+        return new SeiInstancePooling(applicationContext.getAutowireCapableBeanFactory(), poolSize, waitTimeoutMillis);
+    }
+}
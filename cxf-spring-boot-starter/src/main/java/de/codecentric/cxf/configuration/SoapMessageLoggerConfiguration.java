@@ -1,5 +1,6 @@
 package de.codecentric.cxf.configuration;
 
+import de.codecentric.cxf.flightrecorder.SoapExchangeFlightRecorder;
 import de.codecentric.cxf.logging.soapmsg.SoapMessageLoggingInInterceptor;
 import de.codecentric.cxf.logging.soapmsg.SoapMessageLoggingOutInterceptor;
 import org.apache.cxf.bus.spring.SpringBus;
@@ -12,13 +13,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 
-import javax.annotation.PostConstruct;
 
 /**
  * Logging of SoapMessages to e.g. Console. To activate, set property soap.messages.logging=true.
  *
  * Extraction of SoapMessages, so they can be further processed, e.g. via Logstash to push to elasticsearch.
  * Activate with property soap.messages.extract=true.
+ *
+ * Recording of SoapMessages into the in-memory {@link SoapExchangeFlightRecorder}.
+ * Activate with property soap.flightrecorder.enabled=true (see {@link FlightRecorderConfiguration}).
  * 
  * @author Jonas Hecht
  */
@@ -47,20 +50,23 @@ public class SoapMessageLoggerConfiguration {
         return "unused - this is just to activate Extraction of SoapMessages via SpringBoot";
     }
 
+    @Bean
+    @ConditionalOnProperty("soap.flightrecorder.enabled")
+    public String flightRecorderActivatedLogger(SoapExchangeFlightRecorder soapExchangeFlightRecorder) {
+        ((SoapMessageLoggingInInterceptor) logInInterceptorSoapMsgLogger()).recordSoapMessage(soapExchangeFlightRecorder);
+        ((SoapMessageLoggingOutInterceptor) logOutInterceptorSoapMsgLogger()).recordSoapMessage(soapExchangeFlightRecorder);
+        return "unused - this is just to activate Recording of SoapMessages via SpringBoot";
+    }
 
-	@PostConstruct
-	public void activateLoggingFeature() {
-		// Log SoapMessages to Logfile
-    	springBus.getInInterceptors().add(logInInterceptorSoapMsgLogger());
-    	springBus.getInFaultInterceptors().add(logInInterceptorSoapMsgLogger());
-    	springBus.getOutInterceptors().add(logOutInterceptorSoapMsgLogger());
-    	springBus.getOutFaultInterceptors().add(logOutInterceptorSoapMsgLogger());
-	}
 
+	// Log SoapMessages to Logfile - the Interceptors are added to the Bus right where they are created, because
+	// calling the @Bean methods from a @PostConstruct of this Configuration is a circular reference since Spring Boot 2.6
 	@Bean
 	public AbstractLoggingInterceptor logInInterceptorSoapMsgLogger() {
         SoapMessageLoggingInInterceptor logInInterceptor = new SoapMessageLoggingInInterceptor();
         logInInterceptor.setPrettyLogging(true);
+        springBus.getInInterceptors().add(logInInterceptor);
+        springBus.getInFaultInterceptors().add(logInInterceptor);
         return logInInterceptor;
 	}
 	
@@ -68,12 +74,14 @@ public class SoapMessageLoggerConfiguration {
 	public AbstractLoggingInterceptor logOutInterceptorSoapMsgLogger() {
         SoapMessageLoggingOutInterceptor logOutInterceptor = new SoapMessageLoggingOutInterceptor();
 		logOutInterceptor.setPrettyLogging(true);
+        springBus.getOutInterceptors().add(logOutInterceptor);
+        springBus.getOutFaultInterceptors().add(logOutInterceptor);
 		return logOutInterceptor; 
 	}
 
     /*
      * This way we can provide the behavior to autoconfigure this Logger, if one of the properties
-     * soap.message.logging and/or soap.message.extract are provided in application.properties of the
+     * soap.message.logging, soap.message.extract and/or soap.flightrecorder.enabled are provided in application.properties of the
      * using project
      * It´s a kind of workaround, till Spring Boot supports the Repeatable @ConditionalOnProperty
      * (https://github.com/spring-projects/spring-boot/issues/2541)
@@ -89,5 +97,8 @@ public class SoapMessageLoggerConfiguration {
 
         @ConditionalOnProperty("soap.messages.extract")
         static class ElasticSearchExtractionEnabled {}
+
+        @ConditionalOnProperty("soap.flightrecorder.enabled")
+        static class FlightRecorderEnabled {}
     }
 }
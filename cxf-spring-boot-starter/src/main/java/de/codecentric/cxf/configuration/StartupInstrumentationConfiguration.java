@@ -0,0 +1,21 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.startup.StartupRecording;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Instrumentation of the starter´s startup as ApplicationStartup steps and JFR events - always active, as both are no-ops
+ * as long as nobody records them. To log a report of the steps at the ApplicationReadyEvent, set property
+ * soap.startup.report.enabled=true.
+ */
+@Configuration
+public class StartupInstrumentationConfiguration {
+
+    // static, as BeanFactoryPostProcessors are created before the @Value fields of any Configuration are injected
+    @Bean
+    public static StartupRecording startupRecording(Environment environment) {
+        return new StartupRecording(environment.getProperty("soap.startup.report.enabled", Boolean.class, false));
+    }
+}
@@ -0,0 +1,55 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.watchdog.StuckExchangeWatchdog;
+import de.codecentric.cxf.watchdog.StuckExchangeWatchdogEndpoint;
+import de.codecentric.cxf.watchdog.StuckExchangeWatchdogFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Watchdog reporting SOAP exchanges, that are stuck longer than soap.watchdog.threshold.millis, with a stack sample of
+ * the serving thread. To activate, set property soap.watchdog.enabled=true.
+ *
+ * The stuck exchanges are exposed through the actuator endpoint /actuator/soapwatchdog and as Micrometer meters soap.watchdog.*.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.watchdog.enabled")
+public class StuckExchangeWatchdogConfiguration {
+
+    @Value("${soap.service.base.url:/soap-api}")
+    private String baseUrl;
+
+    @Value("${soap.watchdog.threshold.millis:30000}")
+    private long thresholdMillis;
+
+    @Value("${soap.watchdog.interval.millis:5000}")
+    private long intervalMillis;
+
+    @Value("${soap.watchdog.max.inflight:1024}")
+    private int maxInFlight;
+
+    @Value("${soap.watchdog.stack.depth:32}")
+    private int stackDepth;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public StuckExchangeWatchdog stuckExchangeWatchdog() {
+        return new StuckExchangeWatchdog(maxInFlight, thresholdMillis, intervalMillis, stackDepth);
+    }
+
+    @Bean
+    public FilterRegistrationBean stuckExchangeWatchdogFilterRegistrationBean() {
+        FilterRegistrationBean filterRegistrationBean = new FilterRegistrationBean();
+        filterRegistrationBean.setFilter(new StuckExchangeWatchdogFilter(stuckExchangeWatchdog()));
+        filterRegistrationBean.setName("stuckExchangeWatchdogFilter");
+        filterRegistrationBean.addUrlPatterns(baseUrl + "/*");
+        return filterRegistrationBean;
+    }
+
+    @Bean
+    public StuckExchangeWatchdogEndpoint stuckExchangeWatchdogEndpoint() {
+        return new StuckExchangeWatchdogEndpoint(stuckExchangeWatchdog());
+    }
+}
@@ -0,0 +1,88 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.virtualthreads.VirtualThreadInvocation;
+import de.codecentric.cxf.virtualthreads.VirtualThreadPinningGuard;
+import de.codecentric.cxf.virtualthreads.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Serves the SOAP requests on virtual threads - incl. the propagation of the MDC and the Sleuth trace context to the
+ * SEI invocations. To activate, set property soap.virtual.threads.enabled=true.
+ *
+ * Needs Java 21 - on older JVMs a warning is logged and the requests keep being served by the platform threads. Virtual
+ * threads pinned to their carrier thread are reported by a guard and exported as Micrometer meter soap.virtual.threads.pinned.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.virtual.threads.enabled")
+public class VirtualThreadConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @PostConstruct
+    public void warnIfNotSupported() {
+        if (!VirtualThreads.isSupported()) {
+            LOG.warn("Virtual threads are not supported by this JVM (Java 21 or newer needed), SOAP requests are served by platform threads");
+        }
+    }
+
+    @Configuration
+    @Conditional(OnVirtualThreadsSupported.class)
+    protected static class VirtualThreadsSupportedConfiguration {
+
+        @Value("${soap.virtual.threads.pinning.threshold.millis:20}")
+        private long pinningThresholdMillis;
+
+        @Value("${soap.virtual.threads.pinning.stack.depth:32}")
+        private int pinningStackDepth;
+
+        @Bean(destroyMethod = "shutdown")
+        public VirtualThreadInvocation virtualThreadInvocation(ObjectProvider<CurrentTraceContext> currentTraceContext) {
+            return new VirtualThreadInvocation(currentTraceContext.getIfAvailable());
+        }
+
+        @Bean(initMethod = "start", destroyMethod = "stop")
+        public VirtualThreadPinningGuard virtualThreadPinningGuard() {
+            return new VirtualThreadPinningGuard(pinningThresholdMillis, pinningStackDepth);
+        }
+    }
+
+    @Configuration
+    @Conditional(OnVirtualThreadsSupported.class)
+    @ConditionalOnClass(name = "org.apache.catalina.startup.Tomcat")
+    protected static class VirtualThreadsTomcatConfiguration {
+
+        // Tomcat´s maxThreads doesn´t apply anymore, the concurrent connections are limited by server.tomcat.max-connections
+        @Bean
+        public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(VirtualThreadInvocation virtualThreadInvocation) {
+            return protocolHandler -> protocolHandler.setExecutor(virtualThreadInvocation.requestExecutor());
+        }
+    }
+
+    static class OnVirtualThreadsSupported extends SpringBootCondition {
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            if (VirtualThreads.isSupported()) {
+                return ConditionOutcome.match("virtual threads are supported");
+            }
+            return ConditionOutcome.noMatch("virtual threads are not supported by this JVM");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package de.codecentric.cxf.configuration;
+
+import de.codecentric.cxf.wsdlcache.WsdlSnapshotCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Persistent cache of the resolved WSDL contract, keyed by the SHA-256 of all its documents. To activate, set property
+ * soap.wsdl.cache.enabled=true. The snapshots are written to soap.wsdl.cache.dir (default
+ * ${java.io.tmpdir}/cxf-spring-boot-starter/wsdl-cache).
+ *
+ * Hits and misses are exposed as Micrometer meters soap.wsdl.cache.hits and soap.wsdl.cache.misses.
+ */
+@Configuration
+@ConditionalOnProperty(name = "soap.wsdl.cache.enabled")
+public class WsdlSnapshotCacheConfiguration {
+
+    @Value("${soap.wsdl.cache.dir:${java.io.tmpdir}/cxf-spring-boot-starter/wsdl-cache}")
+    private String cacheDirectory;
+
+    @Bean
+    public WsdlSnapshotCache wsdlSnapshotCache() {
+        return new WsdlSnapshotCache(Paths.get(cacheDirectory));
+    }
+}
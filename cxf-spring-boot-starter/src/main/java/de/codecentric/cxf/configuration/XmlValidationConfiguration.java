@@ -1,5 +1,6 @@
 package de.codecentric.cxf.configuration;
 
+import de.codecentric.cxf.common.WebServiceEndpoints;
 import de.codecentric.cxf.xmlvalidation.CustomFaultBuilder;
 import de.codecentric.cxf.xmlvalidation.SoapFaultBuilder;
 import de.codecentric.cxf.xmlvalidation.XmlValidationInterceptor;
@@ -11,14 +12,12 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import javax.annotation.PostConstruct;
-import javax.xml.ws.Endpoint;
 
 /**
  * Configure extended XML-Schema validation incl. customizing of the responding SoapFaults.
  * Could be activated by configuring your own FaultDetailBuilder as a {@link Bean},
- * which must implement {@link CustomFaultBuilder}. Additionally, a {@link Bean}
- * of Type {@link Endpoint} which configures a {@link EndpointImpl} is needed.
+ * which must implement {@link CustomFaultBuilder}. The validation is configured for all
+ * {@link EndpointImpl}s in the {@link WebServiceEndpoints} published by the starter.
  * 
  * @author Jonas Hecht
  *
@@ -29,7 +28,7 @@ import javax.xml.ws.Endpoint;
 public class XmlValidationConfiguration {
 
     @Autowired
-    public Endpoint endpoint;
+    public WebServiceEndpoints webServiceEndpoints;
 
     @Bean
     public SoapFaultBuilder soapFaultBuilder() {
@@ -40,8 +39,10 @@ public class XmlValidationConfiguration {
     public AbstractSoapInterceptor soapInterceptor() {
         XmlValidationInterceptor xmlValidationInterceptor = new XmlValidationInterceptor();
         xmlValidationInterceptor.setSoapFaultBuilder(soapFaultBuilder());
-        EndpointImpl endpointImpl = (EndpointImpl)endpoint; // we need the implementation here, to configure our Interceptor
-        endpointImpl.getOutFaultInterceptors().add(xmlValidationInterceptor);
+        // we need the implementation here, to configure our Interceptor - on every published Endpoint
+        for (EndpointImpl endpointImpl : webServiceEndpoints) {
+            endpointImpl.getOutFaultInterceptors().add(xmlValidationInterceptor);
+        }
         return xmlValidationInterceptor;
     }
 }
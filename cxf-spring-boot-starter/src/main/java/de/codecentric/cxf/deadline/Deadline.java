@@ -0,0 +1,55 @@
+package de.codecentric.cxf.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time, after which the consumer of a SOAP request doesn´t wait for the response anymore. Inside the SEI
+ * implementation the deadline of the current request is available through {@link #current()}.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @param budgetMillis the milliseconds from now on, the consumer waits for the response
+     * @return the deadline
+     */
+    public static Deadline after(long budgetMillis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+    }
+
+    /**
+     * @return the deadline of the SOAP request, whose SEI implementation is invoked on the current thread - or null, if
+     * the request has none (or the code doesn´t run on the invoking thread)
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    static Deadline setCurrent(Deadline deadline) {
+        Deadline previous = CURRENT.get();
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+        return previous;
+    }
+
+    /**
+     * @return the milliseconds left until the deadline, negative if it has already expired
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+}
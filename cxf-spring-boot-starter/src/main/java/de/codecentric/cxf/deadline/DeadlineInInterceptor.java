@@ -0,0 +1,81 @@
+package de.codecentric.cxf.deadline;
+
+import de.codecentric.cxf.common.PreRenderedSoapFault;
+import de.codecentric.cxf.concurrencylimit.ConcurrencyLimitInterceptor;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.AbstractSoapInterceptor;
+import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
+import org.apache.cxf.headers.Header;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.Phase;
+import org.w3c.dom.Element;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.xml.namespace.QName;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Apache CXF In-Interceptor, that takes the {@link Deadline} of the request from the HTTP or SOAP header right after the
+ * SOAP headers were read - and drops the request with HTTP 504 and a pre-rendered SOAP fault, if it has already expired.
+ * It´s processed before the {@link ConcurrencyLimitInterceptor}, so expired requests don´t take an admission.
+ */
+public class DeadlineInInterceptor extends AbstractSoapInterceptor {
+
+    static final String EXPIRED_MESSAGE = "Deadline of the request expired";
+
+    private static final PreRenderedSoapFault EXPIRED = new PreRenderedSoapFault(EXPIRED_MESSAGE);
+
+    private final DeadlinePropagation deadlinePropagation;
+
+    public DeadlineInInterceptor(DeadlinePropagation deadlinePropagation) {
+        super(Phase.READ);
+        addAfter(ReadHeadersInterceptor.class.getName());
+        addBefore(ConcurrencyLimitInterceptor.class.getName());
+        this.deadlinePropagation = deadlinePropagation;
+    }
+
+    @Override
+    public Set<QName> getUnderstoodHeaders() {
+        QName soapHeader = deadlinePropagation.soapHeader();
+        return soapHeader != null ? Collections.singleton(soapHeader) : Collections.emptySet();
+    }
+
+    @Override
+    public void handleMessage(SoapMessage message) throws Fault {
+        Deadline deadline = deadlinePropagation.deadlineOf(budgetOf(message));
+        if (deadline == null) {
+            return;
+        }
+        message.getExchange().put(Deadline.class, deadline);
+        if (deadline.isExpired()) {
+            deadlinePropagation.expired(DeadlinePropagation.STAGE_UNMARSHALLING, deadline);
+            if (!EXPIRED.respond(message, HttpServletResponse.SC_GATEWAY_TIMEOUT, Collections.emptyMap())) {
+                throw new Fault(new TimeoutException(EXPIRED_MESSAGE));
+            }
+        }
+    }
+
+    private String budgetOf(SoapMessage message) {
+        String httpHeader = deadlinePropagation.httpHeader();
+        if (httpHeader != null) {
+            // CXF keeps the HTTP headers case-insensitive
+            Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+            List<String> budget = headers != null ? headers.get(httpHeader) : null;
+            if (budget != null && !budget.isEmpty()) {
+                return budget.get(0);
+            }
+        }
+        QName soapHeader = deadlinePropagation.soapHeader();
+        Header header = soapHeader != null ? message.getHeader(soapHeader) : null;
+        if (header != null && header.getObject() instanceof Element) {
+            return ((Element) header.getObject()).getTextContent();
+        }
+        return null;
+    }
+}
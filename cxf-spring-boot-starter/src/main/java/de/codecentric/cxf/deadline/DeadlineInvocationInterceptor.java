@@ -0,0 +1,32 @@
+package de.codecentric.cxf.deadline;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Apache CXF In-Interceptor, that checks the {@link Deadline} of the request once more right before the SEI
+ * implementation is invoked. An expired request ends with a Fault here - unlike a pre-rendered response, that unwinds
+ * the chain, so everything the request acquired so far (like the admission of the concurrency limit) is released.
+ */
+public class DeadlineInvocationInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private final DeadlinePropagation deadlinePropagation;
+
+    public DeadlineInvocationInterceptor(DeadlinePropagation deadlinePropagation) {
+        super(Phase.PRE_INVOKE);
+        this.deadlinePropagation = deadlinePropagation;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Deadline deadline = message.getExchange().get(Deadline.class);
+        if (deadline != null && deadline.isExpired()) {
+            deadlinePropagation.expired(DeadlinePropagation.STAGE_INVOCATION, deadline);
+            throw new Fault(new TimeoutException(DeadlineInInterceptor.EXPIRED_MESSAGE + " before the invocation"));
+        }
+    }
+}
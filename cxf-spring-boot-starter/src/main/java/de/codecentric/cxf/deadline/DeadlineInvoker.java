@@ -0,0 +1,31 @@
+package de.codecentric.cxf.deadline;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.service.invoker.Invoker;
+
+/**
+ * Exposes the {@link Deadline} of the request as {@link Deadline#current()} to the SEI implementation - on the thread
+ * invoking it, whichever executor that thread belongs to.
+ */
+public class DeadlineInvoker implements Invoker {
+
+    private final Invoker delegate;
+
+    public DeadlineInvoker(Invoker delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object invoke(Exchange exchange, Object o) {
+        Deadline deadline = exchange.get(Deadline.class);
+        if (deadline == null) {
+            return delegate.invoke(exchange, o);
+        }
+        Deadline previous = Deadline.setCurrent(deadline);
+        try {
+            return delegate.invoke(exchange, o);
+        } finally {
+            Deadline.setCurrent(previous);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package de.codecentric.cxf.deadline;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.http.HTTPConduit;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Apache CXF Out-Interceptor of the clients, that limits the connection and receive timeout of an outbound call to the
+ * remaining budget of the {@link Deadline#current()} and hands the budget on in the HTTP header. If the deadline has
+ * already expired, the call isn´t made at all.
+ */
+public class DeadlineOutboundInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private final DeadlinePropagation deadlinePropagation;
+
+    public DeadlineOutboundInterceptor(DeadlinePropagation deadlinePropagation) {
+        super(Phase.SETUP);
+        this.deadlinePropagation = deadlinePropagation;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Deadline deadline = Deadline.current();
+        // The interceptor is on the Bus, so it also sees the responses of the Endpoints
+        if (deadline == null || !MessageUtils.isRequestor(message)) {
+            return;
+        }
+        long remainingMillis = deadline.remainingMillis();
+        if (remainingMillis <= 0) {
+            deadlinePropagation.expired(DeadlinePropagation.STAGE_OUTBOUND, deadline);
+            throw new Fault(new TimeoutException(DeadlineInInterceptor.EXPIRED_MESSAGE + " before the outbound call"));
+        }
+        message.put(Message.CONNECTION_TIMEOUT, limited(message.get(Message.CONNECTION_TIMEOUT), remainingMillis,
+                conduit -> conduit.getClient().getConnectionTimeout(), message));
+        message.put(Message.RECEIVE_TIMEOUT, limited(message.get(Message.RECEIVE_TIMEOUT), remainingMillis,
+                conduit -> conduit.getClient().getReceiveTimeout(), message));
+        if (deadlinePropagation.httpHeader() != null) {
+            Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+            if (headers == null) {
+                headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                message.put(Message.PROTOCOL_HEADERS, headers);
+            }
+            headers.put(deadlinePropagation.httpHeader(), Collections.singletonList(String.valueOf(remainingMillis)));
+        }
+    }
+
+    /**
+     * @return the timeout in effect (set for the call or configured for the conduit), but at most the remaining budget
+     */
+    private static long limited(Object callTimeout, long remainingMillis, ConduitTimeout conduitTimeout, Message message) {
+        long timeoutMillis = 0;
+        if (callTimeout != null) {
+            try {
+                timeoutMillis = Long.parseLong(callTimeout.toString());
+            } catch (NumberFormatException invalidTimeout) {
+                // CXF ignores it as well
+            }
+        } else {
+            Conduit conduit = message.getExchange().getConduit(message);
+            if (conduit instanceof HTTPConduit && ((HTTPConduit) conduit).getClient() != null) {
+                timeoutMillis = conduitTimeout.of((HTTPConduit) conduit);
+            }
+        }
+        // 0 is no timeout at all
+        return timeoutMillis > 0 ? Math.min(timeoutMillis, remainingMillis) : remainingMillis;
+    }
+
+    @FunctionalInterface
+    private interface ConduitTimeout {
+        long of(HTTPConduit conduit);
+    }
+}
@@ -0,0 +1,142 @@
+package de.codecentric.cxf.deadline;
+
+import de.codecentric.cxf.dispatch.MethodHandleInvoker;
+import de.codecentric.cxf.logging.BaseLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.cxf.Bus;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.message.Message;
+
+import javax.xml.namespace.QName;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Propagates the deadline of the inbound SOAP requests: it´s taken from an HTTP header or a SOAP header carrying the
+ * milliseconds the consumer waits for the response (or the default budget) and checked
+ * <ul>
+ *     <li>before the payload is unmarshalled - expired requests are dropped with a pre-rendered SOAP fault,</li>
+ *     <li>before the SEI implementation is invoked - expired requests end with a Fault,</li>
+ *     <li>before every outbound JAX-WS call of the SEI implementation on the SpringBus, that also gets the remaining
+ *     budget as timeout (and as HTTP header).</li>
+ * </ul>
+ * As a {@link MeterBinder}, the expired requests are exported to Micrometer with the stage they were detected in.
+ */
+public class DeadlinePropagation implements MeterBinder {
+
+    private static final BaseLogger LOG = BaseLogger.getLogger(DeadlinePropagation.class);
+
+    static final String STAGE_UNMARSHALLING = "unmarshalling";
+    static final String STAGE_INVOCATION = "invocation";
+    static final String STAGE_OUTBOUND = "outbound";
+
+    private final String httpHeader;
+    private final QName soapHeader;
+    private final long defaultBudgetMillis;
+    private final AtomicLong expiredBeforeUnmarshalling = new AtomicLong();
+    private final AtomicLong expiredBeforeInvocation = new AtomicLong();
+    private final AtomicLong expiredBeforeOutboundCall = new AtomicLong();
+
+    /**
+     * @param httpHeader the HTTP header carrying the budget in milliseconds or null
+     * @param soapHeader the SOAP header carrying the budget in milliseconds as text or null
+     * @param defaultBudgetMillis the budget of requests without (or with a larger) budget, &lt;= 0 for none
+     */
+    public DeadlinePropagation(String httpHeader, QName soapHeader, long defaultBudgetMillis) {
+        this.httpHeader = httpHeader;
+        this.soapHeader = soapHeader;
+        this.defaultBudgetMillis = defaultBudgetMillis;
+    }
+
+    /**
+     * Checks the deadlines of the requests to the Endpoint and exposes them to its SEI implementation.
+     *
+     * @param endpoint the Endpoint - not published yet
+     */
+    public void applyTo(EndpointImpl endpoint) {
+        endpoint.getInInterceptors().add(new DeadlineInInterceptor(this));
+        endpoint.getInInterceptors().add(new DeadlineInvocationInterceptor(this));
+        endpoint.setInvoker(new DeadlineInvoker(endpoint.getInvoker() != null
+                ? endpoint.getInvoker() : new MethodHandleInvoker(endpoint.getImplementor())));
+    }
+
+    /**
+     * Propagates the deadlines to the outbound calls of the clients on the Bus, if it isn´t already there.
+     *
+     * @param bus the Bus of the clients
+     */
+    public synchronized void addTo(Bus bus) {
+        for (Interceptor<? extends Message> interceptor : bus.getOutInterceptors()) {
+            if (interceptor instanceof DeadlineOutboundInterceptor) {
+                return;
+            }
+        }
+        bus.getOutInterceptors().add(new DeadlineOutboundInterceptor(this));
+    }
+
+    String httpHeader() {
+        return httpHeader;
+    }
+
+    QName soapHeader() {
+        return soapHeader;
+    }
+
+    /**
+     * @param budget the budget of the request in milliseconds or null, if there´s none
+     * @return the deadline of the request or null, if it has none
+     */
+    Deadline deadlineOf(String budget) {
+        Long budgetMillis = null;
+        try {
+            budgetMillis = budget != null ? Long.parseLong(budget.trim()) : null;
+        } catch (NumberFormatException invalidBudget) {
+            // Taken as no budget at all - the consumer wouldn´t understand a fault about it either
+        }
+        if (budgetMillis == null) {
+            return defaultBudgetMillis > 0 ? Deadline.after(defaultBudgetMillis) : null;
+        }
+        return Deadline.after(defaultBudgetMillis > 0 ? Math.min(budgetMillis, defaultBudgetMillis) : budgetMillis);
+    }
+
+    void expired(String stage, Deadline deadline) {
+        LOG.deadlineExpired(stage, -deadline.remainingMillis());
+        switch (stage) {
+            case STAGE_UNMARSHALLING:
+                expiredBeforeUnmarshalling.incrementAndGet();
+                break;
+            case STAGE_INVOCATION:
+                expiredBeforeInvocation.incrementAndGet();
+                break;
+            default:
+                expiredBeforeOutboundCall.incrementAndGet();
+        }
+    }
+
+    public long getExpiredBeforeUnmarshalling() {
+        return expiredBeforeUnmarshalling.get();
+    }
+
+    public long getExpiredBeforeInvocation() {
+        return expiredBeforeInvocation.get();
+    }
+
+    public long getExpiredBeforeOutboundCall() {
+        return expiredBeforeOutboundCall.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        expiredCounter(registry, STAGE_UNMARSHALLING, expiredBeforeUnmarshalling);
+        expiredCounter(registry, STAGE_INVOCATION, expiredBeforeInvocation);
+        expiredCounter(registry, STAGE_OUTBOUND, expiredBeforeOutboundCall);
+    }
+
+    private static void expiredCounter(MeterRegistry registry, String stage, AtomicLong expired) {
+        FunctionCounter.builder("soap.deadline.expired", expired, AtomicLong::get)
+                .description("SOAP requests dropped, as their deadline expired before the stage").tag("stage", stage)
+                .register(registry);
+    }
+}
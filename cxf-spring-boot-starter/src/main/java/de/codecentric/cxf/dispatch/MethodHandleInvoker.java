@@ -0,0 +1,44 @@
+package de.codecentric.cxf.dispatch;
+
+import org.apache.cxf.jaxws.JAXWSMethodInvoker;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.service.invoker.Factory;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+import java.lang.reflect.Method;
+
+/**
+ * Invokes the SEI implementation through the {@link OperationDispatchTable} computed once for its class, instead of
+ * CXF´s reflective {@link Method#invoke(Object, Object...)}. Everything around the invocation (the WebServiceContext,
+ * the SOAP faults of the exceptions thrown) stays CXF´s - and methods not in the table are invoked reflectively as before.
+ */
+public class MethodHandleInvoker extends JAXWSMethodInvoker {
+
+    private final OperationDispatchTable dispatchTable;
+
+    public MethodHandleInvoker(Object implementor) {
+        super(implementor);
+        this.dispatchTable = new OperationDispatchTable(implementor.getClass());
+    }
+
+    /**
+     * @param factory the factory of the SEI implementation instances
+     * @param implementorClass the class of the instances
+     */
+    public MethodHandleInvoker(Factory factory, Class<?> implementorClass) {
+        super(factory);
+        this.dispatchTable = new OperationDispatchTable(implementorClass);
+    }
+
+    @Override
+    protected Object performInvocation(Exchange exchange, Object serviceObject, Method method, Object[] params) throws Exception {
+        BindingOperationInfo bindingOperation = exchange.getBindingOperationInfo();
+        OperationDispatchTable.Operation operation = bindingOperation != null
+                ? dispatchTable.operationOf(bindingOperation.getName(), method) : null;
+        if (operation == null || !operation.accepts(params)) {
+            return super.performInvocation(exchange, serviceObject, method, params);
+        }
+        // Like Method.invoke, so CXF tells the checked SOAP faults from the unchecked ones
+        return operation.invoke(serviceObject, params);
+    }
+}
@@ -0,0 +1,158 @@
+package de.codecentric.cxf.dispatch;
+
+import org.apache.cxf.common.util.PackageUtils;
+import org.apache.cxf.message.Exchange;
+
+import javax.jws.WebMethod;
+import javax.jws.WebService;
+import javax.xml.namespace.QName;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The operations of a SEI implementation, each bound once to a {@link MethodHandle} of its SEI method - so the invocations
+ * don´t need to go through reflection with its per-call access and argument checks. The operations are looked up by
+ * their QName, derived from the JAX-WS annotations of the SEI like CXF does.
+ */
+public class OperationDispatchTable {
+
+    private final Map<QName, Operation> operations;
+
+    /**
+     * @param implementorClass the class of the SEI implementation
+     */
+    public OperationDispatchTable(Class<?> implementorClass) {
+        Map<QName, Operation> operations = new HashMap<>();
+        for (Class<?> sei : seisOf(implementorClass)) {
+            WebService webService = sei.getAnnotation(WebService.class);
+            String namespace = webService.targetNamespace().isEmpty()
+                    ? PackageUtils.getNamespace(PackageUtils.getPackageName(sei)) : webService.targetNamespace();
+            for (Method method : sei.getMethods()) {
+                WebMethod webMethod = method.getAnnotation(WebMethod.class);
+                if (webMethod != null && webMethod.exclude()) {
+                    continue;
+                }
+                String operationName = webMethod != null && !webMethod.operationName().isEmpty()
+                        ? webMethod.operationName() : method.getName();
+                Operation operation = Operation.of(method);
+                if (operation != null) {
+                    operations.put(new QName(namespace, operationName), operation);
+                }
+            }
+        }
+        this.operations = Collections.unmodifiableMap(operations);
+    }
+
+    /**
+     * @param operationName the QName of the invoked operation
+     * @param method the SEI method CXF dispatched the operation to
+     * @return the bound operation or null, if the method isn´t the one bound to the operation (e.g. the Async one)
+     */
+    Operation operationOf(QName operationName, Method method) {
+        Operation operation = operations.get(operationName);
+        return operation != null && operation.method.equals(method) ? operation : null;
+    }
+
+    int size() {
+        return operations.size();
+    }
+
+    private static Iterable<Class<?>> seisOf(Class<?> implementorClass) {
+        Map<String, Class<?>> seis = new HashMap<>();
+        for (Class<?> type = implementorClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Class<?> implemented : type.getInterfaces()) {
+                if (implemented.isAnnotationPresent(WebService.class)) {
+                    seis.putIfAbsent(implemented.getName(), implemented);
+                }
+            }
+        }
+        return seis.values();
+    }
+
+    static final class Operation {
+
+        private static final MethodHandle THROWN_BY_TARGET;
+
+        static {
+            try {
+                THROWN_BY_TARGET = MethodHandles.lookup().findConstructor(ThrownByTarget.class,
+                        MethodType.methodType(void.class, Throwable.class));
+            } catch (NoSuchMethodException | IllegalAccessException exception) {
+                throw new ExceptionInInitializerError(exception);
+            }
+        }
+
+        private final Method method;
+        private final int parameterCount;
+        // (Object serviceObject, Object[] params)Object
+        private final MethodHandle handle;
+
+        private Operation(Method method, MethodHandle handle) {
+            this.method = method;
+            this.parameterCount = method.getParameterTypes().length;
+            this.handle = thrownByTarget(handle).asType(MethodType.genericMethodType(parameterCount + 1))
+                    .asSpreader(Object[].class, parameterCount);
+        }
+
+        /**
+         * @return the handle, that wraps everything thrown by the method itself - and only that, not the failing
+         * conversions of the arguments around it
+         */
+        private static MethodHandle thrownByTarget(MethodHandle target) {
+            MethodHandle rethrow = MethodHandles.filterArguments(
+                    MethodHandles.throwException(target.type().returnType(), ThrownByTarget.class), 0, THROWN_BY_TARGET);
+            return MethodHandles.catchException(target, Throwable.class,
+                    MethodHandles.dropArguments(rethrow, 1, target.type().parameterList()));
+        }
+
+        private static Operation of(Method method) {
+            for (Class<?> parameterType : method.getParameterTypes()) {
+                // CXF inserts the Exchange itself - that´s left to the reflective invocation
+                if (parameterType == Exchange.class) {
+                    return null;
+                }
+            }
+            try {
+                return new Operation(method, MethodHandles.publicLookup().unreflect(method));
+            } catch (IllegalAccessException notPublic) {
+                // Left to the reflective invocation, that makes it accessible
+                return null;
+            }
+        }
+
+        boolean accepts(Object[] params) {
+            return params.length == parameterCount;
+        }
+
+        /**
+         * @throws InvocationTargetException with everything thrown by the method, like {@link Method#invoke(Object, Object...)}
+         * - a mismatch of the handle (like a {@link ClassCastException} of an argument) is thrown as it is
+         */
+        Object invoke(Object serviceObject, Object[] params) throws InvocationTargetException {
+            try {
+                return (Object) handle.invokeExact(serviceObject, params);
+            } catch (ThrownByTarget thrown) {
+                throw new InvocationTargetException(thrown.getCause());
+            } catch (RuntimeException | Error mismatch) {
+                throw mismatch;
+            } catch (Throwable impossible) {
+                // Only the method itself throws checked exceptions
+                throw new IllegalStateException(impossible);
+            }
+        }
+    }
+
+    private static final class ThrownByTarget extends RuntimeException {
+
+        ThrownByTarget(Throwable thrown) {
+            // Only a carrier - no stack trace needed
+            super(null, thrown, false, false);
+        }
+    }
+}
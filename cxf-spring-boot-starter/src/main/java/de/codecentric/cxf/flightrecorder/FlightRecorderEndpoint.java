@@ -0,0 +1,30 @@
+package de.codecentric.cxf.flightrecorder;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the {@link SoapExchangeFlightRecorder} as /actuator/soapflightrecorder.
+ * Remember to include it into management.endpoints.web.exposure.include, if you want to reach it via HTTP.
+ */
+@Endpoint(id = "soapflightrecorder")
+public class FlightRecorderEndpoint {
+
+    private final SoapExchangeFlightRecorder flightRecorder;
+
+    public FlightRecorderEndpoint(SoapExchangeFlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> flightRecording() {
+        Map<String, Object> recording = new LinkedHashMap<>();
+        recording.put("recent", flightRecorder.recentExchanges());
+        recording.put("slowest", flightRecorder.slowestExchanges());
+        recording.put("dropped", flightRecorder.droppedExchanges());
+        return recording;
+    }
+}
@@ -0,0 +1,61 @@
+package de.codecentric.cxf.flightrecorder;
+
+/**
+ * Immutable snapshot of one recorded SOAP exchange, holding only metadata and the truncated in- and outbound payloads.
+ */
+public final class RecordedSoapExchange {
+
+    private final String id;
+    private final String operation;
+    private final long timestamp;
+    private final long durationNanos;
+    private final String responseCode;
+    private final String inboundPayload;
+    private final String outboundPayload;
+
+    RecordedSoapExchange(String id, String operation, long timestamp, long durationNanos, String responseCode,
+                         String inboundPayload, String outboundPayload) {
+        this.id = id;
+        this.operation = operation;
+        this.timestamp = timestamp;
+        this.durationNanos = durationNanos;
+        this.responseCode = responseCode;
+        this.inboundPayload = inboundPayload;
+        this.outboundPayload = outboundPayload;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * @return the time in epoch millis, when the inbound SOAP message was captured
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getDurationMillis() {
+        return durationNanos / 1_000_000;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public String getResponseCode() {
+        return responseCode;
+    }
+
+    public String getInboundPayload() {
+        return inboundPayload;
+    }
+
+    public String getOutboundPayload() {
+        return outboundPayload;
+    }
+}
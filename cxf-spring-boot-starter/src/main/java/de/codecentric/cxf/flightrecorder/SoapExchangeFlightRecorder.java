@@ -0,0 +1,220 @@
+package de.codecentric.cxf.flightrecorder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory flight recorder of SOAP exchanges. It keeps the last N exchanges in a preallocated ring buffer and
+ * the top-K slowest exchanges per SOAP operation in a min-heap, so that examples are at hand when an incident happens -
+ * without having full payload logging switched on.
+ * <p>
+ * The memory budget is fixed: payloads are truncated to a configurable limit and the number of ring slots, slowest
+ * exchanges per operation, tracked operations and in-flight exchanges are bounded. Recording never blocks the request
+ * thread - if a heap is contended or a bound is reached, the sample is simply dropped.
+ */
+public class SoapExchangeFlightRecorder {
+
+    private static final Comparator<RecordedSoapExchange> BY_DURATION = Comparator.comparingLong(RecordedSoapExchange::getDurationNanos);
+    private static final long STALE_INFLIGHT_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final String TRUNCATED = "...[truncated]";
+
+    private final AtomicReferenceArray<RecordedSoapExchange> recentExchanges;
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final ConcurrentMap<String, SlowestExchanges> slowestExchangesPerOperation = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, InFlightExchange> inFlightExchanges = new ConcurrentHashMap<>();
+    private final AtomicLong droppedExchanges = new AtomicLong();
+    private final SlowestExchanges discardingSlowestExchanges = new SlowestExchanges(1) {
+        @Override
+        void offer(RecordedSoapExchange exchange) {
+            droppedExchanges.incrementAndGet();
+        }
+    };
+
+    private final int capacity;
+    private final int slowestPerOperation;
+    private final int maxOperations;
+    private final int payloadLimit;
+
+    public SoapExchangeFlightRecorder(int capacity, int slowestPerOperation, int maxOperations, int payloadLimit) {
+        if (capacity < 1 || slowestPerOperation < 1 || maxOperations < 1 || payloadLimit < 0) {
+            throw new IllegalArgumentException("Flight recorder capacities must be positive");
+        }
+        this.capacity = capacity;
+        this.slowestPerOperation = slowestPerOperation;
+        this.maxOperations = maxOperations;
+        this.payloadLimit = payloadLimit;
+        this.recentExchanges = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Called from the inbound capture point, when the SOAP request was read.
+     *
+     * @param id        the CXF logging id, which correlates the inbound with the outbound message
+     * @param operation the called SOAP operation
+     * @param payload   the inbound SOAP message
+     */
+    public void recordInbound(String id, String operation, CharSequence payload) {
+        if (id == null) {
+            return;
+        }
+        if (inFlightExchanges.size() >= capacity) {
+            evictStaleInFlightExchanges();
+            if (inFlightExchanges.size() >= capacity) {
+                droppedExchanges.incrementAndGet();
+                return;
+            }
+        }
+        inFlightExchanges.put(id, new InFlightExchange(operation, System.currentTimeMillis(), System.nanoTime(), truncate(payload)));
+    }
+
+    /**
+     * Called from the outbound capture point, when the SOAP response (or fault) was written. Completes the exchange
+     * started with {@link #recordInbound(String, String, CharSequence)} and puts it into the flight recorder.
+     *
+     * @param id           the CXF logging id, which correlates the inbound with the outbound message
+     * @param responseCode the HTTP response code
+     * @param payload      the outbound SOAP message
+     */
+    public void recordOutbound(String id, String responseCode, CharSequence payload) {
+        InFlightExchange inbound = id == null ? null : inFlightExchanges.remove(id);
+        if (inbound == null) {
+            return;
+        }
+        RecordedSoapExchange exchange = new RecordedSoapExchange(id, inbound.operation, inbound.timestamp,
+                System.nanoTime() - inbound.startNanos, responseCode, inbound.payload, truncate(payload));
+
+        recentExchanges.lazySet((int) (writeSequence.getAndIncrement() % capacity), exchange);
+        slowestExchangesOf(exchange.getOperation()).offer(exchange);
+    }
+
+    /**
+     * @return the recorded exchanges, newest first
+     */
+    public List<RecordedSoapExchange> recentExchanges() {
+        long newest = writeSequence.get();
+        List<RecordedSoapExchange> recent = new ArrayList<>(capacity);
+        for (long sequence = newest - 1; sequence >= 0 && sequence >= newest - capacity; sequence--) {
+            RecordedSoapExchange exchange = recentExchanges.get((int) (sequence % capacity));
+            if (exchange != null) {
+                recent.add(exchange);
+            }
+        }
+        return recent;
+    }
+
+    /**
+     * @return the slowest recorded exchanges per SOAP operation, slowest first
+     */
+    public Map<String, List<RecordedSoapExchange>> slowestExchanges() {
+        Map<String, List<RecordedSoapExchange>> slowest = new LinkedHashMap<>();
+        slowestExchangesPerOperation.forEach((operation, exchanges) -> slowest.put(operation, exchanges.snapshot()));
+        return slowest;
+    }
+
+    /**
+     * @return the number of exchanges, that weren´t recorded because a bound of the flight recorder was reached
+     */
+    public long droppedExchanges() {
+        return droppedExchanges.get();
+    }
+
+    private SlowestExchanges slowestExchangesOf(String operation) {
+        SlowestExchanges slowest = slowestExchangesPerOperation.get(operation);
+        if (slowest != null) {
+            return slowest;
+        }
+        if (slowestExchangesPerOperation.size() >= maxOperations) {
+            // The operation name is derived from the client-controlled SOAPAction header, so we don´t let it grow unbounded
+            return discardingSlowestExchanges;
+        }
+        return slowestExchangesPerOperation.computeIfAbsent(operation, key -> new SlowestExchanges(slowestPerOperation));
+    }
+
+    private void evictStaleInFlightExchanges() {
+        // One-way operations and broken connections never reach the outbound capture point
+        long staleBefore = System.nanoTime() - STALE_INFLIGHT_NANOS;
+        inFlightExchanges.values().removeIf(inFlight -> inFlight.startNanos - staleBefore < 0);
+    }
+
+    private String truncate(CharSequence payload) {
+        if (payload == null || payload.length() == 0) {
+            return "";
+        }
+        if (payload.length() <= payloadLimit) {
+            return payload.toString();
+        }
+        return payload.subSequence(0, payloadLimit) + TRUNCATED;
+    }
+
+    private static final class InFlightExchange {
+        private final String operation;
+        private final long timestamp;
+        private final long startNanos;
+        private final String payload;
+
+        private InFlightExchange(String operation, long timestamp, long startNanos, String payload) {
+            this.operation = operation == null ? "" : operation;
+            this.timestamp = timestamp;
+            this.startNanos = startNanos;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Bounded min-heap of the slowest exchanges of one operation - the fastest of the slowest is on top and gets
+     * replaced, when a slower one comes in.
+     */
+    private static class SlowestExchanges {
+        private final int size;
+        private final PriorityQueue<RecordedSoapExchange> heap;
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long admissionThresholdNanos = Long.MIN_VALUE;
+
+        SlowestExchanges(int size) {
+            this.size = size;
+            this.heap = new PriorityQueue<>(size, BY_DURATION);
+        }
+
+        void offer(RecordedSoapExchange exchange) {
+            if (exchange.getDurationNanos() <= admissionThresholdNanos || !lock.tryLock()) {
+                return;
+            }
+            try {
+                if (heap.size() < size) {
+                    heap.offer(exchange);
+                } else if (exchange.getDurationNanos() > heap.peek().getDurationNanos()) {
+                    heap.poll();
+                    heap.offer(exchange);
+                }
+                if (heap.size() == size) {
+                    admissionThresholdNanos = heap.peek().getDurationNanos();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<RecordedSoapExchange> snapshot() {
+            List<RecordedSoapExchange> slowest;
+            lock.lock();
+            try {
+                slowest = new ArrayList<>(heap);
+            } finally {
+                lock.unlock();
+            }
+            slowest.sort(Collections.reverseOrder(BY_DURATION));
+            return slowest;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package de.codecentric.cxf.ingest;
+
+import com.fasterxml.aalto.AsyncByteArrayFeeder;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects the envelope of a request, whenever the container has data available - and feeds it into Aalto´s non-blocking
+ * parser, until the root element is closed. Then the request is dispatched again with the envelope, see
+ * {@link NonBlockingIngestFilter}.
+ * <p>
+ * If the parser can´t follow the body (it´s malformed or in an encoding Aalto´s non-blocking parser doesn´t support,
+ * like UTF-16), the body is just collected until all data is read - so CXF always gets the complete body.
+ */
+class EnvelopeReader implements ReadListener, AsyncListener {
+
+    private static final int CHUNK_BYTES = 8192;
+
+    private final AsyncContext asyncContext;
+    private final NonBlockingIngest nonBlockingIngest;
+    private final ServletInputStream input;
+    private final AsyncXMLStreamReader<AsyncByteArrayFeeder> parser;
+    private final byte[] chunk = new byte[CHUNK_BYTES];
+    private final ByteArrayOutputStream envelope = new ByteArrayOutputStream(CHUNK_BYTES);
+    private final AtomicBoolean ingested = new AtomicBoolean();
+    private int depth;
+    private boolean unparseable;
+
+    EnvelopeReader(AsyncContext asyncContext, NonBlockingIngest nonBlockingIngest) throws IOException {
+        this.asyncContext = asyncContext;
+        this.nonBlockingIngest = nonBlockingIngest;
+        this.input = asyncContext.getRequest().getInputStream();
+        this.parser = nonBlockingIngest.newParser();
+        nonBlockingIngest.arriving();
+    }
+
+    @Override
+    public void onDataAvailable() throws IOException {
+        int read;
+        while (!ingested.get() && input.isReady() && (read = input.read(chunk)) != -1) {
+            if (envelope.size() + read > nonBlockingIngest.maxEnvelopeBytes()) {
+                reject(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, NonBlockingIngest.OUTCOME_TOO_LARGE);
+                return;
+            }
+            envelope.write(chunk, 0, read);
+            if (isComplete(read)) {
+                dispatch();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void onAllDataRead() {
+        dispatch();
+    }
+
+    @Override
+    public void onError(Throwable failure) {
+        // The consumer is gone - there´s nobody to answer
+        if (ingested.compareAndSet(false, true)) {
+            nonBlockingIngest.ingested(NonBlockingIngest.OUTCOME_ABORTED);
+            closeParser();
+            asyncContext.complete();
+        }
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) throws IOException {
+        reject(HttpServletResponse.SC_REQUEST_TIMEOUT, NonBlockingIngest.OUTCOME_TIMED_OUT);
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        // Nothing to do
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        onError(event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Nothing to do
+    }
+
+    /**
+     * @return true, if the root element of the envelope is closed
+     */
+    private boolean isComplete(int read) {
+        if (unparseable) {
+            return false;
+        }
+        try {
+            parser.getInputFeeder().feedInput(chunk, 0, read);
+            int event;
+            while ((event = parser.next()) != AsyncXMLStreamReader.EVENT_INCOMPLETE) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT && --depth == 0) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (XMLStreamException unparseableBody) {
+            // CXF decides on the body (e.g. answers it with its SOAP fault) - but only once it´s complete
+            unparseable = true;
+            return false;
+        }
+    }
+
+    private void dispatch() {
+        if (ingested.compareAndSet(false, true)) {
+            nonBlockingIngest.ingested(NonBlockingIngest.OUTCOME_DISPATCHED);
+            closeParser();
+            asyncContext.getRequest().setAttribute(NonBlockingIngestFilter.ENVELOPE_ATTRIBUTE, envelope.toByteArray());
+            asyncContext.dispatch();
+        }
+    }
+
+    private void reject(int status, String outcome) throws IOException {
+        if (ingested.compareAndSet(false, true)) {
+            nonBlockingIngest.ingested(outcome);
+            closeParser();
+            ((HttpServletResponse) asyncContext.getResponse()).sendError(status);
+            asyncContext.complete();
+        }
+    }
+
+    private void closeParser() {
+        try {
+            parser.close();
+        } catch (XMLStreamException ignored) {
+            // Nothing left to release
+        }
+    }
+}
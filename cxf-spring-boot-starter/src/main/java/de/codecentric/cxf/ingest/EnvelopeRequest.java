@@ -0,0 +1,72 @@
+package de.codecentric.cxf.ingest;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The request with the envelope collected by the {@link EnvelopeReader} as its body.
+ */
+class EnvelopeRequest extends HttpServletRequestWrapper {
+
+    private final byte[] envelope;
+
+    EnvelopeRequest(HttpServletRequest request, byte[] envelope) {
+        super(request);
+        this.envelope = envelope;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream body = new ByteArrayInputStream(envelope);
+        return new ServletInputStream() {
+
+            @Override
+            public boolean isFinished() {
+                return body.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new IllegalStateException("The envelope has already been read completely");
+            }
+
+            @Override
+            public int read() {
+                return body.read();
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                return body.read(buffer, offset, length);
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() throws UnsupportedEncodingException {
+        String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.ISO_8859_1.name();
+        return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+    }
+
+    @Override
+    public int getContentLength() {
+        return envelope.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return envelope.length;
+    }
+}
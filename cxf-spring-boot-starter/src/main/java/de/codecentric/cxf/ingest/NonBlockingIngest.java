@@ -0,0 +1,121 @@
+package de.codecentric.cxf.ingest;
+
+import com.fasterxml.aalto.AsyncByteArrayFeeder;
+import com.fasterxml.aalto.AsyncXMLInputFactory;
+import com.fasterxml.aalto.AsyncXMLStreamReader;
+import com.fasterxml.aalto.stax.InputFactoryImpl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import javax.xml.stream.XMLInputFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settings and statistics of the non-blocking ingest of the SOAP requests by the {@link NonBlockingIngestFilter}. The
+ * envelopes are checked by Aalto´s non-blocking parser while they arrive, so the ingest knows when they´re complete.
+ * <p>
+ * As a {@link MeterBinder}, the envelopes still arriving and the ingested ones by outcome are exported to Micrometer.
+ */
+public class NonBlockingIngest implements MeterBinder {
+
+    static final String OUTCOME_DISPATCHED = "dispatched";
+    static final String OUTCOME_TIMED_OUT = "timed_out";
+    static final String OUTCOME_TOO_LARGE = "too_large";
+    static final String OUTCOME_ABORTED = "aborted";
+
+    private final AsyncXMLInputFactory parserFactory = new InputFactoryImpl();
+    private final int maxEnvelopeBytes;
+    private final long timeoutMillis;
+    private final AtomicLong arriving = new AtomicLong();
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong tooLarge = new AtomicLong();
+    private final AtomicLong aborted = new AtomicLong();
+
+    /**
+     * @param maxEnvelopeBytes the maximum size of an envelope, larger ones are rejected with HTTP 413
+     * @param timeoutMillis the time an envelope may take to arrive completely, before it´s rejected with HTTP 408
+     */
+    public NonBlockingIngest(int maxEnvelopeBytes, long timeoutMillis) {
+        this.maxEnvelopeBytes = maxEnvelopeBytes;
+        this.timeoutMillis = timeoutMillis;
+        // The envelope is only checked for completeness - CXF parses it on its own afterwards
+        parserFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        parserFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    AsyncXMLStreamReader<AsyncByteArrayFeeder> newParser() {
+        return parserFactory.createAsyncForByteArray();
+    }
+
+    int maxEnvelopeBytes() {
+        return maxEnvelopeBytes;
+    }
+
+    long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    void arriving() {
+        arriving.incrementAndGet();
+    }
+
+    void ingested(String outcome) {
+        arriving.decrementAndGet();
+        switch (outcome) {
+            case OUTCOME_DISPATCHED:
+                dispatched.incrementAndGet();
+                break;
+            case OUTCOME_TIMED_OUT:
+                timedOut.incrementAndGet();
+                break;
+            case OUTCOME_TOO_LARGE:
+                tooLarge.incrementAndGet();
+                break;
+            default:
+                aborted.incrementAndGet();
+        }
+    }
+
+    void rejected() {
+        tooLarge.incrementAndGet();
+    }
+
+    public long getArriving() {
+        return arriving.get();
+    }
+
+    public long getDispatched() {
+        return dispatched.get();
+    }
+
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+
+    public long getTooLarge() {
+        return tooLarge.get();
+    }
+
+    public long getAborted() {
+        return aborted.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("soap.ingest.arriving", arriving, AtomicLong::get)
+                .description("SOAP envelopes still arriving, without holding a thread").register(registry);
+        ingestedCounter(registry, OUTCOME_DISPATCHED, dispatched);
+        ingestedCounter(registry, OUTCOME_TIMED_OUT, timedOut);
+        ingestedCounter(registry, OUTCOME_TOO_LARGE, tooLarge);
+        ingestedCounter(registry, OUTCOME_ABORTED, aborted);
+    }
+
+    private static void ingestedCounter(MeterRegistry registry, String outcome, AtomicLong ingested) {
+        FunctionCounter.builder("soap.ingest.envelopes", ingested, AtomicLong::get)
+                .description("SOAP envelopes ingested without blocking, by outcome").tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,81 @@
+package de.codecentric.cxf.ingest;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Reads the bodies of the SOAP requests without blocking a servlet thread: the request is put into async mode and a
+ * {@link EnvelopeReader} collects the body, whenever the container has data available. Only once the envelope is
+ * complete, the request is dispatched again - and the CXFServlet reads the collected body as it is. Only plain envelopes
+ * (text/xml and application/soap+xml) are ingested, multipart bodies (MTOM, SwA) are read by CXF as usual.
+ * <p>
+ * Runs as the last filter in front of the CXFServlet and goes async with the request and response as wrapped by the
+ * filters before - so their wrappers (like the byte counting of the consumer accounting) see the envelope being read and
+ * the response written. Those filters complete their measurements, once the async exchange is complete.
+ */
+public class NonBlockingIngestFilter extends GenericFilterBean {
+
+    static final String ENVELOPE_ATTRIBUTE = NonBlockingIngestFilter.class.getName() + ".envelope";
+    private static final MediaType SOAP_12 = MediaType.valueOf("application/soap+xml");
+
+    private final NonBlockingIngest nonBlockingIngest;
+
+    public NonBlockingIngestFilter(NonBlockingIngest nonBlockingIngest) {
+        this.nonBlockingIngest = nonBlockingIngest;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        byte[] envelope = (byte[]) request.getAttribute(ENVELOPE_ATTRIBUTE);
+        if (envelope != null) {
+            // Dispatched again with the complete envelope - or resumed by a CXF Continuation later on
+            filterChain.doFilter(new EnvelopeRequest(request, envelope), response);
+            return;
+        }
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !"POST".equals(request.getMethod())
+                || !request.isAsyncSupported() || !isPlainSoapEnvelope(request.getContentType())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (request.getContentLengthLong() > nonBlockingIngest.maxEnvelopeBytes()) {
+            nonBlockingIngest.rejected();
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+        // The wrapped ones - also for the dispatch with the complete envelope
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(nonBlockingIngest.timeoutMillis());
+        EnvelopeReader envelopeReader = new EnvelopeReader(asyncContext, nonBlockingIngest);
+        asyncContext.addListener(envelopeReader);
+        request.getInputStream().setReadListener(envelopeReader);
+    }
+
+    /**
+     * @return true for a SOAP 1.1 or 1.2 envelope as the whole body - but not for multipart bodies (MTOM, SwA), which
+     * don´t start with the envelope
+     */
+    private static boolean isPlainSoapEnvelope(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return MediaType.TEXT_XML.equalsTypeAndSubtype(mediaType) || SOAP_12.equalsTypeAndSubtype(mediaType);
+        } catch (InvalidMediaTypeException invalid) {
+            return false;
+        }
+    }
+}
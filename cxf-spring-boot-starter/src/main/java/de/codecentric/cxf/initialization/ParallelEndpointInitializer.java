@@ -0,0 +1,197 @@
+package de.codecentric.cxf.initialization;
+
+import de.codecentric.cxf.autodetection.WebServiceAutoDetector;
+import de.codecentric.cxf.autodetection.WebServiceScanner;
+import de.codecentric.cxf.common.BootStarterCxfException;
+import de.codecentric.cxf.common.XmlUtils;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.support.JaxWsServiceFactoryBean;
+import org.apache.cxf.wsdl.WSDLManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+import javax.wsdl.Definition;
+import javax.wsdl.WSDLException;
+import javax.xml.bind.JAXBException;
+import javax.xml.ws.Service;
+import javax.xml.ws.WebFault;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prepares the Endpoints in parallel to Spring´s bean creation. Right after the bean definitions are loaded, the SEIs and
+ * WebServiceClients are detected and then - per SEI on a small executor - the WSDL is parsed, CXF´s schema collection and
+ * the JAXBContext are built and the JAXBContexts of the WebFaults are created.
+ * <p>
+ * As the SpringBus doesn´t exist that early, the preparation runs on a private Bus: the CxfAutoConfiguration joins it
+ * right before the autodetection and hands the parsed WSDLs over to the SpringBus, the JAXBContext is picked up from CXF´s
+ * JVM-wide JAXBContextCache. If the preparation fails, the startup fails - just like the initialization on the main
+ * thread would.
+ */
+public class ParallelEndpointInitializer implements BeanFactoryPostProcessor, ApplicationListener<ContextRefreshedEvent>, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelEndpointInitializer.class);
+
+    private final int threads;
+
+    private ExecutorService executor;
+    private Bus preparationBus;
+    private Future<List<Future<PreparedEndpoint>>> preparation;
+    // Filled by the detection, while awaitAndApplyTo() already holds the lock
+    private final List<Future<?>> faultPreparations = new CopyOnWriteArrayList<>();
+    private final List<PreparedEndpoint> preparedEndpoints = new ArrayList<>();
+    private long startNanos;
+    private boolean applied = false;
+
+    /**
+     * @param threads the number of threads preparing the Endpoints
+     */
+    public ParallelEndpointInitializer(int threads) {
+        this.threads = threads;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        start(beanFactory.getBeanClassLoader());
+    }
+
+    synchronized void start(ClassLoader classLoader) {
+        if (executor != null) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "soap-init-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            // The autodetection has to see the classes of the application, e.g. with devtools´ RestartClassLoader
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+        preparationBus = BusFactory.newInstance().createBus();
+        startNanos = System.nanoTime();
+        preparation = executor.submit(this::prepareDetectedEndpoints);
+    }
+
+    private List<Future<PreparedEndpoint>> prepareDetectedEndpoints() throws BootStarterCxfException {
+        Map<Class, Class> webServiceClientClassesBySei = new WebServiceAutoDetector(new WebServiceScanner(), null).searchWebServiceClientClassesBySei();
+        List<Future<PreparedEndpoint>> endpointPreparations = new ArrayList<>();
+        for (Map.Entry<Class, Class> seiAndWebServiceClientClass : webServiceClientClassesBySei.entrySet()) {
+            endpointPreparations.add(executor.submit(() -> prepare(seiAndWebServiceClientClass.getKey(), seiAndWebServiceClientClass.getValue())));
+            faultPreparations.add(executor.submit(() -> createWebFaultJaxbContexts(seiAndWebServiceClientClass.getKey())));
+        }
+        return endpointPreparations;
+    }
+
+    private PreparedEndpoint prepare(Class<?> sei, Class<?> webServiceClientClass) throws ReflectiveOperationException, WSDLException {
+        // The generated WebServiceClient parses the WSDL on the thread´s default Bus
+        BusFactory.setThreadDefaultBus(preparationBus);
+        try {
+            Service webServiceClient = (Service) webServiceClientClass.getConstructor().newInstance();
+            String wsdlLocation = webServiceClient.getWSDLDocumentLocation().toString();
+            // Builds the service model incl. schema collection and JAXBContext - the same way the EndpointImpl does
+            JaxWsServiceFactoryBean serviceFactory = new JaxWsServiceFactoryBean();
+            serviceFactory.setBus(preparationBus);
+            serviceFactory.setServiceClass(sei);
+            serviceFactory.setServiceName(webServiceClient.getServiceName());
+            serviceFactory.setWsdlURL(wsdlLocation);
+            org.apache.cxf.service.Service service = serviceFactory.create();
+            WSDLManager wsdlManager = preparationBus.getExtension(WSDLManager.class);
+            Definition definition = wsdlManager.getDefinition(wsdlLocation);
+            return new PreparedEndpoint(wsdlLocation, definition, wsdlManager.getSchemasForDefinition(definition), service);
+        } finally {
+            BusFactory.setThreadDefaultBus(null);
+        }
+    }
+
+    private static Void createWebFaultJaxbContexts(Class<?> sei) throws JAXBException {
+        for (Method method : sei.getMethods()) {
+            for (Class<?> exceptionType : method.getExceptionTypes()) {
+                if (exceptionType.isAnnotationPresent(WebFault.class)) {
+                    try {
+                        // The fault details are marshalled via XmlUtils, when the XML schema validation fails
+                        XmlUtils.jaxbContextFor(exceptionType.getMethod("getFaultInfo").getReturnType());
+                    } catch (NoSuchMethodException exception) {
+                        // A WebFault without fault bean
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the preparation of the Endpoints and hands the parsed WSDLs over to the Bus, the Endpoints are published on.
+     *
+     * @param bus the Bus the Endpoints are published on
+     * @throws BootStarterCxfException if the preparation of an Endpoint failed
+     */
+    public synchronized void awaitAndApplyTo(Bus bus) throws BootStarterCxfException {
+        if (preparation == null || applied) {
+            return;
+        }
+        applied = true;
+        long joinNanos = System.nanoTime();
+        try {
+            WSDLManager wsdlManager = bus.getExtension(WSDLManager.class);
+            for (Future<PreparedEndpoint> endpointPreparation : preparation.get()) {
+                PreparedEndpoint preparedEndpoint = endpointPreparation.get();
+                preparedEndpoints.add(preparedEndpoint);
+                if (!wsdlManager.getDefinitions().containsKey(preparedEndpoint.getWsdlLocation())) {
+                    wsdlManager.addDefinition(preparedEndpoint.getWsdlLocation(), preparedEndpoint.getDefinition());
+                    wsdlManager.putSchemasForDefinition(preparedEndpoint.getDefinition(), preparedEndpoint.getSchemas());
+                }
+            }
+            for (Future<?> faultPreparation : faultPreparations) {
+                faultPreparation.get();
+            }
+            LOG.info("Prepared {} Endpoints in parallel within {}ms, waited {}ms for them", preparedEndpoints.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - joinNanos));
+        } catch (ExecutionException exception) {
+            LOG.error("Parallel preparation of the Endpoints failed", exception.getCause());
+            throw new BootStarterCxfException("Parallel preparation of the Endpoints failed", exception.getCause());
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new BootStarterCxfException("Interrupted while waiting for the parallel preparation of the Endpoints", exception);
+        }
+    }
+
+    List<PreparedEndpoint> preparedEndpoints() {
+        return preparedEndpoints;
+    }
+
+    // The published Endpoints hold their own model now
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        shutdown();
+    }
+
+    @Override
+    public void destroy() {
+        shutdown();
+    }
+
+    synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            preparationBus.shutdown(false);
+        }
+        preparedEndpoints.clear();
+        faultPreparations.clear();
+        preparation = null;
+    }
+}
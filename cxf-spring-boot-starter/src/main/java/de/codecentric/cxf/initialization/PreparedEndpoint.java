@@ -0,0 +1,41 @@
+package de.codecentric.cxf.initialization;
+
+import org.apache.cxf.service.Service;
+import org.apache.cxf.service.model.ServiceSchemaInfo;
+
+import javax.wsdl.Definition;
+
+/**
+ * The model of an Endpoint prepared by the {@link ParallelEndpointInitializer}: the parsed WSDL, CXF´s schema collection
+ * and the CXF Service, which keeps the JAXBContext in CXF´s JAXBContextCache alive until the Endpoint is published.
+ */
+class PreparedEndpoint {
+
+    private final String wsdlLocation;
+    private final Definition definition;
+    private final ServiceSchemaInfo schemas;
+    private final Service service;
+
+    PreparedEndpoint(String wsdlLocation, Definition definition, ServiceSchemaInfo schemas, Service service) {
+        this.wsdlLocation = wsdlLocation;
+        this.definition = definition;
+        this.schemas = schemas;
+        this.service = service;
+    }
+
+    String getWsdlLocation() {
+        return wsdlLocation;
+    }
+
+    Definition getDefinition() {
+        return definition;
+    }
+
+    ServiceSchemaInfo getSchemas() {
+        return schemas;
+    }
+
+    Service getService() {
+        return service;
+    }
+}
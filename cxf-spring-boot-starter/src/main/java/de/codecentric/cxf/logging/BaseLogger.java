@@ -91,6 +91,32 @@ public class BaseLogger {
         logDebug("903", error.getMessage() + ": {}", faultMessage);
     }
 
+    public void stuckSoapExchangeDetected(String operation, long durationMillis, String threadName, String stackSample) {
+        logWarn("904", "SOAP exchange of operation '{}' is stuck for {}ms on thread '{}':\n{}", operation, durationMillis, threadName, stackSample);
+    }
+
+    public void virtualThreadPinned(String threadName, long durationMillis, String stackSample) {
+        logWarn("905", "Virtual thread '{}' was pinned to its carrier thread for {}ms:\n{}", threadName, durationMillis, stackSample);
+    }
+
+    public void asyncInvocationTimedOut(String operation, long timeoutMillis) {
+        logWarn("906", "Asynchronous invocation of operation '{}' timed out after {}ms", operation, timeoutMillis);
+    }
+
+    public void concurrencyLimitExceeded(String operation, int limit) {
+        // Only debug, as the rejections happen under overload - they´re counted by the soap.concurrency.rejected meter
+        logDebug("907", "Rejected request of operation '{}' at its concurrency limit of {}", operation, limit);
+    }
+
+    public void deadlineExpired(String stage, long expiredMillisAgo) {
+        // Only debug, like the rejections at the concurrency limit - they´re counted by the soap.deadline.expired meter
+        logDebug("908", "Dropped request, as its deadline expired {}ms before {}", expiredMillisAgo, stage);
+    }
+
+    public void reactorNettyRequestFailed(String path, Throwable cause) {
+        logError("909", "Request to '{}' failed on the Reactor Netty transport", path, cause);
+    }
+
 	
 	/*
 	 * Logger-Methods - only private, to use just inside this class
@@ -114,6 +140,11 @@ public class BaseLogger {
 		delegateLogger.info(msg, parameters);
 	}
 	
+	private void logWarn(String id, String messageTemplate, Object... parameters) {
+		String msg = formatMessage(id, messageTemplate);
+		delegateLogger.warn(msg, parameters);
+	}
+
 	private void logError(String id, String messageTemplate, Object... parameters) {
 		String msg = formatMessage(id, messageTemplate);
 		delegateLogger.error(msg, parameters);
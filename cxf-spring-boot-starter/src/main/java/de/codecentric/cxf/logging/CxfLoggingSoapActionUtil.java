@@ -34,6 +34,24 @@ public final class CxfLoggingSoapActionUtil {
         return ""; // This should´nt happen in reality, because the SOAP-Spec demands the SOAP-Service-Method as SOAPAction
     }
 
+    /**
+     * Extracts the methodname from the plain value of the SOAPAction HTTP-Header, e.g. when read directly from the HttpServletRequest.
+     *
+     * @param soapAction the value of the SOAPAction HTTP-Header, like &quot;urn:getWeatherInformation&quot; or
+     *                   &quot;http://www.codecentric.de/namespace/weatherservice/GetCityForecastByZIP&quot; (incl. or excl. the quotes)
+     * @return the methodname or an empty String, if there is no SOAPAction
+     */
+    public static String extractSoapMethodNameFromSoapAction(String soapAction) {
+        if (soapAction == null) {
+            return "";
+        }
+        String action = soapAction.replace("\"", "").trim();
+        if (action.startsWith("urn:")) {
+            return action.substring("urn:".length());
+        }
+        return eliminateStartingUrl(action);
+    }
+
     private static String eliminateStartingUrl(String methodWithUrl) {
         int lastSlash = methodWithUrl.lastIndexOf('/');
         return methodWithUrl.substring(lastSlash + 1);
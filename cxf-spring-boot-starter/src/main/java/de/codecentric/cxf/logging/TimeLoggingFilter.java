@@ -1,5 +1,6 @@
 package de.codecentric.cxf.logging;
 
+import de.codecentric.cxf.common.ExchangeCompletion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
@@ -22,7 +23,8 @@ public class TimeLoggingFilter extends GenericFilterBean{
         try {
             filterChain.doFilter(servletRequest,servletResponse);
         } finally {
-            populateTimingInformation(startMillis);
+            // A suspended invocation isn´t done, when the servlet thread returns
+            ExchangeCompletion.afterExchange(servletRequest, () -> populateTimingInformation(startMillis));
         }
     }
 
@@ -1,5 +1,6 @@
 package de.codecentric.cxf.logging.soapmsg;
 
+import de.codecentric.cxf.flightrecorder.SoapExchangeFlightRecorder;
 import de.codecentric.cxf.logging.BaseLogger;
 import de.codecentric.cxf.logging.CxfLoggingSoapActionUtil;
 import de.codecentric.cxf.logging.ElasticsearchField;
@@ -19,6 +20,9 @@ import java.util.logging.Logger;
  * with a Key directly suitable for processing with the ELK-Stack (Elasticsearch, Logstash, Kibana).  
  * <p>
  * If both are set to true, the SoapMessage is logged to commandline AND put into Slf4j MDC for Elasticsearch processing.
+ * <p>
+ * If a {@link SoapExchangeFlightRecorder} is set via {@link #recordSoapMessage(SoapExchangeFlightRecorder)}, the SoapMessage
+ * is additionally handed over to it - independently of logging and extraction.
  *
  * @author Jonas Hecht
  *
@@ -29,6 +33,7 @@ public class SoapMessageLoggingInInterceptor extends org.apache.cxf.interceptor.
 
     private boolean doLogging = false;
     private boolean doExtraction = false;
+    private SoapExchangeFlightRecorder flightRecorder;
 
     @Override
     protected void log(Logger logger, String message) {
@@ -51,6 +56,10 @@ public class SoapMessageLoggingInInterceptor extends org.apache.cxf.interceptor.
         String soapMethodName = CxfLoggingSoapActionUtil.extractSoapMethodNameFromHttpHeader(headers);
         MDC.put(ElasticsearchField.SOAP_METHOD_LOG_NAME.getName(), soapMethodName);
 
+        if(flightRecorder != null) {
+            flightRecorder.recordInbound(loggingMessage.getId(), soapMethodName, loggingMessage.getPayload());
+        }
+
         if(logButDontExtract()) {
             return buildLogStatementWithSoapMessage(loggingMessage);
 
@@ -62,8 +71,8 @@ public class SoapMessageLoggingInInterceptor extends org.apache.cxf.interceptor.
             return buildLogStatementWithSoapMessage(loggingMessage);
 
         } else {
-            // This should never happen, as this LoggingInterceptor is only configured,
-            // if either logging or extraction is activated
+            // Neither logging nor extraction is activated - so this LoggingInterceptor
+            // is only configured to feed the flight recorder
             return "";
         }
     }
@@ -109,4 +118,8 @@ public class SoapMessageLoggingInInterceptor extends org.apache.cxf.interceptor.
     public void logSoapMessage(boolean active) {
         this.doLogging = active;
     }
+
+    public void recordSoapMessage(SoapExchangeFlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
 }
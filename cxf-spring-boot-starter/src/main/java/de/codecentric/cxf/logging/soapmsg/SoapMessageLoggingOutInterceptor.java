@@ -1,5 +1,6 @@
 package de.codecentric.cxf.logging.soapmsg;
 
+import de.codecentric.cxf.flightrecorder.SoapExchangeFlightRecorder;
 import de.codecentric.cxf.logging.BaseLogger;
 import org.apache.cxf.interceptor.LoggingMessage;
 import org.apache.cxf.interceptor.LoggingOutInterceptor;
@@ -19,6 +20,9 @@ import java.util.logging.Logger;
  * with a Key directly suitable for processing with the ELK-Stack (Elasticsearch, Logstash, Kibana).
  * <p>
  * If both are set to true, the SoapMessage is logged to commandline AND put into Slf4j MDC for Elasticsearch processing.
+ * <p>
+ * If a {@link SoapExchangeFlightRecorder} is set via {@link #recordSoapMessage(SoapExchangeFlightRecorder)}, the SoapMessage
+ * is additionally handed over to it - independently of logging and extraction.
  *
  * @author Jonas Hecht
  *
@@ -29,6 +33,7 @@ public class SoapMessageLoggingOutInterceptor extends LoggingOutInterceptor {
 
     private boolean doLogging = false;
     private boolean doExtraction = false;
+    private SoapExchangeFlightRecorder flightRecorder;
 
     @Override
     protected void log(Logger logger, String message) {
@@ -44,6 +49,10 @@ public class SoapMessageLoggingOutInterceptor extends LoggingOutInterceptor {
     @Override
     protected String formatLoggingMessage(LoggingMessage loggingMessage) {
 
+        if(flightRecorder != null) {
+            flightRecorder.recordOutbound(loggingMessage.getId(), loggingMessage.getResponseCode().toString(), loggingMessage.getPayload());
+        }
+
         if(logButDontExtract()) {
             return buildLogStatementWithSoapMessage(loggingMessage);
 
@@ -55,8 +64,8 @@ public class SoapMessageLoggingOutInterceptor extends LoggingOutInterceptor {
             return buildLogStatementWithSoapMessage(loggingMessage);
 
         } else {
-            // This should never happen, as this LoggingInterceptor is only configured,
-            // if either logging or extraction is activated
+            // Neither logging nor extraction is activated - so this LoggingInterceptor
+            // is only configured to feed the flight recorder
             return "";
         }
     }
@@ -102,4 +111,8 @@ public class SoapMessageLoggingOutInterceptor extends LoggingOutInterceptor {
     public void extractSoapMessage(boolean active) {
         this.doExtraction = active;
     }
+
+    public void recordSoapMessage(SoapExchangeFlightRecorder flightRecorder) {
+        this.flightRecorder = flightRecorder;
+    }
 }
@@ -0,0 +1,224 @@
+package de.codecentric.cxf.nativeimage;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Annotation processor generating the GraalVM native-image configuration of the autodetected Web Services at build time:
+ * <ul>
+ *     <li>{@value #REFLECT_CONFIG_LOCATION} registers the SEIs, WebServiceClients, SEI implementing classes, WebFaults and
+ *     all JAXB classes (incl. their package-info) for reflection - CXF and JAXB inspect and instantiate them reflectively.</li>
+ *     <li>{@value #RESOURCE_CONFIG_LOCATION} includes the WSDL and XSD files next to the wsdlLocation of every WebServiceClient.</li>
+ * </ul>
+ * Together with the {@link de.codecentric.cxf.autodetection.index.WebServiceIndex} the endpoint is registered without
+ * classpath scanning, which isn´t possible inside a native image.
+ * <p>
+ * As incremental compilations only process the changed classes, the entries of already existing configuration files are kept.
+ * The processor must not use anything beyond the JDK, as it runs inside javac.
+ */
+@SupportedAnnotationTypes("*")
+public class NativeImageConfigurationProcessor extends AbstractProcessor {
+
+    public static final String REFLECT_CONFIG_LOCATION = "META-INF/native-image/cxf-spring-boot-starter/generated/reflect-config.json";
+    public static final String RESOURCE_CONFIG_LOCATION = "META-INF/native-image/cxf-spring-boot-starter/generated/resource-config.json";
+
+    private static final Set<String> WEB_SERVICE_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "javax.jws.WebService",
+            "javax.xml.ws.WebServiceClient",
+            "javax.xml.ws.WebFault"));
+
+    private static final Set<String> JAXB_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "javax.xml.bind.annotation.XmlType",
+            "javax.xml.bind.annotation.XmlRootElement",
+            "javax.xml.bind.annotation.XmlRegistry",
+            "javax.xml.bind.annotation.XmlEnum",
+            "javax.xml.bind.annotation.XmlSchema"));
+
+    // Our own files are written with one entry per line, so they can be merged without a JSON parser
+    private static final Pattern REFLECT_ENTRY = Pattern.compile("\\{\"name\":\"([^\"]+)\"");
+    private static final Pattern RESOURCE_ENTRY = Pattern.compile("\\{\"pattern\":\"((?:[^\"\\\\]|\\\\.)+)\"\\}");
+
+    private final Set<String> reflectiveClasses = new TreeSet<>();
+    private final Set<String> resourcePatterns = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                collect((TypeElement) element);
+            } else if (element instanceof PackageElement && hasAnyAnnotationOf(element, JAXB_ANNOTATIONS)) {
+                reflectiveClasses.add(((PackageElement) element).getQualifiedName() + ".package-info");
+            }
+        }
+        if (roundEnv.processingOver() && !reflectiveClasses.isEmpty()) {
+            write(REFLECT_CONFIG_LOCATION, "[\n", "\n]\n", reflectiveClasses, REFLECT_ENTRY,
+                    className -> "{\"name\":\"" + className + "\",\"allDeclaredConstructors\":true,\"allPublicConstructors\":true,"
+                            + "\"allDeclaredMethods\":true,\"allPublicMethods\":true,\"allDeclaredFields\":true,\"allPublicFields\":true}");
+            write(RESOURCE_CONFIG_LOCATION, "{\"resources\":{\"includes\":[\n", "\n]},\"bundles\":[]}\n", resourcePatterns, RESOURCE_ENTRY,
+                    pattern -> "{\"pattern\":\"" + pattern + "\"}");
+        }
+        // Never claim the annotations, other processors may need them as well
+        return false;
+    }
+
+    private void collect(TypeElement type) {
+        if (hasAnyAnnotationOf(type, WEB_SERVICE_ANNOTATIONS) || hasAnyAnnotationOf(type, JAXB_ANNOTATIONS) || implementsSei(type)) {
+            reflectiveClasses.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        }
+        String wsdlLocation = annotationValue(type, "javax.xml.ws.WebServiceClient", "wsdlLocation");
+        if (wsdlLocation != null) {
+            String wsdlDirectoryPattern = wsdlDirectoryPattern(wsdlLocation);
+            if (wsdlDirectoryPattern != null) {
+                resourcePatterns.add(wsdlDirectoryPattern);
+            }
+        }
+        // JAXB generates nested classes for anonymous complex types
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) {
+                collect((TypeElement) enclosed);
+            }
+        }
+    }
+
+    /**
+     * @param wsdlLocation the wsdlLocation of a WebServiceClient, e.g. /wsdl/Weather1.0.wsdl or classpath:wsdl/Weather1.0.wsdl
+     * @return the JSON escaped pattern for all WSDL and XSD files in the directory of the WSDL, or null if it´s no classpath location
+     */
+    static String wsdlDirectoryPattern(String wsdlLocation) {
+        String path = wsdlLocation.trim();
+        if (path.startsWith("classpath:")) {
+            path = path.substring("classpath:".length());
+        } else if (path.isEmpty() || path.contains(":")) {
+            return null;
+        }
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        int lastSlash = path.lastIndexOf('/');
+        String directory = lastSlash < 0 ? "" : path.substring(0, lastSlash + 1);
+        String quotedDirectory = directory.isEmpty() ? "" : "\\\\Q" + directory + "\\\\E";
+        return quotedDirectory + ".*\\\\.(wsdl|xsd)";
+    }
+
+    private static boolean implementsSei(TypeElement type) {
+        List<TypeMirror> supertypes = new ArrayList<>(type.getInterfaces());
+        supertypes.add(type.getSuperclass());
+        for (TypeMirror supertype : supertypes) {
+            if (supertype.getKind() == TypeKind.DECLARED) {
+                TypeElement superElement = (TypeElement) ((DeclaredType) supertype).asElement();
+                if (superElement.getKind().isInterface() && hasAnyAnnotationOf(superElement, Collections.singleton("javax.jws.WebService"))
+                        || implementsSei(superElement)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAnyAnnotationOf(Element element, Set<String> annotationNames) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotationNames.contains(annotationName(annotation))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String annotationValue(Element element, String annotationName, String attribute) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotationName.equals(annotationName(annotation))) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()) {
+                    if (attribute.contentEquals(value.getKey().getSimpleName())) {
+                        return value.getValue().getValue().toString();
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String annotationName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    private void write(String location, String prefix, String suffix, Set<String> entries, Pattern existingEntry, Function<String, String> format) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            Set<String> mergedEntries = new TreeSet<>(existingEntries(location, existingEntry));
+            mergedEntries.addAll(entries);
+            FileObject configuration = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", location);
+            try (Writer writer = new OutputStreamWriter(configuration.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write(prefix);
+                for (Iterator<String> iterator = mergedEntries.iterator(); iterator.hasNext(); ) {
+                    writer.write(format.apply(iterator.next()));
+                    writer.write(iterator.hasNext() ? ",\n" : "");
+                }
+                writer.write(suffix);
+            }
+        } catch (IOException exception) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Could not write " + location + ", the native image needs to be configured manually: " + exception);
+        }
+    }
+
+    private List<String> existingEntries(String location, Pattern existingEntry) {
+        try {
+            FileObject existingConfiguration = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", location);
+            List<String> entries = new ArrayList<>();
+            try (Reader reader = new InputStreamReader(existingConfiguration.openInputStream(), StandardCharsets.UTF_8);
+                 BufferedReader lines = new BufferedReader(reader)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    Matcher matcher = existingEntry.matcher(line);
+                    if (matcher.find()) {
+                        entries.add(matcher.group(1));
+                    }
+                }
+            }
+            return entries;
+        } catch (IOException exception) {
+            // No configuration from a previous compilation
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package de.codecentric.cxf.pooling;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.service.invoker.Factory;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed number of instances of a SEI implementation, each lent to one invocation at a time - so the implementation
+ * doesn´t need to be thread-safe. Borrowing an available instance doesn´t take a lock, only invocations finding all
+ * instances lent wait for the next one released (and are counted as pool waits).
+ */
+public class SeiInstancePool implements Factory {
+
+    private final Class<?> implementorClass;
+    private final int size;
+    private final long waitTimeoutMillis;
+    private final Queue<Object> available;
+    // One permit per available instance - so a successful acquire always finds one in the queue
+    private final Semaphore permits;
+    private final AtomicLong waits = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * @param implementorClass the class of the SEI implementation
+     * @param instances the instances of the SEI implementation
+     * @param waitTimeoutMillis how long an invocation waits for an instance, before it ends with a SOAP fault
+     */
+    public SeiInstancePool(Class<?> implementorClass, List<Object> instances, long waitTimeoutMillis) {
+        this.implementorClass = implementorClass;
+        this.size = instances.size();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.available = new ConcurrentLinkedQueue<>(instances);
+        this.permits = new Semaphore(instances.size());
+    }
+
+    @Override
+    public Object create(Exchange exchange) throws Throwable {
+        if (!permits.tryAcquire()) {
+            waitForRelease();
+        }
+        return available.poll();
+    }
+
+    private void waitForRelease() throws InterruptedException {
+        long waitStart = System.nanoTime();
+        boolean acquired = permits.tryAcquire(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        waits.incrementAndGet();
+        waitNanos.addAndGet(System.nanoTime() - waitStart);
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new Fault(new TimeoutException("No instance of " + implementorClass.getName()
+                    + " was released within " + waitTimeoutMillis + "ms"));
+        }
+    }
+
+    @Override
+    public void release(Exchange exchange, Object instance) {
+        available.offer(instance);
+        permits.release();
+    }
+
+    public Class<?> getImplementorClass() {
+        return implementorClass;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    public long getWaits() {
+        return waits.get();
+    }
+
+    public double getWaitSeconds() {
+        return waitNanos.get() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+}
@@ -0,0 +1,109 @@
+package de.codecentric.cxf.pooling;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.injection.ResourceInjector;
+import org.apache.cxf.jaxws.context.WebServiceContextResourceResolver;
+import org.apache.cxf.resource.DefaultResourceManager;
+import org.apache.cxf.resource.ResourceManager;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates a {@link SeiInstancePool} for every published SEI implementation: the autodetected instance plus further
+ * instances of its class, created through Spring like the autodetected one.
+ * <p>
+ * As a {@link MeterBinder}, the pool sizes, available instances and the waits for an instance are exported to
+ * Micrometer with an implementation tag.
+ */
+public class SeiInstancePooling implements MeterBinder {
+
+    private final AutowireCapableBeanFactory beanFactory;
+    private final int poolSize;
+    private final long waitTimeoutMillis;
+    private final List<SeiInstancePool> pools = new CopyOnWriteArrayList<>();
+    private MeterRegistry meterRegistry;
+
+    /**
+     * @param beanFactory the factory creating the further instances
+     * @param poolSize the number of instances per SEI implementation
+     * @param waitTimeoutMillis how long an invocation waits for an instance, before it ends with a SOAP fault
+     */
+    public SeiInstancePooling(AutowireCapableBeanFactory beanFactory, int poolSize, long waitTimeoutMillis) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("The pool of SEI instances needs at least one instance, not " + poolSize);
+        }
+        this.beanFactory = beanFactory;
+        this.poolSize = poolSize;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    /**
+     * @param seiImplementation the autodetected SEI implementation, that´s part of the pool
+     * @param bus the Bus of the Endpoint, whose WebServiceContext is injected into the further instances
+     * @return the pool of instances of the SEI implementation
+     */
+    public SeiInstancePool poolOf(Object seiImplementation, Bus bus) {
+        Class<?> implementorClass = ClassUtils.getUserClass(seiImplementation);
+        List<Object> instances = new ArrayList<>(poolSize);
+        instances.add(seiImplementation);
+        ResourceInjector injector = webServiceContextInjector(bus);
+        while (instances.size() < poolSize) {
+            Object instance = beanFactory.createBean(implementorClass);
+            // CXF injects the WebServiceContext only into the instance it´s published with
+            injector.inject(instance);
+            instances.add(instance);
+        }
+        SeiInstancePool pool = new SeiInstancePool(implementorClass, instances, waitTimeoutMillis);
+        registerPool(pool);
+        return pool;
+    }
+
+    public List<SeiInstancePool> pools() {
+        return pools;
+    }
+
+    @Override
+    public synchronized void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        pools.forEach(this::registerMeters);
+    }
+
+    private synchronized void registerPool(SeiInstancePool pool) {
+        pools.add(pool);
+        registerMeters(pool);
+    }
+
+    private void registerMeters(SeiInstancePool pool) {
+        if (meterRegistry == null) {
+            return;
+        }
+        Tags tags = Tags.of("implementation", pool.getImplementorClass().getSimpleName());
+        Gauge.builder("soap.sei.pool.size", pool, SeiInstancePool::getSize)
+                .description("Instances of the SEI implementation in the pool").tags(tags).register(meterRegistry);
+        Gauge.builder("soap.sei.pool.available", pool, SeiInstancePool::getAvailable)
+                .description("Instances of the SEI implementation not lent to an invocation").tags(tags).register(meterRegistry);
+        FunctionTimer.builder("soap.sei.pool.wait", pool, SeiInstancePool::getWaits, SeiInstancePool::getWaitSeconds, TimeUnit.SECONDS)
+                .description("Invocations waiting for a released instance of the SEI implementation").tags(tags).register(meterRegistry);
+        FunctionCounter.builder("soap.sei.pool.timeouts", pool, SeiInstancePool::getTimeouts)
+                .description("Invocations, that got no instance of the SEI implementation in time").tags(tags).register(meterRegistry);
+    }
+
+    private static ResourceInjector webServiceContextInjector(Bus bus) {
+        ResourceManager busResourceManager = bus.getExtension(ResourceManager.class);
+        ResourceManager resourceManager = busResourceManager != null
+                ? new DefaultResourceManager(busResourceManager.getResourceResolvers()) : new DefaultResourceManager();
+        resourceManager.addResourceResolver(new WebServiceContextResourceResolver());
+        return new ResourceInjector(resourceManager);
+    }
+}
@@ -0,0 +1,33 @@
+package de.codecentric.cxf.publication;
+
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+
+/**
+ * Wraps the CXFServlet to publish the Endpoints via the {@link LazyEndpointPublisher} before the first request reaches it.
+ */
+public class LazyEndpointPublicationFilter extends GenericFilterBean {
+
+    private final LazyEndpointPublisher lazyEndpointPublisher;
+
+    public LazyEndpointPublicationFilter(LazyEndpointPublisher lazyEndpointPublisher) {
+        this.lazyEndpointPublisher = lazyEndpointPublisher;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        if (!lazyEndpointPublisher.isPublished()) {
+            try {
+                lazyEndpointPublisher.publish();
+            } catch (RuntimeException exception) {
+                throw new ServletException("Lazy publication of the Endpoints failed", exception);
+            }
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+}
@@ -0,0 +1,82 @@
+package de.codecentric.cxf.publication;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the Endpoints lazily - parsing the WSDL incl. all imported XSDs and building CXF´s service model is deferred
+ * from the context refresh to the first request or a background thread after the application is ready, whichever
+ * comes first. The publication happens exactly once: concurrent callers block until it´s done.
+ * <p>
+ * If the publication fails, every further caller gets the same failure - the node can´t serve its contract anyway.
+ */
+public class LazyEndpointPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LazyEndpointPublisher.class);
+
+    private final List<Publication> publications = new ArrayList<>();
+    private volatile boolean published = false;
+    private RuntimeException failure;
+
+    /**
+     * Registers a publication to be run later on - or right away, if the Endpoints are already published.
+     *
+     * @param address the address the publication publishes an Endpoint under
+     * @param publication publishes the Endpoint
+     */
+    public synchronized void register(String address, Runnable publication) {
+        if (published) {
+            publication.run();
+        } else {
+            publications.add(new Publication(address, publication));
+        }
+    }
+
+    /**
+     * Publishes all registered Endpoints, if that´s not already done - blocking until they are published.
+     */
+    public void publish() {
+        if (published) {
+            return;
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (published) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            try {
+                for (Publication publication : publications) {
+                    publication.publication.run();
+                    LOG.info("Published Endpoint under '{}'", publication.address);
+                }
+            } catch (RuntimeException exception) {
+                failure = exception;
+                throw exception;
+            }
+            publications.clear();
+            published = true;
+            LOG.info("Lazy publication of the Endpoints took {}ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    public boolean isPublished() {
+        return published;
+    }
+
+    private static class Publication {
+        private final String address;
+        private final Runnable publication;
+
+        private Publication(String address, Runnable publication) {
+            this.address = address;
+            this.publication = publication;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package de.codecentric.cxf.reactornetty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.helpers.HttpHeaderHelper;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.AbstractConduit;
+import org.apache.cxf.transport.AbstractDestination;
+import org.apache.cxf.transport.Conduit;
+import reactor.netty.http.server.HttpServerRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * The CXF Destination of an Endpoint served by the {@link ReactorNettyTransport}: turns the aggregated request into the
+ * inbound CXF message - with the HTTP properties the interceptors know from the servlet transport - and collects the
+ * response written by the interceptor chain into a {@link ReactorNettyResponse} through its back channel.
+ */
+public class ReactorNettyDestination extends AbstractDestination {
+
+    private static final Logger LOG = LogUtils.getL7dLogger(ReactorNettyDestination.class);
+
+    private final ReactorNettyTransport transport;
+    private final String path;
+
+    ReactorNettyDestination(Bus bus, EndpointInfo endpointInfo, ReactorNettyTransport transport, String path) {
+        super(bus, getTargetReference(endpointInfo, bus), endpointInfo);
+        this.transport = transport;
+        this.path = path;
+    }
+
+    /**
+     * Runs the interceptor chain of the Endpoint on the calling thread.
+     *
+     * @param request the request
+     * @param body the complete request body - only read until the method returns
+     * @return the response written by the chain
+     */
+    ReactorNettyResponse invoke(HttpServerRequest request, ByteBuf body) throws IOException {
+        Message message = new MessageImpl();
+        String contentType = request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+        message.setContent(InputStream.class, new ByteBufInputStream(body));
+        message.put(Message.PROTOCOL_HEADERS, headersOf(request));
+        message.put(Message.CONTENT_TYPE, contentType);
+        message.put(Message.ACCEPT_CONTENT_TYPE, request.requestHeaders().get(HttpHeaderNames.ACCEPT));
+        message.put(Message.HTTP_REQUEST_METHOD, request.method().name());
+        message.put(Message.REQUEST_URI, path);
+        message.put(Message.PATH_INFO, path);
+        message.put(Message.BASE_PATH, path);
+        message.put(Message.REQUEST_URL, request.scheme() + "://" + hostOf(request) + path);
+        int query = request.uri().indexOf('?');
+        if (query >= 0) {
+            message.put(Message.QUERY_STRING, request.uri().substring(query + 1));
+        }
+        String encoding = HttpHeaderHelper.mapCharset(HttpHeaderHelper.findCharset(contentType));
+        if (encoding == null) {
+            throw new IOException("Unsupported charset of content type " + contentType);
+        }
+        message.put(Message.ENCODING, encoding);
+
+        ReactorNettyResponse response = new ReactorNettyResponse();
+        message.put(ReactorNettyResponse.class, response);
+        Exchange exchange = new ExchangeImpl();
+        exchange.setInMessage(message);
+        exchange.setDestination(this);
+        message.setExchange(exchange);
+        incomingObserver.onMessage(message);
+        return response;
+    }
+
+    static String pathOf(HttpServerRequest request) {
+        int query = request.uri().indexOf('?');
+        return query < 0 ? request.uri() : request.uri().substring(0, query);
+    }
+
+    private static Map<String, List<String>> headersOf(HttpServerRequest request) {
+        // Case-insensitive, like the headers of the servlet transport
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, String> header : request.requestHeaders()) {
+            headers.computeIfAbsent(header.getKey(), name -> new ArrayList<>(1)).add(header.getValue());
+        }
+        return headers;
+    }
+
+    private static String hostOf(HttpServerRequest request) {
+        String host = request.requestHeaders().get(HttpHeaderNames.HOST);
+        if (host != null) {
+            return host;
+        }
+        InetSocketAddress address = request.hostAddress();
+        return address != null ? address.getHostString() + ":" + address.getPort() : "localhost";
+    }
+
+    @Override
+    protected Conduit getInbuiltBackChannel(Message inMessage) {
+        return new BackChannelConduit(inMessage.get(ReactorNettyResponse.class));
+    }
+
+    @Override
+    public void shutdown() {
+        transport.remove(path);
+        super.shutdown();
+    }
+
+    @Override
+    protected Logger getLogger() {
+        return LOG;
+    }
+
+    private static class BackChannelConduit extends AbstractConduit {
+
+        private final ReactorNettyResponse response;
+
+        BackChannelConduit(ReactorNettyResponse response) {
+            super(null);
+            this.response = response;
+        }
+
+        @Override
+        public void prepare(Message message) {
+            message.setContent(OutputStream.class, response.body());
+        }
+
+        @Override
+        public void close(Message message) throws IOException {
+            OutputStream body = message.getContent(OutputStream.class);
+            if (body != null) {
+                body.close();
+            }
+            response.complete(message);
+        }
+
+        @Override
+        protected Logger getLogger() {
+            return LOG;
+        }
+    }
+}
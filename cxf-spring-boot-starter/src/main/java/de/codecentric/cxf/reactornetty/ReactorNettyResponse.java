@@ -0,0 +1,55 @@
+package de.codecentric.cxf.reactornetty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response of a SOAP request served by the {@link ReactorNettyTransport}: the interceptor chain writes the body into
+ * a pooled buffer, that´s handed over to Netty (and released by it) as it is.
+ */
+class ReactorNettyResponse {
+
+    private ByteBuf body;
+    private int status = HttpResponseStatus.ACCEPTED.code();
+    private String contentType;
+    private Map<String, List<String>> headers;
+
+    OutputStream body() {
+        if (body == null) {
+            body = PooledByteBufAllocator.DEFAULT.buffer();
+        }
+        return new ByteBufOutputStream(body);
+    }
+
+    void complete(Message outMessage) {
+        status = MessageUtils.getReponseCodeFromMessage(outMessage);
+        contentType = (String) outMessage.get(Message.CONTENT_TYPE);
+        headers = CastUtils.cast((Map<?, ?>) outMessage.get(Message.PROTOCOL_HEADERS));
+    }
+
+    Mono<Void> writeTo(HttpServerResponse response) {
+        response.status(status);
+        if (headers != null) {
+            headers.forEach((name, values) -> response.header(name, String.join(",", values)));
+        }
+        if (contentType != null) {
+            response.header(HttpHeaderNames.CONTENT_TYPE, contentType);
+        }
+        if (body == null) {
+            return response.send().then();
+        }
+        return response.send(Mono.just(body)).then();
+    }
+}
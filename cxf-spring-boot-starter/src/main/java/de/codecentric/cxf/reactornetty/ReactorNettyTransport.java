@@ -0,0 +1,217 @@
+package de.codecentric.cxf.reactornetty;
+
+import de.codecentric.cxf.common.PreRenderedSoapFault;
+import de.codecentric.cxf.logging.BaseLogger;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.apache.cxf.Bus;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.DestinationFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the Endpoints on Reactor Netty instead of the CXFServlet: the request bodies are read on the event loop into
+ * pooled buffers, that the StAX parser reads from without a copy. Only the complete requests are handed over to a bounded
+ * scheduler for the (blocking) interceptor chain and the SEI invocation - the response is written without blocking
+ * again from a pooled buffer.
+ * <p>
+ * Request bodies larger than the configured maximum are refused with HTTP 413 - while they arrive, not only after they
+ * were aggregated. A request failing outside of CXF´s own fault handling ends with HTTP 500 and a SOAP fault.
+ * <p>
+ * As CXF {@link DestinationFactory} every Endpoint it´s applied to (see {@link #applyTo(EndpointImpl)}) gets a
+ * {@link ReactorNettyDestination} under the base URL and its address - like with the CXFServlet.
+ */
+public class ReactorNettyTransport implements DestinationFactory {
+
+    public static final String TRANSPORT_ID = "http://cxf.apache.org/transports/reactor-netty";
+
+    static final String SCHEDULER_NAME = "soap-netty-invocation";
+
+    private static final BaseLogger LOG = BaseLogger.getLogger(ReactorNettyTransport.class);
+    private static final PreRenderedSoapFault FAILED = new PreRenderedSoapFault("Request could not be processed");
+
+    private final String baseUrl;
+    private final String host;
+    private final int port;
+    private final long maxBodyBytes;
+    private final Scheduler invocations;
+    private final ConcurrentMap<String, ReactorNettyDestination> destinations = new ConcurrentHashMap<>();
+    private volatile DisposableServer server;
+
+    /**
+     * @param baseUrl the path all Endpoint addresses are relative to, like the mapping of the CXFServlet
+     * @param host the host to bind to
+     * @param port the port to bind to, 0 for any free one
+     * @param invocationThreads the maximum number of threads invoking the Endpoints at once
+     * @param invocationQueue the maximum number of requests waiting for one of the threads
+     * @param maxBodyBytes the maximum size of a request body
+     */
+    public ReactorNettyTransport(String baseUrl, String host, int port, int invocationThreads, int invocationQueue, long maxBodyBytes) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.host = host;
+        this.port = port;
+        this.maxBodyBytes = maxBodyBytes;
+        this.invocations = Schedulers.newBoundedElastic(invocationThreads, invocationQueue, SCHEDULER_NAME);
+    }
+
+    /**
+     * Serves the Endpoint on Reactor Netty instead of the CXFServlet.
+     *
+     * @param endpoint the Endpoint - not published yet
+     */
+    public void applyTo(EndpointImpl endpoint) {
+        endpoint.getServerFactory().setDestinationFactory(this);
+        endpoint.getServerFactory().setTransportId(TRANSPORT_ID);
+    }
+
+    public synchronized void start() {
+        if (server == null) {
+            server = HttpServer.create().host(host).port(port).handle(this::serve).bindNow();
+        }
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        invocations.dispose();
+    }
+
+    /**
+     * @return the port the server is bound to - or the configured one, if it isn´t started
+     */
+    public int port() {
+        DisposableServer started = server;
+        return started != null ? started.port() : port;
+    }
+
+    @Override
+    public Destination getDestination(EndpointInfo endpointInfo, Bus bus) {
+        String path = pathOf(endpointInfo.getAddress());
+        return destinations.computeIfAbsent(path, published -> new ReactorNettyDestination(bus, endpointInfo, this, published));
+    }
+
+    void remove(String path) {
+        destinations.remove(path);
+    }
+
+    @Override
+    public Set<String> getUriPrefixes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public List<String> getTransportIds() {
+        return Collections.singletonList(TRANSPORT_ID);
+    }
+
+    private Publisher<Void> serve(HttpServerRequest request, HttpServerResponse response) {
+        ReactorNettyDestination destination = destinations.get(ReactorNettyDestination.pathOf(request));
+        if (destination == null) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        String contentLength = request.requestHeaders().get(HttpHeaderNames.CONTENT_LENGTH);
+        if (contentLength != null && isTooLarge(contentLength)) {
+            return response.status(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE).send();
+        }
+        // Chunked bodies don´t announce their size
+        AtomicLong received = new AtomicLong();
+        ByteBufFlux limitedBody = ByteBufFlux.fromInbound(request.receive().doOnNext(chunk -> {
+            if (received.addAndGet(chunk.readableBytes()) > maxBodyBytes) {
+                throw new BodyTooLargeException();
+            }
+        }));
+        return limitedBody.aggregate().retain()
+                .defaultIfEmpty(Unpooled.EMPTY_BUFFER)
+                // The chain and the SEI implementation may block - not on the event loop
+                .flatMap(body -> invoke(destination, request, body))
+                .flatMap(result -> result.writeTo(response))
+                .onErrorResume(failure -> respondTo(failure, request, response));
+    }
+
+    private boolean isTooLarge(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim()) > maxBodyBytes;
+        } catch (NumberFormatException invalidContentLength) {
+            // Left to the limit while the body arrives
+            return false;
+        }
+    }
+
+    private Mono<ReactorNettyResponse> invoke(ReactorNettyDestination destination, HttpServerRequest request, ByteBuf body) {
+        // Released exactly once: by the invocation, once it read the body - or if it never ran (rejected or cancelled)
+        AtomicBoolean claimed = new AtomicBoolean();
+        return Mono.fromCallable(() -> {
+                    if (!claimed.compareAndSet(false, true)) {
+                        return null;
+                    }
+                    try {
+                        return destination.invoke(request, body);
+                    } finally {
+                        body.release();
+                    }
+                })
+                .subscribeOn(invocations)
+                .doFinally(signal -> {
+                    if (claimed.compareAndSet(false, true)) {
+                        body.release();
+                    }
+                });
+    }
+
+    private Mono<Void> respondTo(Throwable failure, HttpServerRequest request, HttpServerResponse response) {
+        if (failure instanceof BodyTooLargeException) {
+            return response.status(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE).send().then();
+        }
+        if (failure instanceof RejectedExecutionException) {
+            return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+        }
+        LOG.reactorNettyRequestFailed(ReactorNettyDestination.pathOf(request), failure);
+        if (response.hasSentHeaders()) {
+            // Nothing left to answer with - the connection is closed
+            return Mono.error(failure);
+        }
+        String contentType = request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE);
+        boolean soap12 = contentType != null && contentType.startsWith("application/soap+xml");
+        return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR)
+                .header(HttpHeaderNames.CONTENT_TYPE, soap12 ? "application/soap+xml; charset=UTF-8" : "text/xml; charset=UTF-8")
+                .sendByteArray(Mono.just(FAILED.bytes(soap12)))
+                .then();
+    }
+
+    private String pathOf(String address) {
+        String path = address.contains("://") ? URI.create(address).getPath() : address;
+        return baseUrl + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    private static class BodyTooLargeException extends RuntimeException {
+
+        private BodyTooLargeException() {
+            // Signals the limit only - no stack trace needed
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package de.codecentric.cxf.resourceaccounting;
+
+import de.codecentric.cxf.common.ExchangeCompletion;
+import de.codecentric.cxf.logging.CxfLoggingSoapActionUtil;
+import de.codecentric.cxf.xmlvalidation.FaultTypeExposingInterceptor;
+import org.slf4j.MDC;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Wraps the CXFServlet to measure the CPU time and allocated bytes of the sampled SOAP exchanges in the
+ * {@link SampledResourceAccounting}. The values of a sampled exchange are put into the MDC with the keys
+ * {@value #MDC_KEY_CPU_TIME} and {@value #MDC_KEY_ALLOCATED_BYTES} - like the call time, before the exchange is logged
+ * by the TimeLoggingFilter in front of this filter.
+ * <p>
+ * Only the work done on the threads serving the exchange is measured - an exchange, that goes async (a suspended
+ * invocation), is measured in all of its dispatches and recorded once it´s complete.
+ */
+public class ResourceAccountingFilter extends GenericFilterBean {
+
+    static final String MDC_KEY_CPU_TIME = "resource-cputime";
+    static final String MDC_KEY_ALLOCATED_BYTES = "resource-allocated-bytes";
+    static final String EXCHANGE_ATTRIBUTE = ResourceAccountingFilter.class.getName() + ".exchange";
+
+    private final SampledResourceAccounting sampledResourceAccounting;
+    private final ThreadResourceMeter threadResourceMeter = new ThreadResourceMeter();
+
+    public ResourceAccountingFilter(SampledResourceAccounting sampledResourceAccounting) {
+        this.sampledResourceAccounting = sampledResourceAccounting;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        MeasuredExchange exchange = (MeasuredExchange) request.getAttribute(EXCHANGE_ATTRIBUTE);
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            if (exchange != null) {
+                measure(exchange, servletRequest, servletResponse, filterChain);
+            } else {
+                filterChain.doFilter(servletRequest, servletResponse);
+            }
+            return;
+        }
+        // The thread may still carry the values of an exchange sampled before
+        MDC.remove(MDC_KEY_CPU_TIME);
+        MDC.remove(MDC_KEY_ALLOCATED_BYTES);
+        if (!sampledResourceAccounting.sample()) {
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        MeasuredExchange measuredExchange = new MeasuredExchange();
+        request.setAttribute(EXCHANGE_ATTRIBUTE, measuredExchange);
+        try {
+            measure(measuredExchange, servletRequest, servletResponse, filterChain);
+        } finally {
+            ExchangeCompletion.afterExchange(request, () -> record(measuredExchange, request, (HttpServletResponse) servletResponse));
+        }
+    }
+
+    private void measure(MeasuredExchange exchange, ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        long startCpuTimeNanos = threadResourceMeter.cpuTimeNanos();
+        long startAllocatedBytes = threadResourceMeter.allocatedBytes();
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+        } finally {
+            exchange.add(difference(startCpuTimeNanos, threadResourceMeter.cpuTimeNanos()),
+                    difference(startAllocatedBytes, threadResourceMeter.allocatedBytes()));
+        }
+    }
+
+    private void record(MeasuredExchange exchange, HttpServletRequest request, HttpServletResponse response) {
+        long cpuTimeNanos = exchange.cpuTimeNanos;
+        long allocatedBytes = exchange.allocatedBytes;
+        String operation = CxfLoggingSoapActionUtil.extractSoapMethodNameFromSoapAction(request.getHeader("SOAPAction"));
+        sampledResourceAccounting.record(operation, FaultTypeExposingInterceptor.faultTypeOf(request),
+                response.getStatus() >= HttpServletResponse.SC_BAD_REQUEST, cpuTimeNanos, allocatedBytes);
+        populateResourceInformation(cpuTimeNanos, allocatedBytes);
+    }
+
+    private static long difference(long start, long end) {
+        return start == ThreadResourceMeter.NOT_SUPPORTED || end == ThreadResourceMeter.NOT_SUPPORTED
+                ? ThreadResourceMeter.NOT_SUPPORTED : end - start;
+    }
+
+    private static void populateResourceInformation(long cpuTimeNanos, long allocatedBytes) {
+        MDC.put(MDC_KEY_CPU_TIME, Long.toString(cpuTimeNanos));
+        MDC.put(MDC_KEY_ALLOCATED_BYTES, Long.toString(allocatedBytes));
+    }
+
+    /**
+     * The resources used by the dispatches of one exchange so far - the dispatches follow each other.
+     */
+    private static class MeasuredExchange {
+        private volatile long cpuTimeNanos;
+        private volatile long allocatedBytes;
+
+        private void add(long dispatchCpuTimeNanos, long dispatchAllocatedBytes) {
+            cpuTimeNanos = sum(cpuTimeNanos, dispatchCpuTimeNanos);
+            allocatedBytes = sum(allocatedBytes, dispatchAllocatedBytes);
+        }
+
+        private static long sum(long measured, long dispatch) {
+            return measured == ThreadResourceMeter.NOT_SUPPORTED || dispatch == ThreadResourceMeter.NOT_SUPPORTED
+                    ? ThreadResourceMeter.NOT_SUPPORTED : measured + dispatch;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package de.codecentric.cxf.resourceaccounting;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CPU time and allocated bytes of the sampled exchanges of one SOAP operation and outcome.
+ */
+public class ResourceUsage {
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder cpuTimeNanos = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+
+    void record(long cpuTimeNanos, long allocatedBytes) {
+        samples.increment();
+        if (cpuTimeNanos != ThreadResourceMeter.NOT_SUPPORTED) {
+            this.cpuTimeNanos.add(cpuTimeNanos);
+        }
+        if (allocatedBytes != ThreadResourceMeter.NOT_SUPPORTED) {
+            this.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    public long getSamples() {
+        return samples.sum();
+    }
+
+    public long getCpuTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuTimeNanos.sum());
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    double cpuTime(TimeUnit unit) {
+        return cpuTimeNanos.sum() / (double) unit.toNanos(1);
+    }
+}
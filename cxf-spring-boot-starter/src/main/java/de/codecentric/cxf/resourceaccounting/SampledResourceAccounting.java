@@ -0,0 +1,113 @@
+package de.codecentric.cxf.resourceaccounting;
+
+import de.codecentric.cxf.common.FaultType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accounts the CPU time and the allocated bytes of a sample of the SOAP exchanges per operation and outcome - the
+ * {@link FaultType} of failed exchanges, {@value #UNCLASSIFIED_ERROR} for failures without one and {@value #NO_FAULT}
+ * for successful exchanges. This shows the operations expensive in CPU and allocations, without attaching a profiler.
+ * <p>
+ * The number of accounted operations is bounded - exchanges of further operations are accounted as {@value #OTHER_OPERATIONS}.
+ * <p>
+ * As a {@link MeterBinder}, the usage is also exported to Micrometer with operation and faultType tags.
+ */
+public class SampledResourceAccounting implements MeterBinder {
+
+    public static final String NO_FAULT = "NONE";
+    public static final String UNCLASSIFIED_ERROR = "UNCLASSIFIED";
+    public static final String OTHER_OPERATIONS = "other";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, ResourceUsage>> operations = new ConcurrentHashMap<>();
+    private final double sampleRate;
+    private final int maxOperations;
+    private volatile MeterRegistry meterRegistry;
+
+    public SampledResourceAccounting(double sampleRate, int maxOperations) {
+        this.sampleRate = sampleRate;
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * @return true, if the current exchange should be sampled
+     */
+    public boolean sample() {
+        return sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    public void record(String operation, FaultType faultType, boolean error, long cpuTimeNanos, long allocatedBytes) {
+        String outcome = faultType != null ? faultType.name() : error ? UNCLASSIFIED_ERROR : NO_FAULT;
+        usageOf(operationOf(operation), outcome).record(cpuTimeNanos, allocatedBytes);
+    }
+
+    /**
+     * @return the usage of all accounted operations by outcome, sorted by operation and outcome
+     */
+    public Map<String, Map<String, ResourceUsage>> usage() {
+        Map<String, Map<String, ResourceUsage>> usage = new TreeMap<>();
+        operations.forEach((operation, outcomes) -> usage.put(operation, Collections.unmodifiableMap(new TreeMap<>(outcomes))));
+        return Collections.unmodifiableMap(usage);
+    }
+
+    /**
+     * @param operation the SOAP operation
+     * @param outcome the name of the {@link FaultType}, {@value #UNCLASSIFIED_ERROR} or {@value #NO_FAULT}
+     * @return the usage or null, if no exchange of the operation with this outcome was sampled
+     */
+    public ResourceUsage usage(String operation, String outcome) {
+        Map<String, ResourceUsage> outcomes = operations.get(operation);
+        return outcomes == null ? null : outcomes.get(outcome);
+    }
+
+    private String operationOf(String operation) {
+        if (operation == null || operation.isEmpty()) {
+            return OTHER_OPERATIONS;
+        }
+        if (!operations.containsKey(operation) && operations.size() >= maxOperations) {
+            return OTHER_OPERATIONS;
+        }
+        return operation;
+    }
+
+    private ResourceUsage usageOf(String operation, String outcome) {
+        return operations.computeIfAbsent(operation, key -> new ConcurrentHashMap<>()).computeIfAbsent(outcome, key -> {
+            ResourceUsage usage = new ResourceUsage();
+            MeterRegistry registry = meterRegistry;
+            if (registry != null) {
+                registerMeters(registry, operation, outcome, usage);
+            }
+            return usage;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        operations.forEach((operation, outcomes) -> outcomes.forEach((outcome, usage) -> registerMeters(registry, operation, outcome, usage)));
+    }
+
+    private static void registerMeters(MeterRegistry registry, String operation, String outcome, ResourceUsage usage) {
+        Tags tags = Tags.of("operation", operation, "faultType", outcome);
+        FunctionTimer.builder("soap.operation.cpu", usage, ResourceUsage::getSamples, value -> value.cpuTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .description("CPU time of the sampled SOAP exchanges")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("soap.operation.allocated", usage, ResourceUsage::getAllocatedBytes)
+                .description("Bytes allocated by the sampled SOAP exchanges")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,40 @@
+package de.codecentric.cxf.resourceaccounting;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Reads the CPU time and the allocated bytes of the current thread from the {@link ThreadMXBean}. The allocated bytes
+ * are only available on JVMs providing the com.sun.management extension (e.g. HotSpot) - otherwise they are reported as
+ * {@value #NOT_SUPPORTED}, as is the CPU time on JVMs not supporting it.
+ */
+class ThreadResourceMeter {
+
+    static final long NOT_SUPPORTED = -1;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final boolean allocatedBytesSupported;
+
+    ThreadResourceMeter() {
+        cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        if (cpuTimeSupported && !threadMXBean.isThreadCpuTimeEnabled()) {
+            threadMXBean.setThreadCpuTimeEnabled(true);
+        }
+        allocatedBytesSupported = threadMXBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported();
+        if (allocatedBytesSupported && !((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemoryEnabled()) {
+            ((com.sun.management.ThreadMXBean) threadMXBean).setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    long cpuTimeNanos() {
+        return cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : NOT_SUPPORTED;
+    }
+
+    long allocatedBytes() {
+        return allocatedBytesSupported
+                ? ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId())
+                : NOT_SUPPORTED;
+    }
+}
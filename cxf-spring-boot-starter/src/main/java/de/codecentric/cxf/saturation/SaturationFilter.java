@@ -0,0 +1,41 @@
+package de.codecentric.cxf.saturation;
+
+import de.codecentric.cxf.common.ExchangeCompletion;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Wraps the CXFServlet to feed every SOAP exchange into the {@link SaturationMonitor} and publishes the current load
+ * factor as response header, so client-side load balancers are able to prefer less loaded nodes.
+ */
+public class SaturationFilter extends GenericFilterBean {
+
+    private final SaturationMonitor saturationMonitor;
+    private final String loadFactorHeader;
+
+    public SaturationFilter(SaturationMonitor saturationMonitor, String loadFactorHeader) {
+        this.saturationMonitor = saturationMonitor;
+        this.loadFactorHeader = loadFactorHeader;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        // The header has to be set before the CXFServlet commits the response
+        ((HttpServletResponse) servletResponse).setHeader(loadFactorHeader, String.format(Locale.ROOT, "%.2f", saturationMonitor.loadFactor()));
+        long startNanos = System.nanoTime();
+        saturationMonitor.exchangeStarted();
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+        } finally {
+            // Still in flight while an invocation is suspended or the envelope is ingested
+            ExchangeCompletion.afterExchange(servletRequest, () -> saturationMonitor.exchangeFinished(System.nanoTime() - startNanos));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package de.codecentric.cxf.saturation;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Health contributor reporting OUT_OF_SERVICE, while the {@link SaturationMonitor} considers the node saturated.
+ */
+public class SaturationHealthIndicator implements HealthIndicator {
+
+    private final SaturationMonitor saturationMonitor;
+
+    public SaturationHealthIndicator(SaturationMonitor saturationMonitor) {
+        this.saturationMonitor = saturationMonitor;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = saturationMonitor.saturated() ? Health.outOfService() : Health.up();
+        return health.withDetail("loadFactor", saturationMonitor.loadFactor())
+                .withDetail("inFlight", saturationMonitor.inFlight())
+                .withDetail("p99LatencyMillis", saturationMonitor.p99LatencyMillis())
+                .withDetail("queueDepth", saturationMonitor.queueDepth())
+                .build();
+    }
+}
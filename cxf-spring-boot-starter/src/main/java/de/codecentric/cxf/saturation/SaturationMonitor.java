@@ -0,0 +1,172 @@
+package de.codecentric.cxf.saturation;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * Monitors the saturation of the node by the in-flight SOAP exchanges, the p99 latency of the recent exchanges and the
+ * queue depth of the executor serving them. The load factor is the highest ratio of one of these signals to its
+ * threshold - thresholds &lt;= 0 disable a signal. Latencies older than the max age are no longer recent: a node
+ * refusing traffic doesn´t finish new exchanges, so the p99 would otherwise stay at its saturated value forever.
+ * <p>
+ * If the load factor reaches 1, the node is saturated and the readiness is flipped to
+ * {@link ReadinessState#REFUSING_TRAFFIC}, so Kubernetes or the load balancer rebalances the traffic. To prevent
+ * flapping, the readiness is only flipped back to {@link ReadinessState#ACCEPTING_TRAFFIC} after the load factor fell
+ * below the recovery ratio.
+ * <p>
+ * As a {@link MeterBinder}, the load factor and the saturation are also exported to Micrometer.
+ */
+public class SaturationMonitor implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SaturationMonitor.class);
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxInFlight;
+    private final long maxP99LatencyNanos;
+    private final int maxQueueDepth;
+    private final double recoveryRatio;
+    private final long intervalMillis;
+    private final long latencyMaxAgeNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLongArray recentLatencies;
+    private final AtomicLongArray recentLatenciesFinishedNanos;
+    private final AtomicLong latencySequence = new AtomicLong();
+    private volatile IntSupplier executorQueueDepth = () -> 0;
+    private volatile long p99LatencyNanos = 0;
+    private volatile int queueDepth = 0;
+    private volatile double loadFactor = 0;
+    private volatile boolean saturated = false;
+    private ScheduledExecutorService evaluator;
+
+    public SaturationMonitor(ApplicationEventPublisher eventPublisher, int maxInFlight, long maxP99LatencyMillis, int maxQueueDepth,
+                             double recoveryRatio, int latencyWindow, long latencyMaxAgeMillis, long intervalMillis) {
+        this.eventPublisher = eventPublisher;
+        this.maxInFlight = maxInFlight;
+        this.maxP99LatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxP99LatencyMillis);
+        this.maxQueueDepth = maxQueueDepth;
+        this.recoveryRatio = recoveryRatio;
+        this.recentLatencies = new AtomicLongArray(latencyWindow);
+        this.recentLatenciesFinishedNanos = new AtomicLongArray(latencyWindow);
+        this.latencyMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos(latencyMaxAgeMillis);
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * @param executorQueueDepth the queue depth of the executor serving the SOAP exchanges
+     */
+    public void monitorQueueDepth(IntSupplier executorQueueDepth) {
+        this.executorQueueDepth = executorQueueDepth;
+    }
+
+    public void exchangeStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void exchangeFinished(long latencyNanos) {
+        inFlight.decrementAndGet();
+        int slot = (int) (latencySequence.getAndIncrement() % recentLatencies.length());
+        recentLatencies.set(slot, latencyNanos);
+        recentLatenciesFinishedNanos.set(slot, System.nanoTime());
+    }
+
+    public void start() {
+        evaluator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soap-saturation-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evaluator.scheduleWithFixedDelay(this::evaluate, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (evaluator != null) {
+            evaluator.shutdownNow();
+        }
+    }
+
+    void evaluate() {
+        queueDepth = executorQueueDepth.getAsInt();
+        p99LatencyNanos = p99OfRecentLatencies();
+        loadFactor = Math.max(ratio(inFlight.get(), maxInFlight),
+                Math.max(ratio(p99LatencyNanos, maxP99LatencyNanos), ratio(queueDepth, maxQueueDepth)));
+
+        if (!saturated && loadFactor >= 1) {
+            saturated = true;
+            LOG.warn("Node is saturated with load factor {} - refusing traffic", String.format("%.2f", loadFactor));
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        } else if (saturated && loadFactor < recoveryRatio) {
+            saturated = false;
+            LOG.info("Node recovered from saturation with load factor {} - accepting traffic", String.format("%.2f", loadFactor));
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    private long p99OfRecentLatencies() {
+        int recorded = (int) Math.min(latencySequence.get(), recentLatencies.length());
+        long nowNanos = System.nanoTime();
+        long[] latencies = new long[recorded];
+        int recent = 0;
+        for (int slot = 0; slot < recorded; slot++) {
+            if (nowNanos - recentLatenciesFinishedNanos.get(slot) <= latencyMaxAgeNanos) {
+                latencies[recent++] = recentLatencies.get(slot);
+            }
+        }
+        if (recent == 0) {
+            return 0;
+        }
+        Arrays.sort(latencies, 0, recent);
+        return latencies[(int) Math.ceil(recent * 0.99) - 1];
+    }
+
+    private static double ratio(double value, double threshold) {
+        return threshold <= 0 ? 0 : value / threshold;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long p99LatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(p99LatencyNanos);
+    }
+
+    public int queueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * @return the load factor of the last evaluation
+     */
+    public double loadFactor() {
+        return loadFactor;
+    }
+
+    public boolean saturated() {
+        return saturated;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("soap.saturation.load.factor", this, SaturationMonitor::loadFactor)
+                .description("Highest ratio of in-flight exchanges, p99 latency or queue depth to its threshold")
+                .register(registry);
+        Gauge.builder("soap.saturation.saturated", this, monitor -> monitor.saturated() ? 1 : 0)
+                .description("1, if the node is saturated and refuses traffic")
+                .register(registry);
+    }
+}
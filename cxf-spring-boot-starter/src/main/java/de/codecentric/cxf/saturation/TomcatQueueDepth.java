@@ -0,0 +1,46 @@
+package de.codecentric.cxf.saturation;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.server.WebServer;
+
+import java.util.concurrent.Executor;
+import java.util.function.IntSupplier;
+
+/**
+ * Reads the queue depth of the executors of all connectors of the embedded Tomcat.
+ */
+public class TomcatQueueDepth implements IntSupplier {
+
+    private final Connector[] connectors;
+
+    private TomcatQueueDepth(Connector[] connectors) {
+        this.connectors = connectors;
+    }
+
+    /**
+     * @param webServer the embedded web server
+     * @return the queue depth of the Tomcat or null, if the web server isn´t a Tomcat
+     */
+    public static TomcatQueueDepth of(WebServer webServer) {
+        if (!(webServer instanceof TomcatWebServer)) {
+            return null;
+        }
+        return new TomcatQueueDepth(((TomcatWebServer) webServer).getTomcat().getService().findConnectors());
+    }
+
+    @Override
+    public int getAsInt() {
+        int queueDepth = 0;
+        for (Connector connector : connectors) {
+            Executor executor = connector.getProtocolHandler().getExecutor();
+            if (executor instanceof ThreadPoolExecutor) {
+                queueDepth += ((ThreadPoolExecutor) executor).getQueue().size();
+            } else if (executor instanceof java.util.concurrent.ThreadPoolExecutor) {
+                queueDepth += ((java.util.concurrent.ThreadPoolExecutor) executor).getQueue().size();
+            }
+        }
+        return queueDepth;
+    }
+}
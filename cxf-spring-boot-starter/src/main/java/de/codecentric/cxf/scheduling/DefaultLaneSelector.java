@@ -0,0 +1,57 @@
+package de.codecentric.cxf.scheduling;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Selects the lane of an invocation by (first match wins)
+ * <ol>
+ *     <li>the priority header - its value is taken as name of the lane,</li>
+ *     <li>the size of the request - a Content-Length above the size threshold selects the size lane,</li>
+ *     <li>the operation, if a lane is configured for it.</li>
+ * </ol>
+ * Everything else runs in the default lane.
+ */
+public class DefaultLaneSelector implements LaneSelector {
+
+    private final String priorityHeader;
+    private final String sizeLane;
+    private final long sizeThresholdBytes;
+    private final Map<String, String> operationLanes;
+
+    /**
+     * @param priorityHeader the HTTP header naming the lane or null, if consumers can´t choose the lane
+     * @param sizeLane the lane of the large requests or null, if the size doesn´t matter
+     * @param sizeThresholdBytes the Content-Length, above which requests are large
+     * @param operationLanes the lanes by operation name
+     */
+    public DefaultLaneSelector(String priorityHeader, String sizeLane, long sizeThresholdBytes, Map<String, String> operationLanes) {
+        this.priorityHeader = priorityHeader;
+        this.sizeLane = sizeLane;
+        this.sizeThresholdBytes = sizeThresholdBytes;
+        this.operationLanes = Collections.unmodifiableMap(new HashMap<>(operationLanes));
+    }
+
+    @Override
+    public String laneOf(Message message) {
+        // Not served by the CXFServlet (e.g. the local transport of the warm-up), there´s just the operation
+        HttpServletRequest request = (HttpServletRequest) message.get(AbstractHTTPDestination.HTTP_REQUEST);
+        if (request != null) {
+            String priority = priorityHeader != null ? request.getHeader(priorityHeader) : null;
+            if (priority != null && !priority.trim().isEmpty()) {
+                return priority.trim();
+            }
+            if (sizeLane != null && request.getContentLengthLong() > sizeThresholdBytes) {
+                return sizeLane;
+            }
+        }
+        BindingOperationInfo operation = message.getExchange().getBindingOperationInfo();
+        return operation != null ? operationLanes.get(operation.getName().getLocalPart()) : null;
+    }
+}
@@ -0,0 +1,94 @@
+package de.codecentric.cxf.scheduling;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lane of the {@link LaneSchedulingExecutor}: its own pool of threads running at most concurrency SEI invocations at
+ * once and a queue of at most queueLimit waiting ones. If both are full, the invocation is rejected - so a lane of
+ * expensive operations can´t hold up the invocations of the other lanes.
+ */
+public class Lane implements Executor {
+
+    static final String THREAD_NAME_PREFIX = "soap-lane-";
+
+    private final String name;
+    private final int concurrency;
+    private final int queueLimit;
+    private final ThreadPoolExecutor threadPool;
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Lane(String name, int concurrency, int queueLimit) {
+        this.name = name;
+        this.concurrency = Math.max(1, concurrency);
+        this.queueLimit = Math.max(0, queueLimit);
+        BlockingQueue<Runnable> queue = this.queueLimit > 0 ? new ArrayBlockingQueue<>(this.queueLimit) : new SynchronousQueue<>();
+        this.threadPool = new ThreadPoolExecutor(this.concurrency, this.concurrency, 60, TimeUnit.SECONDS, queue,
+                threadFactory(THREAD_NAME_PREFIX + name + "-"), (invocation, executor) -> {
+                    rejected.incrementAndGet();
+                    throw new RejectedExecutionException("Lane '" + name + "' is saturated with " + this.concurrency
+                            + " running and " + this.queueLimit + " queued invocations");
+                });
+        // Idle lanes shouldn´t hold their threads
+        threadPool.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable invocation) {
+        invocations.incrementAndGet();
+        threadPool.execute(invocation);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getQueueLimit() {
+        return queueLimit;
+    }
+
+    public int getActive() {
+        return threadPool.getActiveCount();
+    }
+
+    public int getQueued() {
+        return threadPool.getQueue().size();
+    }
+
+    /**
+     * @return the invocations handed over to the lane, incl. the rejected ones
+     */
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    void shutdown() {
+        threadPool.shutdown();
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package de.codecentric.cxf.scheduling;
+
+import de.codecentric.cxf.virtualthreads.ContextPropagatingExecutor;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.PhaseInterceptorChain;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the SEI invocations of the Endpoints in separate {@link Lane}s, each with its own concurrency and queue limit -
+ * so cheap, latency-sensitive operations don´t wait behind expensive bulk calls on the same thread pool. The lane of an
+ * invocation is chosen by the {@link LaneSelector}, the MDC and the Sleuth trace context are propagated to it.
+ * <p>
+ * As a {@link MeterBinder}, the handed over, running, queued and rejected invocations of every lane are exported to
+ * Micrometer with a lane tag.
+ */
+public class LaneSchedulingExecutor implements Executor, MeterBinder {
+
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final Map<String, Executor> propagatingExecutors = new LinkedHashMap<>();
+    private final Lane defaultLane;
+    private final LaneSelector laneSelector;
+
+    /**
+     * @param lanes the lanes - the first one is the default lane
+     * @param laneSelector the selector of the lane per invocation
+     * @param currentTraceContext the Sleuth trace context to propagate to the invocations or null, if Sleuth isn´t active
+     */
+    public LaneSchedulingExecutor(List<Lane> lanes, LaneSelector laneSelector, CurrentTraceContext currentTraceContext) {
+        if (lanes.isEmpty()) {
+            throw new IllegalArgumentException("At least one lane is needed");
+        }
+        for (Lane lane : lanes) {
+            this.lanes.put(lane.getName(), lane);
+            // Even on a virtual thread the invocation must go through the lane, to keep to its limits
+            propagatingExecutors.put(lane.getName(), new ContextPropagatingExecutor(lane, currentTraceContext, false));
+        }
+        this.defaultLane = lanes.get(0);
+        this.laneSelector = laneSelector;
+    }
+
+    /**
+     * Runs the SEI invocations of the Endpoint in the lanes.
+     *
+     * @param endpoint the Endpoint - not published yet
+     */
+    public void applyTo(EndpointImpl endpoint) {
+        endpoint.setExecutor(this);
+    }
+
+    /**
+     * Called by CXF´s ServiceInvokerInterceptor on the thread processing the message.
+     */
+    @Override
+    public void execute(Runnable invocation) {
+        propagatingExecutors.get(laneOf(PhaseInterceptorChain.getCurrentMessage()).getName()).execute(invocation);
+    }
+
+    Lane laneOf(Message message) {
+        String laneName = message != null ? laneSelector.laneOf(message) : null;
+        Lane lane = laneName != null ? lanes.get(laneName) : null;
+        return lane != null ? lane : defaultLane;
+    }
+
+    public Collection<Lane> lanes() {
+        return Collections.unmodifiableCollection(lanes.values());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Lane lane : lanes.values()) {
+            Tags tags = Tags.of("lane", lane.getName());
+            FunctionCounter.builder("soap.scheduling.lane.invocations", lane, Lane::getInvocations)
+                    .description("SEI invocations handed over to the lane").tags(tags).register(registry);
+            Gauge.builder("soap.scheduling.lane.active", lane, Lane::getActive)
+                    .description("SEI invocations running in the lane").tags(tags).register(registry);
+            Gauge.builder("soap.scheduling.lane.queued", lane, Lane::getQueued)
+                    .description("SEI invocations waiting in the queue of the lane").tags(tags).register(registry);
+            FunctionCounter.builder("soap.scheduling.lane.rejected", lane, Lane::getRejected)
+                    .description("SEI invocations rejected by the saturated lane").tags(tags).register(registry);
+        }
+    }
+
+    public void shutdown() {
+        lanes.values().forEach(Lane::shutdown);
+    }
+}
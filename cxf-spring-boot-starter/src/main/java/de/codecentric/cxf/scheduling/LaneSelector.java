@@ -0,0 +1,17 @@
+package de.codecentric.cxf.scheduling;
+
+import org.apache.cxf.message.Message;
+
+/**
+ * Assigns every SEI invocation to a {@link Lane} of the {@link LaneSchedulingExecutor}. To replace the
+ * {@link DefaultLaneSelector}, configure your own implementation as a Spring Bean.
+ */
+@FunctionalInterface
+public interface LaneSelector {
+
+    /**
+     * @param message the inbound message of the invocation - the operation is already known through its Exchange
+     * @return the name of the lane or null for the default lane - as well as unknown names
+     */
+    String laneOf(Message message);
+}
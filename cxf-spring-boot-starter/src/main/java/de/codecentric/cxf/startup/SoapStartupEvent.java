@@ -0,0 +1,37 @@
+package de.codecentric.cxf.startup;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event of a {@link SoapStartupStep}. Only used, if the JVM supports JFR events.
+ */
+@Name("de.codecentric.cxf.StartupStep")
+@Label("SOAP Startup Step")
+@Category({"SOAP", "Startup"})
+@Description("Step of the cxf-spring-boot-starter´s startup")
+@StackTrace(false)
+class SoapStartupEvent extends Event {
+
+    @Label("Name")
+    String name;
+
+    @Label("Tags")
+    String tags;
+
+    static SoapStartupEvent begin(String name) {
+        SoapStartupEvent event = new SoapStartupEvent();
+        event.name = name;
+        event.begin();
+        return event;
+    }
+
+    void commit(String tags) {
+        this.tags = tags;
+        commit();
+    }
+}
@@ -0,0 +1,47 @@
+package de.codecentric.cxf.startup;
+
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A step of the starter´s startup - recorded as {@link StartupStep}, as JFR event and in the {@link StartupReport}, if any.
+ */
+public class SoapStartupStep implements AutoCloseable {
+
+    private final String name;
+    private final StartupStep startupStep;
+    private final SoapStartupEvent jfrEvent;
+    private final StartupReport startupReport;
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    SoapStartupStep(String name, StartupStep startupStep, SoapStartupEvent jfrEvent, StartupReport startupReport) {
+        this.name = name;
+        this.startupStep = startupStep;
+        this.jfrEvent = jfrEvent;
+        this.startupReport = startupReport;
+    }
+
+    public SoapStartupStep tag(String key, String value) {
+        tags.put(key, value);
+        startupStep.tag(key, value);
+        return this;
+    }
+
+    /**
+     * Ends the step.
+     */
+    @Override
+    public void close() {
+        long durationNanos = System.nanoTime() - startNanos;
+        startupStep.end();
+        if (jfrEvent != null) {
+            jfrEvent.commit(tags.toString());
+        }
+        if (startupReport != null) {
+            startupReport.record(name, tags.toString(), durationNanos);
+        }
+    }
+}
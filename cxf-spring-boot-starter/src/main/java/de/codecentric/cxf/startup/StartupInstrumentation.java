@@ -0,0 +1,75 @@
+package de.codecentric.cxf.startup;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.service.factory.FactoryBeanListener;
+import org.apache.cxf.service.factory.FactoryBeanListenerManager;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Instruments the startup of the starter: package name lookup, classpath scans, WSDL parsing, JAXB context creation and
+ * Endpoint publication are recorded as {@link ApplicationStartup} steps and as JFR events - both are no-ops, as long as
+ * nobody records them.
+ * <p>
+ * As most of these happen outside of Spring beans (or even before the beans are created), the ApplicationStartup of the
+ * starting ApplicationContext is held statically from the BeanFactory post-processing until the ApplicationReadyEvent.
+ */
+public final class StartupInstrumentation {
+
+    private static final boolean JFR_PRESENT = ClassUtils.isPresent("jdk.jfr.Event", StartupInstrumentation.class.getClassLoader());
+
+    private static volatile ApplicationStartup applicationStartup = ApplicationStartup.DEFAULT;
+    private static volatile StartupReport startupReport;
+
+    private StartupInstrumentation() {
+    }
+
+    /**
+     * @param name the name of the step, e.g. soap.wsdl.parse
+     * @return the started step, to be closed as soon as it´s done
+     */
+    public static SoapStartupStep start(String name) {
+        return new SoapStartupStep(name, applicationStartup.start(name), JFR_PRESENT ? SoapStartupEvent.begin(name) : null, startupReport);
+    }
+
+    /**
+     * Records the parsing of the WSDL and the creation of the JAXB context of every Endpoint published on the Bus.
+     *
+     * @param bus the Bus to instrument, instrumenting it more than once does no harm
+     */
+    public static void instrument(Bus bus) {
+        FactoryBeanListenerManager listenerManager = bus.getExtension(FactoryBeanListenerManager.class);
+        if (listenerManager == null) {
+            return;
+        }
+        for (FactoryBeanListener listener : listenerManager.getListeners()) {
+            if (listener instanceof StartupStepsFactoryBeanListener) {
+                return;
+            }
+        }
+        listenerManager.addListener(new StartupStepsFactoryBeanListener());
+    }
+
+    /**
+     * Starts recording the steps of a starting ApplicationContext.
+     *
+     * @param contextApplicationStartup the ApplicationStartup of the starting ApplicationContext
+     * @param report the report to record the steps to as well or null
+     */
+    static void begin(ApplicationStartup contextApplicationStartup, StartupReport report) {
+        applicationStartup = contextApplicationStartup;
+        startupReport = report;
+    }
+
+    /**
+     * Stops recording the steps, as the ApplicationContext is ready.
+     *
+     * @return the report recorded since {@link #begin(ApplicationStartup, StartupReport)} or null
+     */
+    static StartupReport end() {
+        StartupReport report = startupReport;
+        applicationStartup = ApplicationStartup.DEFAULT;
+        startupReport = null;
+        return report;
+    }
+}
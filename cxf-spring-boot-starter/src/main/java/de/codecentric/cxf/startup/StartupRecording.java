@@ -0,0 +1,48 @@
+package de.codecentric.cxf.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * Hands the ApplicationStartup of the starting ApplicationContext over to the {@link StartupInstrumentation} - before
+ * any other BeanFactoryPostProcessor, as some of them detect the web services already - and logs the
+ * {@link StartupReport} at the ApplicationReadyEvent.
+ */
+public class StartupRecording implements BeanFactoryPostProcessor, PriorityOrdered, ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StartupRecording.class);
+
+    private final boolean report;
+
+    /**
+     * @param report whether to log a {@link StartupReport} at the ApplicationReadyEvent
+     */
+    public StartupRecording(boolean report) {
+        this.report = report;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        StartupInstrumentation.begin(beanFactory.getApplicationStartup(), report ? new StartupReport() : null);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        StartupReport startupReport = StartupInstrumentation.end();
+        if (startupReport != null) {
+            LOG.info(startupReport.format());
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,70 @@
+package de.codecentric.cxf.startup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the starter spent its startup time: every {@link SoapStartupStep} summed up by name, followed by the slowest
+ * single steps.
+ */
+public class StartupReport {
+
+    static final int SLOWEST_STEPS = 10;
+
+    private final Queue<RecordedStep> recordedSteps = new ConcurrentLinkedQueue<>();
+
+    void record(String name, String tags, long durationNanos) {
+        recordedSteps.add(new RecordedStep(name, tags, durationNanos));
+    }
+
+    /**
+     * @return the summed up duration in milliseconds of every step name, the longest first
+     */
+    public Map<String, Long> millisByStep() {
+        Map<String, Long> nanosByStep = new LinkedHashMap<>();
+        for (RecordedStep recordedStep : recordedSteps) {
+            nanosByStep.merge(recordedStep.name, recordedStep.durationNanos, Long::sum);
+        }
+        Map<String, Long> millisByStep = new LinkedHashMap<>();
+        nanosByStep.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(step -> millisByStep.put(step.getKey(), TimeUnit.NANOSECONDS.toMillis(step.getValue())));
+        return millisByStep;
+    }
+
+    public String format() {
+        StringBuilder report = new StringBuilder("Startup of the cxf-spring-boot-starter:");
+        Map<String, Long> countByStep = new LinkedHashMap<>();
+        for (RecordedStep recordedStep : recordedSteps) {
+            countByStep.merge(recordedStep.name, 1L, Long::sum);
+        }
+        millisByStep().forEach((name, millis) ->
+                report.append(String.format("%n  %-34s %6dms (%d times)", name, millis, countByStep.get(name))));
+        report.append(String.format("%nSlowest steps:"));
+        List<RecordedStep> slowestSteps = new ArrayList<>(recordedSteps);
+        slowestSteps.sort(Comparator.comparingLong((RecordedStep recordedStep) -> recordedStep.durationNanos).reversed());
+        for (RecordedStep recordedStep : slowestSteps.subList(0, Math.min(SLOWEST_STEPS, slowestSteps.size()))) {
+            report.append(String.format("%n  %-34s %6dms %s", recordedStep.name,
+                    TimeUnit.NANOSECONDS.toMillis(recordedStep.durationNanos), recordedStep.tags));
+        }
+        return report.toString();
+    }
+
+    private static class RecordedStep {
+        private final String name;
+        private final String tags;
+        private final long durationNanos;
+
+        private RecordedStep(String name, String tags, long durationNanos) {
+            this.name = name;
+            this.tags = tags;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
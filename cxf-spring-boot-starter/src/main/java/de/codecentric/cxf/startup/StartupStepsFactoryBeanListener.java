@@ -0,0 +1,47 @@
+package de.codecentric.cxf.startup;
+
+import org.apache.cxf.service.factory.AbstractServiceFactoryBean;
+import org.apache.cxf.service.factory.FactoryBeanListener;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Records the WSDL parsing and the creation of the JAXB context of an Endpoint as {@link SoapStartupStep}s - based
+ * upon the events CXF´s service factory sends, while it builds the service model from the WSDL.
+ */
+class StartupStepsFactoryBeanListener implements FactoryBeanListener {
+
+    // Weak, so the steps of a service factory failing in between don´t leak
+    private final Map<AbstractServiceFactoryBean, SoapStartupStep> wsdlParsingSteps = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<AbstractServiceFactoryBean, SoapStartupStep> dataBindingSteps = Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Override
+    public void handleEvent(Event event, AbstractServiceFactoryBean factory, Object... args) {
+        switch (event) {
+            case CREATE_FROM_WSDL:
+                wsdlParsingSteps.put(factory, StartupInstrumentation.start("soap.wsdl.parse")
+                        .tag("wsdl", args.length > 0 ? String.valueOf(args[0]) : "unknown"));
+                break;
+            case SERVICE_SET:
+                // The WSDL is loaded before, but its schemas are only parsed while the service model is built from it
+                end(wsdlParsingSteps.remove(factory));
+                // Contains the binding of the operations as well, which is tiny compared to the JAXB context
+                dataBindingSteps.put(factory, StartupInstrumentation.start("soap.jaxb.context")
+                        .tag("service", String.valueOf(factory.getService().getName())));
+                break;
+            case DATABINDING_INITIALIZED:
+                end(dataBindingSteps.remove(factory));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void end(SoapStartupStep step) {
+        if (step != null) {
+            step.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.codecentric.cxf.training;
+
+import de.codecentric.cxf.warmup.LocalEndpointCopy;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.support.JaxWsImplementorInfo;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jws.WebMethod;
+import javax.xml.ws.Holder;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Training run for a dynamic AppCDS archive: every operation of the Endpoints is invoked once in-process, so the classes
+ * of the whole request path (CXF client and server side, JAXB marshalling and the SEI implementation) are loaded before
+ * the JVM exits and writes the archive (-XX:ArchiveClassesAtExit).
+ * <p>
+ * The operations are invoked through a JAX-WS client of the SEI against a copy of every Endpoint on CXF´s local transport
+ * of a separate Bus. As there are no real requests, every operation is called with default arguments (empty JAXB objects,
+ * null or the default of primitives) - the resulting SOAP faults load the classes of the fault path as well.
+ */
+public class CdsTrainingRun {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CdsTrainingRun.class);
+
+    static final String TRAINING_ADDRESS = "local://soap-training/";
+
+    /**
+     * @param endpoints the published Endpoints
+     * @return the number of invoked operations
+     */
+    public int train(Iterable<EndpointImpl> endpoints) {
+        int operations = 0;
+        Bus trainingBus = BusFactory.newInstance().createBus();
+        try {
+            for (EndpointImpl endpoint : endpoints) {
+                operations += train(endpoint, trainingBus);
+            }
+        } finally {
+            trainingBus.shutdown(true);
+        }
+        LOG.info("Training run invoked {} operations of the Endpoints", operations);
+        return operations;
+    }
+
+    private int train(EndpointImpl endpoint, Bus trainingBus) {
+        Class<?> sei = new JaxWsImplementorInfo(endpoint.getImplementor().getClass()).getSEIClass();
+        if (sei == null) {
+            LOG.warn("No SEI found for Endpoint '{}', its operations aren´t part of the training run", endpoint.getServiceName());
+            return 0;
+        }
+        EndpointImpl trainingEndpoint = LocalEndpointCopy.of(endpoint, trainingBus);
+        String address = TRAINING_ADDRESS + endpoint.getServiceName().getLocalPart();
+        trainingEndpoint.publish(address);
+        try {
+            Object client = clientOf(sei, trainingBus, address);
+            int operations = 0;
+            for (Method operation : sei.getMethods()) {
+                WebMethod webMethod = operation.getAnnotation(WebMethod.class);
+                if (operation.isDefault() || Modifier.isStatic(operation.getModifiers()) || (webMethod != null && webMethod.exclude())) {
+                    continue;
+                }
+                invoke(client, operation);
+                operations++;
+            }
+            return operations;
+        } finally {
+            trainingEndpoint.stop();
+        }
+    }
+
+    private static Object clientOf(Class<?> sei, Bus trainingBus, String address) {
+        JaxWsProxyFactoryBean proxyFactory = new JaxWsProxyFactoryBean();
+        proxyFactory.setBus(trainingBus);
+        proxyFactory.setServiceClass(sei);
+        proxyFactory.setAddress(address);
+        Object client = proxyFactory.create();
+        // Invoke the Endpoint on the calling thread, instead of handing the request over through a pipe
+        ClientProxy.getClient(client).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        return client;
+    }
+
+    private static void invoke(Object client, Method operation) {
+        Class<?>[] parameterTypes = operation.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int index = 0; index < parameterTypes.length; index++) {
+            arguments[index] = defaultArgument(parameterTypes[index]);
+        }
+        try {
+            operation.invoke(client, arguments);
+        } catch (InvocationTargetException exception) {
+            // SOAP faults are part of the training run as well
+            LOG.debug("Operation '{}' resulted in a fault: {}", operation.getName(), exception.getTargetException().getMessage());
+        } catch (IllegalAccessException | RuntimeException exception) {
+            LOG.warn("Operation '{}' couldn´t be invoked during the training run", operation.getName(), exception);
+        }
+    }
+
+    static Object defaultArgument(Class<?> type) {
+        if (type.isPrimitive()) {
+            return Array.get(Array.newInstance(type, 1), 0);
+        }
+        if (type == Holder.class) {
+            return new Holder<>();
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers()) || type.getName().startsWith("java.")) {
+            return null;
+        }
+        try {
+            return type.getConstructor().newInstance();
+        } catch (ReflectiveOperationException exception) {
+            return null;
+        }
+    }
+}
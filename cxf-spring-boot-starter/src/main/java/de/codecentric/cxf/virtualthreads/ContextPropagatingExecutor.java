@@ -0,0 +1,70 @@
+package de.codecentric.cxf.virtualthreads;
+
+import org.slf4j.MDC;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the SEI invocations of an Endpoint on the threads of another executor - together with the MDC (incl. the values
+ * of the {@link de.codecentric.cxf.logging.ElasticsearchField}s) and the Sleuth trace context of the thread handing them
+ * over. For virtual threads: if that thread is already a virtual one, the invocation runs right on it, as there´s nothing
+ * to gain from another one.
+ */
+public class ContextPropagatingExecutor implements Executor {
+
+    private final Executor target;
+    private final CurrentTraceContext currentTraceContext;
+    private final boolean inlineOnVirtualThreads;
+
+    /**
+     * @param virtualThreads the executor starting the virtual threads
+     * @param currentTraceContext the Sleuth trace context to propagate or null, if Sleuth isn´t active
+     */
+    ContextPropagatingExecutor(Executor virtualThreads, CurrentTraceContext currentTraceContext) {
+        this(virtualThreads, currentTraceContext, true);
+    }
+
+    /**
+     * @param target the executor to hand the invocations over to
+     * @param currentTraceContext the Sleuth trace context to propagate or null, if Sleuth isn´t active
+     * @param inlineOnVirtualThreads true, if invocations handed over by a virtual thread should run right on it
+     */
+    public ContextPropagatingExecutor(Executor target, CurrentTraceContext currentTraceContext, boolean inlineOnVirtualThreads) {
+        this.target = target;
+        this.currentTraceContext = currentTraceContext;
+        this.inlineOnVirtualThreads = inlineOnVirtualThreads;
+    }
+
+    @Override
+    public void execute(Runnable invocation) {
+        if (inlineOnVirtualThreads && VirtualThreads.isVirtual(Thread.currentThread())) {
+            invocation.run();
+        } else {
+            target.execute(propagatingContextOf(invocation));
+        }
+    }
+
+    Runnable propagatingContextOf(Runnable invocation) {
+        Runnable traced = currentTraceContext != null ? currentTraceContext.wrap(invocation) : invocation;
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            setMdc(mdc);
+            try {
+                traced.run();
+            } finally {
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> mdc) {
+        if (mdc == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdc);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package de.codecentric.cxf.virtualthreads;
+
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Serves the SOAP requests on virtual threads: the embedded Tomcat hands every request over to a new virtual thread
+ * (see {@link #requestExecutor()}) and the SEI invocations of the Endpoints run on virtual threads as well (see
+ * {@link #applyTo(EndpointImpl)}). CXF waits for the invocation on the thread serving the request - so only with both the
+ * number of concurrent requests isn´t capped by a pool of platform threads anymore.
+ */
+public class VirtualThreadInvocation {
+
+    static final String THREAD_NAME_PREFIX = "soap-virtual-";
+
+    private final ExecutorService virtualThreads;
+    private final Executor invocationExecutor;
+
+    /**
+     * @param currentTraceContext the Sleuth trace context to propagate to the invocations or null, if Sleuth isn´t active
+     * @throws UnsupportedOperationException if the JVM doesn´t support virtual threads
+     */
+    public VirtualThreadInvocation(CurrentTraceContext currentTraceContext) {
+        this.virtualThreads = VirtualThreads.newThreadPerTaskExecutor(THREAD_NAME_PREFIX);
+        this.invocationExecutor = new ContextPropagatingExecutor(virtualThreads, currentTraceContext);
+    }
+
+    /**
+     * Runs the SEI invocations of the Endpoint on virtual threads.
+     *
+     * @param endpoint the Endpoint - not published yet
+     */
+    public void applyTo(EndpointImpl endpoint) {
+        endpoint.setExecutor(invocationExecutor);
+    }
+
+    /**
+     * @return the executor starting a new virtual thread for every request
+     */
+    public Executor requestExecutor() {
+        return virtualThreads;
+    }
+
+    public void shutdown() {
+        virtualThreads.shutdown();
+    }
+}
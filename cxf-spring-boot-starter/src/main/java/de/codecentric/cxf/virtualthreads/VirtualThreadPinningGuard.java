@@ -0,0 +1,90 @@
+package de.codecentric.cxf.virtualthreads;
+
+import de.codecentric.cxf.logging.BaseLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Detects virtual threads pinned to their carrier thread - e.g. blocking inside a synchronized block or a native
+ * frame - for longer than the threshold, which hinders other virtual threads to run on that carrier. Every pinning is
+ * reported with the stack trace of the virtual thread, as recorded by the JFR event jdk.VirtualThreadPinned.
+ * <p>
+ * The events are consumed through a JFR RecordingStream, so nothing is written to disk. As a {@link MeterBinder}, the
+ * number of pinnings is also exported to Micrometer.
+ */
+public class VirtualThreadPinningGuard implements MeterBinder {
+
+    private static final BaseLogger LOG = BaseLogger.getLogger(VirtualThreadPinningGuard.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final int stackDepth;
+    private final LongAdder pinned = new LongAdder();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningGuard(long thresholdMillis, int stackDepth) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+        this.stackDepth = stackDepth;
+    }
+
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::report);
+        recordingStream.startAsync();
+    }
+
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        pinned(thread != null ? thread.getJavaName() : "unknown", event.getDuration(), stackSample(event.getStackTrace()));
+    }
+
+    void pinned(String threadName, Duration duration, List<String> stackSample) {
+        pinned.increment();
+        LOG.virtualThreadPinned(threadName, duration.toMillis(), String.join("\n", stackSample));
+    }
+
+    private List<String> stackSample(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return Collections.emptyList();
+        }
+        return stackTrace.getFrames().stream()
+                .limit(stackDepth)
+                .map(VirtualThreadPinningGuard::frame)
+                .collect(Collectors.toList());
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    public long pinned() {
+        return pinned.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("soap.virtual.threads.pinned", this, VirtualThreadPinningGuard::pinned)
+                .description("Virtual threads pinned to their carrier thread for longer than the threshold")
+                .register(registry);
+    }
+}
@@ -0,0 +1,110 @@
+package de.codecentric.cxf.virtualthreads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of Java 21 - through reflection, as the starter is still built for Java 8. On older JVMs
+ * (or the ones with virtual threads as a preview feature not enabled) they´re reported as not supported.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+    private static final Method IS_VIRTUAL = method(Thread.class, "isVirtual");
+    private static final Method NAME = method(builderClass(), "name", String.class, long.class);
+    private static final Method FACTORY = method(builderClass(), "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR = method(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+    private static final boolean SUPPORTED = probe();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return SUPPORTED;
+    }
+
+    /**
+     * @param thread the thread to check
+     * @return true, if it´s a virtual thread - always false on a JVM without virtual threads
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (!SUPPORTED) {
+            return false;
+        }
+        return (Boolean) invoke(IS_VIRTUAL, thread);
+    }
+
+    /**
+     * @param namePrefix the prefix of the names of the threads, a counter is appended
+     * @return a factory of virtual threads
+     * @throws UnsupportedOperationException if the JVM doesn´t support virtual threads
+     */
+    public static ThreadFactory threadFactory(String namePrefix) {
+        if (!SUPPORTED) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by this JVM");
+        }
+        return virtualThreadFactory(namePrefix);
+    }
+
+    /**
+     * @param namePrefix the prefix of the names of the threads, a counter is appended
+     * @return an ExecutorService starting a new virtual thread for every task
+     * @throws UnsupportedOperationException if the JVM doesn´t support virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        return (ExecutorService) invoke(NEW_THREAD_PER_TASK_EXECUTOR, null, threadFactory(namePrefix));
+    }
+
+    private static ThreadFactory virtualThreadFactory(String namePrefix) {
+        Object builder = invoke(OF_VIRTUAL, null);
+        return (ThreadFactory) invoke(FACTORY, invoke(NAME, builder, namePrefix, 0L));
+    }
+
+    private static boolean probe() {
+        if (OF_VIRTUAL == null || IS_VIRTUAL == null || NAME == null || FACTORY == null || NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            return false;
+        }
+        try {
+            virtualThreadFactory("probe");
+            return true;
+        } catch (UnsupportedOperationException exception) {
+            // Java 19 and 20 without --enable-preview
+            return false;
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object... arguments) {
+        try {
+            return method.invoke(target, arguments);
+        } catch (InvocationTargetException exception) {
+            if (exception.getTargetException() instanceof RuntimeException) {
+                throw (RuntimeException) exception.getTargetException();
+            }
+            throw new IllegalStateException(exception.getTargetException());
+        } catch (IllegalAccessException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static Class<?> builderClass() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException exception) {
+            return null;
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package de.codecentric.cxf.warmup;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.jaxws.ServiceImpl;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.MessagePartInfo;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.Service;
+import javax.xml.ws.WebServiceException;
+import javax.xml.ws.soap.SOAPBinding;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the Endpoints before they receive traffic: the sample requests are replayed in-process a number of times,
+ * so the JIT compiles the hot paths of CXF, JAXB and the SEI implementation and the caches get populated.
+ * <p>
+ * The requests are replayed against a copy of every Endpoint (same implementor, WSDL and Endpoint interceptors), published
+ * on CXF´s local transport of a separate Bus - so neither the network nor the interceptors of the SpringBus (message
+ * logging, flight recorder) see the warm-up traffic. Every sample request is only replayed against the Endpoints, that
+ * have an operation for its payload.
+ */
+public class EndpointWarmUp implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EndpointWarmUp.class);
+
+    static final String WARM_UP_ADDRESS = "local://soap-warmup/";
+
+    private final List<SampleRequest> sampleRequests;
+    private final int iterations;
+    private final long maxDurationNanos;
+
+    private volatile long durationNanos;
+    private volatile long exchanges;
+    private volatile long firstRoundLatencyNanos;
+    private volatile long lastRoundLatencyNanos;
+
+    /**
+     * @param sampleRequests the SOAP requests to replay
+     * @param iterations how often every sample request is replayed
+     * @param maxDurationMillis the time after which the warm-up is stopped, no matter how many iterations are done
+     */
+    public EndpointWarmUp(List<SampleRequest> sampleRequests, int iterations, long maxDurationMillis) {
+        this.sampleRequests = sampleRequests;
+        this.iterations = iterations;
+        this.maxDurationNanos = TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+    }
+
+    /**
+     * Replays the sample requests against the Endpoints - blocking until all iterations are done or the maximum
+     * duration is exceeded.
+     *
+     * @param endpoints the published (or yet to be published) Endpoints
+     */
+    public void warmUp(Iterable<EndpointImpl> endpoints) {
+        long startNanos = System.nanoTime();
+        long deadlineNanos = startNanos + maxDurationNanos;
+        Round firstRound = new Round();
+        Round lastRound = new Round();
+        long replayed = 0;
+        Bus warmUpBus = BusFactory.newInstance().createBus();
+        try {
+            for (EndpointImpl endpoint : endpoints) {
+                replayed += warmUp(endpoint, warmUpBus, deadlineNanos, firstRound, lastRound);
+            }
+        } finally {
+            warmUpBus.shutdown(true);
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        exchanges = replayed;
+        firstRoundLatencyNanos = firstRound.meanLatencyNanos();
+        lastRoundLatencyNanos = lastRound.meanLatencyNanos();
+        LOG.info("Warmed up the Endpoints with {} exchanges in {}ms - mean latency of the first round {} microseconds, of the last round {} microseconds",
+                replayed, TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                TimeUnit.NANOSECONDS.toMicros(firstRoundLatencyNanos), TimeUnit.NANOSECONDS.toMicros(lastRoundLatencyNanos));
+    }
+
+    private long warmUp(EndpointImpl endpoint, Bus warmUpBus, long deadlineNanos, Round firstRound, Round lastRound) {
+        QName serviceName = endpoint.getServiceName();
+        EndpointImpl warmUpEndpoint = LocalEndpointCopy.of(endpoint, warmUpBus);
+        String address = WARM_UP_ADDRESS + serviceName.getLocalPart();
+        warmUpEndpoint.publish(address);
+        try {
+            List<SampleRequest> matchingRequests = matchingRequests(warmUpEndpoint);
+            if (matchingRequests.isEmpty()) {
+                LOG.warn("No sample request matches an operation of Endpoint '{}', it isn´t warmed up", serviceName);
+                return 0;
+            }
+            Dispatch<Source> dispatch = dispatchTo(warmUpEndpoint, warmUpBus, address);
+            long replayed = 0;
+            // The first round is always replayed, so there´s a latency to compare the last round with
+            for (int iteration = 0; iteration < iterations && (iteration == 0 || System.nanoTime() < deadlineNanos); iteration++) {
+                Round round = new Round();
+                for (SampleRequest sampleRequest : matchingRequests) {
+                    round.add(replay(dispatch, sampleRequest));
+                }
+                replayed += round.exchanges;
+                if (iteration == 0) {
+                    firstRound.add(round);
+                }
+                if (iteration == iterations - 1 || System.nanoTime() >= deadlineNanos) {
+                    lastRound.add(round);
+                }
+            }
+            return replayed;
+        } finally {
+            warmUpEndpoint.stop();
+        }
+    }
+
+    private List<SampleRequest> matchingRequests(EndpointImpl warmUpEndpoint) {
+        Set<QName> payloadNames = new HashSet<>();
+        for (BindingOperationInfo operation : warmUpEndpoint.getServer().getEndpoint().getEndpointInfo().getBinding().getOperations()) {
+            for (MessagePartInfo part : operation.getOperationInfo().getInput().getMessageParts()) {
+                payloadNames.add(part.isElement() ? part.getElementQName() : part.getName());
+            }
+        }
+        List<SampleRequest> matchingRequests = new ArrayList<>();
+        for (SampleRequest sampleRequest : sampleRequests) {
+            if (payloadNames.contains(sampleRequest.getPayloadName())) {
+                matchingRequests.add(sampleRequest);
+            }
+        }
+        return matchingRequests;
+    }
+
+    private static Dispatch<Source> dispatchTo(EndpointImpl warmUpEndpoint, Bus warmUpBus, String address) {
+        QName portName = warmUpEndpoint.getServer().getEndpoint().getEndpointInfo().getName();
+        ServiceImpl service = new ServiceImpl(warmUpBus, null, warmUpEndpoint.getServiceName(), null);
+        service.addPort(portName, SOAPBinding.SOAP11HTTP_BINDING, address);
+        Dispatch<Source> dispatch = service.createDispatch(portName, Source.class, Service.Mode.MESSAGE);
+        // Invoke the Endpoint on the calling thread, instead of handing the request over through a pipe
+        dispatch.getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        return dispatch;
+    }
+
+    private static long replay(Dispatch<Source> dispatch, SampleRequest sampleRequest) {
+        long startNanos = System.nanoTime();
+        try {
+            dispatch.invoke(new StreamSource(new ByteArrayInputStream(sampleRequest.getContent())));
+        } catch (WebServiceException exception) {
+            // SOAP faults are part of the warm-up as well
+            LOG.debug("Sample request '{}' resulted in a fault: {}", sampleRequest.getName(), exception.getMessage());
+        }
+        return System.nanoTime() - startNanos;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    public long exchanges() {
+        return exchanges;
+    }
+
+    public long firstRoundLatencyNanos() {
+        return firstRoundLatencyNanos;
+    }
+
+    public long lastRoundLatencyNanos() {
+        return lastRoundLatencyNanos;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        TimeGauge.builder("soap.warmup.duration", this, TimeUnit.NANOSECONDS, EndpointWarmUp::durationNanos)
+                .description("Duration of the warm-up of the Endpoints")
+                .register(meterRegistry);
+        FunctionCounter.builder("soap.warmup.exchanges", this, EndpointWarmUp::exchanges)
+                .description("Sample requests replayed during the warm-up")
+                .register(meterRegistry);
+        TimeGauge.builder("soap.warmup.latency", this, TimeUnit.NANOSECONDS, EndpointWarmUp::firstRoundLatencyNanos)
+                .tag("round", "first")
+                .description("Mean latency of the replayed sample requests")
+                .register(meterRegistry);
+        TimeGauge.builder("soap.warmup.latency", this, TimeUnit.NANOSECONDS, EndpointWarmUp::lastRoundLatencyNanos)
+                .tag("round", "last")
+                .description("Mean latency of the replayed sample requests")
+                .register(meterRegistry);
+    }
+
+    private static class Round {
+        private long exchanges;
+        private long latencyNanos;
+
+        private void add(long exchangeLatencyNanos) {
+            exchanges++;
+            latencyNanos += exchangeLatencyNanos;
+        }
+
+        private void add(Round round) {
+            exchanges += round.exchanges;
+            latencyNanos += round.latencyNanos;
+        }
+
+        private long meanLatencyNanos() {
+            return exchanges == 0 ? 0 : latencyNanos / exchanges;
+        }
+    }
+}
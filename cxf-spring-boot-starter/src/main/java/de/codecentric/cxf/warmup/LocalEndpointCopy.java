@@ -0,0 +1,36 @@
+package de.codecentric.cxf.warmup;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.jaxws.EndpointImpl;
+
+import java.util.HashMap;
+
+/**
+ * Copy of an Endpoint (same implementor, WSDL and Endpoint interceptors), to be published on CXF´s local transport
+ * of a separate Bus - so in-process exchanges neither touch the network nor the interceptors of the SpringBus.
+ */
+public final class LocalEndpointCopy {
+
+    private LocalEndpointCopy() {
+    }
+
+    /**
+     * @param endpoint the Endpoint to copy, it doesn´t need to be published
+     * @param localBus the separate Bus to create the copy on
+     * @return the copy, not yet published
+     */
+    public static EndpointImpl of(EndpointImpl endpoint, Bus localBus) {
+        EndpointImpl copy = new EndpointImpl(localBus, endpoint.getImplementor());
+        copy.setServiceName(endpoint.getServiceName());
+        copy.setEndpointName(endpoint.getEndpointName());
+        copy.setWsdlLocation(endpoint.getWsdlLocation());
+        if (endpoint.getProperties() != null) {
+            copy.setProperties(new HashMap<>(endpoint.getProperties()));
+        }
+        copy.getInInterceptors().addAll(endpoint.getInInterceptors());
+        copy.getInFaultInterceptors().addAll(endpoint.getInFaultInterceptors());
+        copy.getOutInterceptors().addAll(endpoint.getOutInterceptors());
+        copy.getOutFaultInterceptors().addAll(endpoint.getOutFaultInterceptors());
+        return copy;
+    }
+}
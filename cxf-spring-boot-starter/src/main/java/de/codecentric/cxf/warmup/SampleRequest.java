@@ -0,0 +1,68 @@
+package de.codecentric.cxf.warmup;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+
+/**
+ * A SOAP request replayed by the {@link EndpointWarmUp}, together with the name of its payload´s root element - which
+ * decides, which Endpoint it´s replayed against.
+ */
+public class SampleRequest {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final String name;
+    private final byte[] content;
+    private final QName payloadName;
+
+    public SampleRequest(String name, byte[] content) {
+        this.name = name;
+        this.content = content;
+        this.payloadName = payloadNameOf(content);
+    }
+
+    /**
+     * @return the name of the first element inside the soap:Body or null, if the request isn´t a well-formed SOAP message
+     */
+    static QName payloadNameOf(byte[] content) {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(content));
+            try {
+                boolean inBody = false;
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamReader.START_ELEMENT) {
+                        if (inBody) {
+                            return reader.getName();
+                        }
+                        inBody = "Body".equals(reader.getLocalName());
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException exception) {
+            // Not well-formed - only good to warm up the error handling, which isn´t worth blocking the readiness for
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public QName getPayloadName() {
+        return payloadName;
+    }
+}
@@ -0,0 +1,38 @@
+package de.codecentric.cxf.watchdog;
+
+/**
+ * A SOAP exchange currently processed by the CXFServlet, registered in the {@link StuckExchangeWatchdog}.
+ */
+class InFlightExchange {
+
+    private final String operation;
+    private final Thread thread;
+    private final long startNanos;
+    private volatile boolean reported = false;
+
+    InFlightExchange(String operation, Thread thread, long startNanos) {
+        this.operation = operation;
+        this.thread = thread;
+        this.startNanos = startNanos;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    Thread thread() {
+        return thread;
+    }
+
+    long durationNanos(long nowNanos) {
+        return nowNanos - startNanos;
+    }
+
+    boolean reported() {
+        return reported;
+    }
+
+    void markReported() {
+        reported = true;
+    }
+}
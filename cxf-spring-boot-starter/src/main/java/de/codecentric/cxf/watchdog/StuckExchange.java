@@ -0,0 +1,37 @@
+package de.codecentric.cxf.watchdog;
+
+import java.util.List;
+
+/**
+ * Snapshot of a stuck SOAP exchange including a stack sample of the thread serving it.
+ */
+public class StuckExchange {
+
+    private final String operation;
+    private final String threadName;
+    private final long durationMillis;
+    private final List<String> stackSample;
+
+    public StuckExchange(String operation, String threadName, long durationMillis, List<String> stackSample) {
+        this.operation = operation;
+        this.threadName = threadName;
+        this.durationMillis = durationMillis;
+        this.stackSample = stackSample;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public List<String> getStackSample() {
+        return stackSample;
+    }
+}
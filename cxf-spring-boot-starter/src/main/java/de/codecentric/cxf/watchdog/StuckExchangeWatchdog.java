@@ -0,0 +1,175 @@
+package de.codecentric.cxf.watchdog;
+
+import de.codecentric.cxf.logging.BaseLogger;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Watches the in-flight SOAP exchanges and reports every exchange, that exceeds the threshold, once - together with a
+ * stack sample of the thread serving it.
+ * <p>
+ * The in-flight exchanges are registered in a fixed array of slots, claimed and released via compare-and-set, so the
+ * request threads never block on the watchdog. If all slots are claimed, further exchanges are not watched and only
+ * counted as untracked. A single daemon thread checks the slots in the configured interval.
+ * <p>
+ * As a {@link MeterBinder}, the number of in-flight and stuck exchanges is also exported to Micrometer.
+ */
+public class StuckExchangeWatchdog implements MeterBinder {
+
+    private static final BaseLogger LOG = BaseLogger.getLogger(StuckExchangeWatchdog.class);
+
+    static final int NOT_TRACKED = -1;
+
+    private final AtomicReferenceArray<InFlightExchange> slots;
+    private final long thresholdNanos;
+    private final long intervalMillis;
+    private final int stackDepth;
+    private final AtomicLong stuckDetected = new AtomicLong();
+    private final LongAdder untracked = new LongAdder();
+    private volatile int stuck = 0;
+    private ScheduledExecutorService checker;
+
+    public StuckExchangeWatchdog(int maxInFlight, long thresholdMillis, long intervalMillis, int stackDepth) {
+        this.slots = new AtomicReferenceArray<>(maxInFlight);
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.intervalMillis = intervalMillis;
+        this.stackDepth = stackDepth;
+    }
+
+    /**
+     * Registers a SOAP exchange served by the current thread.
+     *
+     * @param operation the SOAP operation
+     * @return the slot to {@link #deregister(int)} the exchange with or {@value #NOT_TRACKED}, if all slots are claimed
+     */
+    public int register(String operation) {
+        InFlightExchange exchange = new InFlightExchange(operation, Thread.currentThread(), System.nanoTime());
+        int length = slots.length();
+        int start = (int) (Thread.currentThread().getId() % length);
+        for (int probe = 0; probe < length; probe++) {
+            int slot = (start + probe) % length;
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, exchange)) {
+                return slot;
+            }
+        }
+        untracked.increment();
+        return NOT_TRACKED;
+    }
+
+    public void deregister(int slot) {
+        if (slot != NOT_TRACKED) {
+            slots.set(slot, null);
+        }
+    }
+
+    public void start() {
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "soap-stuck-exchange-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checker.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    void check() {
+        long now = System.nanoTime();
+        int stuckNow = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            InFlightExchange exchange = slots.get(slot);
+            if (exchange != null && exchange.durationNanos(now) > thresholdNanos) {
+                stuckNow++;
+                if (!exchange.reported()) {
+                    exchange.markReported();
+                    stuckDetected.incrementAndGet();
+                    // The thread may already have moved on to the next exchange - a sample is a best effort only
+                    LOG.stuckSoapExchangeDetected(exchange.operation(), TimeUnit.NANOSECONDS.toMillis(exchange.durationNanos(now)),
+                            exchange.thread().getName(), String.join("\n", stackSample(exchange.thread())));
+                }
+            }
+        }
+        stuck = stuckNow;
+    }
+
+    /**
+     * @return all exchanges currently exceeding the threshold, with a fresh stack sample of their threads
+     */
+    public List<StuckExchange> stuckExchanges() {
+        long now = System.nanoTime();
+        List<StuckExchange> stuckExchanges = new ArrayList<>();
+        for (int slot = 0; slot < slots.length(); slot++) {
+            InFlightExchange exchange = slots.get(slot);
+            if (exchange != null && exchange.durationNanos(now) > thresholdNanos) {
+                stuckExchanges.add(new StuckExchange(exchange.operation(), exchange.thread().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(exchange.durationNanos(now)), stackSample(exchange.thread())));
+            }
+        }
+        return stuckExchanges;
+    }
+
+    public int inFlight() {
+        int inFlight = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) != null) {
+                inFlight++;
+            }
+        }
+        return inFlight;
+    }
+
+    /**
+     * @return the number of stuck exchanges found by the last check
+     */
+    public int stuck() {
+        return stuck;
+    }
+
+    public long stuckDetected() {
+        return stuckDetected.get();
+    }
+
+    public long untracked() {
+        return untracked.sum();
+    }
+
+    private List<String> stackSample(Thread thread) {
+        return Arrays.stream(thread.getStackTrace())
+                .limit(stackDepth)
+                .map(StackTraceElement::toString)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("soap.watchdog.inflight", this, StuckExchangeWatchdog::inFlight)
+                .description("SOAP exchanges currently in flight")
+                .register(registry);
+        Gauge.builder("soap.watchdog.stuck", this, StuckExchangeWatchdog::stuck)
+                .description("SOAP exchanges exceeding the threshold at the last check")
+                .register(registry);
+        FunctionCounter.builder("soap.watchdog.stuck.detected", this, StuckExchangeWatchdog::stuckDetected)
+                .description("SOAP exchanges detected as stuck")
+                .register(registry);
+        FunctionCounter.builder("soap.watchdog.untracked", this, StuckExchangeWatchdog::untracked)
+                .description("SOAP exchanges not watched, because all slots were claimed")
+                .register(registry);
+    }
+}
@@ -0,0 +1,30 @@
+package de.codecentric.cxf.watchdog;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the {@link StuckExchangeWatchdog} as /actuator/soapwatchdog.
+ */
+@Endpoint(id = "soapwatchdog")
+public class StuckExchangeWatchdogEndpoint {
+
+    private final StuckExchangeWatchdog stuckExchangeWatchdog;
+
+    public StuckExchangeWatchdogEndpoint(StuckExchangeWatchdog stuckExchangeWatchdog) {
+        this.stuckExchangeWatchdog = stuckExchangeWatchdog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> watchdog() {
+        Map<String, Object> watchdog = new LinkedHashMap<>();
+        watchdog.put("inFlight", stuckExchangeWatchdog.inFlight());
+        watchdog.put("stuckDetected", stuckExchangeWatchdog.stuckDetected());
+        watchdog.put("untracked", stuckExchangeWatchdog.untracked());
+        watchdog.put("stuck", stuckExchangeWatchdog.stuckExchanges());
+        return watchdog;
+    }
+}
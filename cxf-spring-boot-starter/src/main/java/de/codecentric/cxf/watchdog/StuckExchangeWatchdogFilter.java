@@ -0,0 +1,40 @@
+package de.codecentric.cxf.watchdog;
+
+import de.codecentric.cxf.common.ExchangeCompletion;
+import de.codecentric.cxf.logging.CxfLoggingSoapActionUtil;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Wraps the CXFServlet to register every SOAP exchange in the {@link StuckExchangeWatchdog}, while it´s in flight.
+ */
+public class StuckExchangeWatchdogFilter extends GenericFilterBean {
+
+    private final StuckExchangeWatchdog stuckExchangeWatchdog;
+
+    public StuckExchangeWatchdogFilter(StuckExchangeWatchdog stuckExchangeWatchdog) {
+        this.stuckExchangeWatchdog = stuckExchangeWatchdog;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
+        int slot = stuckExchangeWatchdog.register(operation((HttpServletRequest) servletRequest));
+        try {
+            filterChain.doFilter(servletRequest, servletResponse);
+        } finally {
+            // A suspended invocation may get stuck as well
+            ExchangeCompletion.afterExchange(servletRequest, () -> stuckExchangeWatchdog.deregister(slot));
+        }
+    }
+
+    private static String operation(HttpServletRequest request) {
+        String operation = CxfLoggingSoapActionUtil.extractSoapMethodNameFromSoapAction(request.getHeader("SOAPAction"));
+        return operation.isEmpty() ? request.getRequestURI() : operation;
+    }
+}
@@ -0,0 +1,423 @@
+package de.codecentric.cxf.wsdlcache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.cxf.Bus;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.wsdl.WSDLManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.wsdl.Definition;
+import javax.wsdl.Import;
+import javax.wsdl.Types;
+import javax.wsdl.WSDLException;
+import javax.wsdl.extensions.schema.Schema;
+import javax.wsdl.extensions.schema.SchemaReference;
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of the resolved WSDL contract: the WSDL incl. all imported WSDLs and XSDs is written as local
+ * documents into a snapshot directory - and later starts with an unchanged contract load the snapshot through the Bus´
+ * {@link WSDLManager}, instead of resolving and fetching the original documents (e.g. imports served via HTTP or
+ * documents nested inside the fat jar).
+ * <p>
+ * A snapshot is keyed by the SHA-256 of all documents of the contract, so a changed WSDL or XSD invalidates it. Which
+ * documents make up the contract of a WSDL location is kept in an index file next to the snapshots. CXF´s parsed model
+ * (the WSDL {@link Definition} and its schema collection) isn´t serializable - so the snapshot is still parsed on every
+ * start, only the resolution of the contract is saved.
+ * <p>
+ * Documents below the directory of the WSDL keep their relative path, so they´re published under the same names (like
+ * ?xsd=Weather-Schemes/weather-general.xsd). References to documents elsewhere are rewritten to their local copy.
+ */
+public class WsdlSnapshotCache implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WsdlSnapshotCache.class);
+
+    private static final String WSDL_NAMESPACE = "http://schemas.xmlsoap.org/wsdl/";
+    private static final String XSD_NAMESPACE = "http://www.w3.org/2001/XMLSchema";
+    private static final String INDEX_SUFFIX = ".index";
+    private static final String EXTERNAL_DOCUMENTS = "_external";
+    private static final Pattern SNAPSHOT = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern PLAIN_RELATIVE_PATH = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]*(/[A-Za-z0-9_-][A-Za-z0-9._-]*)*");
+
+    private final Path cacheDirectory;
+    private final Set<String> reusedLocations = ConcurrentHashMap.newKeySet();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param cacheDirectory the directory holding the snapshots - created, when the first one is written
+     */
+    public WsdlSnapshotCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Hands the snapshot of the WSDL´s contract over to the Bus, if there´s one and the contract is unchanged.
+     *
+     * @param bus the Bus the Endpoint is about to be published on
+     * @param wsdlLocation the URL of the WSDL
+     * @return true, if the snapshot was used
+     */
+    public boolean reuse(Bus bus, String wsdlLocation) {
+        WSDLManager wsdlManager = bus.getExtension(WSDLManager.class);
+        if (wsdlManager == null || wsdlManager.getDefinitions().containsKey(wsdlLocation)) {
+            return false;
+        }
+        Path snapshot = snapshotOf(wsdlLocation);
+        if (snapshot == null) {
+            misses.incrementAndGet();
+            return false;
+        }
+        try {
+            // Known to the WSDLManager under the original location, CXF builds the Endpoint from it
+            wsdlManager.addDefinition(wsdlLocation, wsdlManager.getDefinition(snapshot.toUri().toString()));
+        } catch (WSDLException exception) {
+            LOG.warn("Snapshot {} of contract '{}' can´t be read, parsing the contract itself", snapshot, wsdlLocation, exception);
+            misses.incrementAndGet();
+            return false;
+        }
+        reusedLocations.add(wsdlLocation);
+        hits.incrementAndGet();
+        LOG.debug("Loading contract '{}' from its snapshot {}", wsdlLocation, snapshot);
+        return true;
+    }
+
+    /**
+     * Writes the snapshot of the WSDL´s contract the Bus parsed while publishing an Endpoint - if it wasn´t loaded from
+     * a snapshot already.
+     *
+     * @param bus the Bus the Endpoint was published on
+     * @param wsdlLocation the URL of the WSDL
+     */
+    public void remember(Bus bus, String wsdlLocation) {
+        WSDLManager wsdlManager = bus.getExtension(WSDLManager.class);
+        if (wsdlManager == null || reusedLocations.contains(wsdlLocation)) {
+            return;
+        }
+        Definition definition = wsdlManager.getDefinitions().get(wsdlLocation);
+        if (definition == null) {
+            return;
+        }
+        try {
+            writeSnapshot(wsdlLocation, documentsOf(definition));
+        } catch (IOException | XMLStreamException exception) {
+            // The next start just parses the contract again
+            LOG.warn("Contract '{}' couldn´t be written to the cache {}", wsdlLocation, cacheDirectory, exception);
+        }
+    }
+
+    /**
+     * @return the WSDL inside of the snapshot of the contract or null, if there´s none for the current contract
+     */
+    private Path snapshotOf(String wsdlLocation) {
+        Properties index = readIndex(wsdlLocation);
+        if (index == null) {
+            return null;
+        }
+        String snapshot = index.getProperty("snapshot");
+        List<String> documents = new ArrayList<>();
+        for (int document = 0; index.containsKey("document." + document); document++) {
+            documents.add(index.getProperty("document." + document));
+        }
+        try {
+            if (!contentHashOf(documents).equals(snapshot)) {
+                LOG.info("Contract '{}' changed, parsing it again", wsdlLocation);
+                return null;
+            }
+        } catch (IOException exception) {
+            LOG.info("Contract '{}' changed, parsing it again: {}", wsdlLocation, exception.toString());
+            return null;
+        }
+        Path wsdl = cacheDirectory.resolve(snapshot).resolve(index.getProperty("wsdl"));
+        return Files.isRegularFile(wsdl) ? wsdl : null;
+    }
+
+    private void writeSnapshot(String wsdlLocation, Set<String> documents) throws IOException, XMLStreamException {
+        String contentHash = contentHashOf(documents);
+        Map<String, String> snapshotPaths = snapshotPathsOf(wsdlLocation, documents);
+        Path snapshot = cacheDirectory.resolve(contentHash);
+        if (!Files.isDirectory(snapshot)) {
+            Files.createDirectories(cacheDirectory);
+            Path written = Files.createTempDirectory(cacheDirectory, contentHash + ".");
+            try {
+                for (String document : documents) {
+                    Path copy = written.resolve(snapshotPaths.get(document));
+                    Files.createDirectories(copy.getParent());
+                    Files.write(copy, localCopyOf(document, snapshotPaths));
+                }
+                // Another JVM may write the same snapshot concurrently
+                Files.move(written, snapshot, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException exception) {
+                if (!Files.isDirectory(snapshot)) {
+                    throw exception;
+                }
+            } finally {
+                FileSystemUtils.deleteRecursively(written);
+            }
+        }
+        Properties previousIndex = readIndex(wsdlLocation);
+        writeIndex(wsdlLocation, contentHash, snapshotPaths.get(wsdlLocation), documents);
+        if (previousIndex != null && !contentHash.equals(previousIndex.getProperty("snapshot"))) {
+            FileSystemUtils.deleteRecursively(cacheDirectory.resolve(previousIndex.getProperty("snapshot")));
+        }
+        LOG.info("Contract '{}' written to the cache {}", wsdlLocation, snapshot);
+    }
+
+    private Properties readIndex(String wsdlLocation) {
+        Path index = indexOf(wsdlLocation);
+        if (!Files.isRegularFile(index)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(index)) {
+            properties.load(input);
+        } catch (IOException exception) {
+            LOG.warn("Index {} of the cached contract '{}' can´t be read", index, wsdlLocation, exception);
+            return null;
+        }
+        // Only ever resolved inside of the cache directory
+        return SNAPSHOT.matcher(properties.getProperty("snapshot", "")).matches()
+                && PLAIN_RELATIVE_PATH.matcher(properties.getProperty("wsdl", "")).matches() ? properties : null;
+    }
+
+    private void writeIndex(String wsdlLocation, String contentHash, String wsdl, Set<String> documents) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("location", wsdlLocation);
+        properties.setProperty("snapshot", contentHash);
+        properties.setProperty("wsdl", wsdl);
+        int document = 0;
+        for (String documentLocation : documents) {
+            properties.setProperty("document." + document++, documentLocation);
+        }
+        Path index = indexOf(wsdlLocation);
+        Path written = Files.createTempFile(cacheDirectory, index.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(written)) {
+                properties.store(output, "Snapshot of the contract " + wsdlLocation);
+            }
+            Files.move(written, index, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(written);
+        }
+    }
+
+    private Path indexOf(String wsdlLocation) {
+        return cacheDirectory.resolve(hex(sha256().digest(wsdlLocation.getBytes(StandardCharsets.UTF_8))) + INDEX_SUFFIX);
+    }
+
+    /**
+     * @return the paths of the documents inside the snapshot - relative to the directory of the WSDL, where possible
+     */
+    static Map<String, String> snapshotPathsOf(String wsdlLocation, Set<String> documents) {
+        String baseLocation = wsdlLocation.substring(0, wsdlLocation.lastIndexOf('/') + 1);
+        Map<String, String> snapshotPaths = new HashMap<>();
+        Set<String> usedPaths = new HashSet<>();
+        int externalDocuments = 0;
+        for (String document : documents) {
+            String snapshotPath = document.startsWith(baseLocation) ? document.substring(baseLocation.length()) : null;
+            if (snapshotPath == null || !PLAIN_RELATIVE_PATH.matcher(snapshotPath).matches()
+                    || snapshotPath.startsWith(EXTERNAL_DOCUMENTS + "/") || !usedPaths.add(snapshotPath)) {
+                snapshotPath = EXTERNAL_DOCUMENTS + "/" + externalDocuments++ + "/" + fileNameOf(document);
+                usedPaths.add(snapshotPath);
+            }
+            snapshotPaths.put(document, snapshotPath);
+        }
+        return snapshotPaths;
+    }
+
+    private static String fileNameOf(String document) {
+        String fileName = document.substring(document.lastIndexOf('/') + 1).replaceAll("[^A-Za-z0-9._-]", "_");
+        return fileName.isEmpty() || fileName.startsWith(".") ? "document" + fileName : fileName;
+    }
+
+    /**
+     * @return the document with its references to the other documents of the contract pointing to their local copies
+     */
+    static byte[] localCopyOf(String document, Map<String, String> snapshotPaths) throws IOException, XMLStreamException {
+        byte[] content = read(document);
+        Document parsed = StaxUtils.read(new ByteArrayInputStream(content));
+        boolean rewritten = rewriteReferences(parsed, WSDL_NAMESPACE, "import", "location", document, snapshotPaths);
+        for (String schemaReference : new String[] {"import", "include", "redefine"}) {
+            rewritten |= rewriteReferences(parsed, XSD_NAMESPACE, schemaReference, "schemaLocation", document, snapshotPaths);
+        }
+        if (!rewritten) {
+            return content;
+        }
+        ByteArrayOutputStream localCopy = new ByteArrayOutputStream(content.length);
+        StaxUtils.writeTo(parsed, localCopy);
+        return localCopy.toByteArray();
+    }
+
+    private static boolean rewriteReferences(Document parsed, String namespace, String element, String attribute,
+                                             String document, Map<String, String> snapshotPaths) throws IOException {
+        boolean rewritten = false;
+        NodeList references = parsed.getElementsByTagNameNS(namespace, element);
+        for (int index = 0; index < references.getLength(); index++) {
+            Element reference = (Element) references.item(index);
+            String location = reference.getAttribute(attribute);
+            if (location.isEmpty()) {
+                continue;
+            }
+            String referencedDocument = new URL(new URL(document), location).toString();
+            String snapshotPath = snapshotPaths.get(referencedDocument);
+            // A document, that isn´t part of the snapshot, is still read from where it is
+            String localLocation = snapshotPath != null
+                    ? relativize(snapshotPaths.get(document), snapshotPath) : referencedDocument;
+            if (!localLocation.equals(location)) {
+                reference.setAttribute(attribute, localLocation);
+                rewritten = true;
+            }
+        }
+        return rewritten;
+    }
+
+    private static String relativize(String fromSnapshotPath, String toSnapshotPath) {
+        Path from = Paths.get(fromSnapshotPath).getParent();
+        Path to = Paths.get(toSnapshotPath);
+        return (from == null ? to : from.relativize(to)).toString().replace('\\', '/');
+    }
+
+    static Set<String> documentsOf(Definition definition) {
+        Set<String> documents = new TreeSet<>();
+        documentsOf(definition, documents, Collections.newSetFromMap(new IdentityHashMap<>()));
+        return documents;
+    }
+
+    private static void documentsOf(Definition definition, Set<String> documents, Set<Object> visited) {
+        if (definition == null || !visited.add(definition)) {
+            return;
+        }
+        if (definition.getDocumentBaseURI() != null) {
+            documents.add(definition.getDocumentBaseURI());
+        }
+        for (Object imports : definition.getImports().values()) {
+            for (Object wsdlImport : (List<?>) imports) {
+                documentsOf(((Import) wsdlImport).getDefinition(), documents, visited);
+            }
+        }
+        Types types = definition.getTypes();
+        if (types != null) {
+            for (Object extensibilityElement : types.getExtensibilityElements()) {
+                if (extensibilityElement instanceof Schema) {
+                    documentsOf((Schema) extensibilityElement, documents, visited);
+                }
+            }
+        }
+    }
+
+    private static void documentsOf(Schema schema, Set<String> documents, Set<Object> visited) {
+        if (schema == null || !visited.add(schema)) {
+            return;
+        }
+        // Inline schemas carry the base URI of their WSDL
+        if (schema.getDocumentBaseURI() != null) {
+            documents.add(schema.getDocumentBaseURI());
+        }
+        List<SchemaReference> references = new ArrayList<>();
+        for (Object schemaImports : schema.getImports().values()) {
+            for (Object schemaImport : (List<?>) schemaImports) {
+                references.add((SchemaReference) schemaImport);
+            }
+        }
+        for (Object include : schema.getIncludes()) {
+            references.add((SchemaReference) include);
+        }
+        for (Object redefine : schema.getRedefines()) {
+            references.add((SchemaReference) redefine);
+        }
+        for (SchemaReference reference : references) {
+            documentsOf(reference.getReferencedSchema(), documents, visited);
+        }
+    }
+
+    /**
+     * @return the SHA-256 of the locations and contents of all documents
+     */
+    static String contentHashOf(Iterable<String> documents) throws IOException {
+        MessageDigest digest = sha256();
+        for (String document : documents) {
+            byte[] location = document.getBytes(StandardCharsets.UTF_8);
+            byte[] content = read(document);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(location.length).array());
+            digest.update(location);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(content.length).array());
+            digest.update(content);
+        }
+        return hex(digest.digest());
+    }
+
+    private static byte[] read(String document) throws IOException {
+        try (InputStream content = new URL(document).openStream()) {
+            return StreamUtils.copyToByteArray(content);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is part of every JRE", exception);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        StringBuilder hex = new StringBuilder();
+        for (byte hashByte : hash) {
+            hex.append(String.format("%02x", hashByte));
+        }
+        return hex.toString();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("soap.wsdl.cache.hits", this, WsdlSnapshotCache::hits)
+                .description("Endpoints published with the contract loaded from its snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("soap.wsdl.cache.misses", this, WsdlSnapshotCache::misses)
+                .description("Endpoints published with the contract resolved from its original documents")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,70 @@
+package de.codecentric.cxf.xmlvalidation;
+
+import com.ctc.wstx.exc.WstxException;
+import com.ctc.wstx.exc.WstxUnexpectedCharException;
+import de.codecentric.cxf.common.FaultType;
+import org.apache.cxf.interceptor.Fault;
+
+import javax.xml.bind.UnmarshalException;
+
+/**
+ * Maps a Fault, that occured somewhere in Apache CXF´s SOAP-Processing, to the corresponding {@link FaultType}.
+ */
+public final class FaultTypeClassifier {
+
+    // private Constructor for Utility-Class
+    private FaultTypeClassifier() {};
+
+    /**
+     * @param fault the Fault to classify
+     * @return the {@link FaultType} of the Fault or null, if the Fault doesn´t carry a cause to classify
+     */
+    public static FaultType classify(Fault fault) {
+        if (fault == null) {
+            return null;
+        }
+        Throwable faultCause = fault.getCause();
+        String faultMessage = fault.getMessage();
+
+        if (containsFaultIndicatingNotSchemeCompliantXml(faultCause, faultMessage)) {
+            return FaultType.SCHEME_VALIDATION_ERROR;
+        } else if (containsFaultIndicatingSyntacticallyIncorrectXml(faultCause)) {
+            return FaultType.SYNTACTICALLY_INCORRECT_XML_ERROR;
+        } else if (someOtherErrorOccured(faultCause)) {
+            // Some other Error occured, we don´t know. But we want to react with a Custom Error-Message
+            return FaultType.BACKEND_PROCESSING_FAILED;
+        }
+        return null;
+    }
+
+    private static boolean containsFaultIndicatingNotSchemeCompliantXml(Throwable faultCause, String faultMessage) {
+        if(faultCause instanceof UnmarshalException
+            // 1.) If the root-Element of the SoapBody is syntactically correct, but not scheme-compliant,
+            // 		there is no UnmarshalException and we have to look for
+            // 2.) Missing / lead to Faults without Causes, but to Messages like "Unexpected wrapper element XYZ found. Expected"
+            // 		One could argue, that this is syntactically incorrect, but here we just take it as Non-Scheme-compliant
+            || isNotNull(faultMessage) && faultMessage.contains("Unexpected wrapper element")) {
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean containsFaultIndicatingSyntacticallyIncorrectXml(Throwable faultCause) {
+        if(faultCause instanceof WstxException
+            // If Xml-Header is invalid, there is a wrapped Cause in the original Cause we have to check
+            || isNotNull(faultCause) && faultCause.getCause() instanceof WstxUnexpectedCharException
+            || faultCause instanceof IllegalArgumentException) {
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean someOtherErrorOccured(Throwable faultCause) {
+        // Catch all other (un-)checked Exceptions, to handle with Custom Error-Message
+        return isNotNull(faultCause);
+    }
+
+    private static boolean isNotNull(Object object) {
+        return object != null;
+    }
+}
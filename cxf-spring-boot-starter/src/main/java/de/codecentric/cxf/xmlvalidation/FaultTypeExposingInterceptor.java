@@ -0,0 +1,65 @@
+package de.codecentric.cxf.xmlvalidation;
+
+import de.codecentric.cxf.common.FaultType;
+import org.apache.cxf.Bus;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+import javax.servlet.ServletRequest;
+
+/**
+ * Apache CXF Out-Fault-Interceptor, that classifies the Fault of an exchange (see {@link FaultTypeClassifier}) and exposes
+ * the {@link FaultType} as attribute of the current {@link ServletRequest}. This way Servlet-Filters wrapping the CXFServlet
+ * are able to account for errors by {@link FaultType}.
+ * <p>
+ * It is processed in the first phase of the chain, so the Fault is classified before the {@link XmlValidationInterceptor}
+ * replaces it with the custom one.
+ */
+public class FaultTypeExposingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    public static final String FAULT_TYPE_ATTRIBUTE = FaultType.class.getName();
+
+    public FaultTypeExposingInterceptor() {
+        super(Phase.SETUP);
+    }
+
+    /**
+     * Adds the interceptor to the Out-Fault-Interceptors of the Bus, if it isn´t already there - as several features rely on it.
+     *
+     * @param bus the Bus to add the interceptor to
+     */
+    public static synchronized void addTo(Bus bus) {
+        for (Interceptor<? extends Message> interceptor : bus.getOutFaultInterceptors()) {
+            if (interceptor instanceof FaultTypeExposingInterceptor) {
+                return;
+            }
+        }
+        bus.getOutFaultInterceptors().add(new FaultTypeExposingInterceptor());
+    }
+
+    /**
+     * @param request the current request
+     * @return the {@link FaultType} of the exchange, or null if the exchange didn´t end with a classified Fault
+     */
+    public static FaultType faultTypeOf(ServletRequest request) {
+        return (FaultType) request.getAttribute(FAULT_TYPE_ATTRIBUTE);
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Message inMessage = message.getExchange().getInMessage();
+        if (inMessage == null) {
+            return;
+        }
+        ServletRequest request = (ServletRequest) inMessage.get(AbstractHTTPDestination.HTTP_REQUEST);
+        Exception exception = message.getContent(Exception.class);
+        FaultType faultType = exception instanceof Fault ? FaultTypeClassifier.classify((Fault) exception) : null;
+        if (request != null && faultType != null) {
+            request.setAttribute(FAULT_TYPE_ATTRIBUTE, faultType);
+        }
+    }
+}
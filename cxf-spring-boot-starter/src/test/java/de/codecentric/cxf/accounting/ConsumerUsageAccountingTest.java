@@ -0,0 +1,119 @@
+package de.codecentric.cxf.accounting;
+
+import de.codecentric.cxf.common.FaultType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static de.codecentric.cxf.accounting.ConsumerUsageAccounting.OTHER_CONSUMERS;
+import static de.codecentric.cxf.accounting.ConsumerUsageAccounting.UNIDENTIFIED_CONSUMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsumerUsageAccountingTest {
+
+    @Test public void
+    accounts_requests_bytes_latency_and_errors_per_consumer() {
+        ConsumerUsageAccounting accounting = new ConsumerUsageAccounting(Collections.singletonList("partnerA"), 10);
+
+        accounting.record("partnerA", 100, 200, TimeUnit.MILLISECONDS.toNanos(5), null, false);
+        accounting.record("partnerA", 50, 500, TimeUnit.MILLISECONDS.toNanos(7), FaultType.SCHEME_VALIDATION_ERROR, true);
+        accounting.record("partnerA", 10, 20, 0, null, true);
+
+        ConsumerUsage usage = accounting.usage("partnerA");
+        assertEquals(3, usage.getRequests());
+        assertEquals(160, usage.getBytesIn());
+        assertEquals(720, usage.getBytesOut());
+        assertEquals(12, usage.getLatencySumMillis());
+        assertEquals(1L, usage.getErrors().get(FaultType.SCHEME_VALIDATION_ERROR.name()));
+        assertEquals(0L, usage.getErrors().get(FaultType.BACKEND_PROCESSING_FAILED.name()));
+        assertEquals(1L, usage.getErrors().get(ConsumerUsage.UNCLASSIFIED_ERROR));
+    }
+
+    @Test public void
+    accounts_requests_without_identification_as_unidentified() {
+        ConsumerUsageAccounting accounting = new ConsumerUsageAccounting(Collections.emptyList(), 10);
+
+        accounting.record(null, 1, 1, 1, null, false);
+        accounting.record("", 1, 1, 1, null, false);
+
+        assertEquals(2, accounting.usage(UNIDENTIFIED_CONSUMER).getRequests());
+    }
+
+    @Test public void
+    evicts_the_least_recently_seen_unknown_consumer_into_other() throws InterruptedException {
+        ConsumerUsageAccounting accounting = new ConsumerUsageAccounting(Collections.singletonList("partnerA"), 2);
+
+        accounting.record("unknown1", 1, 1, 1, null, false);
+        Thread.sleep(5);
+        accounting.record("unknown2", 10, 1, 1, null, false);
+        Thread.sleep(5);
+        accounting.record("unknown1", 1, 1, 1, null, false);
+        Thread.sleep(5);
+        accounting.record("partnerA", 1, 1, 1, null, false);
+        accounting.record("unknown3", 1, 1, 1, null, false);
+
+        assertNull(accounting.usage("unknown2"), "least recently seen");
+        assertEquals(2, accounting.usage("unknown1").getRequests());
+        assertEquals(1, accounting.usage("unknown3").getRequests());
+        assertEquals(1, accounting.usage("partnerA").getRequests(), "known consumers are never evicted");
+        assertEquals(1, accounting.usage(OTHER_CONSUMERS).getRequests());
+        assertEquals(10, accounting.usage(OTHER_CONSUMERS).getBytesIn());
+        assertEquals(Arrays.asList(OTHER_CONSUMERS, "partnerA", UNIDENTIFIED_CONSUMER, "unknown1", "unknown3"),
+                Arrays.asList(accounting.usage().keySet().toArray()));
+    }
+
+    @Test public void
+    accounts_all_unknown_consumers_as_other_without_a_bound() {
+        ConsumerUsageAccounting accounting = new ConsumerUsageAccounting(Collections.emptyList(), 0);
+
+        accounting.record("unknown1", 1, 1, 1, null, false);
+
+        assertNull(accounting.usage("unknown1"));
+        assertEquals(1, accounting.usage(OTHER_CONSUMERS).getRequests());
+    }
+
+    @Test public void
+    keeps_the_bound_of_unknown_consumers_under_concurrent_registration() throws InterruptedException {
+        ConsumerUsageAccounting accounting = new ConsumerUsageAccounting(Collections.emptyList(), 10);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int request = 0; request < 10_000; request++) {
+            String consumer = "rotating" + request;
+            executor.execute(() -> accounting.record(consumer, 1, 1, 1, null, false));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(10 + 2, accounting.usage().size());
+        assertEquals(10_000, accounting.usage().values().stream().mapToLong(ConsumerUsage::getRequests).sum());
+    }
+
+    @Test public void
+    exports_usage_as_micrometer_meters_and_removes_the_ones_of_evicted_consumers() {
+        ConsumerUsageAccounting accounting = new ConsumerUsageAccounting(Collections.emptyList(), 1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        accounting.bindTo(meterRegistry);
+
+        accounting.record("unknown1", 10, 20, TimeUnit.MILLISECONDS.toNanos(3), FaultType.BACKEND_PROCESSING_FAILED, true);
+
+        assertEquals(1, meterRegistry.get("soap.consumer.requests").tag("consumer", "unknown1").functionCounter().count());
+        assertEquals(10, meterRegistry.get("soap.consumer.bytes.in").tag("consumer", "unknown1").functionCounter().count());
+        assertEquals(3, meterRegistry.get("soap.consumer.latency").tag("consumer", "unknown1").functionTimer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("soap.consumer.errors").tag("consumer", "unknown1")
+                .tag("faultType", FaultType.BACKEND_PROCESSING_FAILED.name()).functionCounter().count());
+        int meters = meterRegistry.getMeters().size();
+
+        accounting.record("unknown2", 1, 1, 1, null, false);
+
+        assertEquals(meters, meterRegistry.getMeters().size(), "the meters of the evicted consumer are removed");
+        assertTrue(meterRegistry.find("soap.consumer.requests").tag("consumer", "unknown1").meters().isEmpty());
+        assertEquals(1, meterRegistry.get("soap.consumer.requests").tag("consumer", "unknown2").functionCounter().count());
+        assertEquals(1, meterRegistry.get("soap.consumer.requests").tag("consumer", OTHER_CONSUMERS).functionCounter().count());
+        assertEquals(1, meterRegistry.get("soap.consumer.errors").tag("consumer", OTHER_CONSUMERS)
+                .tag("faultType", FaultType.BACKEND_PROCESSING_FAILED.name()).functionCounter().count());
+    }
+}
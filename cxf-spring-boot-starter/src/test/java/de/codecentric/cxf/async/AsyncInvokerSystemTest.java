@@ -0,0 +1,269 @@
+package de.codecentric.cxf.async;
+
+import de.codecentric.cxf.TestApplication;
+import de.codecentric.cxf.TestServiceEndpoint;
+import de.codecentric.cxf.accounting.ConsumerUsage;
+import de.codecentric.cxf.accounting.ConsumerUsageAccounting;
+import de.codecentric.cxf.pooling.SeiInstancePool;
+import de.codecentric.cxf.saturation.SaturationMonitor;
+import de.codecentric.namespace.weatherservice.WeatherException;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import de.codecentric.namespace.weatherservice.general.ForecastRequest;
+import de.codecentric.namespace.weatherservice.general.ForecastReturn;
+import de.codecentric.namespace.weatherservice.general.GetWeatherInformationResponse;
+import de.codecentric.namespace.weatherservice.general.WeatherInformationReturn;
+import org.apache.cxf.annotations.UseAsyncMethod;
+import org.apache.cxf.bus.spring.SpringBus;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.ServerAsyncResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import javax.xml.namespace.QName;
+import javax.xml.ws.AsyncHandler;
+import javax.xml.ws.soap.SOAPFaultException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.consumer.accounting.enabled=true",
+                "soap.saturation.enabled=true"
+        }
+)
+public class AsyncInvokerSystemTest {
+
+    private static final QName WEATHER_SERVICE = new QName("http://www.codecentric.de/namespace/weatherservice/", "Weather");
+    private static final long TIMEOUT_MILLIS = 1000;
+
+    @Autowired
+    private SpringBus springBus;
+
+    @Autowired
+    private ConsumerUsageAccounting consumerUsageAccounting;
+
+    @Autowired
+    private SaturationMonitor saturationMonitor;
+
+    @LocalServerPort
+    private int port;
+
+    private final ScheduledExecutorService backend = Executors.newSingleThreadScheduledExecutor();
+    private final AsyncTimeouts timeouts = new AsyncTimeouts(TIMEOUT_MILLIS);
+    private final AsyncServiceEndpoint implementor = new AsyncServiceEndpoint();
+    private EndpointImpl endpoint;
+    private WeatherService weatherServiceClient;
+
+    @BeforeEach
+    public void publishAsyncEndpoint() {
+        endpoint = new EndpointImpl(springBus, implementor);
+        endpoint.setServiceName(WEATHER_SERVICE);
+        endpoint.setWsdlLocation(AsyncInvokerSystemTest.class.getResource("/wsdl/Weather1.0.wsdl").toString());
+        endpoint.setInvoker(new AsyncInvoker(implementor, timeouts));
+        endpoint.publish("/AsyncWeather");
+
+        weatherServiceClient = clientOf("/AsyncWeather");
+    }
+
+    private WeatherService clientOf(String address) {
+        JaxWsProxyFactoryBean proxyFactory = new JaxWsProxyFactoryBean();
+        proxyFactory.setServiceClass(WeatherService.class);
+        proxyFactory.setAddress("http://localhost:" + port + "/soap-api" + address);
+        return (WeatherService) proxyFactory.create();
+    }
+
+    @AfterEach
+    public void stopAsyncEndpoint() {
+        endpoint.stop();
+        timeouts.shutdown();
+        backend.shutdownNow();
+    }
+
+    @Test public void
+    writes_the_response_as_soon_as_the_completion_stage_completes() throws WeatherException {
+        implementor.forecasts = () -> later(new ForecastReturn(), 200);
+
+        ForecastReturn forecastReturn = weatherServiceClient.getCityForecastByZIP(new ForecastRequest());
+
+        assertNotNull(forecastReturn);
+        assertEquals(0, implementor.synchronousInvocations);
+    }
+
+    @Test public void
+    accounts_the_exchange_not_before_the_completion_stage_completed() throws WeatherException, InterruptedException {
+        ConsumerUsage usage = consumerUsageAccounting.usage(ConsumerUsageAccounting.UNIDENTIFIED_CONSUMER);
+        long requestsBefore = usage.getRequests();
+        long bytesOutBefore = usage.getBytesOut();
+        long latencySumMillisBefore = usage.getLatencySumMillis();
+        int[] inFlightWhileSuspended = new int[1];
+        implementor.forecasts = () -> {
+            CompletableFuture<ForecastReturn> stage = new CompletableFuture<>();
+            backend.schedule(() -> {
+                inFlightWhileSuspended[0] = saturationMonitor.inFlight();
+                stage.complete(new ForecastReturn());
+            }, 300, TimeUnit.MILLISECONDS);
+            return stage;
+        };
+
+        weatherServiceClient.getCityForecastByZIP(new ForecastRequest());
+        // The exchange completes right after the response was written
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (usage.getRequests() == requestsBefore && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(1, inFlightWhileSuspended[0], "still in flight while the servlet thread is released");
+        assertEquals(requestsBefore + 1, usage.getRequests());
+        assertTrue(usage.getLatencySumMillis() - latencySumMillisBefore >= 300, "latency includes the suspension");
+        assertTrue(usage.getBytesOut() > bytesOutBefore, "bytes of the resumed response are counted");
+        assertEquals(0, saturationMonitor.inFlight());
+    }
+
+    @Test public void
+    holds_the_pooled_instance_until_its_completion_stage_completed() throws Exception {
+        List<Object> instances = Arrays.asList(new AsyncServiceEndpoint(), new AsyncServiceEndpoint());
+        AtomicInteger overlappingInvocations = new AtomicInteger();
+        for (Object instance : instances) {
+            AtomicBoolean busy = new AtomicBoolean();
+            ((AsyncServiceEndpoint) instance).forecasts = () -> {
+                if (!busy.compareAndSet(false, true)) {
+                    overlappingInvocations.incrementAndGet();
+                }
+                CompletableFuture<ForecastReturn> stage = new CompletableFuture<>();
+                backend.schedule(() -> {
+                    busy.set(false);
+                    stage.complete(new ForecastReturn());
+                }, 100, TimeUnit.MILLISECONDS);
+                return stage;
+            };
+        }
+        SeiInstancePool pool = new SeiInstancePool(AsyncServiceEndpoint.class, instances, 5000);
+        EndpointImpl pooledEndpoint = new EndpointImpl(springBus, instances.get(0));
+        pooledEndpoint.setServiceName(WEATHER_SERVICE);
+        pooledEndpoint.setWsdlLocation(AsyncInvokerSystemTest.class.getResource("/wsdl/Weather1.0.wsdl").toString());
+        pooledEndpoint.setInvoker(new AsyncInvoker(pool, AsyncServiceEndpoint.class, timeouts));
+        pooledEndpoint.publish("/PooledAsyncWeather");
+        ExecutorService consumers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<ForecastReturn>> forecasts = new ArrayList<>();
+            for (int request = 0; request < 12; request++) {
+                forecasts.add(consumers.submit(() -> clientOf("/PooledAsyncWeather").getCityForecastByZIP(new ForecastRequest())));
+            }
+            for (Future<ForecastReturn> forecast : forecasts) {
+                assertNotNull(forecast.get(10, TimeUnit.SECONDS));
+            }
+
+            assertEquals(0, overlappingInvocations.get(), "no instance is lent while its stage is running");
+            assertEquals(2, pool.getAvailable(), "every instance is back in the pool, none borrowed twice");
+        } finally {
+            consumers.shutdownNow();
+            pooledEndpoint.stop();
+        }
+    }
+
+    @Test public void
+    sends_the_declared_fault_if_the_completion_stage_completes_exceptionally() {
+        implementor.forecasts = () -> {
+            CompletableFuture<ForecastReturn> failing = new CompletableFuture<>();
+            backend.schedule(() -> failing.completeExceptionally(weatherException("No forecast for Weimar")), 100, TimeUnit.MILLISECONDS);
+            return failing;
+        };
+
+        WeatherException weatherException = assertThrows(WeatherException.class,
+                () -> weatherServiceClient.getCityForecastByZIP(new ForecastRequest()));
+
+        assertEquals("No forecast for Weimar", weatherException.getMessage());
+    }
+
+    @Test public void
+    sends_a_fault_and_cancels_the_completion_stage_after_the_timeout() {
+        CompletableFuture<ForecastReturn> neverCompleting = new CompletableFuture<>();
+        implementor.forecasts = () -> neverCompleting;
+
+        SOAPFaultException timeoutFault = assertThrows(SOAPFaultException.class,
+                () -> weatherServiceClient.getCityForecastByZIP(new ForecastRequest()));
+
+        assertEquals("Invocation of operation GetCityForecastByZIP timed out after " + TIMEOUT_MILLIS + "ms", timeoutFault.getMessage());
+        assertTrue(neverCompleting.isCancelled());
+    }
+
+    @Test public void
+    writes_the_response_handed_over_to_the_async_handler_of_the_jax_ws_async_pattern() throws WeatherException {
+        WeatherInformationReturn weatherInformation = weatherServiceClient.getWeatherInformation("99425");
+
+        assertEquals("Asynchronously served", weatherInformation.getResponseText());
+        assertEquals(0, implementor.synchronousInvocations);
+    }
+
+    private static WeatherException weatherException(String message) {
+        return new WeatherException(message, new de.codecentric.namespace.weatherservice.exception.WeatherException());
+    }
+
+    private <T> CompletionStage<T> later(T result, long delayMillis) {
+        CompletableFuture<T> stage = new CompletableFuture<>();
+        backend.schedule(() -> stage.complete(result), delayMillis, TimeUnit.MILLISECONDS);
+        return stage;
+    }
+
+    // CXF finds the SEI only among the directly implemented interfaces
+    public class AsyncServiceEndpoint extends TestServiceEndpoint implements WeatherService {
+
+        private volatile Supplier<CompletionStage<ForecastReturn>> forecasts;
+        private volatile int synchronousInvocations;
+
+        private AsyncServiceEndpoint() {
+            super(null);
+        }
+
+        @Override
+        @UseAsyncMethod
+        public ForecastReturn getCityForecastByZIP(ForecastRequest forecastRequest) throws WeatherException {
+            synchronousInvocations++;
+            return super.getCityForecastByZIP(forecastRequest);
+        }
+
+        public CompletionStage<ForecastReturn> getCityForecastByZIPAsync(ForecastRequest forecastRequest) {
+            return forecasts.get();
+        }
+
+        @Override
+        @UseAsyncMethod
+        public WeatherInformationReturn getWeatherInformation(String zip) throws WeatherException {
+            synchronousInvocations++;
+            return super.getWeatherInformation(zip);
+        }
+
+        public Future<?> getWeatherInformationAsync(String zip, AsyncHandler<GetWeatherInformationResponse> asyncHandler) {
+            ServerAsyncResponse<GetWeatherInformationResponse> response = new ServerAsyncResponse<>();
+            backend.schedule(() -> {
+                WeatherInformationReturn weatherInformation = new WeatherInformationReturn();
+                weatherInformation.setResponseText("Asynchronously served");
+                GetWeatherInformationResponse getWeatherInformationResponse = new GetWeatherInformationResponse();
+                getWeatherInformationResponse.setGetWeatherInformationResult(weatherInformation);
+                response.set(getWeatherInformationResponse);
+                asyncHandler.handleResponse(response);
+            }, 200, TimeUnit.MILLISECONDS);
+            return response;
+        }
+    }
+}
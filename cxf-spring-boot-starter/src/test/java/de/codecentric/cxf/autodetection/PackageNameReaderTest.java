@@ -3,6 +3,14 @@ package de.codecentric.cxf.autodetection;
 
 import de.codecentric.cxf.autodetection.diagnostics.CxfSpringBootMavenPropertiesNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -23,4 +31,24 @@ public class PackageNameReaderTest {
 
         assertEquals(packageName, "de.codecentric.namespace.weatherservice");
     }
+
+    @Test public void
+    reads_the_package_names_of_another_application_in_the_same_jvm_from_its_own_classpath(@TempDir Path classesRoot) throws CxfSpringBootMavenPropertiesNotFoundException, IOException {
+        assertEquals("de.codecentric", PackageNameReader.build().readSeiImplementationPackageNameFromCxfSpringBootMavenProperties());
+
+        // Not in the root of the classpath, so it has to be searched for
+        Path properties = Files.createDirectories(classesRoot.resolve("META-INF")).resolve("cxf-spring-boot-maven.properties");
+        Files.write(properties, "sei.implementation.package.name=com.example.other".getBytes(StandardCharsets.ISO_8859_1));
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader applicationClassLoader = currentThread.getContextClassLoader();
+        try (URLClassLoader otherApplication = new URLClassLoader(new URL[] {classesRoot.toUri().toURL()}, null)) {
+            currentThread.setContextClassLoader(otherApplication);
+
+            assertEquals("com.example.other", PackageNameReader.build().readSeiImplementationPackageNameFromCxfSpringBootMavenProperties());
+        } finally {
+            currentThread.setContextClassLoader(applicationClassLoader);
+        }
+        assertEquals("de.codecentric", PackageNameReader.build().readSeiImplementationPackageNameFromCxfSpringBootMavenProperties());
+    }
 }
@@ -0,0 +1,76 @@
+package de.codecentric.cxf.autodetection;
+
+import de.codecentric.namespace.weatherservice.WeatherService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.type.classreading.SimpleMetadataReaderFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScannedClassCacheTest {
+
+    @TempDir
+    Path classesDirectory;
+
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @AfterEach
+    public void clearCache() {
+        ScannedClassCache.clear();
+    }
+
+    @Test public void
+    reads_an_unchanged_class_file_only_once_even_with_a_new_metadata_reader_factory() throws IOException {
+        File classFile = copyOfWeatherServiceClassFile();
+
+        ScannedClass scannedClass = ScannedClassCache.scannedClass(new FileSystemResource(classFile), new SimpleMetadataReaderFactory(), classLoader);
+        ScannedClass scannedClassAfterRestart = ScannedClassCache.scannedClass(new FileSystemResource(classFile), new SimpleMetadataReaderFactory(), classLoader);
+
+        assertSame(scannedClass, scannedClassAfterRestart);
+        assertEquals(WeatherService.class.getName(), scannedClass.className());
+        assertTrue(scannedClass.isInterface());
+    }
+
+    @Test public void
+    reads_a_class_file_again_after_it_changed() throws IOException {
+        File classFile = copyOfWeatherServiceClassFile();
+        ScannedClass scannedClass = ScannedClassCache.scannedClass(new FileSystemResource(classFile), new SimpleMetadataReaderFactory(), classLoader);
+
+        assertTrue(classFile.setLastModified(classFile.lastModified() + 2000));
+
+        assertNotSame(scannedClass, ScannedClassCache.scannedClass(new FileSystemResource(classFile), new SimpleMetadataReaderFactory(), classLoader));
+    }
+
+    @Test public void
+    keeps_the_scanned_class_files_per_class_loader() throws IOException {
+        File classFile = copyOfWeatherServiceClassFile();
+        ScannedClass scannedClass = ScannedClassCache.scannedClass(new FileSystemResource(classFile), new SimpleMetadataReaderFactory(), classLoader);
+
+        try (URLClassLoader otherApplication = new URLClassLoader(new URL[0], null)) {
+            ScannedClass scannedClassOfOtherApplication = ScannedClassCache.scannedClass(new FileSystemResource(classFile),
+                    new SimpleMetadataReaderFactory(), otherApplication);
+
+            assertNotSame(scannedClass, scannedClassOfOtherApplication);
+            assertSame(scannedClassOfOtherApplication, ScannedClassCache.scannedClass(new FileSystemResource(classFile),
+                    new SimpleMetadataReaderFactory(), otherApplication));
+        }
+    }
+
+    private File copyOfWeatherServiceClassFile() throws IOException {
+        Path classFile = classesDirectory.resolve("WeatherService.class");
+        try (InputStream content = WeatherService.class.getResourceAsStream("WeatherService.class")) {
+            Files.copy(content, classFile);
+        }
+        return classFile.toFile();
+    }
+}
@@ -14,6 +14,8 @@ import org.springframework.context.ApplicationContext;
 
 import javax.xml.namespace.QName;
 import javax.xml.ws.Service;
+import javax.xml.ws.WebEndpoint;
+import javax.xml.ws.WebServiceClient;
 import java.util.Arrays;
 import java.util.List;
 
@@ -123,6 +125,62 @@ public class WebServiceAutoDetectorTest {
         assertThrows(SeiNotFoundException.class, () -> autoDetector.searchServiceEndpointInterface());
     }
 
+    interface OtherService {
+    }
+
+    static class OtherServiceEndpoint implements OtherService {
+    }
+
+    interface ConsumedOnlyService {
+    }
+
+    @WebServiceClient(name = "Other", targetNamespace = "urn:other")
+    static class Other extends Service {
+        protected Other() {
+            super(null, new QName("urn:other", "Other"));
+        }
+
+        @WebEndpoint(name = "OtherService")
+        public OtherService getOtherService() {
+            return null;
+        }
+
+        @WebEndpoint(name = "ConsumedOnlyService")
+        public ConsumedOnlyService getConsumedOnlyService() {
+            return null;
+        }
+    }
+
+    @Test public void
+    detects_every_SEI_with_implementation_and_WebServiceClient_and_skips_the_ones_without_implementation() throws BootStarterCxfException {
+
+        WebServiceScanner scannerMock = mock(WebServiceScanner.class);
+        when(scannerMock.scanForInterfacesWithAnnotation(SEI_ANNOTATION, seiAndWebServiceClientPackageName))
+                .thenReturn(Arrays.asList(ConsumedOnlyService.class, OtherService.class, WEATHER_SERVICE_ENDPOINT_INTERFACE));
+        when(scannerMock.scanForClassesWithAnnotation(WEB_SERVICE_CLIENT_ANNOTATION, seiAndWebServiceClientPackageName))
+                .thenReturn(Arrays.asList(Other.class, WEATHER_WEBSERVICE_CLIENT));
+        when(scannerMock.scanForClassWhichImplementsAndPickFirst(ConsumedOnlyService.class, seiImplementationPackageName)).thenThrow(STARTER_EXCEPTION_NO_CLASS_FOUND);
+        when(scannerMock.scanForClassWhichImplementsAndPickFirst(OtherService.class, seiImplementationPackageName)).thenReturn(OtherServiceEndpoint.class);
+        when(scannerMock.scanForClassWhichImplementsAndPickFirst(WEATHER_SERVICE_ENDPOINT_INTERFACE, seiImplementationPackageName)).thenReturn(WEATHER_SEI_IMPLEMENTING_CLASS);
+        ApplicationContext applicationContext = mock(ApplicationContext.class);
+        AutowireCapableBeanFactory beanFactory = mock(AutowireCapableBeanFactory.class);
+        when(applicationContext.getAutowireCapableBeanFactory()).thenReturn(beanFactory);
+        when(beanFactory.createBean(OtherServiceEndpoint.class)).thenReturn(new OtherServiceEndpoint());
+        when(beanFactory.createBean(Other.class)).thenReturn(new Other());
+        when(beanFactory.createBean(TestServiceEndpoint.class)).thenReturn(new TestServiceEndpoint(null));
+        when(beanFactory.createBean(Weather.class)).thenReturn(new Weather());
+        WebServiceAutoDetector autoDetector = new WebServiceAutoDetector(scannerMock, applicationContext);
+
+        List<DetectedWebService> detectedWebServices = autoDetector.searchAndInstantiateWebServices();
+
+        assertEquals(2, detectedWebServices.size());
+        assertEquals(OtherService.class, detectedWebServices.get(0).getServiceEndpointInterface());
+        assertTrue(detectedWebServices.get(0).getSeiImplementation() instanceof OtherServiceEndpoint);
+        assertEquals("Other", detectedWebServices.get(0).getWebServiceClient().getServiceName().getLocalPart());
+        assertEquals(WEATHER_SERVICE_ENDPOINT_INTERFACE, detectedWebServices.get(1).getServiceEndpointInterface());
+        assertEquals("Weather", detectedWebServices.get(1).getWebServiceClient().getServiceName().getLocalPart());
+    }
+
     protected static List<String> generateListWithSeiAndSeiImplNameWithBothWebServiceAnnotation() {
         return Arrays.asList(WEATHER_SERVICE_ENDPOINT_INTERFACE.getName(), WEATHER_SEI_IMPLEMENTING_CLASS.getName());
     }
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import javax.jws.WebService;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static de.codecentric.cxf.autodetection.WebServiceAutoDetector.SEI_ANNOTATION;
 import static de.codecentric.cxf.autodetection.WebServiceAutoDetector.WEB_SERVICE_CLIENT_ANNOTATION;
@@ -66,5 +67,44 @@ public class WebServiceScannerTest {
         assertTrue(interfaze.isInterface());
     }
 
+    @Test public void
+    falls_back_to_classpath_scanning_without_index() throws BootStarterCxfException {
+        WebServiceScanner scanningWebServiceScanner = new WebServiceScanner(null);
+
+        assertEquals(WeatherService.class, scanningWebServiceScanner.scanForClassWithAnnotationAndIsAnInterface(SEI_ANNOTATION, GENERATED_CLASSES_PACKAGE));
+        assertEquals(WEATHER_SEI_IMPLEMENTING_CLASS, scanningWebServiceScanner.scanForClassWhichImplementsAndPickFirst(WEATHER_SERVICE_ENDPOINT_INTERFACE, "de.codecentric.cxf"));
+    }
+
+    private static boolean initializationTrapInitialized = false;
+
+    @WebService
+    static class InitializationTrap {
+        static {
+            initializationTrapInitialized = true;
+        }
+    }
+
+    @WebService
+    interface NestedServiceEndpointInterface {
+    }
 
+    @Test public void
+    answers_from_class_metadata_and_loads_only_the_chosen_class() throws BootStarterCxfException {
+        WebServiceScanner scanningWebServiceScanner = new WebServiceScanner(null);
+
+        Class sei = scanningWebServiceScanner.scanForClassWithAnnotationAndIsAnInterface(SEI_ANNOTATION, "de.codecentric.cxf.autodetection");
+
+        assertEquals(NestedServiceEndpointInterface.class, sei);
+        assertFalse(initializationTrapInitialized);
+    }
+
+    @Test public void
+    answers_with_classes_sorted_by_name_like_the_index_independent_of_the_classpath_order() throws BootStarterCxfException {
+        WebServiceScanner scanningWebServiceScanner = new WebServiceScanner(null);
+
+        List<String> classNames = scanningWebServiceScanner.scanForClassNamesWithAnnotation(SEI_ANNOTATION, "de.codecentric.cxf.autodetection");
+
+        assertTrue(classNames.size() > 1);
+        assertEquals(classNames.stream().sorted().collect(Collectors.toList()), classNames);
+    }
 }
@@ -0,0 +1,79 @@
+package de.codecentric.cxf.autodetection.index;
+
+import de.codecentric.cxf.TestServiceEndpoint;
+import de.codecentric.namespace.weatherservice.Weather;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static de.codecentric.cxf.autodetection.index.WebServiceIndex.SEI_STEREOTYPE;
+import static de.codecentric.cxf.autodetection.index.WebServiceIndex.WEB_SERVICE_CLIENT_STEREOTYPE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WebServiceIndexTest {
+
+    private static final String GENERATED_CLASSES_PACKAGE = "de.codecentric.namespace.weatherservice";
+
+    @Test public void
+    index_generated_while_compiling_the_tests_contains_sei_webserviceclient_and_implementation() {
+        WebServiceIndex webServiceIndex = WebServiceIndex.load(getClass().getClassLoader());
+
+        assertNotNull(webServiceIndex);
+        assertEquals(Collections.singletonList(WeatherService.class.getName()),
+                webServiceIndex.candidateTypes(GENERATED_CLASSES_PACKAGE, SEI_STEREOTYPE).get());
+        assertEquals(Collections.singletonList(Weather.class.getName()),
+                webServiceIndex.candidateTypes(GENERATED_CLASSES_PACKAGE, WEB_SERVICE_CLIENT_STEREOTYPE).get());
+        assertEquals(Collections.singletonList(TestServiceEndpoint.class.getName()),
+                webServiceIndex.candidateTypes("de.codecentric", WeatherService.class.getName()).get());
+    }
+
+    @Test public void
+    index_cant_answer_for_unknown_packages() {
+        WebServiceIndex webServiceIndex = WebServiceIndex.load(getClass().getClassLoader());
+
+        assertFalse(webServiceIndex.candidateTypes("de.codecentric.unknown", SEI_STEREOTYPE).isPresent());
+    }
+
+    @Test public void
+    stale_index_with_missing_classes_cant_answer() {
+        Map<String, Set<String>> stereotypesPerClass = new HashMap<>();
+        stereotypesPerClass.put(WeatherService.class.getName(), Collections.singleton(SEI_STEREOTYPE));
+        stereotypesPerClass.put(GENERATED_CLASSES_PACKAGE + ".DeletedService", Collections.singleton(SEI_STEREOTYPE));
+        WebServiceIndex webServiceIndex = new WebServiceIndex(stereotypesPerClass, Collections.emptyList(), getClass().getClassLoader());
+
+        assertFalse(webServiceIndex.candidateTypes(GENERATED_CLASSES_PACKAGE, SEI_STEREOTYPE).isPresent());
+    }
+
+    @Test public void
+    stale_index_not_knowing_a_newly_compiled_class_cant_answer(@TempDir Path classesRoot) throws IOException {
+        Path indexFile = classesRoot.resolve(WebServiceIndex.COMPONENTS_RESOURCE_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        Files.write(indexFile, Arrays.asList("com.example.service.IndexedService=" + SEI_STEREOTYPE, "com.example.service.Helper="));
+        Path packageDirectory = Files.createDirectories(classesRoot.resolve("com/example/service"));
+        Files.createFile(packageDirectory.resolve("IndexedService.class"));
+        Files.createFile(packageDirectory.resolve("Helper.class"));
+        Files.createFile(packageDirectory.resolve("Helper$Inner.class"));
+        Files.createFile(packageDirectory.resolve("package-info.class"));
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] {classesRoot.toUri().toURL()}, null)) {
+            assertEquals(Collections.singletonList("com.example.service.IndexedService"),
+                    WebServiceIndex.load(classLoader).candidateTypes("com.example", SEI_STEREOTYPE).get());
+
+            // e.g. compiled by an IDE without annotation processing
+            Files.createFile(Files.createDirectories(packageDirectory.resolve("added")).resolve("AddedService.class"));
+
+            assertFalse(WebServiceIndex.load(classLoader).candidateTypes("com.example", SEI_STEREOTYPE).isPresent());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test public void
+    aimd_increases_the_used_limit_by_one_and_backs_off_on_slow_or_dropped_requests() {
+        AimdLimit limit = new AimdLimit(10, 1, 100, 50, 0.5);
+
+        limit.onSample(FAST, 2, false);
+        assertEquals(10, limit.getLimit(), "not increased, while the limit isn´t used");
+        limit.onSample(FAST, 5, false);
+        assertEquals(11, limit.getLimit());
+
+        limit.onSample(SLOW, 11, false);
+        assertEquals(5, limit.getLimit());
+        limit.onSample(FAST, 5, true);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test public void
+    gradient_grows_while_the_latency_is_stable_and_shrinks_when_requests_get_slower() {
+        GradientLimit limit = new GradientLimit(20, 1, 1000, 100);
+
+        for (int sample = 0; sample < 50; sample++) {
+            limit.onSample(FAST, limit.getLimit(), false);
+        }
+        int grownLimit = limit.getLimit();
+        assertTrue(grownLimit > 20, "grown to " + grownLimit);
+
+        for (int sample = 0; sample < 10; sample++) {
+            limit.onSample(SLOW, limit.getLimit(), false);
+        }
+        assertTrue(limit.getLimit() < grownLimit, "shrunk to " + limit.getLimit());
+    }
+
+    @Test public void
+    limits_stay_between_min_and_max() {
+        GradientLimit limit = new GradientLimit(5, 2, 6, 100);
+
+        for (int sample = 0; sample < 50; sample++) {
+            limit.onSample(FAST, limit.getLimit(), false);
+        }
+        assertEquals(6, limit.getLimit());
+        for (int sample = 0; sample < 50; sample++) {
+            limit.onSample(FAST, limit.getLimit(), true);
+        }
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test public void
+    rejects_requests_beyond_the_limit_and_exports_limit_in_flight_and_rejections_as_meters() {
+        ConcurrencyLimits concurrencyLimits = new ConcurrencyLimits(() -> new AimdLimit(2, 1, 2, 1000, 0.9), 1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimits.bindTo(meterRegistry);
+        OperationLimiter limiter = concurrencyLimits.limiterOf("GetCityForecastByZIP");
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        assertEquals(2, meterRegistry.get("soap.concurrency.limit").tag("operation", "GetCityForecastByZIP").gauge().value());
+        assertEquals(2, meterRegistry.get("soap.concurrency.inflight").tag("operation", "GetCityForecastByZIP").gauge().value());
+        assertEquals(1, meterRegistry.get("soap.concurrency.rejected").tag("operation", "GetCityForecastByZIP").functionCounter().count());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+        assertSame(limiter, concurrencyLimits.limiterOf("GetCityForecastByZIP"));
+    }
+}
@@ -0,0 +1,83 @@
+package de.codecentric.cxf.concurrencylimit;
+
+import de.codecentric.cxf.TestApplication;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.concurrency.limit.enabled=true",
+                "soap.concurrency.limit.initial=1",
+                "soap.concurrency.limit.max=1",
+                "soap.concurrency.limit.retry.after.seconds=3"
+        }
+)
+public class ConcurrencyLimitSystemTest {
+
+    private static final String OPERATION = "GetCityForecastByZIP";
+
+    @Autowired
+    private ConcurrencyLimits concurrencyLimits;
+
+    @LocalServerPort
+    private int port;
+
+    @Value(value = "classpath:requests/GetCityForecastByZIPTest.xml")
+    private Resource getCityForecastByZIPTestXml;
+
+    @Test public void
+    rejects_requests_beyond_the_limit_with_503_retry_after_and_a_soap_fault() throws IOException {
+        OperationLimiter limiter = concurrencyLimits.limiterOf(OPERATION);
+        assertTrue(limiter.tryAcquire(), "occupies the only slot");
+        try {
+            HttpResponse rejected = post();
+
+            assertEquals(503, rejected.getStatusLine().getStatusCode());
+            assertEquals("3", rejected.getFirstHeader("Retry-After").getValue());
+            String fault = EntityUtils.toString(rejected.getEntity());
+            assertTrue(fault.contains("<faultstring>" + ConcurrencyLimitInterceptor.REJECTION_MESSAGE + "</faultstring>"), fault);
+            assertEquals(1, limiter.getRejected());
+        } finally {
+            limiter.release(0, false);
+        }
+    }
+
+    @Test public void
+    releases_admitted_requests_after_the_response() throws IOException, InterruptedException {
+        HttpResponse admitted = post();
+
+        assertEquals(200, admitted.getStatusLine().getStatusCode());
+        // The response is on its way before the end of the interceptor chain
+        OperationLimiter limiter = concurrencyLimits.limiterOf(OPERATION);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private HttpResponse post() throws IOException {
+        String request = StreamUtils.copyToString(getCityForecastByZIPTestXml.getInputStream(), StandardCharsets.UTF_8);
+        return Request.Post("http://localhost:" + port + "/soap-api/Weather")
+                .bodyString(request, ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute()
+                .returnResponse();
+    }
+}
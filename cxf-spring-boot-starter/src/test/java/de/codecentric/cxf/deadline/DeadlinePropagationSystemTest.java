@@ -0,0 +1,66 @@
+package de.codecentric.cxf.deadline;
+
+import de.codecentric.cxf.TestApplication;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.deadline.enabled=true"
+        }
+)
+public class DeadlinePropagationSystemTest {
+
+    @Autowired
+    private DeadlinePropagation deadlinePropagation;
+
+    @LocalServerPort
+    private int port;
+
+    @Value(value = "classpath:requests/GetCityForecastByZIPTest.xml")
+    private Resource getCityForecastByZIPTestXml;
+
+    @Test public void
+    drops_expired_requests_with_504_and_a_soap_fault() throws IOException {
+        long expiredBefore = deadlinePropagation.getExpiredBeforeUnmarshalling();
+
+        HttpResponse dropped = post("0");
+
+        assertEquals(504, dropped.getStatusLine().getStatusCode());
+        String fault = EntityUtils.toString(dropped.getEntity());
+        assertTrue(fault.contains("<faultstring>" + DeadlineInInterceptor.EXPIRED_MESSAGE + "</faultstring>"), fault);
+        assertEquals(expiredBefore + 1, deadlinePropagation.getExpiredBeforeUnmarshalling());
+    }
+
+    @Test public void
+    serves_requests_within_their_deadline() throws IOException {
+        HttpResponse served = post("60000");
+
+        assertEquals(200, served.getStatusLine().getStatusCode());
+    }
+
+    private HttpResponse post(String budgetMillis) throws IOException {
+        String request = StreamUtils.copyToString(getCityForecastByZIPTestXml.getInputStream(), StandardCharsets.UTF_8);
+        return Request.Post("http://localhost:" + port + "/soap-api/Weather")
+                .addHeader("X-Request-Timeout", budgetMillis)
+                .bodyString(request, ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute()
+                .returnResponse();
+    }
+}
@@ -0,0 +1,84 @@
+package de.codecentric.cxf.deadline;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlinePropagationTest {
+
+    @Test public void
+    takes_the_budget_of_the_request_but_at_most_the_default() {
+        DeadlinePropagation deadlinePropagation = new DeadlinePropagation("X-Request-Timeout", null, 5000);
+
+        assertBetween(1000, deadlinePropagation.deadlineOf(" 1000 "));
+        assertBetween(5000, deadlinePropagation.deadlineOf("60000"));
+        assertBetween(5000, deadlinePropagation.deadlineOf(null));
+        assertBetween(5000, deadlinePropagation.deadlineOf("soon"));
+        assertTrue(deadlinePropagation.deadlineOf("0").isExpired());
+    }
+
+    @Test public void
+    has_no_deadline_without_budget_and_default() {
+        DeadlinePropagation deadlinePropagation = new DeadlinePropagation("X-Request-Timeout", null, 0);
+
+        assertNull(deadlinePropagation.deadlineOf(null));
+        assertNull(deadlinePropagation.deadlineOf("soon"));
+        assertBetween(60000, deadlinePropagation.deadlineOf("60000"));
+    }
+
+    @Test public void
+    drops_expired_requests_before_the_invocation() {
+        DeadlinePropagation deadlinePropagation = new DeadlinePropagation("X-Request-Timeout", null, 0);
+        Message request = messageOf(new ExchangeImpl());
+        request.getExchange().put(Deadline.class, Deadline.after(-1));
+
+        Fault fault = assertThrows(Fault.class, () -> new DeadlineInvocationInterceptor(deadlinePropagation).handleMessage(request));
+
+        assertTrue(fault.getCause() instanceof TimeoutException);
+        assertEquals(1, deadlinePropagation.getExpiredBeforeInvocation());
+    }
+
+    @Test public void
+    limits_the_timeouts_of_outbound_calls_to_the_remaining_budget() {
+        DeadlinePropagation deadlinePropagation = new DeadlinePropagation("X-Request-Timeout", null, 0);
+        Message outbound = messageOf(new ExchangeImpl());
+        outbound.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+        outbound.put(Message.RECEIVE_TIMEOUT, 500L);
+
+        Deadline previous = Deadline.setCurrent(Deadline.after(2000));
+        try {
+            new DeadlineOutboundInterceptor(deadlinePropagation).handleMessage(outbound);
+        } finally {
+            Deadline.setCurrent(previous);
+        }
+
+        assertEquals(500L, outbound.get(Message.RECEIVE_TIMEOUT));
+        long connectionTimeout = (Long) outbound.get(Message.CONNECTION_TIMEOUT);
+        assertTrue(connectionTimeout > 1000 && connectionTimeout <= 2000, "connection timeout " + connectionTimeout);
+        Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) outbound.get(Message.PROTOCOL_HEADERS));
+        assertEquals(1, headers.get("x-request-timeout").size());
+    }
+
+    private static Message messageOf(Exchange exchange) {
+        Message message = new MessageImpl();
+        message.setExchange(exchange);
+        exchange.setInMessage(message);
+        return message;
+    }
+
+    private static void assertBetween(long budgetMillis, Deadline deadline) {
+        assertNotNull(deadline);
+        long remainingMillis = deadline.remainingMillis();
+        assertTrue(remainingMillis > budgetMillis - 1000 && remainingMillis <= budgetMillis, "remaining " + remainingMillis);
+    }
+}
@@ -0,0 +1,155 @@
+package de.codecentric.cxf.dispatch;
+
+import de.codecentric.cxf.TestServiceEndpoint;
+import de.codecentric.namespace.weatherservice.WeatherException;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import de.codecentric.namespace.weatherservice.general.ForecastRequest;
+import de.codecentric.namespace.weatherservice.general.ForecastReturn;
+import de.codecentric.namespace.weatherservice.general.WeatherInformationReturn;
+import de.codecentric.namespace.weatherservice.general.WeatherReturn;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.service.model.BindingInfo;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.service.model.InterfaceInfo;
+import org.apache.cxf.service.model.OperationInfo;
+import org.apache.cxf.service.model.ServiceInfo;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodHandleInvokerTest {
+
+    private static final String NAMESPACE = "http://www.codecentric.de/namespace/weatherservice/";
+
+    @Test public void
+    binds_every_operation_of_the_sei_by_its_qname() throws NoSuchMethodException {
+        OperationDispatchTable dispatchTable = new OperationDispatchTable(TestServiceEndpoint.class);
+
+        assertEquals(3, dispatchTable.size());
+        assertNotNull(dispatchTable.operationOf(new QName(NAMESPACE, "GetCityForecastByZIP"), getCityForecastByZIP()));
+        assertNull(dispatchTable.operationOf(new QName(NAMESPACE, "GetCityWeatherByZIP"), getCityForecastByZIP()),
+                "another method than the bound one is left to reflection");
+    }
+
+    @Test public void
+    invokes_the_operation_through_its_method_handle() throws Exception {
+        MethodHandleInvoker invoker = new MethodHandleInvoker(new TestServiceEndpoint(null));
+
+        Object forecast = invoker.performInvocation(exchangeOf("GetCityForecastByZIP"), new TestServiceEndpoint(null),
+                getCityForecastByZIP(), new Object[] {new ForecastRequest()});
+
+        assertEquals("Weimar", ((ForecastReturn) forecast).getCity());
+    }
+
+    @Test public void
+    invokes_the_operation_without_reflection_only_when_bound_to_a_handle() throws Exception {
+        StackRecordingWeatherService recording = new StackRecordingWeatherService();
+        MethodHandleInvoker invoker = new MethodHandleInvoker(recording);
+
+        invoker.performInvocation(exchangeOf("GetCityForecastByZIP"), recording, getCityForecastByZIP(), new Object[] {new ForecastRequest()});
+        assertFalse(invokedReflectively(recording.invocationStack), "dispatched through the OperationDispatchTable");
+
+        // Sanity check: the operation doesn´t match the method, so it´s left to reflection - and that´s noticed
+        invoker.performInvocation(exchangeOf("GetCityWeatherByZIP"), recording, getCityForecastByZIP(), new Object[] {new ForecastRequest()});
+        assertTrue(invokedReflectively(recording.invocationStack));
+    }
+
+    @Test public void
+    hands_thrown_exceptions_to_cxf_like_reflection() throws NoSuchMethodException {
+        FailingWeatherService failing = new FailingWeatherService();
+        MethodHandleInvoker invoker = new MethodHandleInvoker(failing);
+
+        InvocationTargetException thrown = assertThrows(InvocationTargetException.class, () -> invoker.performInvocation(
+                exchangeOf("GetCityForecastByZIP"), failing, getCityForecastByZIP(), new Object[] {new ForecastRequest()}));
+
+        assertTrue(thrown.getCause() instanceof WeatherException);
+    }
+
+    @Test public void
+    hands_runtime_exceptions_thrown_by_the_operation_to_cxf_like_reflection() throws NoSuchMethodException {
+        FailingWeatherService failing = new FailingWeatherService();
+        MethodHandleInvoker invoker = new MethodHandleInvoker(failing);
+
+        InvocationTargetException thrown = assertThrows(InvocationTargetException.class, () -> invoker.performInvocation(
+                exchangeOf("GetCityWeatherByZIP"), failing, getCityWeatherByZIP(), new Object[] {new ForecastRequest()}));
+
+        assertTrue(thrown.getCause() instanceof ClassCastException);
+    }
+
+    @Test public void
+    doesnt_hand_a_mismatch_of_the_handle_to_cxf_as_thrown_by_the_operation() throws NoSuchMethodException {
+        MethodHandleInvoker invoker = new MethodHandleInvoker(new TestServiceEndpoint(null));
+
+        assertThrows(ClassCastException.class, () -> invoker.performInvocation(exchangeOf("GetCityForecastByZIP"),
+                new TestServiceEndpoint(null), getCityForecastByZIP(), new Object[] {"not a ForecastRequest"}));
+    }
+
+    private static boolean invokedReflectively(StackTraceElement[] invocationStack) {
+        // Only the frames between the invoker and the SEI implementation - JUnit invokes the test reflectively as well
+        for (StackTraceElement frame : invocationStack) {
+            if (frame.getClassName().equals(MethodHandleInvoker.class.getName())) {
+                return false;
+            }
+            if (frame.getClassName().equals(Method.class.getName())) {
+                return true;
+            }
+        }
+        throw new IllegalStateException("Not invoked by the MethodHandleInvoker");
+    }
+
+    private static Method getCityWeatherByZIP() throws NoSuchMethodException {
+        return WeatherService.class.getMethod("getCityWeatherByZIP", ForecastRequest.class);
+    }
+
+    private static Method getCityForecastByZIP() throws NoSuchMethodException {
+        return WeatherService.class.getMethod("getCityForecastByZIP", ForecastRequest.class);
+    }
+
+    private static Exchange exchangeOf(String operationName) {
+        ServiceInfo service = new ServiceInfo();
+        InterfaceInfo sei = new InterfaceInfo(service, new QName(NAMESPACE, "WeatherService"));
+        OperationInfo operation = sei.addOperation(new QName(NAMESPACE, operationName));
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(BindingOperationInfo.class,
+                new BindingOperationInfo(new BindingInfo(service, "http://schemas.xmlsoap.org/wsdl/soap/"), operation));
+        return exchange;
+    }
+
+    private static class FailingWeatherService implements WeatherService {
+
+        @Override
+        public WeatherInformationReturn getWeatherInformation(String zip) throws WeatherException {
+            throw new WeatherException("no information", null);
+        }
+
+        @Override
+        public ForecastReturn getCityForecastByZIP(ForecastRequest forecastRequest) throws WeatherException {
+            throw new WeatherException("no forecast", null);
+        }
+
+        @Override
+        public WeatherReturn getCityWeatherByZIP(ForecastRequest forecastRequest) throws WeatherException {
+            throw new ClassCastException("no weather");
+        }
+    }
+
+    private static class StackRecordingWeatherService extends TestServiceEndpoint {
+
+        private StackTraceElement[] invocationStack;
+
+        private StackRecordingWeatherService() {
+            super(null);
+        }
+
+        @Override
+        public ForecastReturn getCityForecastByZIP(ForecastRequest forecastRequest) throws WeatherException {
+            invocationStack = new Throwable().getStackTrace();
+            return super.getCityForecastByZIP(forecastRequest);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package de.codecentric.cxf.flightrecorder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SoapExchangeFlightRecorderTest {
+
+    @Test public void
+    keeps_only_the_last_exchanges_newest_first() {
+        SoapExchangeFlightRecorder flightRecorder = new SoapExchangeFlightRecorder(3, 2, 10, 100);
+
+        for (int exchange = 1; exchange <= 5; exchange++) {
+            record(flightRecorder, "id" + exchange, "getCityForecastByZIP", "<request/>");
+        }
+
+        List<RecordedSoapExchange> recent = flightRecorder.recentExchanges();
+        assertEquals(3, recent.size());
+        assertEquals("id5", recent.get(0).getId());
+        assertEquals("id3", recent.get(2).getId());
+    }
+
+    @Test public void
+    truncates_payloads_to_the_configured_limit() {
+        SoapExchangeFlightRecorder flightRecorder = new SoapExchangeFlightRecorder(3, 2, 10, 5);
+
+        record(flightRecorder, "id1", "getCityForecastByZIP", "<GetCityForecastByZIP/>");
+
+        RecordedSoapExchange exchange = flightRecorder.recentExchanges().get(0);
+        assertEquals("<GetC...[truncated]", exchange.getInboundPayload());
+        assertEquals("200", exchange.getResponseCode());
+    }
+
+    @Test public void
+    keeps_the_slowest_exchanges_per_operation_slowest_first() throws InterruptedException {
+        SoapExchangeFlightRecorder flightRecorder = new SoapExchangeFlightRecorder(10, 2, 10, 100);
+
+        record(flightRecorder, "fast", "getCityForecastByZIP", "");
+        flightRecorder.recordInbound("slow", "getCityForecastByZIP", "");
+        Thread.sleep(20);
+        flightRecorder.recordOutbound("slow", "200", "");
+        flightRecorder.recordInbound("slower", "getCityForecastByZIP", "");
+        Thread.sleep(40);
+        flightRecorder.recordOutbound("slower", "200", "");
+        record(flightRecorder, "other", "getWeatherInformation", "");
+
+        Map<String, List<RecordedSoapExchange>> slowest = flightRecorder.slowestExchanges();
+        assertEquals(2, slowest.size());
+        assertEquals(2, slowest.get("getCityForecastByZIP").size());
+        assertEquals("slower", slowest.get("getCityForecastByZIP").get(0).getId());
+        assertEquals("slow", slowest.get("getCityForecastByZIP").get(1).getId());
+        assertEquals("other", slowest.get("getWeatherInformation").get(0).getId());
+    }
+
+    @Test public void
+    drops_exchanges_of_operations_beyond_the_configured_maximum() {
+        SoapExchangeFlightRecorder flightRecorder = new SoapExchangeFlightRecorder(10, 2, 1, 100);
+
+        record(flightRecorder, "id1", "getCityForecastByZIP", "");
+        record(flightRecorder, "id2", "someForgedSoapAction", "");
+
+        assertEquals(1, flightRecorder.slowestExchanges().size());
+        assertEquals(2, flightRecorder.recentExchanges().size());
+        assertEquals(1, flightRecorder.droppedExchanges());
+    }
+
+    @Test public void
+    ignores_outbound_messages_without_inbound_counterpart() {
+        SoapExchangeFlightRecorder flightRecorder = new SoapExchangeFlightRecorder(10, 2, 10, 100);
+
+        flightRecorder.recordOutbound("unknown", "500", "<soap:Fault/>");
+
+        assertTrue(flightRecorder.recentExchanges().isEmpty());
+    }
+
+    private static void record(SoapExchangeFlightRecorder flightRecorder, String id, String operation, String payload) {
+        flightRecorder.recordInbound(id, operation, payload);
+        flightRecorder.recordOutbound(id, "200", payload);
+    }
+}
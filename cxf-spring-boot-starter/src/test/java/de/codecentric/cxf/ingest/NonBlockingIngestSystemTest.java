@@ -0,0 +1,233 @@
+package de.codecentric.cxf.ingest;
+
+import de.codecentric.cxf.TestApplication;
+import de.codecentric.cxf.accounting.ConsumerUsage;
+import de.codecentric.cxf.accounting.ConsumerUsageAccounting;
+import de.codecentric.cxf.resourceaccounting.ResourceUsage;
+import de.codecentric.cxf.resourceaccounting.SampledResourceAccounting;
+import de.codecentric.cxf.saturation.SaturationMonitor;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.ingest.nonblocking.enabled=true",
+                "soap.ingest.max.bytes=65536",
+                "soap.consumer.accounting.enabled=true",
+                "soap.resource.accounting.enabled=true",
+                "soap.resource.accounting.sample.rate=1.0",
+                "soap.saturation.enabled=true"
+        }
+)
+public class NonBlockingIngestSystemTest {
+
+    @Autowired
+    private NonBlockingIngest nonBlockingIngest;
+
+    @Autowired
+    private ConsumerUsageAccounting consumerUsageAccounting;
+
+    @Autowired
+    private SampledResourceAccounting sampledResourceAccounting;
+
+    @Autowired
+    private SaturationMonitor saturationMonitor;
+
+    @LocalServerPort
+    private int port;
+
+    @Value(value = "classpath:requests/GetCityForecastByZIPTest.xml")
+    private Resource getCityForecastByZIPTestXml;
+
+    @Value(value = "classpath:requests/xmlErrorXMLTagNotClosedInsideBodyTest.xml")
+    private Resource xmlTagNotClosedXml;
+
+    @Test public void
+    invokes_the_endpoint_with_the_complete_envelope() throws IOException {
+        HttpResponse response = post(read(getCityForecastByZIPTestXml));
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(response.getEntity()).contains("Weimar"));
+    }
+
+    @Test public void
+    holds_no_thread_while_the_envelope_trickles_in() throws IOException, InterruptedException {
+        byte[] envelope = read(getCityForecastByZIPTestXml).getBytes(StandardCharsets.UTF_8);
+        long dispatchedBefore = nonBlockingIngest.getDispatched();
+
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream output = socket.getOutputStream();
+            output.write(("POST /soap-api/Weather HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n"
+                    + "Content-Type: text/xml; charset=UTF-8\r\nContent-Length: " + envelope.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.write(envelope, 0, envelope.length / 2);
+            output.flush();
+            awaitArriving(1);
+            assertEquals(dispatchedBefore, nonBlockingIngest.getDispatched(), "not dispatched before the envelope is complete");
+
+            output.write(envelope, envelope.length / 2, envelope.length - envelope.length / 2);
+            output.flush();
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+
+            assertEquals("HTTP/1.1 200 ", statusLine);
+            assertEquals(dispatchedBefore + 1, nonBlockingIngest.getDispatched());
+        }
+    }
+
+    @Test public void
+    collects_the_complete_body_if_the_parser_cant_follow_it() throws IOException, InterruptedException {
+        // Aalto´s non-blocking parser doesn´t support UTF-16
+        byte[] envelope = read(getCityForecastByZIPTestXml).replace("encoding=\"UTF-8\"", "encoding=\"UTF-16\"")
+                .getBytes(StandardCharsets.UTF_16);
+        long dispatchedBefore = nonBlockingIngest.getDispatched();
+
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream output = socket.getOutputStream();
+            output.write(("POST /soap-api/Weather HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n"
+                    + "Content-Type: text/xml; charset=UTF-16\r\nContent-Length: " + envelope.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.write(envelope, 0, envelope.length / 2);
+            output.flush();
+            awaitArriving(1);
+            Thread.sleep(200);
+            assertEquals(dispatchedBefore, nonBlockingIngest.getDispatched(), "not dispatched before the body is complete");
+
+            output.write(envelope, envelope.length / 2, envelope.length - envelope.length / 2);
+            output.flush();
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+
+            assertEquals("HTTP/1.1 200 ", statusLine);
+            assertEquals(dispatchedBefore + 1, nonBlockingIngest.getDispatched());
+        }
+    }
+
+    @Test public void
+    leaves_multipart_bodies_to_cxf() throws IOException {
+        String body = "--part-boundary\r\n"
+                + "Content-Type: text/xml; charset=UTF-8\r\n"
+                + "Content-ID: <root.message@cxf.apache.org>\r\n\r\n"
+                + read(getCityForecastByZIPTestXml) + "\r\n"
+                + "--part-boundary--\r\n";
+        long dispatchedBefore = nonBlockingIngest.getDispatched();
+
+        HttpResponse response = Request.Post("http://localhost:" + port + "/soap-api/Weather")
+                .addHeader("Content-Type", "multipart/related; type=\"text/xml\"; boundary=\"part-boundary\"; start=\"<root.message@cxf.apache.org>\"")
+                .bodyByteArray(body.getBytes(StandardCharsets.UTF_8))
+                .execute().returnResponse();
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(response.getEntity()).contains("Weimar"));
+        assertEquals(dispatchedBefore, nonBlockingIngest.getDispatched(), "not ingested");
+    }
+
+    @Test public void
+    accounts_and_measures_the_whole_exchange_incl_the_ingest() throws IOException, InterruptedException {
+        byte[] envelope = read(getCityForecastByZIPTestXml).getBytes(StandardCharsets.UTF_8);
+        ConsumerUsage usage = consumerUsageAccounting.usage("trickling-consumer");
+        assertNull(usage);
+        long samplesBefore = resourceUsage(ResourceUsage::getSamples);
+        long allocatedBytesBefore = resourceUsage(ResourceUsage::getAllocatedBytes);
+
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream output = socket.getOutputStream();
+            output.write(("POST /soap-api/Weather HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\nX-Consumer-Id: trickling-consumer\r\n"
+                    + "Content-Type: text/xml; charset=UTF-8\r\nContent-Length: " + envelope.length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            output.write(envelope, 0, envelope.length / 2);
+            output.flush();
+            awaitArriving(1);
+            Thread.sleep(200);
+            assertEquals(1, saturationMonitor.inFlight(), "in flight while the envelope trickles in");
+
+            output.write(envelope, envelope.length / 2, envelope.length - envelope.length / 2);
+            output.flush();
+            String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+            assertEquals("HTTP/1.1 200 ", statusLine);
+        }
+        // The exchange completes right after the response was written
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (((usage = consumerUsageAccounting.usage("trickling-consumer")) == null || usage.getRequests() == 0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertNotNull(usage);
+        assertEquals(1, usage.getRequests());
+        assertEquals(envelope.length, usage.getBytesIn(), "the ingest reads through the counting request");
+        assertTrue(usage.getBytesOut() > 0, "CXF writes through the counting response");
+        assertTrue(usage.getLatencySumMillis() >= 200, "latency includes the ingest");
+        assertEquals(samplesBefore + 1, resourceUsage(ResourceUsage::getSamples));
+        assertTrue(resourceUsage(ResourceUsage::getAllocatedBytes) > allocatedBytesBefore, "includes the dispatch with the envelope");
+        assertEquals(0, saturationMonitor.inFlight());
+    }
+
+    @Test public void
+    hands_malformed_envelopes_to_cxf_for_its_soap_fault() throws IOException {
+        HttpResponse response = post(read(xmlTagNotClosedXml));
+
+        assertEquals(500, response.getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(response.getEntity()).contains("Fault>"));
+    }
+
+    @Test public void
+    rejects_envelopes_beyond_the_maximum_size_with_413() throws IOException {
+        StringBuilder padding = new StringBuilder();
+        while (padding.length() < 70000) {
+            padding.append("<!-- padding -->");
+        }
+        long tooLargeBefore = nonBlockingIngest.getTooLarge();
+
+        HttpResponse response = post(read(getCityForecastByZIPTestXml) + padding);
+
+        assertEquals(413, response.getStatusLine().getStatusCode());
+        assertEquals(tooLargeBefore + 1, nonBlockingIngest.getTooLarge());
+    }
+
+    private long resourceUsage(ToLongFunction<ResourceUsage> measure) {
+        return sampledResourceAccounting.usage().values().stream()
+                .flatMap(byOutcome -> byOutcome.values().stream())
+                .mapToLong(measure)
+                .sum();
+    }
+
+    private void awaitArriving(long arriving) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (nonBlockingIngest.getArriving() < arriving && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(arriving, nonBlockingIngest.getArriving());
+    }
+
+    private static String read(Resource xml) throws IOException {
+        return StreamUtils.copyToString(xml.getInputStream(), StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse post(String request) throws IOException {
+        return Request.Post("http://localhost:" + port + "/soap-api/Weather")
+                .bodyString(request, ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute()
+                .returnResponse();
+    }
+}
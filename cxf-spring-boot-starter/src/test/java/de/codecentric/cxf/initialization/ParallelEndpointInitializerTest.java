@@ -0,0 +1,53 @@
+package de.codecentric.cxf.initialization;
+
+import de.codecentric.cxf.common.BootStarterCxfException;
+import de.codecentric.namespace.weatherservice.Weather;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.wsdl.WSDLManager;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelEndpointInitializerTest {
+
+    @Test public void
+    fails_the_startup_if_the_preparation_fails() throws IOException {
+        ParallelEndpointInitializer parallelEndpointInitializer = new ParallelEndpointInitializer(2);
+        // Neither the cxf-spring-boot-maven.properties nor the SEI are visible to the preparation
+        try (URLClassLoader emptyClassLoader = new URLClassLoader(new URL[0], null)) {
+            parallelEndpointInitializer.start(emptyClassLoader);
+            Bus bus = BusFactory.newInstance().createBus();
+
+            assertThrows(BootStarterCxfException.class, () -> parallelEndpointInitializer.awaitAndApplyTo(bus));
+
+            parallelEndpointInitializer.shutdown();
+            bus.shutdown(true);
+        }
+    }
+
+    @Test public void
+    hands_the_model_prepared_in_parallel_over_to_the_bus_of_the_endpoints() throws BootStarterCxfException {
+        ParallelEndpointInitializer parallelEndpointInitializer = new ParallelEndpointInitializer(2);
+        parallelEndpointInitializer.start(getClass().getClassLoader());
+        Bus bus = BusFactory.newInstance().createBus();
+
+        parallelEndpointInitializer.awaitAndApplyTo(bus);
+
+        assertEquals(1, parallelEndpointInitializer.preparedEndpoints().size());
+        PreparedEndpoint preparedEndpoint = parallelEndpointInitializer.preparedEndpoints().get(0);
+        assertEquals(Weather.class.getResource("/wsdl/Weather1.0.wsdl").toString(), preparedEndpoint.getWsdlLocation());
+        WSDLManager wsdlManager = bus.getExtension(WSDLManager.class);
+        assertSame(preparedEndpoint.getDefinition(), wsdlManager.getDefinitions().get(preparedEndpoint.getWsdlLocation()));
+        assertSame(preparedEndpoint.getSchemas(), wsdlManager.getSchemasForDefinition(preparedEndpoint.getDefinition()));
+        assertNotNull(preparedEndpoint.getService().getDataBinding());
+
+        parallelEndpointInitializer.shutdown();
+        assertTrue(parallelEndpointInitializer.preparedEndpoints().isEmpty());
+        bus.shutdown(true);
+    }
+}
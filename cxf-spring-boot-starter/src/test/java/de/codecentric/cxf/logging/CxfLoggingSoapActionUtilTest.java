@@ -18,4 +18,11 @@ public class CxfLoggingSoapActionUtilTest {
         // Then
         assertEquals("getWeatherInformation", methodNameExtracted);
     }
+
+    @Test
+    public void extractSoapMethodFromPlainSoapActionCorrectly() {
+        assertEquals("getWeatherInformation", CxfLoggingSoapActionUtil.extractSoapMethodNameFromSoapAction("\"urn:getWeatherInformation\""));
+        assertEquals("GetCityForecastByZIP", CxfLoggingSoapActionUtil.extractSoapMethodNameFromSoapAction("http://www.codecentric.de/namespace/weatherservice/GetCityForecastByZIP"));
+        assertEquals("", CxfLoggingSoapActionUtil.extractSoapMethodNameFromSoapAction(null));
+    }
 }
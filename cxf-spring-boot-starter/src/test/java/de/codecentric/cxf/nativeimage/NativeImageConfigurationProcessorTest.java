@@ -0,0 +1,52 @@
+package de.codecentric.cxf.nativeimage;
+
+import de.codecentric.cxf.TestServiceEndpoint;
+import de.codecentric.namespace.weatherservice.Weather;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import de.codecentric.namespace.weatherservice.general.ForecastRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static de.codecentric.cxf.nativeimage.NativeImageConfigurationProcessor.REFLECT_CONFIG_LOCATION;
+import static de.codecentric.cxf.nativeimage.NativeImageConfigurationProcessor.RESOURCE_CONFIG_LOCATION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NativeImageConfigurationProcessorTest {
+
+    @Test public void
+    reflect_config_generated_while_compiling_the_tests_contains_web_service_and_jaxb_classes() throws IOException {
+        String reflectConfig = read(REFLECT_CONFIG_LOCATION);
+
+        assertThat(reflectConfig, containsString("{\"name\":\"" + WeatherService.class.getName() + "\""));
+        assertThat(reflectConfig, containsString("{\"name\":\"" + Weather.class.getName() + "\""));
+        assertThat(reflectConfig, containsString("{\"name\":\"" + TestServiceEndpoint.class.getName() + "\""));
+        assertThat(reflectConfig, containsString("{\"name\":\"" + ForecastRequest.class.getName() + "\""));
+        assertThat(reflectConfig, containsString("{\"name\":\"" + ForecastRequest.class.getPackage().getName() + ".package-info\""));
+    }
+
+    @Test public void
+    resource_config_generated_while_compiling_the_tests_contains_the_wsdl_directory() throws IOException {
+        assertThat(read(RESOURCE_CONFIG_LOCATION), containsString("{\"pattern\":\"\\\\Qwsdl/\\\\E.*\\\\.(wsdl|xsd)\"}"));
+    }
+
+    @Test public void
+    only_classpath_wsdl_locations_are_included_as_resources() {
+        assertEquals("\\\\Qwsdl/\\\\E.*\\\\.(wsdl|xsd)", NativeImageConfigurationProcessor.wsdlDirectoryPattern("classpath:wsdl/Weather1.0.wsdl"));
+        assertEquals(".*\\\\.(wsdl|xsd)", NativeImageConfigurationProcessor.wsdlDirectoryPattern("/Weather1.0.wsdl"));
+        assertNull(NativeImageConfigurationProcessor.wsdlDirectoryPattern("http://localhost:8080/soap-api/Weather?wsdl"));
+        assertNull(NativeImageConfigurationProcessor.wsdlDirectoryPattern("file:/tmp/Weather1.0.wsdl"));
+    }
+
+    private String read(String location) throws IOException {
+        try (InputStream configuration = getClass().getClassLoader().getResourceAsStream(location)) {
+            assertNotNull(configuration, location + " wasn´t generated");
+            return StreamUtils.copyToString(configuration, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.codecentric.cxf.pooling;
+
+import org.apache.cxf.interceptor.Fault;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SeiInstancePoolTest {
+
+    @Test public void
+    lends_every_instance_to_one_invocation_at_a_time() throws Throwable {
+        Object first = new Object();
+        Object second = new Object();
+        SeiInstancePool pool = new SeiInstancePool(Object.class, Arrays.asList(first, second), 1000);
+
+        Object borrowed = pool.create(null);
+        Object borrowedToo = pool.create(null);
+
+        assertNotSame(borrowed, borrowedToo);
+        assertEquals(0, pool.getAvailable());
+        pool.release(null, borrowed);
+        assertSame(borrowed, pool.create(null));
+        assertEquals(0, pool.getWaits());
+    }
+
+    @Test public void
+    waits_for_a_released_instance() throws Throwable {
+        Object instance = new Object();
+        SeiInstancePool pool = new SeiInstancePool(Object.class, Arrays.asList(instance), 5000);
+        Object borrowed = pool.create(null);
+
+        Thread releasing = new Thread(() -> {
+            sleep(50);
+            pool.release(null, borrowed);
+        });
+        releasing.start();
+
+        assertSame(instance, pool.create(null));
+        assertEquals(1, pool.getWaits());
+        assertTrue(pool.getWaitSeconds() > 0);
+        releasing.join();
+    }
+
+    @Test public void
+    ends_the_invocation_with_a_fault_if_no_instance_is_released_in_time() throws Throwable {
+        SeiInstancePool pool = new SeiInstancePool(Object.class, Arrays.asList(new Object()), 10);
+        pool.create(null);
+
+        Fault fault = assertThrows(Fault.class, () -> pool.create(null));
+
+        assertTrue(fault.getCause() instanceof TimeoutException);
+        assertEquals(1, pool.getTimeouts());
+        assertEquals(0, pool.getAvailable());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package de.codecentric.cxf.pooling;
+
+import de.codecentric.cxf.TestApplication;
+import de.codecentric.cxf.TestServiceEndpoint;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.sei.pool.enabled=true",
+                "soap.sei.pool.size=3"
+        }
+)
+public class SeiInstancePoolingSystemTest {
+
+    @Autowired
+    private SeiInstancePooling seiInstancePooling;
+
+    @LocalServerPort
+    private int port;
+
+    @Value(value = "classpath:requests/GetCityForecastByZIPTest.xml")
+    private Resource getCityForecastByZIPTestXml;
+
+    @Test public void
+    serves_the_requests_with_pooled_instances_created_through_spring() throws Throwable {
+        SeiInstancePool pool = seiInstancePooling.pools().get(0);
+        assertEquals(TestServiceEndpoint.class, pool.getImplementorClass());
+        assertEquals(3, pool.getSize());
+
+        for (int request = 0; request < 5; request++) {
+            assertEquals(200, post().getStatusLine().getStatusCode());
+        }
+
+        assertEquals(3, pool.getAvailable(), "every instance is back in the pool");
+        TestServiceEndpoint pooled = (TestServiceEndpoint) pool.create(null);
+        try {
+            assertNotNull(pooled.getInjectedBean(), "autowired by Spring");
+        } finally {
+            pool.release(null, pooled);
+        }
+    }
+
+    private HttpResponse post() throws IOException {
+        String request = StreamUtils.copyToString(getCityForecastByZIPTestXml.getInputStream(), StandardCharsets.UTF_8);
+        return Request.Post("http://localhost:" + port + "/soap-api/Weather")
+                .bodyString(request, ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute()
+                .returnResponse();
+    }
+}
@@ -0,0 +1,84 @@
+package de.codecentric.cxf.publication;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyEndpointPublisherTest {
+
+    @Test public void
+    concurrent_first_requests_block_on_a_single_publication() throws Exception {
+        LazyEndpointPublisher publisher = new LazyEndpointPublisher();
+        AtomicInteger publications = new AtomicInteger();
+        CountDownLatch publicationStarted = new CountDownLatch(1);
+        CountDownLatch finishPublication = new CountDownLatch(1);
+        publisher.register("/Weather", () -> {
+            publications.incrementAndGet();
+            publicationStarted.countDown();
+            await(finishPublication);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(publisher::publish);
+            assertTrue(publicationStarted.await(5, TimeUnit.SECONDS));
+            Future<?> second = executor.submit(publisher::publish);
+
+            assertThrows(TimeoutException.class, () -> second.get(100, TimeUnit.MILLISECONDS));
+            assertFalse(publisher.isPublished());
+
+            finishPublication.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        publisher.publish();
+
+        assertTrue(publisher.isPublished());
+        assertEquals(1, publications.get());
+    }
+
+    @Test public void
+    publishes_endpoints_registered_after_the_publication_right_away() {
+        LazyEndpointPublisher publisher = new LazyEndpointPublisher();
+        publisher.publish();
+        AtomicInteger publications = new AtomicInteger();
+
+        publisher.register("/Weather", publications::incrementAndGet);
+
+        assertEquals(1, publications.get());
+    }
+
+    @Test public void
+    rethrows_a_failed_publication_to_every_caller() {
+        LazyEndpointPublisher publisher = new LazyEndpointPublisher();
+        AtomicInteger publications = new AtomicInteger();
+        publisher.register("/Weather", () -> {
+            publications.incrementAndGet();
+            throw new IllegalStateException("WSDL not found");
+        });
+
+        IllegalStateException first = assertThrows(IllegalStateException.class, publisher::publish);
+        IllegalStateException second = assertThrows(IllegalStateException.class, publisher::publish);
+
+        assertSame(first, second);
+        assertEquals(1, publications.get());
+        assertFalse(publisher.isPublished());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
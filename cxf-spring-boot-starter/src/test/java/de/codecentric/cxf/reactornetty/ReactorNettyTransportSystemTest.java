@@ -0,0 +1,118 @@
+package de.codecentric.cxf.reactornetty;
+
+import de.codecentric.cxf.TestApplication;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+import org.apache.http.entity.ContentType;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.transport=reactor-netty",
+                "soap.transport.netty.host=localhost",
+                "soap.transport.netty.port=0",
+                "soap.transport.netty.max.body.bytes=2048"
+        }
+)
+public class ReactorNettyTransportSystemTest {
+
+    @Autowired
+    private ReactorNettyTransport reactorNettyTransport;
+
+    @Value(value = "classpath:requests/GetCityForecastByZIPTest.xml")
+    private Resource getCityForecastByZIPTestXml;
+
+    @Value(value = "classpath:requests/xmlErrorNotXmlSchemeCompliantRootElementTest.xml")
+    private Resource notSchemeCompliantXml;
+
+    @Test public void
+    serves_the_endpoint_on_reactor_netty() throws IOException {
+        HttpResponse response = post(getCityForecastByZIPTestXml);
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        String forecast = EntityUtils.toString(response.getEntity());
+        assertTrue(forecast.contains("Weimar"), forecast);
+        assertTrue(response.getFirstHeader("Content-Type").getValue().startsWith("text/xml"));
+    }
+
+    @Test public void
+    answers_faults_with_500() throws IOException {
+        HttpResponse response = post(notSchemeCompliantXml);
+
+        assertEquals(500, response.getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(response.getEntity()).contains("Fault>"));
+    }
+
+    @Test public void
+    refuses_bodies_larger_than_the_maximum_with_413() throws IOException {
+        HttpResponse response = Request.Post(url())
+                .bodyByteArray(new byte[4096], ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute().returnResponse();
+
+        assertEquals(413, response.getStatusLine().getStatusCode());
+    }
+
+    @Test public void
+    refuses_chunked_bodies_larger_than_the_maximum_with_413() throws IOException {
+        // Without a Content-Length, the body is only measured while it arrives
+        HttpResponse response = Request.Post(url())
+                .bodyStream(new ByteArrayInputStream(new byte[4096]), ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute().returnResponse();
+
+        assertEquals(413, response.getStatusLine().getStatusCode());
+    }
+
+    @Test public void
+    answers_requests_failing_outside_of_cxf_with_a_500_soap_fault() throws IOException {
+        String request = StreamUtils.copyToString(getCityForecastByZIPTestXml.getInputStream(), StandardCharsets.UTF_8);
+        HttpResponse response = Request.Post(url())
+                .addHeader("Content-Type", "text/xml; charset=x-unknown")
+                .bodyByteArray(request.getBytes(StandardCharsets.UTF_8))
+                .execute().returnResponse();
+
+        assertEquals(500, response.getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(response.getEntity()).contains("<faultstring>Request could not be processed</faultstring>"));
+    }
+
+    @Test public void
+    serves_the_wsdl() throws IOException {
+        HttpResponse response = Request.Get(url() + "?wsdl").execute().returnResponse();
+
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(response.getEntity()).contains("wsdl:definitions"));
+    }
+
+    @Test public void
+    answers_unknown_paths_with_404() throws IOException {
+        HttpResponse response = Request.Get("http://localhost:" + reactorNettyTransport.port() + "/soap-api/Unknown")
+                .execute().returnResponse();
+
+        assertEquals(404, response.getStatusLine().getStatusCode());
+    }
+
+    private HttpResponse post(Resource xml) throws IOException {
+        String request = StreamUtils.copyToString(xml.getInputStream(), StandardCharsets.UTF_8);
+        return Request.Post(url())
+                .bodyString(request, ContentType.create("text/xml", StandardCharsets.UTF_8))
+                .execute()
+                .returnResponse();
+    }
+
+    private String url() {
+        return "http://localhost:" + reactorNettyTransport.port() + "/soap-api/Weather";
+    }
+}
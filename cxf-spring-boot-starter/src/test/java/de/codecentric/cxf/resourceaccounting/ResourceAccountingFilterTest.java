@@ -0,0 +1,44 @@
+package de.codecentric.cxf.resourceaccounting;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+import static de.codecentric.cxf.resourceaccounting.ResourceAccountingFilter.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourceAccountingFilterTest {
+
+    @AfterEach public void
+    clearMdc() {
+        MDC.clear();
+    }
+
+    @Test public void
+    puts_the_resource_usage_into_the_mdc_for_the_logging_of_the_exchange() throws IOException, ServletException {
+        ResourceAccountingFilter filter = new ResourceAccountingFilter(new SampledResourceAccounting(1, 10));
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/soap-api/Weather"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(MDC.get(MDC_KEY_CPU_TIME), "still there for the call time logged after the filter");
+        assertNotNull(MDC.get(MDC_KEY_ALLOCATED_BYTES));
+    }
+
+    @Test public void
+    doesnt_log_the_resource_usage_of_a_previous_exchange_with_an_unsampled_one() throws IOException, ServletException {
+        MDC.put(MDC_KEY_CPU_TIME, "4711");
+        MDC.put(MDC_KEY_ALLOCATED_BYTES, "4711");
+        ResourceAccountingFilter filter = new ResourceAccountingFilter(new SampledResourceAccounting(0, 10));
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/soap-api/Weather"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(MDC.get(MDC_KEY_CPU_TIME));
+        assertNull(MDC.get(MDC_KEY_ALLOCATED_BYTES));
+    }
+}
@@ -0,0 +1,70 @@
+package de.codecentric.cxf.resourceaccounting;
+
+import de.codecentric.cxf.common.FaultType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.codecentric.cxf.resourceaccounting.SampledResourceAccounting.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class SampledResourceAccountingTest {
+
+    @Test public void
+    accounts_cpu_time_and_allocations_per_operation_and_outcome() {
+        SampledResourceAccounting accounting = new SampledResourceAccounting(1, 10);
+
+        accounting.record("GetCityForecastByZIP", null, false, TimeUnit.MILLISECONDS.toNanos(3), 1000);
+        accounting.record("GetCityForecastByZIP", null, false, TimeUnit.MILLISECONDS.toNanos(4), 500);
+        accounting.record("GetCityForecastByZIP", FaultType.SCHEME_VALIDATION_ERROR, true, TimeUnit.MILLISECONDS.toNanos(1), 100);
+        accounting.record("GetCityForecastByZIP", null, true, 0, ThreadResourceMeter.NOT_SUPPORTED);
+
+        ResourceUsage usage = accounting.usage("GetCityForecastByZIP", NO_FAULT);
+        assertEquals(2, usage.getSamples());
+        assertEquals(7, usage.getCpuTimeMillis());
+        assertEquals(1500, usage.getAllocatedBytes());
+        assertEquals(1, accounting.usage("GetCityForecastByZIP", FaultType.SCHEME_VALIDATION_ERROR.name()).getSamples());
+        assertEquals(0, accounting.usage("GetCityForecastByZIP", UNCLASSIFIED_ERROR).getAllocatedBytes());
+    }
+
+    @Test public void
+    accounts_operations_beyond_the_bound_as_other() {
+        SampledResourceAccounting accounting = new SampledResourceAccounting(1, 1);
+
+        accounting.record("GetCityForecastByZIP", null, false, 1, 1);
+        accounting.record("GetWeatherInformation", null, false, 1, 1);
+        accounting.record("", null, false, 1, 1);
+
+        assertNull(accounting.usage("GetWeatherInformation", NO_FAULT));
+        assertEquals(2, accounting.usage(OTHER_OPERATIONS, NO_FAULT).getSamples());
+        assertEquals(2, accounting.usage().size());
+    }
+
+    @Test public void
+    exports_usage_as_micrometer_meters() {
+        SampledResourceAccounting accounting = new SampledResourceAccounting(1, 10);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        accounting.record("GetCityForecastByZIP", null, false, TimeUnit.MILLISECONDS.toNanos(3), 1000);
+        accounting.bindTo(meterRegistry);
+
+        accounting.record("GetWeatherInformation", FaultType.BACKEND_PROCESSING_FAILED, true, TimeUnit.MILLISECONDS.toNanos(2), 200);
+
+        assertEquals(3, meterRegistry.get("soap.operation.cpu").tag("operation", "GetCityForecastByZIP").tag("faultType", NO_FAULT)
+                .functionTimer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(200, meterRegistry.get("soap.operation.allocated").tag("operation", "GetWeatherInformation")
+                .tag("faultType", FaultType.BACKEND_PROCESSING_FAILED.name()).functionCounter().count());
+    }
+
+    @Test public void
+    measures_the_allocations_of_the_current_thread() {
+        ThreadResourceMeter threadResourceMeter = new ThreadResourceMeter();
+        long startAllocatedBytes = threadResourceMeter.allocatedBytes();
+        assumeTrue(startAllocatedBytes != ThreadResourceMeter.NOT_SUPPORTED);
+
+        byte[] allocation = new byte[1024 * 1024];
+
+        assertTrue(threadResourceMeter.allocatedBytes() - startAllocatedBytes >= allocation.length);
+    }
+}
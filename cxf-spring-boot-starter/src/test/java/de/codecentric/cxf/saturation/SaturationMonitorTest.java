@@ -0,0 +1,103 @@
+package de.codecentric.cxf.saturation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaturationMonitorTest {
+
+    private final List<Object> readinessStates = new ArrayList<>();
+
+    private SaturationMonitor saturationMonitor(int maxInFlight, long maxP99LatencyMillis, int maxQueueDepth) {
+        return saturationMonitor(maxInFlight, maxP99LatencyMillis, maxQueueDepth, 60_000);
+    }
+
+    private SaturationMonitor saturationMonitor(int maxInFlight, long maxP99LatencyMillis, int maxQueueDepth, long latencyMaxAgeMillis) {
+        return new SaturationMonitor(event -> readinessStates.add(((AvailabilityChangeEvent<?>) event).getState()),
+                maxInFlight, maxP99LatencyMillis, maxQueueDepth, 0.5, 100, latencyMaxAgeMillis, 1000);
+    }
+
+    @Test public void
+    refuses_traffic_if_in_flight_exchanges_reach_the_threshold_and_accepts_again_below_the_recovery_ratio() {
+        SaturationMonitor monitor = saturationMonitor(4, 0, 0);
+
+        for (int exchange = 0; exchange < 4; exchange++) {
+            monitor.exchangeStarted();
+        }
+        monitor.evaluate();
+        assertTrue(monitor.saturated());
+        assertEquals(1.0, monitor.loadFactor());
+
+        monitor.exchangeFinished(1);
+        monitor.evaluate();
+        monitor.exchangeFinished(1);
+        monitor.evaluate();
+        assertTrue(monitor.saturated(), "still saturated above the recovery ratio");
+
+        monitor.exchangeFinished(1);
+        monitor.evaluate();
+        assertFalse(monitor.saturated());
+        assertEquals(2, readinessStates.size());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, readinessStates.get(0));
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, readinessStates.get(1));
+    }
+
+    @Test public void
+    refuses_traffic_if_the_p99_latency_of_recent_exchanges_crosses_the_threshold() {
+        SaturationMonitor monitor = saturationMonitor(0, 100, 0);
+
+        for (int exchange = 0; exchange < 99; exchange++) {
+            monitor.exchangeStarted();
+            monitor.exchangeFinished(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        monitor.exchangeStarted();
+        monitor.exchangeFinished(TimeUnit.MILLISECONDS.toNanos(200));
+        monitor.evaluate();
+        assertFalse(monitor.saturated());
+
+        monitor.exchangeStarted();
+        monitor.exchangeFinished(TimeUnit.MILLISECONDS.toNanos(200));
+        monitor.evaluate();
+        assertTrue(monitor.saturated());
+        assertEquals(200, monitor.p99LatencyMillis());
+    }
+
+    @Test public void
+    recovers_from_a_saturated_p99_latency_without_new_exchanges_after_the_latencies_aged_out() throws InterruptedException {
+        SaturationMonitor monitor = saturationMonitor(0, 100, 0, 200);
+
+        for (int exchange = 0; exchange < 10; exchange++) {
+            monitor.exchangeStarted();
+            monitor.exchangeFinished(TimeUnit.MILLISECONDS.toNanos(500));
+        }
+        monitor.evaluate();
+        assertTrue(monitor.saturated());
+
+        // Refusing traffic, no exchanges finish anymore
+        Thread.sleep(300);
+        monitor.evaluate();
+
+        assertFalse(monitor.saturated());
+        assertEquals(0, monitor.p99LatencyMillis());
+        assertEquals(ReadinessState.REFUSING_TRAFFIC, readinessStates.get(0));
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, readinessStates.get(1));
+    }
+
+    @Test public void
+    refuses_traffic_if_the_executor_queue_depth_crosses_the_threshold() {
+        SaturationMonitor monitor = saturationMonitor(0, 0, 10);
+        monitor.monitorQueueDepth(() -> 15);
+
+        monitor.evaluate();
+
+        assertTrue(monitor.saturated());
+        assertEquals(1.5, monitor.loadFactor());
+        assertEquals(15, monitor.queueDepth());
+    }
+}
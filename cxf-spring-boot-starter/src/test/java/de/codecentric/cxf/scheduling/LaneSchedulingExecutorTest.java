@@ -0,0 +1,81 @@
+package de.codecentric.cxf.scheduling;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LaneSchedulingExecutorTest {
+
+    private final Lane interactive = new Lane("interactive", 4, 10);
+    private final Lane bulk = new Lane("bulk", 1, 0);
+
+    @Test public void
+    selects_the_lane_by_priority_header_before_size_and_takes_the_default_lane_for_everything_else() {
+        DefaultLaneSelector laneSelector = new DefaultLaneSelector("X-Priority", "bulk", 1000, Collections.emptyMap());
+        LaneSchedulingExecutor executor = new LaneSchedulingExecutor(Arrays.asList(interactive, bulk), laneSelector, null);
+
+        assertSame(bulk, executor.laneOf(message(2000, null)));
+        assertSame(interactive, executor.laneOf(message(2000, "interactive")));
+        assertSame(bulk, executor.laneOf(message(10, "bulk")));
+        assertSame(interactive, executor.laneOf(message(10, null)));
+        assertSame(interactive, executor.laneOf(message(10, "unknown")));
+        assertSame(interactive, executor.laneOf(null));
+    }
+
+    @Test public void
+    rejects_invocations_if_the_lane_is_saturated_without_affecting_the_other_lanes() throws InterruptedException {
+        CountDownLatch bulkRunning = new CountDownLatch(1);
+        CountDownLatch releaseBulk = new CountDownLatch(1);
+        try {
+            bulk.execute(() -> {
+                bulkRunning.countDown();
+                await(releaseBulk);
+            });
+            bulkRunning.await();
+
+            assertThrows(RejectedExecutionException.class, () -> bulk.execute(() -> { }));
+            assertEquals(1, bulk.getRejected());
+            assertEquals(2, bulk.getInvocations());
+
+            CountDownLatch interactiveServed = new CountDownLatch(1);
+            interactive.execute(interactiveServed::countDown);
+            interactiveServed.await();
+        } finally {
+            releaseBulk.countDown();
+            bulk.shutdown();
+            interactive.shutdown();
+        }
+    }
+
+    private static Message message(long contentLength, String priority) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/soap-api/Weather");
+        request.setContent(new byte[(int) contentLength]);
+        if (priority != null) {
+            request.addHeader("X-Priority", priority);
+        }
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setInMessage(message);
+        message.put(AbstractHTTPDestination.HTTP_REQUEST, request);
+        return message;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
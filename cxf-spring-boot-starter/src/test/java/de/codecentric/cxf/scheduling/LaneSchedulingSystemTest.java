@@ -0,0 +1,54 @@
+package de.codecentric.cxf.scheduling;
+
+import de.codecentric.cxf.TestApplication;
+import de.codecentric.namespace.weatherservice.WeatherException;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import de.codecentric.namespace.weatherservice.general.ForecastRequest;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.util.Iterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(
+        classes = TestApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "soap.scheduling.enabled=true",
+                "soap.scheduling.lanes=interactive,bulk",
+                "soap.scheduling.lane.bulk.concurrency=2",
+                "soap.scheduling.lane.bulk.operations=GetCityForecastByZIP"
+        }
+)
+public class LaneSchedulingSystemTest {
+
+    @Autowired
+    private LaneSchedulingExecutor laneSchedulingExecutor;
+
+    @LocalServerPort
+    private int port;
+
+    @Test public void
+    invokes_the_operations_in_their_lanes() throws WeatherException {
+        JaxWsProxyFactoryBean proxyFactory = new JaxWsProxyFactoryBean();
+        proxyFactory.setServiceClass(WeatherService.class);
+        proxyFactory.setAddress("http://localhost:" + port + "/soap-api/Weather");
+        WeatherService weatherServiceClient = (WeatherService) proxyFactory.create();
+        Iterator<Lane> lanes = laneSchedulingExecutor.lanes().iterator();
+        Lane interactive = lanes.next();
+        Lane bulk = lanes.next();
+        long interactiveInvocations = interactive.getInvocations();
+        long bulkInvocations = bulk.getInvocations();
+
+        weatherServiceClient.getCityForecastByZIP(new ForecastRequest());
+        assertEquals(bulkInvocations + 1, bulk.getInvocations());
+
+        weatherServiceClient.getWeatherInformation("99425");
+        assertEquals(interactiveInvocations + 1, interactive.getInvocations());
+        assertEquals(bulkInvocations + 1, bulk.getInvocations());
+    }
+}
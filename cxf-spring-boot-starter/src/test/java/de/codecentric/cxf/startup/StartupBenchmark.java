@@ -0,0 +1,195 @@
+package de.codecentric.cxf.startup;
+
+import de.codecentric.cxf.TestApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Opcodes;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Repeatable startup benchmark: boots the {@link TestApplication} in a fresh JVM several times for every classpath size
+ * and reports the median time-to-ready and the resident set size (RSS) at ready. The classpath is grown by a jar of
+ * generated classes inside the scanned SEI implementation package. Run it with
+ * <pre>
+ * mvn test -Dtest=StartupBenchmark -Dstartup.benchmark=true [-Dstartup.benchmark.classes=0,2000,10000] [-Dstartup.benchmark.runs=3]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "startup.benchmark", matches = "true")
+public class StartupBenchmark {
+
+    private static final String GENERATED_PACKAGE = "de/codecentric/startupbenchmark/";
+    private static final Pattern PID = Pattern.compile("with PID (\\d+)");
+    private static final Pattern STARTED = Pattern.compile("Started TestApplication in ([0-9.]+) seconds");
+    private static final Pattern RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+    private static final long READY_TIMEOUT_SECONDS = 180;
+    private static final long REPORT_QUIET_SECONDS = 3;
+
+    @TempDir
+    Path benchmarkDirectory;
+
+    @Test public void
+    measures_time_to_ready_and_rss_across_classpath_sizes() throws Exception {
+        List<Integer> classpathSizes = Arrays.stream(System.getProperty("startup.benchmark.classes", "0,2000,10000").split(","))
+                .map(String::trim).map(Integer::valueOf).collect(Collectors.toList());
+        int runs = Integer.getInteger("startup.benchmark.runs", 3);
+
+        StringBuilder results = new StringBuilder(String.format("%nStartup benchmark (median of %d runs)%n%15s %15s %15s %10s", runs,
+                "extra classes", "time-to-ready", "reported", "RSS"));
+        String lastStartupReport = "";
+        for (int classpathSize : classpathSizes) {
+            Path generatedClasses = generatedClassesJar(classpathSize);
+            List<Run> measuredRuns = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                measuredRuns.add(bootUntilReady(generatedClasses));
+            }
+            Run median = median(measuredRuns);
+            lastStartupReport = median.startupReport;
+            results.append(String.format("%n%15d %13dms %14.3fs %8dMB", classpathSize, median.timeToReadyMillis,
+                    median.reportedSeconds, median.rssKiloBytes / 1024));
+        }
+        System.out.println(results);
+        System.out.println(lastStartupReport);
+    }
+
+    private Path generatedClassesJar(int numberOfClasses) throws IOException {
+        Path jar = benchmarkDirectory.resolve("generated-" + numberOfClasses + ".jar");
+        try (JarOutputStream jarOutputStream = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (int index = 0; index < numberOfClasses; index++) {
+                String className = GENERATED_PACKAGE + "Generated" + index;
+                ClassWriter classWriter = new ClassWriter(0);
+                classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, className, null, "java/lang/Object", new String[] {"java/io/Serializable"});
+                classWriter.visitEnd();
+                jarOutputStream.putNextEntry(new JarEntry(className + ".class"));
+                jarOutputStream.write(classWriter.toByteArray());
+                jarOutputStream.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    private Run bootUntilReady(Path generatedClasses) throws Exception {
+        // Surefire hands the real test classpath over in this property, java.class.path may only be its booter jar
+        String testClasspath = System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+        List<String> command = Arrays.asList(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", testClasspath + File.pathSeparator + generatedClasses,
+                "-Dserver.port=0",
+                "-Dsoap.startup.report.enabled=true",
+                TestApplication.class.getName());
+        long startNanos = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        BlockingQueue<String> output = outputOf(process);
+        try {
+            Run run = new Run();
+            String pid = null;
+            StringBuilder startupReport = new StringBuilder();
+            boolean inStartupReport = false;
+            long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(READY_TIMEOUT_SECONDS);
+            while (System.nanoTime() < deadlineNanos) {
+                // After the started message, the report follows right away - if it was complete, there´s no further output
+                String line = output.poll(run.timeToReadyMillis > 0 ? REPORT_QUIET_SECONDS : 1, TimeUnit.SECONDS);
+                if (line == null) {
+                    if (run.timeToReadyMillis > 0 || !process.isAlive()) {
+                        break;
+                    }
+                    continue;
+                }
+                Matcher pidMatcher = PID.matcher(line);
+                if (pid == null && pidMatcher.find()) {
+                    pid = pidMatcher.group(1);
+                }
+                Matcher startedMatcher = STARTED.matcher(line);
+                if (startedMatcher.find()) {
+                    run.timeToReadyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    run.reportedSeconds = Double.parseDouble(startedMatcher.group(1));
+                    run.rssKiloBytes = rssKiloBytes(pid);
+                }
+                if (line.contains("Startup of the cxf-spring-boot-starter:")) {
+                    inStartupReport = true;
+                } else if (inStartupReport && !line.startsWith(" ") && !line.startsWith("Slowest steps:")) {
+                    break;
+                }
+                if (inStartupReport) {
+                    startupReport.append(String.format("%n")).append(line);
+                }
+            }
+            assertTrue(run.timeToReadyMillis > 0, "TestApplication didn´t get ready within " + READY_TIMEOUT_SECONDS + " seconds");
+            run.startupReport = startupReport.toString();
+            return run;
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static BlockingQueue<String> outputOf(Process process) {
+        BlockingQueue<String> output = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try (BufferedReader lines = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    output.add(line);
+                }
+            } catch (IOException exception) {
+                // The process was destroyed
+            }
+        }, "startup-benchmark-output");
+        reader.setDaemon(true);
+        reader.start();
+        return output;
+    }
+
+    private static long rssKiloBytes(String pid) throws IOException {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        if (pid == null || !Files.exists(status)) {
+            // Only available on Linux
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            Matcher rssMatcher = RSS.matcher(line);
+            if (rssMatcher.find()) {
+                return Long.parseLong(rssMatcher.group(1));
+            }
+        }
+        return -1;
+    }
+
+    private static Run median(List<Run> runs) {
+        List<Run> sortedRuns = new ArrayList<>(runs);
+        Collections.sort(sortedRuns, (first, second) -> Long.compare(first.timeToReadyMillis, second.timeToReadyMillis));
+        return sortedRuns.get(sortedRuns.size() / 2);
+    }
+
+    private static class Run {
+        private long timeToReadyMillis;
+        private double reportedSeconds;
+        private long rssKiloBytes;
+        private String startupReport = "";
+    }
+}
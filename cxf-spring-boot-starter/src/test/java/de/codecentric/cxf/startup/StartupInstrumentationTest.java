@@ -0,0 +1,64 @@
+package de.codecentric.cxf.startup;
+
+import de.codecentric.cxf.TestServiceEndpoint;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+
+import javax.xml.namespace.QName;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StartupInstrumentationTest {
+
+    private static final QName WEATHER_SERVICE = new QName("http://www.codecentric.de/namespace/weatherservice/", "Weather");
+
+    @AfterEach
+    public void endRecording() {
+        StartupInstrumentation.end();
+    }
+
+    @Test public void
+    records_wsdl_parsing_jaxb_context_and_publication_of_an_endpoint_as_startup_steps() {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        StartupInstrumentation.begin(applicationStartup, new StartupReport());
+        Bus bus = BusFactory.newInstance().createBus();
+        StartupInstrumentation.instrument(bus);
+        StartupInstrumentation.instrument(bus);
+        EndpointImpl endpoint = new EndpointImpl(bus, new TestServiceEndpoint(null));
+        endpoint.setServiceName(WEATHER_SERVICE);
+        endpoint.setWsdlLocation(getClass().getResource("/wsdl/Weather1.0.wsdl").toString());
+
+        try (SoapStartupStep step = StartupInstrumentation.start("soap.endpoint.publish").tag("address", "/Weather")) {
+            endpoint.publish("local://startup/Weather");
+        }
+
+        List<String> steps = applicationStartup.getBufferedTimeline().getEvents().stream()
+                .map(StartupTimeline.TimelineEvent::getStartupStep)
+                .map(startupStep -> startupStep.getName())
+                .collect(Collectors.toList());
+        assertEquals(1, steps.stream().filter("soap.wsdl.parse"::equals).count());
+        assertEquals(1, steps.stream().filter("soap.jaxb.context"::equals).count());
+        assertEquals("soap.endpoint.publish", steps.get(steps.size() - 1));
+        StartupReport startupReport = StartupInstrumentation.end();
+        assertEquals(3, startupReport.millisByStep().size());
+        assertTrue(startupReport.format().contains("{address=/Weather}"));
+        endpoint.stop();
+        bus.shutdown(true);
+    }
+
+    @Test public void
+    steps_are_no_ops_without_recording() {
+        try (SoapStartupStep step = StartupInstrumentation.start("soap.autodetection.scan").tag("package", "de.codecentric")) {
+            assertNotNull(step);
+        }
+
+        assertNull(StartupInstrumentation.end());
+    }
+}
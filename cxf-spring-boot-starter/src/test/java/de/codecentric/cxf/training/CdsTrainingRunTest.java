@@ -0,0 +1,74 @@
+package de.codecentric.cxf.training;
+
+import de.codecentric.cxf.TestServiceEndpoint;
+import de.codecentric.namespace.weatherservice.WeatherException;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import de.codecentric.namespace.weatherservice.general.ForecastRequest;
+import de.codecentric.namespace.weatherservice.general.ForecastReturn;
+import de.codecentric.namespace.weatherservice.general.WeatherInformationReturn;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import javax.xml.ws.Holder;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CdsTrainingRunTest {
+
+    private static final QName WEATHER_SERVICE = new QName("http://www.codecentric.de/namespace/weatherservice/", "Weather");
+
+    @Test public void
+    invokes_every_operation_once_in_process_against_a_copy_of_the_endpoint() {
+        RecordingServiceEndpoint implementor = new RecordingServiceEndpoint();
+        Bus bus = BusFactory.newInstance().createBus();
+        EndpointImpl endpoint = new EndpointImpl(bus, implementor);
+        endpoint.setServiceName(WEATHER_SERVICE);
+        endpoint.setWsdlLocation(CdsTrainingRunTest.class.getResource("/wsdl/Weather1.0.wsdl").toString());
+
+        int operations = new CdsTrainingRun().train(Collections.singletonList(endpoint));
+
+        assertEquals(3, operations);
+        assertTrue(implementor.invokedOperations.contains("getCityForecastByZIP"));
+        assertTrue(implementor.invokedOperations.contains("getWeatherInformation"));
+        assertFalse(endpoint.isPublished());
+        bus.shutdown(true);
+    }
+
+    @Test public void
+    default_arguments_are_empty_objects_or_the_default_of_primitives() {
+        assertNotNull(CdsTrainingRun.defaultArgument(ForecastRequest.class));
+        assertNotNull(CdsTrainingRun.defaultArgument(Holder.class));
+        assertEquals(0, CdsTrainingRun.defaultArgument(int.class));
+        assertEquals(false, CdsTrainingRun.defaultArgument(boolean.class));
+        assertNull(CdsTrainingRun.defaultArgument(String.class));
+        assertNull(CdsTrainingRun.defaultArgument(Set.class));
+    }
+
+    // CXF finds the SEI only among the directly implemented interfaces
+    private static class RecordingServiceEndpoint extends TestServiceEndpoint implements WeatherService {
+
+        private final Set<String> invokedOperations = ConcurrentHashMap.newKeySet();
+
+        private RecordingServiceEndpoint() {
+            super(null);
+        }
+
+        @Override
+        public ForecastReturn getCityForecastByZIP(ForecastRequest forecastRequest) throws WeatherException {
+            invokedOperations.add("getCityForecastByZIP");
+            return super.getCityForecastByZIP(forecastRequest);
+        }
+
+        @Override
+        public WeatherInformationReturn getWeatherInformation(String zip) throws WeatherException {
+            invokedOperations.add("getWeatherInformation");
+            return super.getWeatherInformation(zip);
+        }
+    }
+}
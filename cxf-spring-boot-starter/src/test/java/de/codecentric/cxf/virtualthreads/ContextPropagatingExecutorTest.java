@@ -0,0 +1,90 @@
+package de.codecentric.cxf.virtualthreads;
+
+import brave.propagation.ThreadLocalCurrentTraceContext;
+import de.codecentric.cxf.logging.ElasticsearchField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.slf4j.MDC;
+import org.springframework.cloud.sleuth.CurrentTraceContext;
+import org.springframework.cloud.sleuth.TraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveCurrentTraceContext;
+import org.springframework.cloud.sleuth.brave.bridge.BraveTraceContext;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextPropagatingExecutorTest {
+
+    private final ExecutorService platformThread = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void shutdown() {
+        platformThread.shutdownNow();
+        MDC.clear();
+    }
+
+    @Test public void
+    propagates_the_mdc_to_the_invocation_and_restores_the_one_of_the_thread_afterwards() throws Exception {
+        platformThread.submit(() -> MDC.put("stale", "value")).get();
+        MDC.put(ElasticsearchField.SOAP_METHOD_LOG_NAME.getName(), "GetCityForecastByZIP");
+
+        AtomicReference<Map<String, String>> invocationMdc = new AtomicReference<>();
+        run(new ContextPropagatingExecutor(platformThread, null), () -> invocationMdc.set(MDC.getCopyOfContextMap()));
+
+        assertEquals("GetCityForecastByZIP", invocationMdc.get().get(ElasticsearchField.SOAP_METHOD_LOG_NAME.getName()));
+        assertNull(invocationMdc.get().get("stale"));
+        assertEquals("value", platformThread.submit(() -> MDC.get("stale")).get());
+    }
+
+    @Test public void
+    propagates_the_trace_context_to_the_invocation() throws Exception {
+        CurrentTraceContext currentTraceContext = new BraveCurrentTraceContext(ThreadLocalCurrentTraceContext.create());
+        TraceContext traceContext = BraveTraceContext.fromBrave(brave.propagation.TraceContext.newBuilder().traceId(42).spanId(7).build());
+
+        AtomicReference<TraceContext> invocationTraceContext = new AtomicReference<>();
+        try (CurrentTraceContext.Scope scope = currentTraceContext.newScope(traceContext)) {
+            run(new ContextPropagatingExecutor(platformThread, currentTraceContext), () -> invocationTraceContext.set(currentTraceContext.context()));
+        }
+
+        assertEquals(traceContext.traceId(), invocationTraceContext.get().traceId());
+        assertEquals(traceContext.spanId(), invocationTraceContext.get().spanId());
+        assertNull(platformThread.submit(currentTraceContext::context).get());
+    }
+
+    @Test
+    @EnabledIf("de.codecentric.cxf.virtualthreads.VirtualThreads#isSupported")
+    public void
+    runs_the_invocation_on_a_virtual_thread_or_inline_if_already_on_one() throws Exception {
+        ExecutorService virtualThreads = VirtualThreads.newThreadPerTaskExecutor("test-virtual-");
+        try {
+            ContextPropagatingExecutor executor = new ContextPropagatingExecutor(virtualThreads, null);
+            AtomicReference<Thread> invocationThread = new AtomicReference<>();
+            run(executor, () -> invocationThread.set(Thread.currentThread()));
+            assertTrue(VirtualThreads.isVirtual(invocationThread.get()));
+
+            Thread virtualThread = virtualThreads.submit(() -> {
+                run(executor, () -> invocationThread.set(Thread.currentThread()));
+                return Thread.currentThread();
+            }).get();
+            assertSame(virtualThread, invocationThread.get());
+        } finally {
+            virtualThreads.shutdownNow();
+        }
+    }
+
+    private static void run(ContextPropagatingExecutor executor, Runnable invocation) throws Exception {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        executor.execute(() -> {
+            invocation.run();
+            done.complete(null);
+        });
+        done.get(5, TimeUnit.SECONDS);
+    }
+}
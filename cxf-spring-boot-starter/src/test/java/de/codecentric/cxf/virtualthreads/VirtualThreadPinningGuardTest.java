@@ -0,0 +1,39 @@
+package de.codecentric.cxf.virtualthreads;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIf("de.codecentric.cxf.virtualthreads.VirtualThreads#isSupported")
+public class VirtualThreadPinningGuardTest {
+
+    private final Object monitor = new Object();
+
+    @Test public void
+    reports_a_virtual_thread_blocking_inside_a_synchronized_block() throws Exception {
+        VirtualThreadPinningGuard guard = new VirtualThreadPinningGuard(10, 8);
+        guard.start();
+        ExecutorService virtualThreads = VirtualThreads.newThreadPerTaskExecutor("test-pinned-");
+        try {
+            virtualThreads.submit(() -> {
+                synchronized (monitor) {
+                    Thread.sleep(100);
+                }
+                return null;
+            }).get();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (guard.pinned() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(1, guard.pinned());
+        } finally {
+            virtualThreads.shutdownNow();
+            guard.stop();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package de.codecentric.cxf.warmup;
+
+import de.codecentric.cxf.TestServiceEndpoint;
+import de.codecentric.namespace.weatherservice.WeatherException;
+import de.codecentric.namespace.weatherservice.WeatherService;
+import de.codecentric.namespace.weatherservice.general.ForecastRequest;
+import de.codecentric.namespace.weatherservice.general.ForecastReturn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxws.EndpointImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+
+import javax.xml.namespace.QName;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointWarmUpTest {
+
+    private static final QName WEATHER_SERVICE = new QName("http://www.codecentric.de/namespace/weatherservice/", "Weather");
+
+    @Test public void
+    replays_the_matching_sample_requests_in_process_against_a_copy_of_the_endpoint() throws IOException {
+        CountingServiceEndpoint implementor = new CountingServiceEndpoint();
+        Bus bus = BusFactory.newInstance().createBus();
+        EndpointImpl endpoint = endpoint(bus, implementor);
+        EndpointWarmUp endpointWarmUp = new EndpointWarmUp(Arrays.asList(
+                sampleRequest("GetCityForecastByZIPTest.xml"),
+                sampleRequest("GetCityWeatherByZIP.xml"),
+                sampleRequest("xmlErrorSoapBodyTagMissingBracketTest.xml")), 5, TimeUnit.MINUTES.toMillis(1));
+
+        endpointWarmUp.warmUp(Collections.singletonList(endpoint));
+
+        assertEquals(5, implementor.forecasts.get());
+        assertEquals(10, endpointWarmUp.exchanges());
+        assertTrue(endpointWarmUp.firstRoundLatencyNanos() > 0);
+        assertTrue(endpointWarmUp.lastRoundLatencyNanos() > 0);
+        assertFalse(endpoint.isPublished());
+        bus.shutdown(true);
+    }
+
+    @Test public void
+    stops_after_the_maximum_duration() throws IOException {
+        Bus bus = BusFactory.newInstance().createBus();
+        EndpointWarmUp endpointWarmUp = new EndpointWarmUp(Collections.singletonList(sampleRequest("GetCityWeatherByZIP.xml")),
+                Integer.MAX_VALUE, 200);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        endpointWarmUp.bindTo(meterRegistry);
+
+        endpointWarmUp.warmUp(Collections.singletonList(endpoint(bus, new TestServiceEndpoint(null))));
+
+        assertTrue(meterRegistry.get("soap.warmup.duration").timeGauge().value(TimeUnit.MILLISECONDS) < TimeUnit.SECONDS.toMillis(10));
+        assertTrue(meterRegistry.get("soap.warmup.exchanges").functionCounter().count() > 0);
+        assertTrue(meterRegistry.get("soap.warmup.latency").tag("round", "last").timeGauge().value(TimeUnit.NANOSECONDS) > 0);
+        bus.shutdown(true);
+    }
+
+    @Test public void
+    payload_name_is_the_first_element_inside_the_soap_body() throws IOException {
+        assertEquals(new QName("http://www.codecentric.de/namespace/weatherservice/general", "GetCityForecastByZIP"),
+                sampleRequest("GetCityForecastByZIPTest.xml").getPayloadName());
+        assertNull(sampleRequest("xmlErrorSoapBodyTagMissingBracketTest.xml").getPayloadName());
+    }
+
+    // CXF finds the SEI only among the directly implemented interfaces
+    private static class CountingServiceEndpoint extends TestServiceEndpoint implements WeatherService {
+
+        private final AtomicInteger forecasts = new AtomicInteger();
+
+        private CountingServiceEndpoint() {
+            super(null);
+        }
+
+        @Override
+        public ForecastReturn getCityForecastByZIP(ForecastRequest forecastRequest) throws WeatherException {
+            forecasts.incrementAndGet();
+            return super.getCityForecastByZIP(forecastRequest);
+        }
+    }
+
+    private static EndpointImpl endpoint(Bus bus, Object implementor) {
+        EndpointImpl endpoint = new EndpointImpl(bus, implementor);
+        endpoint.setServiceName(WEATHER_SERVICE);
+        endpoint.setWsdlLocation(EndpointWarmUpTest.class.getResource("/wsdl/Weather1.0.wsdl").toString());
+        return endpoint;
+    }
+
+    private static SampleRequest sampleRequest(String fileName) throws IOException {
+        try (InputStream content = EndpointWarmUpTest.class.getResourceAsStream("/requests/" + fileName)) {
+            return new SampleRequest(fileName, StreamUtils.copyToByteArray(content));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package de.codecentric.cxf.watchdog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StuckExchangeWatchdogTest {
+
+    @Test public void
+    reports_exchanges_exceeding_the_threshold_once_with_a_stack_sample() throws Exception {
+        StuckExchangeWatchdog watchdog = new StuckExchangeWatchdog(4, 20, 1000, 16);
+        CountDownLatch registered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread serving = new Thread(() -> {
+            int slot = watchdog.register("GetCityForecastByZIP");
+            registered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                watchdog.deregister(slot);
+            }
+        }, "soap-serving-thread");
+        serving.start();
+        registered.await();
+
+        Thread.sleep(50);
+        watchdog.check();
+        watchdog.check();
+
+        assertEquals(1, watchdog.inFlight());
+        assertEquals(1, watchdog.stuck());
+        assertEquals(1, watchdog.stuckDetected());
+        List<StuckExchange> stuckExchanges = watchdog.stuckExchanges();
+        assertEquals(1, stuckExchanges.size());
+        assertEquals("GetCityForecastByZIP", stuckExchanges.get(0).getOperation());
+        assertEquals("soap-serving-thread", stuckExchanges.get(0).getThreadName());
+        assertTrue(stuckExchanges.get(0).getStackSample().stream().anyMatch(frame -> frame.contains("CountDownLatch.await")));
+
+        release.countDown();
+        serving.join();
+        watchdog.check();
+
+        assertEquals(0, watchdog.inFlight());
+        assertEquals(0, watchdog.stuck());
+        assertEquals(1, watchdog.stuckDetected());
+    }
+
+    @Test public void
+    counts_exchanges_as_untracked_if_all_slots_are_claimed() {
+        StuckExchangeWatchdog watchdog = new StuckExchangeWatchdog(2, 1000, 1000, 16);
+
+        int first = watchdog.register("op");
+        int second = watchdog.register("op");
+        int third = watchdog.register("op");
+
+        assertNotEquals(first, second);
+        assertEquals(StuckExchangeWatchdog.NOT_TRACKED, third);
+        assertEquals(1, watchdog.untracked());
+
+        watchdog.deregister(first);
+        watchdog.deregister(third);
+
+        assertEquals(1, watchdog.inFlight());
+        assertNotEquals(StuckExchangeWatchdog.NOT_TRACKED, watchdog.register("op"));
+    }
+
+    @Test public void
+    exports_in_flight_and_stuck_exchanges_as_micrometer_meters() {
+        StuckExchangeWatchdog watchdog = new StuckExchangeWatchdog(2, 1000, 1000, 16);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        watchdog.bindTo(meterRegistry);
+
+        watchdog.register("op");
+
+        assertEquals(1, meterRegistry.get("soap.watchdog.inflight").gauge().value());
+        assertEquals(0, meterRegistry.get("soap.watchdog.stuck").gauge().value());
+        assertEquals(0, meterRegistry.get("soap.watchdog.stuck.detected").functionCounter().count());
+    }
+}
@@ -0,0 +1,135 @@
+package de.codecentric.cxf.wsdlcache;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.wsdl.WSDLManager;
+import org.apache.cxf.wsdl11.WSDLServiceFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.FileSystemUtils;
+import org.w3c.dom.Element;
+
+import javax.wsdl.Definition;
+import javax.xml.namespace.QName;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WsdlSnapshotCacheTest {
+
+    private static final QName WEATHER_SERVICE = new QName("http://www.codecentric.de/namespace/weatherservice/", "Weather");
+
+    @TempDir
+    Path cacheDirectory;
+
+    @TempDir
+    Path contractDirectory;
+
+    @Test public void
+    loads_the_contract_of_a_later_start_from_its_snapshot() throws Exception {
+        String wsdlLocation = getClass().getResource("/wsdl/Weather1.0.wsdl").toString();
+        new WsdlSnapshotCache(cacheDirectory).remember(busWithServiceBuiltFrom(wsdlLocation), wsdlLocation);
+
+        // A fresh start - with nothing in memory
+        WsdlSnapshotCache wsdlSnapshotCache = new WsdlSnapshotCache(cacheDirectory);
+        Bus bus = BusFactory.newInstance().createBus();
+        assertTrue(wsdlSnapshotCache.reuse(bus, wsdlLocation));
+
+        WSDLManager wsdlManager = bus.getExtension(WSDLManager.class);
+        Definition definition = wsdlManager.getDefinition(wsdlLocation);
+        assertTrue(Paths.get(new URI(definition.getDocumentBaseURI())).startsWith(cacheDirectory), definition.getDocumentBaseURI());
+        new WSDLServiceFactory(bus, wsdlLocation, WEATHER_SERVICE).create();
+        assertSame(definition, wsdlManager.getDefinition(wsdlLocation), "the Endpoint is built from the snapshot");
+        assertEquals(1, wsdlSnapshotCache.hits());
+        assertEquals(0, wsdlSnapshotCache.misses());
+    }
+
+    @Test public void
+    contract_consists_of_the_wsdl_and_all_transitively_included_and_imported_schemas() throws Exception {
+        String wsdlLocation = getClass().getResource("/wsdl/Weather1.0.wsdl").toString();
+        Definition definition = busWithServiceBuiltFrom(wsdlLocation).getExtension(WSDLManager.class).getDefinition(wsdlLocation);
+
+        Set<String> documents = WsdlSnapshotCache.documentsOf(definition);
+
+        assertThat(documents, hasItems(wsdlLocation,
+                getClass().getResource("/wsdl/Weather1.0.xsd").toString(),
+                getClass().getResource("/wsdl/Weather-Schemes/weather-general.xsd").toString()));
+    }
+
+    @Test public void
+    keeps_the_relative_paths_of_the_documents_below_the_wsdl() throws Exception {
+        String wsdlLocation = getClass().getResource("/wsdl/Weather1.0.wsdl").toString();
+        Definition definition = busWithServiceBuiltFrom(wsdlLocation).getExtension(WSDLManager.class).getDefinition(wsdlLocation);
+
+        Map<String, String> snapshotPaths = WsdlSnapshotCache.snapshotPathsOf(wsdlLocation, WsdlSnapshotCache.documentsOf(definition));
+
+        assertEquals("Weather1.0.wsdl", snapshotPaths.get(wsdlLocation));
+        assertEquals("Weather-Schemes/weather-general.xsd",
+                snapshotPaths.get(getClass().getResource("/wsdl/Weather-Schemes/weather-general.xsd").toString()));
+    }
+
+    @Test public void
+    rewrites_the_references_to_documents_outside_of_the_wsdls_directory() throws Exception {
+        Path common = Files.createDirectories(contractDirectory.resolve("common")).resolve("Common.xsd");
+        Files.write(common, "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\"/>".getBytes(StandardCharsets.UTF_8));
+        Path types = Files.createDirectories(contractDirectory.resolve("service")).resolve("Types.xsd");
+        Files.write(types, ("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"
+                + "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+                + "<xs:annotation><xs:documentation>Grüße</xs:documentation></xs:annotation>"
+                + "<xs:include schemaLocation=\"../common/Common.xsd\"/></xs:schema>").getBytes(StandardCharsets.ISO_8859_1));
+        String wsdlLocation = contractDirectory.resolve("service").resolve("Service.wsdl").toUri().toURL().toString();
+        Set<String> documents = new TreeSet<>(Arrays.asList(types.toUri().toURL().toString(), common.toUri().toURL().toString()));
+
+        Map<String, String> snapshotPaths = WsdlSnapshotCache.snapshotPathsOf(wsdlLocation, documents);
+        byte[] localCopy = WsdlSnapshotCache.localCopyOf(types.toUri().toURL().toString(), snapshotPaths);
+
+        assertEquals("Types.xsd", snapshotPaths.get(types.toUri().toURL().toString()));
+        assertEquals("_external/0/Common.xsd", snapshotPaths.get(common.toUri().toURL().toString()));
+        Element schema = StaxUtils.read(new ByteArrayInputStream(localCopy)).getDocumentElement();
+        assertEquals("_external/0/Common.xsd", ((Element) schema.getElementsByTagNameNS("http://www.w3.org/2001/XMLSchema", "include")
+                .item(0)).getAttribute("schemaLocation"));
+        assertEquals("Grüße", schema.getTextContent());
+    }
+
+    @Test public void
+    parses_a_changed_contract_again_and_replaces_its_snapshot() throws Exception {
+        FileSystemUtils.copyRecursively(new File(getClass().getResource("/wsdl").toURI()), contractDirectory.toFile());
+        String wsdlLocation = contractDirectory.resolve("Weather1.0.wsdl").toUri().toURL().toString();
+        new WsdlSnapshotCache(cacheDirectory).remember(busWithServiceBuiltFrom(wsdlLocation), wsdlLocation);
+
+        Path importedSchema = Paths.get(contractDirectory.toString(), "Weather-Schemes", "weather-general.xsd");
+        Files.write(importedSchema, "<!-- changed -->".getBytes(), StandardOpenOption.APPEND);
+
+        WsdlSnapshotCache wsdlSnapshotCache = new WsdlSnapshotCache(cacheDirectory);
+        assertFalse(wsdlSnapshotCache.reuse(BusFactory.newInstance().createBus(), wsdlLocation));
+        assertEquals(0, wsdlSnapshotCache.hits());
+        assertEquals(1, wsdlSnapshotCache.misses());
+
+        wsdlSnapshotCache.remember(busWithServiceBuiltFrom(wsdlLocation), wsdlLocation);
+        assertTrue(new WsdlSnapshotCache(cacheDirectory).reuse(BusFactory.newInstance().createBus(), wsdlLocation));
+        try (Stream<Path> snapshots = Files.list(cacheDirectory)) {
+            assertEquals(1, snapshots.filter(Files::isDirectory).count(), "the snapshot of the old contract is deleted");
+        }
+    }
+
+    private static Bus busWithServiceBuiltFrom(String wsdlLocation) {
+        Bus bus = BusFactory.newInstance().createBus();
+        new WSDLServiceFactory(bus, wsdlLocation, WEATHER_SERVICE).create();
+        return bus;
+    }
+}